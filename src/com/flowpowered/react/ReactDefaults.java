@@ -93,6 +93,34 @@ public class ReactDefaults {
      * The linked phase AABB scaling factor. Default: 2
      */
     public static final float LINKED_PHASE_AABB_SCALING = 2;
+    /**
+     * Margin (in meters) added on each side of the AABBs stored in the dynamic AABB trees, the small movements of a body inside of it don't change the tree. Default: 0.1
+     */
+    public static final float AABB_TREE_FAT_MARGIN = 0.1f;
+    /**
+     * True if the narrow-phase tests the overlapping pairs on several threads. The contacts are the same as with a serial narrow-phase. Default: true
+     */
+    public static final boolean PARALLEL_NARROW_PHASE_ENABLED = true;
+    /**
+     * Number of overlapping pairs from which the narrow-phase is split between several threads. Default: 128
+     */
+    public static final int PARALLEL_NARROW_PHASE_MIN_PAIRS = 128;
+    /**
+     * Maximum number of overlapping pairs tested by one task of the parallel narrow-phase. Default: 32
+     */
+    public static final int NARROW_PHASE_PAIRS_PER_TASK = 32;
+    /**
+     * True if the islands are solved on several threads. The results are the same as when solving them one after the other. Default: true
+     */
+    public static final boolean PARALLEL_ISLAND_SOLVING_ENABLED = true;
+    /**
+     * Minimum number of contact manifolds and joints solved by one task of the parallel island solving, the small islands are grouped until they reach it. Default: 32
+     */
+    public static final int ISLAND_SOLVER_TASK_MIN_CONSTRAINTS = 32;
+    /**
+     * Number of cells on each side of a face of the cube map used by the convex mesh shapes to start the search of their support vertex. Default: 4
+     */
+    public static final int CONVEX_MESH_SUPPORT_LOOKUP_RESOLUTION = 4;
 
     /**
      * Position correction technique used in the constraint solver (for joints). Default: NON_LINEAR_GAUSS_SEIDEL
@@ -129,4 +157,22 @@ public class ReactDefaults {
          */
         SPLIT_IMPULSES
     }
+
+    /**
+     * Broad-phase algorithm used by the collision detection of a world. Default: SWEEP_AND_PRUNE
+     * <p/>
+     * SWEEP_AND_PRUNE: Sorted end points on the three axes, fast when the bodies are spread on all of them.
+     * <p/>
+     * DYNAMIC_AABB_TREE: Tree of fattened AABBs, better for large worlds with clustered bodies and supports batch insertion.
+     */
+    public enum BroadPhaseAlgorithmType {
+        /**
+         * Sorted end points on the three axes. This is the option used by default.
+         */
+        SWEEP_AND_PRUNE,
+        /**
+         * Tree of fattened AABBs, better for large worlds with clustered bodies.
+         */
+        DYNAMIC_AABB_TREE
+    }
 }
@@ -42,6 +42,7 @@ public class CollisionBody extends Body {
     protected final AABB mAabb = new AABB();
     protected boolean mHasMoved;
     protected ContactManifoldListElement mContactManifoldsList;
+    protected MotionListener mMotionListener;
 
     /**
      * Constructs a new collision body from its transform, collision shape, and ID.
@@ -56,12 +57,12 @@ public class CollisionBody extends Body {
             throw new IllegalArgumentException("collisionShape cannot be null");
         }
         mCollisionShape = collisionShape;
-        mTransform = transform;
+        mTransform = new Transform(transform);
         mHasMoved = false;
         mIsMotionEnabled = true;
         mIsCollisionEnabled = true;
         mInterpolationFactor = 0;
-        mOldTransform = transform;
+        mOldTransform = mTransform;
         mCollisionShape.updateAABB(mAabb, transform);
         mContactManifoldsList = null;
     }
@@ -108,7 +109,7 @@ public class CollisionBody extends Body {
      * @return A transform interpolated from the old to the current transform based on the interpolation factor
      */
     public Transform getInterpolatedTransform() {
-        return Transform.interpolateTransforms(mOldTransform, mTransform, mInterpolationFactor);
+        return Transform.interpolateTransforms(mOldTransform, getTransform(), mInterpolationFactor);
     }
 
     /**
@@ -129,16 +130,30 @@ public class CollisionBody extends Body {
         return mTransform;
     }
 
+    /**
+     * Copies this body's current position and orientation to the destination transform. Unlike {@link #getTransform()}, it can be called for the same body on several threads at once.
+     *
+     * @param dest The transform in which to store the body's transform
+     * @return The destination transform
+     */
+    public Transform getTransform(Transform dest) {
+        return dest.set(getTransform());
+    }
+
     /**
      * Sets this body's current position and orientation as a transform.
      *
      * @param transform The transform to set for this body
      */
     public void setTransform(Transform transform) {
-        if (!mTransform.equals(transform)) {
+        final boolean hasMoved = !mTransform.equals(transform);
+        if (hasMoved) {
             mHasMoved = true;
         }
         mTransform.set(transform);
+        if (hasMoved && !mIsMotionEnabled && mMotionListener != null) {
+            mMotionListener.onStaticBodyMoved(this);
+        }
     }
 
     /**
@@ -165,7 +180,23 @@ public class CollisionBody extends Body {
      * @param isMotionEnabled True if the body should move, false if not
      */
     public void enableMotion(boolean isMotionEnabled) {
+        if (mIsMotionEnabled == isMotionEnabled) {
+            return;
+        }
         mIsMotionEnabled = isMotionEnabled;
+        if (mMotionListener != null) {
+            mMotionListener.onMotionEnabledChanged(this);
+        }
+    }
+
+    /**
+     * Sets the listener notified when the motion of this body is enabled or disabled, or when this body is moved while it can't move. The world containing the body uses it to keep track of
+     * the bodies that can move.
+     *
+     * @param motionListener The listener, or null for none
+     */
+    public void setMotionListener(MotionListener motionListener) {
+        mMotionListener = motionListener;
     }
 
     /**
@@ -226,4 +257,23 @@ public class CollisionBody extends Body {
     public void resetContactManifoldsList() {
         mContactManifoldsList = null;
     }
+
+    /**
+     * Listens to the changes of the motion state of a body.
+     */
+    public interface MotionListener {
+        /**
+         * Called after the motion of the body was enabled or disabled.
+         *
+         * @param body The body which motion state changed
+         */
+        void onMotionEnabledChanged(CollisionBody body);
+
+        /**
+         * Called after the transform of a body that can't move was set.
+         *
+         * @param body The body which was moved
+         */
+        void onStaticBodyMoved(CollisionBody body);
+    }
 }
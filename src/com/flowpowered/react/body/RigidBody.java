@@ -33,21 +33,20 @@ import com.flowpowered.react.math.*;
 
 /**
  * Represents a rigid body for the physics engine. A rigid body is a non-deformable body that has a constant mass. This class inherits from the CollisionBody class.
+ * <p>
+ * The state of the body is kept in a {@link RigidBodyStore}, its own until it is added to a world. The transform, velocities, forces and AABB returned by the body are copies of the values of the
+ * store, refreshed when they are returned, so they must be set through the setters of the body.
  */
 public class RigidBody extends CollisionBody {
     private static final Material DEFAULT_MATERIAL = Material.asUnmodifiableMaterial(new Material());
     private Material mMaterial = DEFAULT_MATERIAL;
-    private boolean mIsGravityEnabled;
-    private float mMass;
-    private float mMassInverse;
+    private RigidBodyStore mStore;
+    private int mSlot;
     private final Matrix3x3 mInertiaTensorLocal = new Matrix3x3();
-    private final Matrix3x3 mInertiaTensorLocalInverse;
     private final Vector3 mExternalForce = new Vector3();
     private final Vector3 mExternalTorque = new Vector3();
     private final Vector3 mLinearVelocity = new Vector3();
     private final Vector3 mAngularVelocity = new Vector3();
-    private float mLinearDamping;
-    private float mAngularDamping;
     private JointListElement mJointsList;
 
     /**
@@ -61,23 +60,50 @@ public class RigidBody extends CollisionBody {
      */
     public RigidBody(Transform transform, float mass, Matrix3x3 inertiaTensorLocal, CollisionShape collisionShape, int id) {
         super(transform, collisionShape, id);
+        mStore = new RigidBodyStore(1);
+        mSlot = mStore.addSlot(this, mIsMotionEnabled);
+        mStore.setTransform(mSlot, transform);
+        mStore.setShape(mSlot, collisionShape);
+        mStore.updateAABBs(mSlot, mSlot + 1);
         mInertiaTensorLocal.set(inertiaTensorLocal);
-        mMass = mass;
-        mInertiaTensorLocalInverse = inertiaTensorLocal.getInverse();
-        mMassInverse = 1 / mass;
-        mIsGravityEnabled = true;
-        mLinearDamping = 0;
-        mAngularDamping = 0;
+        mStore.set(mSlot, RigidBodyStore.MASS, mass);
+        mStore.setInertiaTensorLocalInverse(mSlot, inertiaTensorLocal.getInverse());
+        mStore.set(mSlot, RigidBodyStore.INVERSE_MASS, 1 / mass);
+        mStore.set(mSlot, RigidBodyStore.GRAVITY_SCALE, 1);
         mJointsList = null;
     }
 
+    /**
+     * Returns the store which holds the state of this body.
+     *
+     * @return The store
+     */
+    public RigidBodyStore getStore() {
+        return mStore;
+    }
+
+    /**
+     * Returns the slot of this body in its store, it changes when bodies are added to or removed from the store.
+     *
+     * @return The slot
+     */
+    public int getStoreSlot() {
+        return mSlot;
+    }
+
+    // Called by the store when the body is moved to another slot.
+    void setStore(RigidBodyStore store, int slot) {
+        mStore = store;
+        mSlot = slot;
+    }
+
     /**
      * Returns true if the gravity needs to be applied to this rigid body.
      *
      * @return Whether or not gravity should be applied to the body
      */
     public boolean isGravityEnabled() {
-        return mIsGravityEnabled;
+        return mStore.get(mSlot, RigidBodyStore.GRAVITY_SCALE) != 0;
     }
 
     /**
@@ -86,7 +112,7 @@ public class RigidBody extends CollisionBody {
      * @param isEnabled The new gravity state
      */
     public void enableGravity(boolean isEnabled) {
-        mIsGravityEnabled = isEnabled;
+        mStore.set(mSlot, RigidBodyStore.GRAVITY_SCALE, isEnabled ? 1 : 0);
     }
 
     /**
@@ -95,7 +121,7 @@ public class RigidBody extends CollisionBody {
      * @return The body's mass
      */
     public float getMass() {
-        return mMass;
+        return mStore.get(mSlot, RigidBodyStore.MASS);
     }
 
     /**
@@ -104,7 +130,7 @@ public class RigidBody extends CollisionBody {
      * @param mass The mass to set
      */
     public void setMass(float mass) {
-        mMass = mass;
+        mStore.set(mSlot, RigidBodyStore.MASS, mass);
     }
 
     /**
@@ -113,7 +139,7 @@ public class RigidBody extends CollisionBody {
      * @return The inverse of the mass
      */
     public float getMassInverse() {
-        return mMassInverse;
+        return mStore.get(mSlot, RigidBodyStore.INVERSE_MASS);
     }
 
     /**
@@ -122,20 +148,20 @@ public class RigidBody extends CollisionBody {
      * @param massInverse The inverse of the mass
      */
     public void setMassInverse(float massInverse) {
-        mMassInverse = massInverse;
+        mStore.set(mSlot, RigidBodyStore.INVERSE_MASS, massInverse);
     }
 
     /**
      * Gets the linear velocity of the body.
      *
-     * @return The linear velocity
+     * @return A copy of the linear velocity, refreshed on each call
      */
     public Vector3 getLinearVelocity() {
-        return mLinearVelocity;
+        return mStore.getVector(mSlot, RigidBodyStore.LINEAR_VELOCITY_X, mLinearVelocity);
     }
 
     /**
-     * Set the linear velocity for this body, but only if it can move.
+     * Set the linear velocity for this body, but only if it can move. A sleeping body is woken up by a velocity other than zero.
      *
      * @param linearVelocity The linear velocity to set
      * @see #isMotionEnabled()
@@ -143,26 +169,32 @@ public class RigidBody extends CollisionBody {
      */
     public void setLinearVelocity(Vector3 linearVelocity) {
         if (mIsMotionEnabled) {
-            mLinearVelocity.set(linearVelocity);
+            mStore.setVector(mSlot, RigidBodyStore.LINEAR_VELOCITY_X, linearVelocity);
+            if (mIsSleeping && !linearVelocity.isZero()) {
+                setIsSleeping(false);
+            }
         }
     }
 
     /**
      * Gets the angular velocity of the body.
      *
-     * @return The angular velocity
+     * @return A copy of the angular velocity, refreshed on each call
      */
     public Vector3 getAngularVelocity() {
-        return mAngularVelocity;
+        return mStore.getVector(mSlot, RigidBodyStore.ANGULAR_VELOCITY_X, mAngularVelocity);
     }
 
     /**
-     * Sets the angular velocity of the body.
+     * Sets the angular velocity of the body. A sleeping body that can move is woken up by a velocity other than zero.
      *
      * @param angularVelocity The angular velocity to set
      */
     public void setAngularVelocity(Vector3 angularVelocity) {
-        mAngularVelocity.set(angularVelocity);
+        mStore.setVector(mSlot, RigidBodyStore.ANGULAR_VELOCITY_X, angularVelocity);
+        if (mIsSleeping && mIsMotionEnabled && !angularVelocity.isZero()) {
+            setIsSleeping(false);
+        }
     }
 
     /**
@@ -190,7 +222,8 @@ public class RigidBody extends CollisionBody {
      * @return The world inertia tensor
      */
     public Matrix3x3 getInertiaTensorWorld() {
-        return Matrix3x3.multiply(Matrix3x3.multiply(mTransform.getOrientation().getMatrix(), mInertiaTensorLocal), mTransform.getOrientation().getMatrix().getTranspose());
+        final Quaternion orientation = getTransform().getOrientation();
+        return Matrix3x3.multiply(Matrix3x3.multiply(orientation.getMatrix(), mInertiaTensorLocal), orientation.getMatrix().getTranspose());
     }
 
     /**
@@ -200,7 +233,17 @@ public class RigidBody extends CollisionBody {
      * @return The world inverse inertia tensor
      */
     public Matrix3x3 getInertiaTensorInverseWorld() {
-        return Matrix3x3.multiply(Matrix3x3.multiply(mTransform.getOrientation().getMatrix(), mInertiaTensorLocalInverse), mTransform.getOrientation().getMatrix().getTranspose());
+        return getInertiaTensorInverseWorld(new Matrix3x3());
+    }
+
+    /**
+     * Stores the inverse of the inertia tensor in world coordinates in the destination matrix. Gives the same result as {@link #getInertiaTensorInverseWorld()} but does not create any matrix.
+     *
+     * @param dest The matrix in which to store the world inverse inertia tensor
+     * @return The destination matrix
+     */
+    public Matrix3x3 getInertiaTensorInverseWorld(Matrix3x3 dest) {
+        return mStore.getInertiaTensorInverseWorld(mSlot, dest);
     }
 
     /**
@@ -227,7 +270,7 @@ public class RigidBody extends CollisionBody {
      * @return The linear damping
      */
     public float getLinearDamping() {
-        return mLinearDamping;
+        return mStore.get(mSlot, RigidBodyStore.LINEAR_DAMPING);
     }
 
     /**
@@ -239,7 +282,7 @@ public class RigidBody extends CollisionBody {
         if (linearDamping < 0) {
             throw new IllegalArgumentException("Linear damping must be greater or equal to 0");
         }
-        mLinearDamping = linearDamping;
+        mStore.set(mSlot, RigidBodyStore.LINEAR_DAMPING, linearDamping);
     }
 
     /**
@@ -248,7 +291,7 @@ public class RigidBody extends CollisionBody {
      * @return The angular damping
      */
     public float getAngularDamping() {
-        return mAngularDamping;
+        return mStore.get(mSlot, RigidBodyStore.ANGULAR_DAMPING);
     }
 
     /**
@@ -260,7 +303,7 @@ public class RigidBody extends CollisionBody {
         if (angularDamping < 0) {
             throw new IllegalArgumentException("Angular damping must be greater or equal to 0");
         }
-        mAngularDamping = angularDamping;
+        mStore.set(mSlot, RigidBodyStore.ANGULAR_DAMPING, angularDamping);
     }
 
     /**
@@ -309,13 +352,81 @@ public class RigidBody extends CollisionBody {
         }
     }
 
+    @Override
+    public boolean getHasMoved() {
+        return mStore.hasMoved(mSlot);
+    }
+
+    @Override
+    public void setHasMoved(boolean hasMoved) {
+        mStore.setHasMoved(mSlot, hasMoved);
+    }
+
+    @Override
+    public void setCollisionShape(CollisionShape collisionShape) {
+        super.setCollisionShape(collisionShape);
+        mStore.setShape(mSlot, collisionShape);
+    }
+
+    /**
+     * Gets this body's current position and orientation as a transform.
+     *
+     * @return A copy of the body's transform, refreshed on each call
+     */
+    @Override
+    public Transform getTransform() {
+        return mStore.getTransform(mSlot, mTransform);
+    }
+
+    @Override
+    public Transform getTransform(Transform dest) {
+        return mStore.getTransform(mSlot, dest);
+    }
+
+    @Override
+    public void setTransform(Transform transform) {
+        if (mStore.setTransform(mSlot, transform)) {
+            mStore.setHasMoved(mSlot, true);
+            if (!mIsMotionEnabled && mMotionListener != null) {
+                mMotionListener.onStaticBodyMoved(this);
+            }
+        }
+    }
+
+    /**
+     * Gets this body's axis-aligned bounding box (AABB).
+     *
+     * @return A copy of the body's AABB, refreshed on each call
+     */
+    @Override
+    public AABB getAABB() {
+        mStore.getAABB(mSlot, mAabb);
+        return mAabb;
+    }
+
+    @Override
+    public void updateAABB() {
+        if (mStore.hasMoved(mSlot)) {
+            mStore.updateAABBs(mSlot, mSlot + 1);
+        }
+    }
+
+    @Override
+    public void enableMotion(boolean isMotionEnabled) {
+        // the store must have moved the body before the world is notified
+        if (mIsMotionEnabled != isMotionEnabled) {
+            mStore.setMotionEnabled(this, isMotionEnabled);
+        }
+        super.enableMotion(isMotionEnabled);
+    }
+
     @Override
     public void setIsSleeping(boolean isSleeping) {
         if (isSleeping) {
-            mLinearVelocity.setToZero();
-            mAngularVelocity.setToZero();
-            mExternalForce.setToZero();
-            mExternalTorque.setToZero();
+            mStore.setVectorToZero(mSlot, RigidBodyStore.LINEAR_VELOCITY_X);
+            mStore.setVectorToZero(mSlot, RigidBodyStore.ANGULAR_VELOCITY_X);
+            mStore.setVectorToZero(mSlot, RigidBodyStore.FORCE_X);
+            mStore.setVectorToZero(mSlot, RigidBodyStore.TORQUE_X);
         }
         super.setIsSleeping(isSleeping);
     }
@@ -333,7 +444,7 @@ public class RigidBody extends CollisionBody {
         if (mIsSleeping) {
             setIsSleeping(false);
         }
-        mExternalForce.add(force);
+        mStore.addVector(mSlot, RigidBodyStore.FORCE_X, force);
     }
 
     /**
@@ -351,8 +462,8 @@ public class RigidBody extends CollisionBody {
         if (mIsSleeping) {
             setIsSleeping(false);
         }
-        mExternalForce.add(force);
-        mExternalTorque.add(Vector3.subtract(point, mTransform.getPosition()).cross(force));
+        mStore.addVector(mSlot, RigidBodyStore.FORCE_X, force);
+        mStore.addVector(mSlot, RigidBodyStore.TORQUE_X, Vector3.subtract(point, getTransform().getPosition()).cross(force));
     }
 
     /**
@@ -374,24 +485,24 @@ public class RigidBody extends CollisionBody {
         }
 
         // Add the torque
-        mExternalTorque.add(torque);
+        mStore.addVector(mSlot, RigidBodyStore.TORQUE_X, torque);
     }
 
     /**
      * Returns the total external force.
      *
-     * @return The external force
+     * @return A copy of the external force, refreshed on each call
      */
     public Vector3 getExternalForce() {
-        return mExternalForce;
+        return mStore.getVector(mSlot, RigidBodyStore.FORCE_X, mExternalForce);
     }
 
     /**
      * Returns the total external torque.
      *
-     * @return The external torque
+     * @return A copy of the external torque, refreshed on each call
      */
     public Vector3 getExternalTorque() {
-        return mExternalTorque;
+        return mStore.getVector(mSlot, RigidBodyStore.TORQUE_X, mExternalTorque);
     }
 }
@@ -0,0 +1,504 @@
+/*
+ * This file is part of React, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2013 Flow Powered <https://flowpowered.com/>
+ * Original ReactPhysics3D C++ library by Daniel Chappuis <http://danielchappuis.ch>
+ * React is re-licensed with permission from ReactPhysics3D author.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.flowpowered.react.body;
+
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.math.*;
+
+import java.util.*;
+
+/**
+ * Stores the state of rigid bodies as a structure of arrays. Each body has a slot and each value of its state a column, a float array with one value per slot, so the integration and the AABB
+ * updates of a world are loops over contiguous floats which the JIT compiler can vectorize. The bodies that can move have the first slots, the loops over them cover a single range.
+ * <p>
+ * The store is the storage of the state of its bodies: the transform, velocities, forces and AABB returned by a {@link RigidBody} are copies refreshed from the store when they are returned. A body
+ * which is not in a world has a store of its own, it is moved to the store of a world when added to it.
+ */
+public class RigidBodyStore {
+    /**
+     * Columns of the position.
+     */
+    public static final int POSITION_X = 0, POSITION_Y = 1, POSITION_Z = 2;
+    /**
+     * Columns of the orientation quaternion.
+     */
+    public static final int ORIENTATION_X = 3, ORIENTATION_Y = 4, ORIENTATION_Z = 5, ORIENTATION_W = 6;
+    /**
+     * Columns of the linear velocity.
+     */
+    public static final int LINEAR_VELOCITY_X = 7, LINEAR_VELOCITY_Y = 8, LINEAR_VELOCITY_Z = 9;
+    /**
+     * Columns of the angular velocity.
+     */
+    public static final int ANGULAR_VELOCITY_X = 10, ANGULAR_VELOCITY_Y = 11, ANGULAR_VELOCITY_Z = 12;
+    /**
+     * Columns of the sum of the external forces.
+     */
+    public static final int FORCE_X = 13, FORCE_Y = 14, FORCE_Z = 15;
+    /**
+     * Columns of the sum of the external torques.
+     */
+    public static final int TORQUE_X = 16, TORQUE_Y = 17, TORQUE_Z = 18;
+    /**
+     * Columns of the mass and of its inverse.
+     */
+    public static final int MASS = 19, INVERSE_MASS = 20;
+    /**
+     * Columns of the local inverse inertia tensor, by row.
+     */
+    public static final int INVERSE_INERTIA_00 = 21, INVERSE_INERTIA_01 = 22, INVERSE_INERTIA_02 = 23,
+            INVERSE_INERTIA_10 = 24, INVERSE_INERTIA_11 = 25, INVERSE_INERTIA_12 = 26,
+            INVERSE_INERTIA_20 = 27, INVERSE_INERTIA_21 = 28, INVERSE_INERTIA_22 = 29;
+    /**
+     * Columns of the linear and angular damping factors.
+     */
+    public static final int LINEAR_DAMPING = 30, ANGULAR_DAMPING = 31;
+    /**
+     * Column of the gravity scale: 1 if the gravity is applied to the body, 0 if not.
+     */
+    public static final int GRAVITY_SCALE = 32;
+    /**
+     * Columns of the AABB.
+     */
+    public static final int AABB_MIN_X = 33, AABB_MIN_Y = 34, AABB_MIN_Z = 35, AABB_MAX_X = 36, AABB_MAX_Y = 37, AABB_MAX_Z = 38;
+    /**
+     * Columns of the local bounds of the collision shape.
+     */
+    public static final int LOCAL_MIN_X = 39, LOCAL_MIN_Y = 40, LOCAL_MIN_Z = 41, LOCAL_MAX_X = 42, LOCAL_MAX_Y = 43, LOCAL_MAX_Z = 44;
+    /**
+     * Column of the weight of the orientation in the AABB: 1 if the local bounds are rotated with the body, 0 if the shape has the same AABB for any orientation.
+     */
+    public static final int AABB_ROTATION_WEIGHT = 45;
+    /**
+     * Columns of a linear and an angular velocity used by the world during a step, their values are not kept from one step to the next.
+     */
+    public static final int STEP_LINEAR_X = 46, STEP_LINEAR_Y = 47, STEP_LINEAR_Z = 48, STEP_ANGULAR_X = 49, STEP_ANGULAR_Y = 50, STEP_ANGULAR_Z = 51;
+    /**
+     * Column set by the world during a step: 1 for the bodies that are integrated, 0 for the others.
+     */
+    public static final int STEP_INTEGRATED = 52;
+    private static final int NB_COLUMNS = 53;
+    private static final int DEFAULT_CAPACITY = 16;
+    private final float[][] mColumns = new float[NB_COLUMNS][];
+    private boolean[] mHasMoved;
+    private RigidBody[] mBodies;
+    private int mNbBodies = 0;
+    private int mNbDynamicBodies = 0;
+
+    /**
+     * Constructs a new empty store.
+     */
+    public RigidBodyStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // The store of a single body is created with a capacity of 1.
+    RigidBodyStore(int capacity) {
+        for (int c = 0; c < NB_COLUMNS; c++) {
+            mColumns[c] = new float[capacity];
+        }
+        mHasMoved = new boolean[capacity];
+        mBodies = new RigidBody[capacity];
+    }
+
+    /**
+     * Returns the number of bodies in the store.
+     *
+     * @return The number of bodies
+     */
+    public int getNbBodies() {
+        return mNbBodies;
+    }
+
+    /**
+     * Returns the number of bodies that can move, they have the slots from 0 to this number excluded.
+     *
+     * @return The number of bodies that can move
+     */
+    public int getNbDynamicBodies() {
+        return mNbDynamicBodies;
+    }
+
+    /**
+     * Returns the body of the slot.
+     *
+     * @param slot The slot
+     * @return The body
+     */
+    public RigidBody getBody(int slot) {
+        return mBodies[slot];
+    }
+
+    /**
+     * Returns the column of values, with one value per slot. The array is replaced by a larger one when the store grows, it must not be kept while bodies are added.
+     *
+     * @param column The column, one of the constants of this class
+     * @return The values of the column
+     */
+    public float[] getColumn(int column) {
+        return mColumns[column];
+    }
+
+    /**
+     * Returns the flags telling if the bodies have moved during the last step, with one flag per slot. The array is replaced by a larger one when the store grows.
+     *
+     * @return The flags of the bodies
+     */
+    public boolean[] getHasMovedColumn() {
+        return mHasMoved;
+    }
+
+    /**
+     * Moves the body and its state to this store. The bodies that can move are given the first slots, which can move another body of the store to another slot.
+     *
+     * @param body The body to add
+     */
+    public void add(RigidBody body) {
+        final RigidBodyStore store = body.getStore();
+        if (store == this) {
+            return;
+        }
+        final int slot = addSlot(body, body.isMotionEnabled());
+        copySlot(store, body.getStoreSlot(), slot);
+        store.removeSlot(body.getStoreSlot());
+        body.setStore(this, slot);
+    }
+
+    /**
+     * Moves the body and its state out of this store, to a store of its own. The last body of the store which can move, and the last one which can't, can be moved to another slot.
+     *
+     * @param body The body to remove
+     */
+    public void remove(RigidBody body) {
+        if (body.getStore() != this) {
+            throw new IllegalArgumentException("The body is not in this store");
+        }
+        final RigidBodyStore store = new RigidBodyStore(1);
+        final int slot = store.addSlot(body, body.isMotionEnabled());
+        store.copySlot(this, body.getStoreSlot(), slot);
+        removeSlot(body.getStoreSlot());
+        body.setStore(store, slot);
+    }
+
+    // Moves the body to the slots of the bodies that can move, or out of them.
+    void setMotionEnabled(RigidBody body, boolean isMotionEnabled) {
+        final int slot = body.getStoreSlot();
+        if (isMotionEnabled && slot >= mNbDynamicBodies) {
+            swapSlots(slot, mNbDynamicBodies);
+            mNbDynamicBodies++;
+        } else if (!isMotionEnabled && slot < mNbDynamicBodies) {
+            mNbDynamicBodies--;
+            swapSlots(slot, mNbDynamicBodies);
+        }
+    }
+
+    // Returns a new slot for the body, the body that can't move in the first slot after the bodies that can move goes to the end to make room for one that can.
+    int addSlot(RigidBody body, boolean isMotionEnabled) {
+        if (mNbBodies == mBodies.length) {
+            grow(mNbBodies * 2);
+        }
+        int slot = mNbBodies++;
+        if (isMotionEnabled) {
+            if (mNbDynamicBodies != slot) {
+                moveSlot(mNbDynamicBodies, slot);
+                slot = mNbDynamicBodies;
+            }
+            mNbDynamicBodies++;
+        }
+        mBodies[slot] = body;
+        mHasMoved[slot] = false;
+        return slot;
+    }
+
+    // Frees the slot, the last slots of the bodies that can move and of the ones that can't fill the holes.
+    private void removeSlot(int slot) {
+        if (slot < mNbDynamicBodies) {
+            mNbDynamicBodies--;
+            moveSlot(mNbDynamicBodies, slot);
+            slot = mNbDynamicBodies;
+        }
+        mNbBodies--;
+        moveSlot(mNbBodies, slot);
+        mBodies[mNbBodies] = null;
+    }
+
+    // Moves the body of a slot and its state to another slot, the previous content of the destination is lost.
+    private void moveSlot(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        copySlot(this, from, to);
+        mBodies[to] = mBodies[from];
+        mBodies[to].setStore(this, to);
+    }
+
+    private void swapSlots(int slot1, int slot2) {
+        if (slot1 == slot2) {
+            return;
+        }
+        for (float[] column : mColumns) {
+            final float value = column[slot1];
+            column[slot1] = column[slot2];
+            column[slot2] = value;
+        }
+        final boolean hasMoved = mHasMoved[slot1];
+        mHasMoved[slot1] = mHasMoved[slot2];
+        mHasMoved[slot2] = hasMoved;
+        final RigidBody body = mBodies[slot1];
+        mBodies[slot1] = mBodies[slot2];
+        mBodies[slot2] = body;
+        mBodies[slot1].setStore(this, slot1);
+        mBodies[slot2].setStore(this, slot2);
+    }
+
+    private void copySlot(RigidBodyStore store, int from, int to) {
+        for (int c = 0; c < NB_COLUMNS; c++) {
+            mColumns[c][to] = store.mColumns[c][from];
+        }
+        mHasMoved[to] = store.mHasMoved[from];
+    }
+
+    private void grow(int capacity) {
+        for (int c = 0; c < NB_COLUMNS; c++) {
+            mColumns[c] = Arrays.copyOf(mColumns[c], capacity);
+        }
+        mHasMoved = Arrays.copyOf(mHasMoved, capacity);
+        mBodies = Arrays.copyOf(mBodies, capacity);
+    }
+
+    /**
+     * Computes the AABBs of the bodies of a range of slots from their position, their orientation and the local bounds of their shape, like {@link CollisionShape#updateAABB(AABB, Transform)}.
+     *
+     * @param start The first slot
+     * @param end The slot after the last one
+     */
+    public void updateAABBs(int start, int end) {
+        final float[] px = mColumns[POSITION_X];
+        final float[] py = mColumns[POSITION_Y];
+        final float[] pz = mColumns[POSITION_Z];
+        final float[] qx = mColumns[ORIENTATION_X];
+        final float[] qy = mColumns[ORIENTATION_Y];
+        final float[] qz = mColumns[ORIENTATION_Z];
+        final float[] qw = mColumns[ORIENTATION_W];
+        final float[] localMinX = mColumns[LOCAL_MIN_X];
+        final float[] localMinY = mColumns[LOCAL_MIN_Y];
+        final float[] localMinZ = mColumns[LOCAL_MIN_Z];
+        final float[] localMaxX = mColumns[LOCAL_MAX_X];
+        final float[] localMaxY = mColumns[LOCAL_MAX_Y];
+        final float[] localMaxZ = mColumns[LOCAL_MAX_Z];
+        final float[] rotationWeight = mColumns[AABB_ROTATION_WEIGHT];
+        final float[] minX = mColumns[AABB_MIN_X];
+        final float[] minY = mColumns[AABB_MIN_Y];
+        final float[] minZ = mColumns[AABB_MIN_Z];
+        final float[] maxX = mColumns[AABB_MAX_X];
+        final float[] maxY = mColumns[AABB_MAX_Y];
+        final float[] maxZ = mColumns[AABB_MAX_Z];
+        for (int i = start; i < end; i++) {
+            final float x = qx[i];
+            final float y = qy[i];
+            final float z = qz[i];
+            final float w = qw[i];
+            // absolute values of the rotation matrix, computed like Quaternion.getMatrix
+            final float nQ = x * x + y * y + z * z + w * w;
+            final float s = nQ > 0.0 ? 2 / nQ : 0;
+            final float xs = x * s;
+            final float ys = y * s;
+            final float zs = z * s;
+            final float wxs = w * xs;
+            final float wys = w * ys;
+            final float wzs = w * zs;
+            final float xxs = x * xs;
+            final float xys = x * ys;
+            final float xzs = x * zs;
+            final float yys = y * ys;
+            final float yzs = y * zs;
+            final float zzs = z * zs;
+            // the identity for the shapes which AABB doesn't turn, the weights are 0 or 1 so the products are exact
+            final float weight = rotationWeight[i];
+            final float identity = 1 - weight;
+            final float a00 = Math.abs(1 - yys - zzs) * weight + identity;
+            final float a01 = Math.abs(xys - wzs) * weight;
+            final float a02 = Math.abs(xzs + wys) * weight;
+            final float a10 = Math.abs(xys + wzs) * weight;
+            final float a11 = Math.abs(1 - xxs - zzs) * weight + identity;
+            final float a12 = Math.abs(yzs - wxs) * weight;
+            final float a20 = Math.abs(xzs - wys) * weight;
+            final float a21 = Math.abs(yzs + wxs) * weight;
+            final float a22 = Math.abs(1 - xxs - yys) * weight + identity;
+            minX[i] = px[i] + (a00 * localMinX[i] + a10 * localMinY[i] + a20 * localMinZ[i]);
+            minY[i] = py[i] + (a01 * localMinX[i] + a11 * localMinY[i] + a21 * localMinZ[i]);
+            minZ[i] = pz[i] + (a02 * localMinX[i] + a12 * localMinY[i] + a22 * localMinZ[i]);
+            maxX[i] = px[i] + (a00 * localMaxX[i] + a10 * localMaxY[i] + a20 * localMaxZ[i]);
+            maxY[i] = py[i] + (a01 * localMaxX[i] + a11 * localMaxY[i] + a21 * localMaxZ[i]);
+            maxZ[i] = pz[i] + (a02 * localMaxX[i] + a12 * localMaxY[i] + a22 * localMaxZ[i]);
+        }
+    }
+
+    // Copies the columns of the slot starting at the first column to the vector.
+    Vector3 getVector(int slot, int firstColumn, Vector3 dest) {
+        dest.setAllValues(mColumns[firstColumn][slot], mColumns[firstColumn + 1][slot], mColumns[firstColumn + 2][slot]);
+        return dest;
+    }
+
+    // Copies the vector to the columns of the slot starting at the first column.
+    void setVector(int slot, int firstColumn, Vector3 vector) {
+        mColumns[firstColumn][slot] = vector.getX();
+        mColumns[firstColumn + 1][slot] = vector.getY();
+        mColumns[firstColumn + 2][slot] = vector.getZ();
+    }
+
+    // Adds the vector to the columns of the slot starting at the first column.
+    void addVector(int slot, int firstColumn, Vector3 vector) {
+        mColumns[firstColumn][slot] += vector.getX();
+        mColumns[firstColumn + 1][slot] += vector.getY();
+        mColumns[firstColumn + 2][slot] += vector.getZ();
+    }
+
+    // Sets the columns of the slot starting at the first column to zero.
+    void setVectorToZero(int slot, int firstColumn) {
+        mColumns[firstColumn][slot] = 0;
+        mColumns[firstColumn + 1][slot] = 0;
+        mColumns[firstColumn + 2][slot] = 0;
+    }
+
+    float get(int slot, int column) {
+        return mColumns[column][slot];
+    }
+
+    void set(int slot, int column, float value) {
+        mColumns[column][slot] = value;
+    }
+
+    boolean hasMoved(int slot) {
+        return mHasMoved[slot];
+    }
+
+    void setHasMoved(int slot, boolean hasMoved) {
+        mHasMoved[slot] = hasMoved;
+    }
+
+    Transform getTransform(int slot, Transform dest) {
+        getVector(slot, POSITION_X, dest.getPosition());
+        dest.getOrientation().setAllValues(mColumns[ORIENTATION_X][slot], mColumns[ORIENTATION_Y][slot], mColumns[ORIENTATION_Z][slot], mColumns[ORIENTATION_W][slot]);
+        return dest;
+    }
+
+    // Copies the transform to the slot, returns false if it is equal to the one of the slot, compared like Transform.equals.
+    boolean setTransform(int slot, Transform transform) {
+        final Vector3 position = transform.getPosition();
+        final Quaternion orientation = transform.getOrientation();
+        final boolean isEqual = equalBits(slot, POSITION_X, position.getX()) && equalBits(slot, POSITION_Y, position.getY()) && equalBits(slot, POSITION_Z, position.getZ())
+                && equalBits(slot, ORIENTATION_X, orientation.getX()) && equalBits(slot, ORIENTATION_Y, orientation.getY())
+                && equalBits(slot, ORIENTATION_Z, orientation.getZ()) && equalBits(slot, ORIENTATION_W, orientation.getW());
+        setVector(slot, POSITION_X, position);
+        mColumns[ORIENTATION_X][slot] = orientation.getX();
+        mColumns[ORIENTATION_Y][slot] = orientation.getY();
+        mColumns[ORIENTATION_Z][slot] = orientation.getZ();
+        mColumns[ORIENTATION_W][slot] = orientation.getW();
+        return !isEqual;
+    }
+
+    private boolean equalBits(int slot, int column, float value) {
+        return Float.floatToIntBits(mColumns[column][slot]) == Float.floatToIntBits(value);
+    }
+
+    void getAABB(int slot, AABB dest) {
+        getVector(slot, AABB_MIN_X, dest.getMin());
+        getVector(slot, AABB_MAX_X, dest.getMax());
+    }
+
+    // Copies the local bounds of the shape to the slot, they are used by the AABB updates.
+    void setShape(int slot, CollisionShape shape) {
+        final Vector3 min = new Vector3();
+        final Vector3 max = new Vector3();
+        shape.getLocalBounds(min, max);
+        setVector(slot, LOCAL_MIN_X, min);
+        setVector(slot, LOCAL_MAX_X, max);
+        mColumns[AABB_ROTATION_WEIGHT][slot] = shape.hasRotationInvariantAABB() ? 0 : 1;
+    }
+
+    void setInertiaTensorLocalInverse(int slot, Matrix3x3 inverse) {
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                mColumns[INVERSE_INERTIA_00 + row * 3 + column][slot] = inverse.get(row, column);
+            }
+        }
+    }
+
+    // Computes R * I^-1 * R^T with the rotation matrix R of the orientation, like RigidBody.getInertiaTensorInverseWorld.
+    Matrix3x3 getInertiaTensorInverseWorld(int slot, Matrix3x3 dest) {
+        final float x = mColumns[ORIENTATION_X][slot];
+        final float y = mColumns[ORIENTATION_Y][slot];
+        final float z = mColumns[ORIENTATION_Z][slot];
+        final float w = mColumns[ORIENTATION_W][slot];
+        final float nQ = x * x + y * y + z * z + w * w;
+        final float s = nQ > 0.0 ? 2 / nQ : 0;
+        final float xs = x * s;
+        final float ys = y * s;
+        final float zs = z * s;
+        final float wxs = w * xs;
+        final float wys = w * ys;
+        final float wzs = w * zs;
+        final float xxs = x * xs;
+        final float xys = x * ys;
+        final float xzs = x * zs;
+        final float yys = y * ys;
+        final float yzs = y * zs;
+        final float zzs = z * zs;
+        final float r00 = 1 - yys - zzs;
+        final float r01 = xys - wzs;
+        final float r02 = xzs + wys;
+        final float r10 = xys + wzs;
+        final float r11 = 1 - xxs - zzs;
+        final float r12 = yzs - wxs;
+        final float r20 = xzs - wys;
+        final float r21 = yzs + wxs;
+        final float r22 = 1 - xxs - yys;
+        final float i00 = mColumns[INVERSE_INERTIA_00][slot];
+        final float i01 = mColumns[INVERSE_INERTIA_01][slot];
+        final float i02 = mColumns[INVERSE_INERTIA_02][slot];
+        final float i10 = mColumns[INVERSE_INERTIA_10][slot];
+        final float i11 = mColumns[INVERSE_INERTIA_11][slot];
+        final float i12 = mColumns[INVERSE_INERTIA_12][slot];
+        final float i20 = mColumns[INVERSE_INERTIA_20][slot];
+        final float i21 = mColumns[INVERSE_INERTIA_21][slot];
+        final float i22 = mColumns[INVERSE_INERTIA_22][slot];
+        final float a00 = r00 * i00 + r01 * i10 + r02 * i20;
+        final float a01 = r00 * i01 + r01 * i11 + r02 * i21;
+        final float a02 = r00 * i02 + r01 * i12 + r02 * i22;
+        final float a10 = r10 * i00 + r11 * i10 + r12 * i20;
+        final float a11 = r10 * i01 + r11 * i11 + r12 * i21;
+        final float a12 = r10 * i02 + r11 * i12 + r12 * i22;
+        final float a20 = r20 * i00 + r21 * i10 + r22 * i20;
+        final float a21 = r20 * i01 + r21 * i11 + r22 * i21;
+        final float a22 = r20 * i02 + r21 * i12 + r22 * i22;
+        dest.setAllValues(
+                a00 * r00 + a01 * r01 + a02 * r02, a00 * r10 + a01 * r11 + a02 * r12, a00 * r20 + a01 * r21 + a02 * r22,
+                a10 * r00 + a11 * r01 + a12 * r02, a10 * r10 + a11 * r11 + a12 * r12, a10 * r20 + a11 * r21 + a12 * r22,
+                a20 * r00 + a21 * r01 + a22 * r02, a20 * r10 + a21 * r11 + a22 * r12, a20 * r20 + a21 * r21 + a22 * r22);
+        return dest;
+    }
+}
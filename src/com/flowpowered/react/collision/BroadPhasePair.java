@@ -27,6 +27,8 @@ package com.flowpowered.react.collision;
 
 import com.flowpowered.react.Utilities.*;
 import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.broadphase.*;
+import com.flowpowered.react.engine.*;
 import com.flowpowered.react.math.*;
 
 /**
@@ -36,6 +38,7 @@ public class BroadPhasePair {
     private CollisionBody body1;
     private CollisionBody body2;
     private final Vector3 previousSeparatingAxis = new Vector3(1, 1, 1);
+    private OverlappingPair mOverlappingPair;
 
     /**
      * Constructs a new broad phase pair from the first and the second body.
@@ -57,6 +60,33 @@ public class BroadPhasePair {
         return computeBodiesIndexPair(body1, body2);
     }
 
+    /**
+     * Gets the key of the pair of bodies, see {@link PairManager#computePairKey(int, int)}.
+     *
+     * @return The key of the pair
+     */
+    public long getPairKey() {
+        return computePairKey(body1, body2);
+    }
+
+    /**
+     * Gets the overlapping pair of the dynamics world for this pair, or null if the world hasn't created it.
+     *
+     * @return The overlapping pair
+     */
+    public OverlappingPair getOverlappingPair() {
+        return mOverlappingPair;
+    }
+
+    /**
+     * Sets the overlapping pair of the dynamics world for this pair.
+     *
+     * @param overlappingPair The overlapping pair
+     */
+    public void setOverlappingPair(OverlappingPair overlappingPair) {
+        mOverlappingPair = overlappingPair;
+    }
+
     /**
      * Gets the previous separating axis.
      *
@@ -167,4 +197,18 @@ public class BroadPhasePair {
         }
         return indexPair;
     }
+
+    /**
+     * Converts the pair of bodies to the key of their IDs, see {@link PairManager#computePairKey(int, int)}.
+     *
+     * @param body1 The first body
+     * @param body2 The second body
+     * @return The key of the pair
+     */
+    public static long computePairKey(CollisionBody body1, CollisionBody body2) {
+        if (body1.getID() == body2.getID()) {
+            throw new IllegalStateException("First int of the pair cannot be equal to the second int of the pair");
+        }
+        return PairManager.computePairKey(body1.getID(), body2.getID());
+    }
 }
@@ -25,21 +25,24 @@
  */
 package com.flowpowered.react.collision;
 
-import com.flowpowered.react.Utilities.*;
+import com.flowpowered.react.*;
+import com.flowpowered.react.ReactDefaults.*;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.collision.broadphase.*;
 import com.flowpowered.react.collision.broadphase.PairManager.*;
 import com.flowpowered.react.collision.linkedphase.*;
-import com.flowpowered.react.collision.narrowphase.GJK.*;
 import com.flowpowered.react.collision.narrowphase.*;
 import com.flowpowered.react.collision.shape.*;
-import com.flowpowered.react.collision.shape.CollisionShape.*;
 import com.flowpowered.react.constraint.ContactPoint.*;
 import com.flowpowered.react.engine.*;
 import com.flowpowered.react.engine.linked.*;
+import gnu.trove.map.*;
+import gnu.trove.map.hash.*;
+import gnu.trove.set.*;
+import gnu.trove.set.hash.*;
 
 import java.util.*;
-import java.util.Map.*;
+import java.util.concurrent.*;
 
 /**
  * This class computes the collision detection algorithms. We first perform a broad-phase algorithm to know which pairs of bodies can collide and then we run a narrow-phase algorithm to compute the
@@ -47,12 +50,18 @@ import java.util.Map.*;
  */
 public class CollisionDetection {
     private final CollisionWorld mWorld;
-    private final Map<IntPair, BroadPhasePair> mOverlappingPairs = new HashMap<>();
     private final BroadPhaseAlgorithm mBroadPhaseAlgorithm;
-    private final GJKAlgorithm mNarrowPhaseGJKAlgorithm = new GJKAlgorithm();
-    private final SphereVsSphereAlgorithm mNarrowPhaseSphereVsSphereAlgorithm = new SphereVsSphereAlgorithm();
-    private final Set<IntPair> mNoCollisionPairs = new HashSet<>();
+    private final NarrowPhaseContext mNarrowPhaseContext = new NarrowPhaseContext();
+    private final ThreadLocal<NarrowPhaseContext> mWorkerNarrowPhaseContexts = ThreadLocal.withInitial(NarrowPhaseContext::new);
+    private boolean mIsParallelNarrowPhaseEnabled = ReactDefaults.PARALLEL_NARROW_PHASE_ENABLED;
+    private BroadPhasePair[] mNarrowPhasePairs = new BroadPhasePair[0];
+    private ContactPointInfo[] mNarrowPhaseContacts = new ContactPointInfo[0];
+    private boolean[] mNarrowPhaseResults = new boolean[0];
+    private boolean[] mNarrowPhaseSerialPairs = new boolean[0];
+    private final TLongSet mNoCollisionPairs = new TLongHashSet();
     private final LinkedPhase mLinkedPhase;
+    private final DynamicAABBTree mBodyTree;
+    private final TObjectIntMap<CollisionBody> mMapBodyToTreeNode = new TObjectIntHashMap<>();
 
     /**
      * Constructs a new collision detection from the collision world.
@@ -60,8 +69,27 @@ public class CollisionDetection {
      * @param world The world
      */
     public CollisionDetection(CollisionWorld world) {
+        this(world, BroadPhaseAlgorithmType.SWEEP_AND_PRUNE);
+    }
+
+    /**
+     * Constructs a new collision detection from the collision world and the broad-phase algorithm to use.
+     *
+     * @param world The world
+     * @param broadPhaseType The broad-phase algorithm
+     */
+    public CollisionDetection(CollisionWorld world, BroadPhaseAlgorithmType broadPhaseType) {
         mWorld = world;
-        mBroadPhaseAlgorithm = new SweepAndPruneAlgorithm(this);
+        switch (broadPhaseType) {
+            case DYNAMIC_AABB_TREE:
+                mBroadPhaseAlgorithm = new DynamicAABBTreeAlgorithm(this);
+                break;
+            case SWEEP_AND_PRUNE:
+            default:
+                mBroadPhaseAlgorithm = new SweepAndPruneAlgorithm(this);
+        }
+        // the ray queries use the broad-phase tree when there is one
+        mBodyTree = mBroadPhaseAlgorithm.getTree() == null ? new DynamicAABBTree(ReactDefaults.AABB_TREE_FAT_MARGIN) : null;
         if (world instanceof LinkedDynamicsWorld) {
             mLinkedPhase = new LinkedPhase((LinkedDynamicsWorld) mWorld);
         } else {
@@ -76,6 +104,23 @@ public class CollisionDetection {
      */
     public void addBody(CollisionBody body) {
         mBroadPhaseAlgorithm.addObject(body, body.getAABB());
+        if (mBodyTree != null) {
+            mMapBodyToTreeNode.put(body, mBodyTree.addObject(body, body.getAABB()));
+        }
+    }
+
+    /**
+     * Adds several bodies to the collision detection at once.
+     *
+     * @param bodies The bodies to add
+     */
+    public void addBodies(Collection<? extends CollisionBody> bodies) {
+        mBroadPhaseAlgorithm.addObjects(bodies);
+        if (mBodyTree != null) {
+            for (CollisionBody body : bodies) {
+                mMapBodyToTreeNode.put(body, mBodyTree.addObject(body, body.getAABB()));
+            }
+        }
     }
 
     /**
@@ -85,6 +130,18 @@ public class CollisionDetection {
      */
     public void removeBody(CollisionBody body) {
         mBroadPhaseAlgorithm.removeObject(body);
+        if (mBodyTree != null && mMapBodyToTreeNode.containsKey(body)) {
+            mBodyTree.removeObject(mMapBodyToTreeNode.remove(body));
+        }
+    }
+
+    /**
+     * Gets the AABB tree of all the bodies, used for the ray queries.
+     *
+     * @return The tree of the bodies
+     */
+    public DynamicAABBTree getBodyTree() {
+        return mBodyTree != null ? mBodyTree : mBroadPhaseAlgorithm.getTree();
     }
 
     /**
@@ -94,7 +151,7 @@ public class CollisionDetection {
      * @param body2 The second body
      */
     public void addNoCollisionPair(CollisionBody body1, CollisionBody body2) {
-        mNoCollisionPairs.add(BroadPhasePair.computeBodiesIndexPair(body1, body2));
+        mNoCollisionPairs.add(BroadPhasePair.computePairKey(body1, body2));
     }
 
     /**
@@ -104,7 +161,7 @@ public class CollisionDetection {
      * @param body2 The second body
      */
     public void removeNoCollisionPair(CollisionBody body1, CollisionBody body2) {
-        mNoCollisionPairs.remove(BroadPhasePair.computeBodiesIndexPair(body1, body2));
+        mNoCollisionPairs.remove(BroadPhasePair.computePairKey(body1, body2));
     }
 
     /**
@@ -135,38 +192,146 @@ public class CollisionDetection {
 
     // Computes the broad-phase collision detection.
     private void computeBroadPhase() {
-        for (CollisionBody body : mWorld.getBodies()) {
+        final List<? extends CollisionBody> bodies = mWorld.getMovableBodies();
+        for (int i = 0; i < bodies.size(); i++) {
+            final CollisionBody body = bodies.get(i);
             if (body.getHasMoved()) {
-                mBroadPhaseAlgorithm.updateObject(body, body.getAABB());
+                updateBody(body);
+            }
+        }
+    }
+
+    /**
+     * Updates the AABB of the body in the broad-phase. This is done for the bodies that can move at each collision detection, a body that can't move must be updated when its AABB changes.
+     *
+     * @param body The body to update
+     */
+    public void updateBody(CollisionBody body) {
+        mBroadPhaseAlgorithm.updateObject(body, body.getAABB());
+        if (mBodyTree != null) {
+            mBodyTree.updateObject(mMapBodyToTreeNode.get(body), body.getAABB());
+        }
+    }
+
+    /**
+     * Wakes up the sleeping bodies that can move and overlap this body in the broad-phase. The narrow-phase skips the pairs without an awake body that can move, so a sleeping body must be
+     * woken up when a body next to it is moved, made static or destroyed by the user. Walks all the overlapping pairs, it is not meant to be called at each step.
+     *
+     * @param body The body which neighbours are woken up
+     */
+    public void wakeUpOverlappingBodies(CollisionBody body) {
+        final BodyPair[] overlappingPairs = mBroadPhaseAlgorithm.getOverlappingPairs();
+        final int nbOverlappingPairs = (int) mBroadPhaseAlgorithm.getNbOverlappingPairs();
+        for (int i = 0; i < nbOverlappingPairs; i++) {
+            final CollisionBody other;
+            if (overlappingPairs[i].getFirstBody() == body) {
+                other = overlappingPairs[i].getSecondBody();
+            } else if (overlappingPairs[i].getSecondBody() == body) {
+                other = overlappingPairs[i].getFirstBody();
+            } else {
+                continue;
+            }
+            if (other.isMotionEnabled() && other.isSleeping()) {
+                other.setIsSleeping(false);
             }
         }
     }
 
-    // Computes the narrow-phase collision detection.
+    // Computes the narrow-phase collision detection. The pairs can be tested on several threads, the contacts are then notified in the order of the pairs like with a serial narrow-phase.
     private void computeNarrowPhase() {
-        for (Entry<IntPair, BroadPhasePair> entry : mOverlappingPairs.entrySet()) {
-            final ContactPointInfo contactInfo = new ContactPointInfo();
-            final BroadPhasePair pair = entry.getValue();
+        final int nbPairs = collectNarrowPhasePairs();
+        if (mIsParallelNarrowPhaseEnabled && nbPairs >= ReactDefaults.PARALLEL_NARROW_PHASE_MIN_PAIRS) {
+            ForkJoinPool.commonPool().invoke(new NarrowPhaseTask(0, nbPairs));
+            // the shapes with a support point cache are tested on this thread in the pairs order, so their cache evolves like in the serial narrow-phase
+            for (int i = 0; i < nbPairs; i++) {
+                if (mNarrowPhaseSerialPairs[i]) {
+                    testNarrowPhasePair(mNarrowPhaseContext, i);
+                }
+            }
+        } else {
+            for (int i = 0; i < nbPairs; i++) {
+                testNarrowPhasePair(mNarrowPhaseContext, i);
+            }
+        }
+        for (int i = 0; i < nbPairs; i++) {
+            final BroadPhasePair pair = mNarrowPhasePairs[i];
+            mNarrowPhasePairs[i] = null;
+            if (mNarrowPhaseResults[i]) {
+                final ContactPointInfo contactInfo = mNarrowPhaseContacts[i];
+                contactInfo.setFirstBody((RigidBody) pair.getFirstBody());
+                contactInfo.setSecondBody((RigidBody) pair.getSecondBody());
+                mWorld.notifyNewContact(pair, contactInfo);
+            }
+        }
+    }
+
+    // Updates the overlapping pairs and stores the ones to test in the narrow-phase arrays, returns the number of pairs to test.
+    private int collectNarrowPhasePairs() {
+        final BodyPair[] overlappingPairs = mBroadPhaseAlgorithm.getOverlappingPairs();
+        final int nbOverlappingPairs = (int) mBroadPhaseAlgorithm.getNbOverlappingPairs();
+        ensureNarrowPhaseCapacity(nbOverlappingPairs);
+        final boolean hasNoCollisionPairs = !mNoCollisionPairs.isEmpty();
+        int nbPairs = 0;
+        for (int i = 0; i < nbOverlappingPairs; i++) {
+            final BroadPhasePair pair = overlappingPairs[i].getBroadPhasePair();
             if (pair == null) {
                 throw new IllegalStateException("pair cannot be null");
             }
             final CollisionBody body1 = pair.getFirstBody();
             final CollisionBody body2 = pair.getSecondBody();
-            mWorld.updateOverlappingPair(pair);
-            if (mNoCollisionPairs.contains(pair.getBodiesIndexPair())) {
+            // two bodies that can't move keep the same contacts, a static world has a lot of these pairs
+            if (!body1.isMotionEnabled() && !body2.isMotionEnabled()) {
                 continue;
             }
-            if (body1.isSleeping() && body2.isSleeping()) {
+            mWorld.updateOverlappingPair(pair);
+            if (hasNoCollisionPairs && mNoCollisionPairs.contains(pair.getPairKey())) {
                 continue;
             }
-            final NarrowPhaseAlgorithm narrowPhaseAlgorithm = selectNarrowPhaseAlgorithm(body1.getCollisionShape(), body2.getCollisionShape());
-            narrowPhaseAlgorithm.setCurrentOverlappingPair(pair);
-            if (narrowPhaseAlgorithm.testCollision(body1.getCollisionShape(), body1.getTransform(), body2.getCollisionShape(), body2.getTransform(), contactInfo)) {
-                contactInfo.setFirstBody((RigidBody) body1);
-                contactInfo.setSecondBody((RigidBody) body2);
-                mWorld.notifyNewContact(pair, contactInfo);
+            if ((body1.isSleeping() || !body1.isMotionEnabled()) && (body2.isSleeping() || !body2.isMotionEnabled())) {
+                continue;
             }
+            mNarrowPhasePairs[nbPairs] = pair;
+            mNarrowPhaseSerialPairs[nbPairs] = body1.getCollisionShape().hasSupportPointCache() || body2.getCollisionShape().hasSupportPointCache();
+            nbPairs++;
         }
+        return nbPairs;
+    }
+
+    private void ensureNarrowPhaseCapacity(int capacity) {
+        final int oldCapacity = mNarrowPhasePairs.length;
+        if (capacity <= oldCapacity) {
+            return;
+        }
+        final int newCapacity = Math.max(capacity, oldCapacity * 2);
+        mNarrowPhasePairs = Arrays.copyOf(mNarrowPhasePairs, newCapacity);
+        mNarrowPhaseContacts = Arrays.copyOf(mNarrowPhaseContacts, newCapacity);
+        for (int i = oldCapacity; i < newCapacity; i++) {
+            mNarrowPhaseContacts[i] = new ContactPointInfo();
+        }
+        mNarrowPhaseResults = new boolean[newCapacity];
+        mNarrowPhaseSerialPairs = new boolean[newCapacity];
+    }
+
+    private void testNarrowPhasePair(NarrowPhaseContext context, int index) {
+        mNarrowPhaseResults[index] = context.testCollision(mNarrowPhasePairs[index], mNarrowPhaseContacts[index]);
+    }
+
+    /**
+     * Returns true if the narrow-phase is split between several threads when there are enough overlapping pairs.
+     *
+     * @return Whether or not the narrow-phase is parallel
+     */
+    public boolean isParallelNarrowPhaseEnabled() {
+        return mIsParallelNarrowPhaseEnabled;
+    }
+
+    /**
+     * Enables or disables the parallel narrow-phase. The contacts are the same in both cases.
+     *
+     * @param isEnabled Whether or not the narrow-phase can use several threads
+     */
+    public void enableParallelNarrowPhase(boolean isEnabled) {
+        mIsParallelNarrowPhaseEnabled = isEnabled;
     }
 
     /**
@@ -175,12 +340,11 @@ public class CollisionDetection {
      * @param addedPair The pair that was added
      */
     public void broadPhaseNotifyAddedOverlappingPair(BodyPair addedPair) {
-        final IntPair indexPair = addedPair.getBodiesIndexPair();
-        final BroadPhasePair broadPhasePair = new BroadPhasePair(addedPair.getFirstBody(), addedPair.getSecondBody());
-        final BroadPhasePair old = mOverlappingPairs.put(indexPair, broadPhasePair);
-        if (old != null) {
-            throw new IllegalStateException("the pair already existed in the overlapping pairs map");
+        if (addedPair.getBroadPhasePair() != null) {
+            throw new IllegalStateException("the pair already existed in the overlapping pairs");
         }
+        final BroadPhasePair broadPhasePair = new BroadPhasePair(addedPair.getFirstBody(), addedPair.getSecondBody());
+        addedPair.setBroadPhasePair(broadPhasePair);
         mWorld.notifyAddedOverlappingPair(broadPhasePair);
     }
 
@@ -190,21 +354,38 @@ public class CollisionDetection {
      * @param removedPair The pair that was removed
      */
     public void broadPhaseNotifyRemovedOverlappingPair(BodyPair removedPair) {
-        final IntPair indexPair = removedPair.getBodiesIndexPair();
-        final BroadPhasePair broadPhasePair = mOverlappingPairs.get(indexPair);
+        final BroadPhasePair broadPhasePair = removedPair.getBroadPhasePair();
         if (broadPhasePair == null) {
-            throw new IllegalStateException("the removed pair must be in the map");
+            throw new IllegalStateException("the removed pair must be in the overlapping pairs");
         }
         mWorld.notifyRemovedOverlappingPair(broadPhasePair);
-        mOverlappingPairs.remove(indexPair);
+        removedPair.setBroadPhasePair(null);
     }
 
-    // Selects the narrow-phase collision algorithm to use given two collision shapes.
-    private NarrowPhaseAlgorithm selectNarrowPhaseAlgorithm(CollisionShape collisionShape1, CollisionShape collisionShape2) {
-        if (collisionShape1.getType() == CollisionShapeType.SPHERE && collisionShape2.getType() == CollisionShapeType.SPHERE) {
-            return mNarrowPhaseSphereVsSphereAlgorithm;
-        } else {
-            return mNarrowPhaseGJKAlgorithm;
+    // Tests a range of the narrow-phase pairs, splitting it in halves until it is small enough. Each thread uses its own narrow-phase context.
+    private class NarrowPhaseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int mStart;
+        private final int mEnd;
+
+        private NarrowPhaseTask(int start, int end) {
+            mStart = start;
+            mEnd = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (mEnd - mStart <= ReactDefaults.NARROW_PHASE_PAIRS_PER_TASK) {
+                final NarrowPhaseContext context = mWorkerNarrowPhaseContexts.get();
+                for (int i = mStart; i < mEnd; i++) {
+                    if (!mNarrowPhaseSerialPairs[i]) {
+                        testNarrowPhasePair(context, i);
+                    }
+                }
+            } else {
+                final int middle = (mStart + mEnd) >>> 1;
+                invokeAll(new NarrowPhaseTask(mStart, middle), new NarrowPhaseTask(middle, mEnd));
+            }
         }
     }
 }
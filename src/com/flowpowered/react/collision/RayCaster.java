@@ -26,11 +26,11 @@
 package com.flowpowered.react.collision;
 
 import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.broadphase.*;
 import com.flowpowered.react.collision.shape.*;
 import com.flowpowered.react.math.*;
 
 import java.util.*;
-import java.util.Map.*;
 
 /**
  * Performs ray casting on collision shapes, finding the ones that intersect the ray.
@@ -46,22 +46,39 @@ public class RayCaster {
      * @return The closest body to the ray start and its intersection point
      */
     public static IntersectedBody findClosestIntersectingBody(Vector3 rayStart, Vector3 rayDir, Collection<CollisionBody> bodies) {
-        final Map<CollisionBody, Vector3> intersecting = findIntersectingBodies(rayStart, rayDir, bodies);
+        final Vector3 intersectionPoint = new Vector3();
         CollisionBody closest = null;
         float closestDistance = Float.MAX_VALUE;
         Vector3 closestIntersectionPoint = null;
-        for (Entry<CollisionBody, Vector3> entry : intersecting.entrySet()) {
-            final Vector3 intersectionPoint = entry.getValue();
+        for (CollisionBody body : bodies) {
+            if (!intersects(rayStart, rayDir, body.getCollisionShape(), body.getTransform(), intersectionPoint)) {
+                continue;
+            }
             final float distance = Vector3.subtract(intersectionPoint, rayStart).lengthSquare();
             if (distance < closestDistance) {
-                closest = entry.getKey();
+                closest = body;
                 closestDistance = distance;
-                closestIntersectionPoint = intersectionPoint;
+                closestIntersectionPoint = new Vector3(intersectionPoint);
             }
         }
         return closest != null ? new IntersectedBody(closest, closestIntersectionPoint) : null;
     }
 
+    /**
+     * Finds the closest of the bodies of an AABB tree intersecting with the ray to the ray start. Only the bodies whose AABB is touched by the ray are tested, closest first, and the search stops
+     * when the remaining AABBs are all behind the closest hit.
+     *
+     * @param rayStart The ray starting point
+     * @param rayDir The ray direction
+     * @param tree The tree of the bodies to check for intersection
+     * @return The closest body to the ray start and its intersection point
+     */
+    public static IntersectedBody findClosestIntersectingBody(Vector3 rayStart, Vector3 rayDir, DynamicAABBTree tree) {
+        final ClosestBodyCallback callback = new ClosestBodyCallback(rayStart, rayDir);
+        tree.raycast(rayStart, rayDir, Float.MAX_VALUE, callback);
+        return callback.mClosest != null ? new IntersectedBody(callback.mClosest, callback.mClosestIntersectionPoint) : null;
+    }
+
     /**
      * Finds the furthest of the bodies intersecting with the ray from the ray start. The ray is defined by a starting point and a direction. This method returns an {@link IntersectedBody} object
      * containing the body and the intersection point.
@@ -72,17 +89,19 @@ public class RayCaster {
      * @return The furthest body from the ray start and its intersection point
      */
     public static IntersectedBody findFurthestIntersectingBody(Vector3 rayStart, Vector3 rayDir, Collection<CollisionBody> bodies) {
-        final Map<CollisionBody, Vector3> intersecting = findIntersectingBodies(rayStart, rayDir, bodies);
+        final Vector3 intersectionPoint = new Vector3();
         CollisionBody furthest = null;
         float furthestDistance = Float.MIN_VALUE;
         Vector3 furthestIntersectionPoint = null;
-        for (Entry<CollisionBody, Vector3> entry : intersecting.entrySet()) {
-            final Vector3 intersectionPoint = entry.getValue();
+        for (CollisionBody body : bodies) {
+            if (!intersects(rayStart, rayDir, body.getCollisionShape(), body.getTransform(), intersectionPoint)) {
+                continue;
+            }
             final float distance = Vector3.subtract(intersectionPoint, rayStart).lengthSquare();
             if (distance > furthestDistance) {
-                furthest = entry.getKey();
+                furthest = body;
                 furthestDistance = distance;
-                furthestIntersectionPoint = intersectionPoint;
+                furthestIntersectionPoint = new Vector3(intersectionPoint);
             }
         }
         return furthest != null ? new IntersectedBody(furthest, furthestIntersectionPoint) : null;
@@ -408,6 +427,36 @@ public class RayCaster {
         return intersects(rayStartTop, rayDir, sphere, intersectionPoint) || intersects(rayStartBottom, rayDir, sphere, intersectionPoint);
     }
 
+    // Keeps the closest hit of a tree ray cast and shortens the ray to it
+    private static class ClosestBodyCallback implements DynamicAABBTree.RaycastCallback {
+        private final Vector3 mRayStart;
+        private final Vector3 mRayDir;
+        private final float mRayDirLengthSquare;
+        private final Vector3 mIntersectionPoint = new Vector3();
+        private CollisionBody mClosest;
+        private Vector3 mClosestIntersectionPoint;
+
+        private ClosestBodyCallback(Vector3 rayStart, Vector3 rayDir) {
+            mRayStart = rayStart;
+            mRayDir = rayDir;
+            mRayDirLengthSquare = rayDir.lengthSquare();
+        }
+
+        @Override
+        public float report(CollisionBody body, float maxT) {
+            if (!intersects(mRayStart, mRayDir, body.getCollisionShape(), body.getTransform(), mIntersectionPoint)) {
+                return maxT;
+            }
+            final float t = Vector3.subtract(mIntersectionPoint, mRayStart).dot(mRayDir) / mRayDirLengthSquare;
+            if (t < maxT) {
+                mClosest = body;
+                mClosestIntersectionPoint = new Vector3(mIntersectionPoint);
+                return t;
+            }
+            return maxT;
+        }
+    }
+
     /**
      * Represents a body that was intersected by a ray. This class stores the body and the intersection point.
      */
@@ -30,6 +30,8 @@ import com.flowpowered.react.collision.*;
 import com.flowpowered.react.collision.broadphase.PairManager.*;
 import com.flowpowered.react.collision.shape.*;
 
+import java.util.*;
+
 /**
  * This class is an abstract class that represents an algorithm used to perform the broad-phase of a collision detection. The goal of the broad-phase algorithm is to compute the pair of bodies that
  * can collide. It's important to understand that the broad-phase doesn't only compute body pairs that can collide, but could those that don't collide but are very close. The goal of the broad-phase
@@ -57,6 +59,17 @@ public abstract class BroadPhaseAlgorithm {
      */
     public abstract void addObject(CollisionBody body, AABB aabb);
 
+    /**
+     * Notify the broad-phase about the addition of several objects at once, with their current AABB.
+     *
+     * @param bodies The bodies that were added
+     */
+    public void addObjects(Collection<? extends CollisionBody> bodies) {
+        for (CollisionBody body : bodies) {
+            addObject(body, body.getAABB());
+        }
+    }
+
     /**
      * Notify the broad-phase about the removal of an object from the world.
      *
@@ -72,6 +85,24 @@ public abstract class BroadPhaseAlgorithm {
      */
     public abstract void updateObject(CollisionBody body, AABB aabb);
 
+    /**
+     * Gets the AABB tree of the objects if this algorithm keeps one, it can then be used for the ray queries.
+     *
+     * @return The tree of the objects or null
+     */
+    public DynamicAABBTree getTree() {
+        return null;
+    }
+
+    /**
+     * Gets the number of overlapping pairs managed by the pair manager, they are at the start of the array returned by {@link #getOverlappingPairs()}.
+     *
+     * @return The number of overlapping pairs
+     */
+    public long getNbOverlappingPairs() {
+        return mPairManager.getNbOverlappingPairs();
+    }
+
     /**
      * Returns the array of overlapping pairs managed by the pair manager, for iteration purposes. Note that the array returned contains trailing null elements.
      *
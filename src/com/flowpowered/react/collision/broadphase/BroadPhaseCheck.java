@@ -0,0 +1,229 @@
+package com.flowpowered.react.collision.broadphase;
+
+import com.flowpowered.react.*;
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.*;
+import com.flowpowered.react.collision.broadphase.PairManager.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.engine.*;
+import com.flowpowered.react.math.*;
+
+import java.util.*;
+
+/**
+ * Runnable check of the {@link DynamicAABBTreeAlgorithm} against the {@link SweepAndPruneAlgorithm}, exits with 1 if a check fails. Both algorithms are given the same bodies, moves and removes,
+ * some of the bodies can't move.
+ * <ul>
+ * <li>the sweep and prune pairs are the pairs of bodies which AABBs overlap and one of which can move, found by testing all the pairs</li>
+ * <li>the tree pairs which AABBs overlap are identical to the sweep and prune pairs</li>
+ * <li>the other tree pairs only come from the fattening: a fattened AABB goes at most two margins past the AABB of a body which didn't leave it,
+ * so their AABBs are less than four margins apart on each axis</li>
+ * </ul>
+ * Then times the updates of the pairs of both algorithms for bodies on a flat ground, where all the AABBs have about the same Y extent.
+ * Arguments: number of steps (default 300), number of bodies (default 400) and seed (default 9).
+ */
+public class BroadPhaseCheck {
+    private static final float MARGIN = ReactDefaults.AABB_TREE_FAT_MARGIN;
+    private static int failures;
+
+    public static void main(String[] args) {
+        final int steps = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        final int nbBodies = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : 9;
+        checkPairs(new Random(seed), steps, nbBodies);
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        for (int bodies : new int[]{1000, 10000}) {
+            timeUpdates(new Random(seed), bodies);
+        }
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkPairs(Random random, int steps, int nbBodies) {
+        final BroadPhaseAlgorithm sweepAndPrune = new SweepAndPruneAlgorithm(createCollisionDetection());
+        final BroadPhaseAlgorithm tree = new DynamicAABBTreeAlgorithm(createCollisionDetection());
+        final List<RigidBody> bodies = new ArrayList<>();
+        int nextID = 0;
+        for (int i = 0; i < nbBodies; i++) {
+            final RigidBody body = createBody(random, nextID++, 20);
+            bodies.add(body);
+            sweepAndPrune.addObject(body, body.getAABB());
+        }
+        // the tree gets the first bodies as a batch
+        tree.addObjects(bodies);
+        boolean sweepAndPruneExact = true;
+        boolean identical = true;
+        boolean fattened = true;
+        int maxPairs = 0;
+        int maxFatPairs = 0;
+        for (int step = 0; step < steps; step++) {
+            for (RigidBody body : bodies) {
+                if (!body.isMotionEnabled() || random.nextInt(4) != 0) {
+                    continue;
+                }
+                // mostly small moves, sometimes inside of the fat margin, and a few jumps
+                final Vector3 position = new Vector3(body.getTransform().getPosition());
+                if (random.nextInt(20) == 0) {
+                    position.setAllValues(randomCoordinate(random, 20), randomCoordinate(random, 20), randomCoordinate(random, 20));
+                } else {
+                    position.add(new Vector3(randomCoordinate(random, 0.3f), randomCoordinate(random, 0.3f), randomCoordinate(random, 0.3f)));
+                }
+                moveBody(body, position);
+                sweepAndPrune.updateObject(body, body.getAABB());
+                tree.updateObject(body, body.getAABB());
+            }
+            if (step % 10 == 5) {
+                for (int i = 0; i < 10; i++) {
+                    final RigidBody removed = bodies.remove(random.nextInt(bodies.size()));
+                    sweepAndPrune.removeObject(removed);
+                    tree.removeObject(removed);
+                    final RigidBody added = createBody(random, nextID++, 20);
+                    bodies.add(added);
+                    sweepAndPrune.addObject(added, added.getAABB());
+                    tree.addObject(added, added.getAABB());
+                }
+            }
+            final Set<Long> expected = bruteForcePairs(bodies);
+            final Set<Long> sweepAndPrunePairs = pairs(sweepAndPrune);
+            final Map<Long, BodyPair> treePairs = pairMap(tree);
+            sweepAndPruneExact &= sweepAndPrunePairs.equals(expected);
+            final Set<Long> treeOverlapping = new HashSet<>();
+            for (Map.Entry<Long, BodyPair> entry : treePairs.entrySet()) {
+                final BodyPair pair = entry.getValue();
+                if (pair.getFirstBody().getAABB().testCollision(pair.getSecondBody().getAABB())) {
+                    treeOverlapping.add(entry.getKey());
+                } else {
+                    fattened &= closerThan(pair.getFirstBody().getAABB(), pair.getSecondBody().getAABB(), 4 * MARGIN);
+                }
+            }
+            identical &= treeOverlapping.equals(sweepAndPrunePairs);
+            maxPairs = Math.max(maxPairs, sweepAndPrunePairs.size());
+            maxFatPairs = Math.max(maxFatPairs, treePairs.size() - treeOverlapping.size());
+        }
+        check("the sweep and prune pairs are the overlapping AABBs (up to " + maxPairs + " pairs)", sweepAndPruneExact);
+        check("the overlapping tree pairs are identical to the sweep and prune pairs", identical);
+        check("the other tree pairs are less than four fat margins apart (up to " + maxFatPairs + " pairs)", fattened);
+        for (RigidBody body : bodies) {
+            sweepAndPrune.removeObject(body);
+            tree.removeObject(body);
+        }
+        check("no pairs left once all the bodies are removed", sweepAndPrune.getNbOverlappingPairs() == 0 && tree.getNbOverlappingPairs() == 0);
+    }
+
+    // Bodies on a flat ground moving a little at each step, a few of them jumping further
+    private static void timeUpdates(Random random, int nbBodies) {
+        final BroadPhaseAlgorithm sweepAndPrune = new SweepAndPruneAlgorithm(createCollisionDetection());
+        final BroadPhaseAlgorithm tree = new DynamicAABBTreeAlgorithm(createCollisionDetection());
+        final float size = (float) Math.sqrt(nbBodies) * 2;
+        final List<RigidBody> bodies = new ArrayList<>();
+        for (int i = 0; i < nbBodies; i++) {
+            final RigidBody body = createBody(random, i, size);
+            moveBody(body, new Vector3(body.getTransform().getPosition().getX(), 0, body.getTransform().getPosition().getZ()));
+            bodies.add(body);
+        }
+        final long addStart = System.nanoTime();
+        for (RigidBody body : bodies) {
+            sweepAndPrune.addObject(body, body.getAABB());
+        }
+        final long addMiddle = System.nanoTime();
+        tree.addObjects(bodies);
+        final long addEnd = System.nanoTime();
+        final int steps = 100;
+        long sweepAndPruneTime = 0;
+        long treeTime = 0;
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < nbBodies; i++) {
+                final Vector3 position = new Vector3(bodies.get(i).getTransform().getPosition());
+                if (random.nextInt(50) == 0) {
+                    position.setX(randomCoordinate(random, size));
+                } else {
+                    position.add(new Vector3(randomCoordinate(random, 0.05f), 0, randomCoordinate(random, 0.05f)));
+                }
+                moveBody(bodies.get(i), position);
+            }
+            final long start = System.nanoTime();
+            for (RigidBody body : bodies) {
+                sweepAndPrune.updateObject(body, body.getAABB());
+            }
+            final long middle = System.nanoTime();
+            for (RigidBody body : bodies) {
+                tree.updateObject(body, body.getAABB());
+            }
+            final long end = System.nanoTime();
+            sweepAndPruneTime += middle - start;
+            treeTime += end - middle;
+        }
+        System.out.printf("%d bodies on a flat ground: adding %.2f ms with sweep and prune, %.2f ms with the tree batch; updating %.3f ms with sweep and prune, %.3f ms with the tree per step%n",
+                nbBodies, (addMiddle - addStart) / 1e6, (addEnd - addMiddle) / 1e6, sweepAndPruneTime / 1e6 / steps, treeTime / 1e6 / steps);
+    }
+
+    private static CollisionDetection createCollisionDetection() {
+        return new CollisionDetection(new DynamicsWorld(new Vector3(0, -9.81f, 0), 1 / 60f));
+    }
+
+    // A box somewhere in a cube of the size, one out of eight can't move
+    private static RigidBody createBody(Random random, int id, float size) {
+        final Vector3 halfExtents = new Vector3(0.2f + random.nextFloat(), 0.2f + random.nextFloat(), 0.2f + random.nextFloat());
+        final Vector3 position = new Vector3(randomCoordinate(random, size), randomCoordinate(random, size), randomCoordinate(random, size));
+        final RigidBody body = new RigidBody(new Transform(position, Quaternion.identity()), 1, Matrix3x3.identity(), new BoxShape(halfExtents), id);
+        if (random.nextInt(8) == 0) {
+            body.enableMotion(false);
+        }
+        return body;
+    }
+
+    private static void moveBody(RigidBody body, Vector3 position) {
+        body.setTransform(new Transform(position, Quaternion.identity()));
+        body.updateAABB();
+        body.setHasMoved(false);
+    }
+
+    private static float randomCoordinate(Random random, float size) {
+        return (random.nextFloat() - 0.5f) * size;
+    }
+
+    private static Set<Long> bruteForcePairs(List<RigidBody> bodies) {
+        final Set<Long> pairs = new HashSet<>();
+        for (int i = 0; i < bodies.size(); i++) {
+            final RigidBody body1 = bodies.get(i);
+            for (int j = i + 1; j < bodies.size(); j++) {
+                final RigidBody body2 = bodies.get(j);
+                if ((body1.isMotionEnabled() || body2.isMotionEnabled()) && body1.getAABB().testCollision(body2.getAABB())) {
+                    pairs.add(PairManager.computePairKey(body1.getID(), body2.getID()));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static Set<Long> pairs(BroadPhaseAlgorithm algorithm) {
+        return pairMap(algorithm).keySet();
+    }
+
+    private static Map<Long, BodyPair> pairMap(BroadPhaseAlgorithm algorithm) {
+        final Map<Long, BodyPair> pairs = new HashMap<>();
+        final BodyPair[] overlappingPairs = algorithm.getOverlappingPairs();
+        for (int i = 0; i < algorithm.getNbOverlappingPairs(); i++) {
+            final BodyPair pair = overlappingPairs[i];
+            pairs.put(PairManager.computePairKey(pair.getFirstBody().getID(), pair.getSecondBody().getID()), pair);
+        }
+        return pairs;
+    }
+
+    private static boolean closerThan(AABB aabb1, AABB aabb2, float distance) {
+        for (int i = 0; i < 3; i++) {
+            if (aabb1.getMin().get(i) - aabb2.getMax().get(i) > distance || aabb2.getMin().get(i) - aabb1.getMax().get(i) > distance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,573 @@
+/*
+ * This file is part of React, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2013 Flow Powered <https://flowpowered.com/>
+ * Original ReactPhysics3D C++ library by Daniel Chappuis <http://danielchappuis.ch>
+ * React is re-licensed with permission from ReactPhysics3D author.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.flowpowered.react.collision.broadphase;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.math.*;
+
+import java.util.*;
+
+/**
+ * A dynamic AABB tree (bounding volume hierarchy) over collision bodies. The leaves store fattened AABBs so that small movements of a body don't change the tree. The tree is kept balanced with
+ * rotations, like in Box2D's b2DynamicTree. The nodes are stored in flat arrays and are reused through a free list, so queries don't allocate.
+ */
+public class DynamicAABBTree {
+    /**
+     * The index used for the absence of node.
+     */
+    public static final int NULL_NODE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private final float mFatMargin;
+    private float[] mBounds;
+    private int[] mParent;
+    private int[] mChild1;
+    private int[] mChild2;
+    private int[] mHeight;
+    private CollisionBody[] mBodies;
+    private int mRoot = NULL_NODE;
+    private int mFreeList = NULL_NODE;
+    private int mNodeCapacity = 0;
+    private int mNbNodes = 0;
+    private int mNbLeaves = 0;
+    private int[] mStack = new int[64];
+    private float[] mStackDistances = new float[64];
+
+    /**
+     * Constructs a new empty tree.
+     *
+     * @param fatMargin The margin added on each side of the leaf AABBs
+     */
+    public DynamicAABBTree(float fatMargin) {
+        mFatMargin = fatMargin;
+        allocateNodes(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Adds a body to the tree.
+     *
+     * @param body The body
+     * @param aabb The body's AABB
+     * @return The index of the leaf node of the body, to use for updates and removal
+     */
+    public int addObject(CollisionBody body, AABB aabb) {
+        final int leaf = allocateNode();
+        setFatBounds(leaf, aabb);
+        mBodies[leaf] = body;
+        mHeight[leaf] = 0;
+        insertLeaf(leaf);
+        mNbLeaves++;
+        return leaf;
+    }
+
+    /**
+     * Removes a leaf node from the tree.
+     *
+     * @param leaf The leaf node index returned when adding the body
+     */
+    public void removeObject(int leaf) {
+        checkLeaf(leaf);
+        removeLeaf(leaf);
+        freeNode(leaf);
+        mNbLeaves--;
+    }
+
+    /**
+     * Updates the AABB of a leaf. Nothing is done if the new AABB is still inside of the fattened AABB of the leaf.
+     *
+     * @param leaf The leaf node index
+     * @param aabb The new AABB of the body
+     * @return True if the leaf was moved in the tree, false if the fattened AABB still contained the new AABB
+     */
+    public boolean updateObject(int leaf, AABB aabb) {
+        checkLeaf(leaf);
+        if (contains(leaf, aabb)) {
+            return false;
+        }
+        removeLeaf(leaf);
+        setFatBounds(leaf, aabb);
+        insertLeaf(leaf);
+        return true;
+    }
+
+    /**
+     * Copies the fattened AABB of a leaf.
+     *
+     * @param leaf The leaf node index
+     * @param dst The AABB to set
+     * @return The AABB given
+     */
+    public AABB getFatAABB(int leaf, AABB dst) {
+        final int b = leaf * 6;
+        dst.getMin().setAllValues(mBounds[b], mBounds[b + 1], mBounds[b + 2]);
+        dst.getMax().setAllValues(mBounds[b + 3], mBounds[b + 4], mBounds[b + 5]);
+        return dst;
+    }
+
+    /**
+     * Finds all the leaves whose fattened AABB overlaps the AABB.
+     *
+     * @param aabb The AABB to test
+     * @param callback Called for each overlapping leaf
+     */
+    public void query(AABB aabb, QueryCallback callback) {
+        if (mRoot == NULL_NODE) {
+            return;
+        }
+        final Vector3 min = aabb.getMin();
+        final Vector3 max = aabb.getMax();
+        int stackSize = 0;
+        mStack[stackSize++] = mRoot;
+        while (stackSize > 0) {
+            final int node = mStack[--stackSize];
+            final int b = node * 6;
+            if (mBounds[b + 3] < min.getX() || max.getX() < mBounds[b]
+                    || mBounds[b + 4] < min.getY() || max.getY() < mBounds[b + 1]
+                    || mBounds[b + 5] < min.getZ() || max.getZ() < mBounds[b + 2]) {
+                continue;
+            }
+            if (isLeaf(node)) {
+                callback.report(node, mBodies[node]);
+                continue;
+            }
+            if (stackSize + 2 > mStack.length) {
+                mStack = Arrays.copyOf(mStack, mStack.length * 2);
+                mStackDistances = Arrays.copyOf(mStackDistances, mStack.length);
+            }
+            mStack[stackSize++] = mChild1[node];
+            mStack[stackSize++] = mChild2[node];
+        }
+    }
+
+    /**
+     * Gets the body stored in a leaf.
+     *
+     * @param leaf The leaf node index
+     * @return The body
+     */
+    public CollisionBody getBody(int leaf) {
+        return mBodies[leaf];
+    }
+
+    /**
+     * Gets the number of bodies in the tree.
+     *
+     * @return The number of leaves
+     */
+    public int getNbObjects() {
+        return mNbLeaves;
+    }
+
+    /**
+     * Gets the height of the tree, 0 for an empty tree or a single leaf.
+     *
+     * @return The height of the root
+     */
+    public int getHeight() {
+        return mRoot == NULL_NODE ? 0 : mHeight[mRoot];
+    }
+
+    /**
+     * Casts a ray through the tree. The ray is {@code rayStart + t * rayDir} with {@code t} in {@code [0, maxT]}. The nodes are visited closest first and the callback can shorten the ray, so the
+     * subtrees behind the closest hit found so far are skipped.
+     *
+     * @param rayStart The ray starting point
+     * @param rayDir The ray direction
+     * @param maxT The maximum ray parameter
+     * @param callback Called for each leaf touched by the ray, returns the new maximum ray parameter
+     * @return The maximum ray parameter after the cast
+     */
+    public float raycast(Vector3 rayStart, Vector3 rayDir, float maxT, RaycastCallback callback) {
+        if (mRoot == NULL_NODE) {
+            return maxT;
+        }
+        final float sx = rayStart.getX();
+        final float sy = rayStart.getY();
+        final float sz = rayStart.getZ();
+        final float ix = 1 / rayDir.getX();
+        final float iy = 1 / rayDir.getY();
+        final float iz = 1 / rayDir.getZ();
+        float rootT = intersectRay(mRoot, sx, sy, sz, ix, iy, iz, maxT);
+        if (rootT < 0) {
+            return maxT;
+        }
+        int stackSize = 0;
+        mStack[stackSize] = mRoot;
+        mStackDistances[stackSize++] = rootT;
+        while (stackSize > 0) {
+            stackSize--;
+            final int node = mStack[stackSize];
+            if (mStackDistances[stackSize] > maxT) {
+                continue;
+            }
+            if (isLeaf(node)) {
+                maxT = Math.min(maxT, callback.report(mBodies[node], maxT));
+                continue;
+            }
+            final int c1 = mChild1[node];
+            final int c2 = mChild2[node];
+            final float t1 = intersectRay(c1, sx, sy, sz, ix, iy, iz, maxT);
+            final float t2 = intersectRay(c2, sx, sy, sz, ix, iy, iz, maxT);
+            if (stackSize + 2 > mStack.length) {
+                mStack = Arrays.copyOf(mStack, mStack.length * 2);
+                mStackDistances = Arrays.copyOf(mStackDistances, mStack.length);
+            }
+            // the closest child is pushed last to be visited first
+            if (t1 <= t2) {
+                stackSize = push(c2, t2, stackSize);
+                stackSize = push(c1, t1, stackSize);
+            } else {
+                stackSize = push(c1, t1, stackSize);
+                stackSize = push(c2, t2, stackSize);
+            }
+        }
+        return maxT;
+    }
+
+    private int push(int node, float t, int stackSize) {
+        if (t < 0) {
+            return stackSize;
+        }
+        mStack[stackSize] = node;
+        mStackDistances[stackSize] = t;
+        return stackSize + 1;
+    }
+
+    // Returns the entry ray parameter in the node's AABB (0 if the start is inside), or -1 if the ray misses it
+    private float intersectRay(int node, float sx, float sy, float sz, float ix, float iy, float iz, float maxT) {
+        final int b = node * 6;
+        float tMin = 0;
+        float tMax = maxT;
+        float t0 = (mBounds[b] - sx) * ix;
+        float t1 = (mBounds[b + 3] - sx) * ix;
+        if (Float.isNaN(t0) || Float.isNaN(t1)) {
+            // the ray is parallel to the slab and starts on one of its planes
+            t0 = Float.NEGATIVE_INFINITY;
+            t1 = Float.POSITIVE_INFINITY;
+        }
+        tMin = Math.max(tMin, Math.min(t0, t1));
+        tMax = Math.min(tMax, Math.max(t0, t1));
+        t0 = (mBounds[b + 1] - sy) * iy;
+        t1 = (mBounds[b + 4] - sy) * iy;
+        if (Float.isNaN(t0) || Float.isNaN(t1)) {
+            t0 = Float.NEGATIVE_INFINITY;
+            t1 = Float.POSITIVE_INFINITY;
+        }
+        tMin = Math.max(tMin, Math.min(t0, t1));
+        tMax = Math.min(tMax, Math.max(t0, t1));
+        t0 = (mBounds[b + 2] - sz) * iz;
+        t1 = (mBounds[b + 5] - sz) * iz;
+        if (Float.isNaN(t0) || Float.isNaN(t1)) {
+            t0 = Float.NEGATIVE_INFINITY;
+            t1 = Float.POSITIVE_INFINITY;
+        }
+        tMin = Math.max(tMin, Math.min(t0, t1));
+        tMax = Math.min(tMax, Math.max(t0, t1));
+        return tMin <= tMax ? tMin : -1;
+    }
+
+    // Inserts a leaf where it increases the least the surface of the tree
+    private void insertLeaf(int leaf) {
+        if (mRoot == NULL_NODE) {
+            mRoot = leaf;
+            mParent[leaf] = NULL_NODE;
+            return;
+        }
+        final int l = leaf * 6;
+        int index = mRoot;
+        while (!isLeaf(index)) {
+            final int child1 = mChild1[index];
+            final int child2 = mChild2[index];
+            final float area = area(index);
+            final float combinedArea = combinedArea(index, l);
+            final float cost = 2 * combinedArea;
+            final float inheritanceCost = 2 * (combinedArea - area);
+            final float cost1 = descendCost(child1, l) + inheritanceCost;
+            final float cost2 = descendCost(child2, l) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? child1 : child2;
+        }
+        final int sibling = index;
+        final int oldParent = mParent[sibling];
+        final int newParent = allocateNode();
+        mParent[newParent] = oldParent;
+        mBodies[newParent] = null;
+        mHeight[newParent] = mHeight[sibling] + 1;
+        combine(newParent, sibling, leaf);
+        if (oldParent != NULL_NODE) {
+            if (mChild1[oldParent] == sibling) {
+                mChild1[oldParent] = newParent;
+            } else {
+                mChild2[oldParent] = newParent;
+            }
+        } else {
+            mRoot = newParent;
+        }
+        mChild1[newParent] = sibling;
+        mChild2[newParent] = leaf;
+        mParent[sibling] = newParent;
+        mParent[leaf] = newParent;
+        refitAncestors(mParent[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == mRoot) {
+            mRoot = NULL_NODE;
+            return;
+        }
+        final int parent = mParent[leaf];
+        final int grandParent = mParent[parent];
+        final int sibling = mChild1[parent] == leaf ? mChild2[parent] : mChild1[parent];
+        if (grandParent != NULL_NODE) {
+            if (mChild1[grandParent] == parent) {
+                mChild1[grandParent] = sibling;
+            } else {
+                mChild2[grandParent] = sibling;
+            }
+            mParent[sibling] = grandParent;
+            freeNode(parent);
+            refitAncestors(grandParent);
+        } else {
+            mRoot = sibling;
+            mParent[sibling] = NULL_NODE;
+            freeNode(parent);
+        }
+    }
+
+    // Rebalances and recomputes the bounds and heights from a node up to the root
+    private void refitAncestors(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+            final int child1 = mChild1[index];
+            final int child2 = mChild2[index];
+            mHeight[index] = 1 + Math.max(mHeight[child1], mHeight[child2]);
+            combine(index, child1, child2);
+            index = mParent[index];
+        }
+    }
+
+    // Performs a left or right rotation if the node A is imbalanced, returns the new root of the subtree
+    private int balance(int a) {
+        if (isLeaf(a) || mHeight[a] < 2) {
+            return a;
+        }
+        final int b = mChild1[a];
+        final int c = mChild2[a];
+        final int balance = mHeight[c] - mHeight[b];
+        if (balance > 1) {
+            return rotate(a, c, b, false);
+        }
+        if (balance < -1) {
+            return rotate(a, b, c, true);
+        }
+        return a;
+    }
+
+    // Moves the child "up" of A in place of A, "other" is the other child of A
+    private int rotate(int a, int up, int other, boolean upIsChild1) {
+        final int f = mChild1[up];
+        final int g = mChild2[up];
+        mChild1[up] = a;
+        mParent[up] = mParent[a];
+        mParent[a] = up;
+        final int upParent = mParent[up];
+        if (upParent != NULL_NODE) {
+            if (mChild1[upParent] == a) {
+                mChild1[upParent] = up;
+            } else {
+                mChild2[upParent] = up;
+            }
+        } else {
+            mRoot = up;
+        }
+        final int kept;
+        final int moved;
+        if (mHeight[f] > mHeight[g]) {
+            kept = f;
+            moved = g;
+        } else {
+            kept = g;
+            moved = f;
+        }
+        mChild2[up] = kept;
+        if (upIsChild1) {
+            mChild1[a] = moved;
+        } else {
+            mChild2[a] = moved;
+        }
+        mParent[moved] = a;
+        combine(a, other, moved);
+        combine(up, a, kept);
+        mHeight[a] = 1 + Math.max(mHeight[other], mHeight[moved]);
+        mHeight[up] = 1 + Math.max(mHeight[a], mHeight[kept]);
+        return up;
+    }
+
+    private float descendCost(int child, int l) {
+        if (isLeaf(child)) {
+            return combinedArea(child, l);
+        }
+        return combinedArea(child, l) - area(child);
+    }
+
+    private boolean isLeaf(int node) {
+        return mChild1[node] == NULL_NODE;
+    }
+
+    private void checkLeaf(int leaf) {
+        if (leaf < 0 || leaf >= mNodeCapacity || !isLeaf(leaf) || mBodies[leaf] == null) {
+            throw new IllegalArgumentException("Invalid leaf node: " + leaf);
+        }
+    }
+
+    private boolean contains(int node, AABB aabb) {
+        final int b = node * 6;
+        final Vector3 min = aabb.getMin();
+        final Vector3 max = aabb.getMax();
+        return mBounds[b] <= min.getX() && mBounds[b + 1] <= min.getY() && mBounds[b + 2] <= min.getZ()
+                && mBounds[b + 3] >= max.getX() && mBounds[b + 4] >= max.getY() && mBounds[b + 5] >= max.getZ();
+    }
+
+    private void setFatBounds(int node, AABB aabb) {
+        final int b = node * 6;
+        final Vector3 min = aabb.getMin();
+        final Vector3 max = aabb.getMax();
+        mBounds[b] = min.getX() - mFatMargin;
+        mBounds[b + 1] = min.getY() - mFatMargin;
+        mBounds[b + 2] = min.getZ() - mFatMargin;
+        mBounds[b + 3] = max.getX() + mFatMargin;
+        mBounds[b + 4] = max.getY() + mFatMargin;
+        mBounds[b + 5] = max.getZ() + mFatMargin;
+    }
+
+    private void combine(int dst, int n1, int n2) {
+        final int d = dst * 6;
+        final int b1 = n1 * 6;
+        final int b2 = n2 * 6;
+        for (int i = 0; i < 3; i++) {
+            mBounds[d + i] = Math.min(mBounds[b1 + i], mBounds[b2 + i]);
+            mBounds[d + 3 + i] = Math.max(mBounds[b1 + 3 + i], mBounds[b2 + 3 + i]);
+        }
+    }
+
+    private float area(int node) {
+        final int b = node * 6;
+        return surface(mBounds[b + 3] - mBounds[b], mBounds[b + 4] - mBounds[b + 1], mBounds[b + 5] - mBounds[b + 2]);
+    }
+
+    // Surface of the union of the node with the bounds starting at the offset l
+    private float combinedArea(int node, int l) {
+        final int b = node * 6;
+        final float dx = Math.max(mBounds[b + 3], mBounds[l + 3]) - Math.min(mBounds[b], mBounds[l]);
+        final float dy = Math.max(mBounds[b + 4], mBounds[l + 4]) - Math.min(mBounds[b + 1], mBounds[l + 1]);
+        final float dz = Math.max(mBounds[b + 5], mBounds[l + 5]) - Math.min(mBounds[b + 2], mBounds[l + 2]);
+        return surface(dx, dy, dz);
+    }
+
+    private static float surface(float dx, float dy, float dz) {
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    private int allocateNode() {
+        if (mFreeList == NULL_NODE) {
+            allocateNodes(mNodeCapacity * 2);
+        }
+        final int node = mFreeList;
+        mFreeList = mParent[node];
+        mParent[node] = NULL_NODE;
+        mChild1[node] = NULL_NODE;
+        mChild2[node] = NULL_NODE;
+        mHeight[node] = 0;
+        mNbNodes++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        mBodies[node] = null;
+        mChild1[node] = NULL_NODE;
+        mChild2[node] = NULL_NODE;
+        mHeight[node] = -1;
+        mParent[node] = mFreeList;
+        mFreeList = node;
+        mNbNodes--;
+    }
+
+    private void allocateNodes(int capacity) {
+        final int oldCapacity = mNodeCapacity;
+        if (oldCapacity == 0) {
+            mBounds = new float[capacity * 6];
+            mParent = new int[capacity];
+            mChild1 = new int[capacity];
+            mChild2 = new int[capacity];
+            mHeight = new int[capacity];
+            mBodies = new CollisionBody[capacity];
+        } else {
+            mBounds = Arrays.copyOf(mBounds, capacity * 6);
+            mParent = Arrays.copyOf(mParent, capacity);
+            mChild1 = Arrays.copyOf(mChild1, capacity);
+            mChild2 = Arrays.copyOf(mChild2, capacity);
+            mHeight = Arrays.copyOf(mHeight, capacity);
+            mBodies = Arrays.copyOf(mBodies, capacity);
+        }
+        for (int i = oldCapacity; i < capacity; i++) {
+            mChild1[i] = NULL_NODE;
+            mChild2[i] = NULL_NODE;
+            mHeight[i] = -1;
+            mParent[i] = i + 1 < capacity ? i + 1 : mFreeList;
+        }
+        mFreeList = oldCapacity;
+        mNodeCapacity = capacity;
+    }
+
+    /**
+     * Called by {@link #query(AABB, QueryCallback)} for the leaves overlapping the AABB.
+     */
+    public interface QueryCallback {
+        /**
+         * Reports a leaf overlapping the queried AABB.
+         *
+         * @param leaf The leaf node index
+         * @param body The body of the leaf
+         */
+        void report(int leaf, CollisionBody body);
+    }
+
+    /**
+     * Called by {@link #raycast(Vector3, Vector3, float, RaycastCallback)} for the bodies whose AABB is touched by the ray.
+     */
+    public interface RaycastCallback {
+        /**
+         * Reports a body touched by the ray.
+         *
+         * @param body The body
+         * @param maxT The current maximum ray parameter
+         * @return The new maximum ray parameter, the ray parameter of the hit to only look for closer bodies or {@code maxT} to continue
+         */
+        float report(CollisionBody body, float maxT);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is part of React, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2013 Flow Powered <https://flowpowered.com/>
+ * Original ReactPhysics3D C++ library by Daniel Chappuis <http://danielchappuis.ch>
+ * React is re-licensed with permission from ReactPhysics3D author.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.flowpowered.react.collision.broadphase;
+
+import com.flowpowered.react.*;
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.*;
+import com.flowpowered.react.collision.shape.*;
+import gnu.trove.map.*;
+import gnu.trove.map.hash.*;
+
+import java.util.*;
+
+/**
+ * This class implements a broad-phase algorithm based on a {@link DynamicAABBTree}. The tree stores fattened AABBs, a body moving inside of its fattened AABB doesn't change the tree nor the pairs.
+ * Two bodies are an overlapping pair when their fattened AABBs overlap and at least one of them can move, like with the sweep and prune algorithm. When a body leaves its fattened AABB, only the
+ * bodies around its old and new AABBs are tested.
+ */
+public class DynamicAABBTreeAlgorithm extends BroadPhaseAlgorithm {
+    private final DynamicAABBTree mTree = new DynamicAABBTree(ReactDefaults.AABB_TREE_FAT_MARGIN);
+    private final TObjectIntMap<CollisionBody> mMapBodyToLeaf = new TObjectIntHashMap<>();
+    private final AABB mPreviousFatAABB = new AABB();
+    private final AABB mNewFatAABB = new AABB();
+    private final AABB mOtherFatAABB = new AABB();
+    private final BitSet mPendingLeaves = new BitSet();
+    private CollisionBody mQueriedBody;
+    private int mQueriedLeaf;
+    private final DynamicAABBTree.QueryCallback mAddPairs = (leaf, body) -> {
+        if (leaf != mQueriedLeaf && !mPendingLeaves.get(leaf) && (body.isMotionEnabled() || mQueriedBody.isMotionEnabled())) {
+            mPairManager.addPair(mQueriedBody, body);
+        }
+    };
+    private final DynamicAABBTree.QueryCallback mRemoveLostPairs = (leaf, body) -> {
+        if (leaf != mQueriedLeaf && !mNewFatAABB.testCollision(mTree.getFatAABB(leaf, mOtherFatAABB))) {
+            mPairManager.removePair(mQueriedBody.getID(), body.getID());
+        }
+    };
+    private final DynamicAABBTree.QueryCallback mRemoveAllPairs = (leaf, body) -> {
+        if (leaf != mQueriedLeaf) {
+            mPairManager.removePair(mQueriedBody.getID(), body.getID());
+        }
+    };
+
+    /**
+     * Constructs a new dynamic AABB tree algorithm from the collision detection it's associated to.
+     *
+     * @param collisionDetection The collision detection
+     */
+    public DynamicAABBTreeAlgorithm(CollisionDetection collisionDetection) {
+        super(collisionDetection);
+    }
+
+    /**
+     * Gets the number of objects managed by this algorithm.
+     *
+     * @return The number of objects
+     */
+    public int getNbObjects() {
+        return mTree.getNbObjects();
+    }
+
+    @Override
+    public void addObject(CollisionBody body, AABB aabb) {
+        if (body == null) {
+            throw new IllegalArgumentException("Attempting to add a null collision body");
+        }
+        if (aabb == null) {
+            throw new IllegalArgumentException("Attempting to add a null AABB");
+        }
+        final int leaf = mTree.addObject(body, aabb);
+        mMapBodyToLeaf.put(body, leaf);
+        addPairs(leaf, body);
+    }
+
+    /**
+     * Adds several bodies at once. All the leaves are inserted first, then each new pair is found once.
+     *
+     * @param bodies The bodies to add
+     */
+    @Override
+    public void addObjects(Collection<? extends CollisionBody> bodies) {
+        final int[] leaves = new int[bodies.size()];
+        int i = 0;
+        for (CollisionBody body : bodies) {
+            final int leaf = mTree.addObject(body, body.getAABB());
+            mMapBodyToLeaf.put(body, leaf);
+            mPendingLeaves.set(leaf);
+            leaves[i++] = leaf;
+        }
+        // a pair of two new bodies is added by the last one of the two
+        for (int leaf : leaves) {
+            mPendingLeaves.clear(leaf);
+            addPairs(leaf, mTree.getBody(leaf));
+        }
+    }
+
+    @Override
+    public void removeObject(CollisionBody body) {
+        if (!mMapBodyToLeaf.containsKey(body)) {
+            return;
+        }
+        final int leaf = mMapBodyToLeaf.remove(body);
+        mQueriedBody = body;
+        mQueriedLeaf = leaf;
+        mTree.query(mTree.getFatAABB(leaf, mNewFatAABB), mRemoveAllPairs);
+        mTree.removeObject(leaf);
+        mQueriedBody = null;
+    }
+
+    @Override
+    public void updateObject(CollisionBody body, AABB aabb) {
+        final int leaf = mMapBodyToLeaf.get(body);
+        mTree.getFatAABB(leaf, mPreviousFatAABB);
+        if (!mTree.updateObject(leaf, aabb)) {
+            return;
+        }
+        mTree.getFatAABB(leaf, mNewFatAABB);
+        mQueriedBody = body;
+        mQueriedLeaf = leaf;
+        mTree.query(mPreviousFatAABB, mRemoveLostPairs);
+        mTree.query(mNewFatAABB, mAddPairs);
+        mQueriedBody = null;
+    }
+
+    @Override
+    public DynamicAABBTree getTree() {
+        return mTree;
+    }
+
+    private void addPairs(int leaf, CollisionBody body) {
+        mQueriedBody = body;
+        mQueriedLeaf = leaf;
+        mTree.query(mTree.getFatAABB(leaf, mNewFatAABB), mAddPairs);
+        mQueriedBody = null;
+    }
+}
@@ -0,0 +1,312 @@
+package com.flowpowered.react.collision.broadphase;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.math.*;
+
+import java.util.*;
+
+/**
+ * Runnable brute force check of the {@link DynamicAABBTree}, exits with 1 if a check fails. The tree is compared to a plain list of the fattened AABBs of its leaves.
+ * <ul>
+ * <li>random adds, small and large moves and removes keep the same fattened AABBs as the list, the small moves inside of the fattened AABB don't move the leaf</li>
+ * <li>random AABB queries report each overlapping leaf once and no other</li>
+ * <li>random raycasts, axis aligned ones and ones starting on the planes of a leaf included, report the same bodies as a slab test of each leaf</li>
+ * <li>raycasts shortened at each hit give the closest hit</li>
+ * <li>the height of the tree stays under 2 log2(n) + 2, also when the bodies are added in order along a line</li>
+ * </ul>
+ * Arguments: number of random operations (default 200000) and seed (default 3).
+ */
+public class DynamicAABBTreeCheck {
+    private static final float MARGIN = 0.1f;
+    private static final float WORLD_SIZE = 200;
+    private static final float MAX_T = 400;
+    private static int failures;
+
+    public static void main(String[] args) {
+        final int operations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : 3;
+        final Random random = new Random(seed);
+        checkRandomOperations(random, operations);
+        checkSortedInsertions();
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkRandomOperations(Random random, int operations) {
+        final DynamicAABBTree tree = new DynamicAABBTree(MARGIN);
+        final CollisionShape shape = new SphereShape(1);
+        // the fattened bounds of each leaf, {minX, minY, minZ, maxX, maxY, maxZ}
+        final Map<Integer, float[]> fatBounds = new HashMap<>();
+        final Map<Integer, CollisionBody> bodies = new HashMap<>();
+        final List<Integer> leaves = new ArrayList<>();
+        final AABB aabb = new AABB();
+        final AABB fat = new AABB();
+        boolean bounds = true;
+        boolean updates = true;
+        boolean queries = true;
+        boolean rays = true;
+        boolean closest = true;
+        boolean height = true;
+        int maxLeaves = 0;
+        int maxHeight = 0;
+        int nbQueries = 0;
+        int nbRays = 0;
+        int nextID = 0;
+        for (int n = 0; n < operations; n++) {
+            // more adds in the first half of each period, more removes in the second one
+            final boolean growing = (n / 20000) % 2 == 0;
+            final int operation = random.nextInt(20);
+            if (leaves.isEmpty() || operation < (growing ? 6 : 3)) {
+                randomAABB(random, aabb);
+                final CollisionBody body = new RigidBody(new Transform(), 1, Matrix3x3.identity(), shape, nextID++);
+                final int leaf = tree.addObject(body, aabb);
+                updates &= !fatBounds.containsKey(leaf);
+                fatBounds.put(leaf, fatten(aabb));
+                bodies.put(leaf, body);
+                leaves.add(leaf);
+            } else if (operation < 9) {
+                final int leaf = removeRandom(random, leaves);
+                tree.removeObject(leaf);
+                fatBounds.remove(leaf);
+                bodies.remove(leaf);
+            } else if (operation < 14) {
+                final int leaf = leaves.get(random.nextInt(leaves.size()));
+                final float[] b = fatBounds.get(leaf);
+                if (random.nextBoolean()) {
+                    // a small move, often still inside of the fattened AABB
+                    final float dx = (random.nextFloat() - 0.5f) * MARGIN * 2;
+                    final float dy = (random.nextFloat() - 0.5f) * MARGIN * 2;
+                    final float dz = (random.nextFloat() - 0.5f) * MARGIN * 2;
+                    aabb.getMin().setAllValues(b[0] + MARGIN + dx, b[1] + MARGIN + dy, b[2] + MARGIN + dz);
+                    aabb.getMax().setAllValues(b[3] - MARGIN + dx, b[4] - MARGIN + dy, b[5] - MARGIN + dz);
+                } else {
+                    randomAABB(random, aabb);
+                }
+                final boolean expectedMove = !contains(b, aabb);
+                updates &= tree.updateObject(leaf, aabb) == expectedMove;
+                if (expectedMove) {
+                    fatBounds.put(leaf, fatten(aabb));
+                }
+            } else if (operation < 17) {
+                randomAABB(random, aabb);
+                queries &= checkQuery(tree, aabb, fatBounds, bodies);
+                nbQueries++;
+            } else {
+                final Vector3 start = new Vector3();
+                final Vector3 direction = new Vector3();
+                randomRay(random, start, direction, fatBounds, leaves);
+                rays &= checkRaycast(tree, start, direction, fatBounds, bodies);
+                closest &= checkClosestRaycast(tree, start, direction, fatBounds, bodies);
+                nbRays++;
+            }
+            maxLeaves = Math.max(maxLeaves, leaves.size());
+            maxHeight = Math.max(maxHeight, tree.getHeight());
+            height &= tree.getHeight() <= maxHeight(leaves.size());
+            if (n % 1000 == 0) {
+                updates &= tree.getNbObjects() == leaves.size();
+                for (int leaf : leaves) {
+                    tree.getFatAABB(leaf, fat);
+                    bounds &= Arrays.equals(toArray(fat), fatBounds.get(leaf)) && tree.getBody(leaf) == bodies.get(leaf);
+                }
+            }
+        }
+        check("the leaves keep the fattened AABBs of the list (up to " + maxLeaves + " leaves)", bounds);
+        check("adds, moves and removes match the list, the moves inside of the fattened AABB are skipped", updates);
+        check(nbQueries + " queries report the overlapping leaves", queries);
+        check(nbRays + " raycasts report the bodies touched", rays);
+        check("raycasts shortened at each hit give the closest hit", closest);
+        check("the height stays under 2 log2(n) + 2 (at most " + maxHeight + ")", height);
+        for (int leaf : leaves) {
+            tree.removeObject(leaf);
+        }
+        check("the tree is empty once all the leaves are removed", tree.getNbObjects() == 0 && tree.getHeight() == 0);
+    }
+
+    // Bodies added in order along a line and in a grid, a tree without rotations degenerates into a list with them
+    private static void checkSortedInsertions() {
+        final DynamicAABBTree tree = new DynamicAABBTree(MARGIN);
+        final CollisionShape shape = new SphereShape(1);
+        final AABB aabb = new AABB();
+        boolean height = true;
+        final List<Integer> leaves = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            aabb.getMin().setAllValues(i, 0, 0);
+            aabb.getMax().setAllValues(i + 0.5f, 0.5f, 0.5f);
+            leaves.add(tree.addObject(new RigidBody(new Transform(), 1, Matrix3x3.identity(), shape, i), aabb));
+            height &= tree.getHeight() <= maxHeight(i + 1);
+        }
+        final int lineHeight = tree.getHeight();
+        // removing every other leaf from the start
+        for (int i = 0; i < leaves.size(); i += 2) {
+            tree.removeObject(leaves.get(i));
+            height &= tree.getHeight() <= maxHeight(tree.getNbObjects());
+        }
+        for (int x = 0; x < 100; x++) {
+            for (int z = 0; z < 100; z++) {
+                aabb.getMin().setAllValues(x, 5, z);
+                aabb.getMax().setAllValues(x + 0.5f, 5.5f, z + 0.5f);
+                tree.addObject(new RigidBody(new Transform(), 1, Matrix3x3.identity(), shape, 20000 + x * 100 + z), aabb);
+                height &= tree.getHeight() <= maxHeight(tree.getNbObjects());
+            }
+        }
+        check("the height stays logarithmic with sorted insertions and removals (" + lineHeight + " for 20000 leaves on a line, "
+                + tree.getHeight() + " for " + tree.getNbObjects() + " leaves)", height);
+    }
+
+    private static int maxHeight(int nbLeaves) {
+        return nbLeaves <= 1 ? 0 : (int) (2 * Math.ceil(Math.log(nbLeaves) / Math.log(2))) + 2;
+    }
+
+    private static boolean checkQuery(DynamicAABBTree tree, AABB aabb, Map<Integer, float[]> fatBounds, Map<Integer, CollisionBody> bodies) {
+        final Set<Integer> expected = new HashSet<>();
+        final float[] q = toArray(aabb);
+        for (Map.Entry<Integer, float[]> entry : fatBounds.entrySet()) {
+            if (overlap(entry.getValue(), q)) {
+                expected.add(entry.getKey());
+            }
+        }
+        final Set<Integer> reported = new HashSet<>();
+        final boolean[] valid = {true};
+        tree.query(aabb, (leaf, body) -> valid[0] &= reported.add(leaf) && bodies.get(leaf) == body);
+        return valid[0] && reported.equals(expected);
+    }
+
+    private static boolean checkRaycast(DynamicAABBTree tree, Vector3 start, Vector3 direction, Map<Integer, float[]> fatBounds, Map<Integer, CollisionBody> bodies) {
+        final Set<CollisionBody> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Integer, float[]> entry : fatBounds.entrySet()) {
+            if (rayEntry(entry.getValue(), start, direction, MAX_T) >= 0) {
+                expected.add(bodies.get(entry.getKey()));
+            }
+        }
+        final Set<CollisionBody> reported = Collections.newSetFromMap(new IdentityHashMap<>());
+        final boolean[] valid = {true};
+        final float maxT = tree.raycast(start, direction, MAX_T, (body, t) -> {
+            valid[0] &= reported.add(body);
+            return t;
+        });
+        return valid[0] && maxT == MAX_T && reported.equals(expected);
+    }
+
+    private static boolean checkClosestRaycast(DynamicAABBTree tree, Vector3 start, Vector3 direction, Map<Integer, float[]> fatBounds, Map<Integer, CollisionBody> bodies) {
+        final Map<CollisionBody, float[]> boundsByBody = new IdentityHashMap<>();
+        float expected = MAX_T;
+        for (Map.Entry<Integer, float[]> entry : fatBounds.entrySet()) {
+            boundsByBody.put(bodies.get(entry.getKey()), entry.getValue());
+            final float t = rayEntry(entry.getValue(), start, direction, MAX_T);
+            if (t >= 0) {
+                expected = Math.min(expected, t);
+            }
+        }
+        final float closest = tree.raycast(start, direction, MAX_T, (body, maxT) -> {
+            final float t = rayEntry(boundsByBody.get(body), start, direction, maxT);
+            return t >= 0 ? t : maxT;
+        });
+        return closest == expected;
+    }
+
+    // The entry ray parameter in the bounds, 0 if the start is inside, or -1 if the ray misses them in [0, maxT]
+    private static float rayEntry(float[] b, Vector3 start, Vector3 direction, float maxT) {
+        float tMin = 0;
+        float tMax = maxT;
+        for (int i = 0; i < 3; i++) {
+            final float s = start.get(i);
+            final float d = direction.get(i);
+            if (d == 0) {
+                // parallel to the slab, inside of it or missing it
+                if (s < b[i] || s > b[i + 3]) {
+                    return -1;
+                }
+                continue;
+            }
+            final float inverse = 1 / d;
+            final float t0 = (b[i] - s) * inverse;
+            final float t1 = (b[i + 3] - s) * inverse;
+            tMin = Math.max(tMin, Math.min(t0, t1));
+            tMax = Math.min(tMax, Math.max(t0, t1));
+        }
+        return tMin <= tMax ? tMin : -1;
+    }
+
+    // Random rays from around the world, some of them axis aligned and some starting on a plane of a leaf
+    private static void randomRay(Random random, Vector3 start, Vector3 direction, Map<Integer, float[]> fatBounds, List<Integer> leaves) {
+        start.setAllValues(randomCoordinate(random) * 1.2f, randomCoordinate(random) * 1.2f, randomCoordinate(random) * 1.2f);
+        final int kind = random.nextInt(4);
+        if (kind == 0) {
+            final int axis = random.nextInt(3);
+            direction.setAllValues(0, 0, 0);
+            direction.set(axis, random.nextBoolean() ? 1 : -1);
+            if (!leaves.isEmpty() && random.nextBoolean()) {
+                // on the plane of a leaf which is parallel to the ray
+                final float[] b = fatBounds.get(leaves.get(random.nextInt(leaves.size())));
+                final int other = (axis + 1 + random.nextInt(2)) % 3;
+                start.set(other, b[other + (random.nextBoolean() ? 3 : 0)]);
+            }
+        } else {
+            direction.setAllValues(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+            if (kind == 1) {
+                direction.set(random.nextInt(3), 0);
+            }
+            if (direction.length() == 0) {
+                direction.setAllValues(1, 0, 0);
+            }
+            direction.normalize();
+        }
+    }
+
+    private static void randomAABB(Random random, AABB aabb) {
+        final float x = randomCoordinate(random);
+        final float y = randomCoordinate(random);
+        final float z = randomCoordinate(random);
+        // mostly small bodies and a few large ones
+        final float size = random.nextInt(50) == 0 ? 30 : 3;
+        aabb.getMin().setAllValues(x, y, z);
+        aabb.getMax().setAllValues(x + random.nextFloat() * size, y + random.nextFloat() * size, z + random.nextFloat() * size);
+    }
+
+    private static float randomCoordinate(Random random) {
+        return (random.nextFloat() - 0.5f) * WORLD_SIZE;
+    }
+
+    private static int removeRandom(Random random, List<Integer> list) {
+        final int i = random.nextInt(list.size());
+        final int last = list.remove(list.size() - 1);
+        if (i == list.size()) {
+            return last;
+        }
+        return list.set(i, last);
+    }
+
+    private static float[] fatten(AABB aabb) {
+        final float[] b = toArray(aabb);
+        for (int i = 0; i < 3; i++) {
+            b[i] -= MARGIN;
+            b[i + 3] += MARGIN;
+        }
+        return b;
+    }
+
+    private static float[] toArray(AABB aabb) {
+        final Vector3 min = aabb.getMin();
+        final Vector3 max = aabb.getMax();
+        return new float[]{min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ()};
+    }
+
+    private static boolean contains(float[] b, AABB aabb) {
+        final float[] a = toArray(aabb);
+        return b[0] <= a[0] && b[1] <= a[1] && b[2] <= a[2] && b[3] >= a[3] && b[4] >= a[4] && b[5] >= a[5];
+    }
+
+    private static boolean overlap(float[] a, float[] b) {
+        return a[0] <= b[3] && b[0] <= a[3] && a[1] <= b[4] && b[1] <= a[4] && a[2] <= b[5] && b[2] <= a[5];
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
@@ -25,22 +25,25 @@
  */
 package com.flowpowered.react.collision.broadphase;
 
-import com.flowpowered.react.*;
 import com.flowpowered.react.Utilities.*;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.collision.*;
 
+import java.util.*;
+
 /**
  * This class is a data-structure contains the pairs of bodies that are overlapping during the broad-phase collision detection. This class implements the pair manager described by Pierre Terdiman in
- * www.codercorner.com/SAP.pdf.
+ * www.codercorner.com/SAP.pdf, with an open addressing hash table. The two body IDs of a pair are packed in a long key, the table stores the index of the pair in the dense array of the overlapping
+ * pairs so a lookup, an insertion or a removal doesn't create any object.
  */
 public class PairManager {
-    private static final int INVALID_INDEX = Integer.MAX_VALUE;
-    private int mNbElementsHashTable = 0;
+    private static final int INVALID_INDEX = -1;
+    private static final int MIN_CAPACITY = 16;
+    private int mCapacity = 0;
     private int mHashMask = 0;
     private int mNbOverlappingPairs = 0;
     private int[] mHashTable = null;
-    private int[] mOffsetNextPair = null;
+    private long[] mPairKeys = null;
     private BodyPair[] mOverlappingPairs = null;
     private final CollisionDetection mCollisionDetection;
 
@@ -62,48 +65,37 @@ public class PairManager {
         return mNbOverlappingPairs;
     }
 
-    // Compute the hash value of two bodies
-    private int computeHashBodies(int id1, int id2) {
-        return computeHash32Bits(id1 | id2 << 16);
-    }
-
-    // Return true if pair1 and pair2 are the same
-    private boolean isDifferentPair(BodyPair pair1, int pair2ID1, int pair2ID2) {
-        return pair2ID1 != pair1.getFirstBody().getID() || pair2ID2 != pair1.getSecondBody().getID();
-    }
-
-    // Sort the bodies according to their IDs (smallest ID first)
-    private BodyPair sortBodiesUsingID(CollisionBody body1, CollisionBody body2) {
-        if (body1.getID() > body2.getID()) {
-            final CollisionBody temp = body2;
-            body2 = body1;
-            body1 = temp;
+    /**
+     * Packs the two body IDs in a key, the smallest ID first. The key is the same for both orders of the IDs.
+     *
+     * @param id1 The first ID
+     * @param id2 The second ID
+     * @return The key of the pair
+     */
+    public static long computePairKey(int id1, int id2) {
+        if (id1 > id2) {
+            return (long) id2 << 32 | id1 & 0xFFFFFFFFL;
         }
-        return new BodyPair(body1, body2);
+        return (long) id1 << 32 | id2 & 0xFFFFFFFFL;
     }
 
-    // Sort the IDs (smallest ID first)
-    private IntPair sortIDs(int id1, int id2) {
-        if (id1 > id2) {
-            final int temp = id2;
-            id2 = id1;
-            id1 = temp;
-        }
-        return new IntPair(id1, id2);
+    // Compute the slot of a key in the hash table, mixing the bits of both IDs (finalizer of MurmurHash3)
+    private int computeHashSlot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mHashMask;
     }
 
-    // This method returns an hash value for a 32 bits key.
-    // using Thomas Wang's hash technique.
-    // This hash function can be found at :
-    // http://www.concentric.net/~ttwang/tech/inthash.htm
-    private int computeHash32Bits(int key) {
-        key += ~(key << 15);
-        key ^= key >> 10;
-        key += key << 3;
-        key ^= key >> 6;
-        key += ~(key << 11);
-        key ^= key >> 16;
-        return key;
+    // Returns the slot of the hash table holding the pair with the key, or the empty slot where it should be added.
+    private int findSlot(long key) {
+        int slot = computeHashSlot(key);
+        while (mHashTable[slot] != INVALID_INDEX && mPairKeys[mHashTable[slot]] != key) {
+            slot = slot + 1 & mHashMask;
+        }
+        return slot;
     }
 
     /**
@@ -117,39 +109,8 @@ public class PairManager {
         if (mHashTable == null) {
             return null;
         }
-        sortIDs(id1, id2);
-        final int hashValue = computeHashBodies(id1, id2) & mHashMask;
-        return lookForAPair(id1, id2, hashValue);
-    }
-
-    // Find a pair given two body IDs and an hash value.
-    // This internal version is used to avoid computing multiple times in the
-    // caller method
-    private BodyPair findPairWithHashValue(int id1, int id2, int hashValue) {
-        if (mHashTable == null) {
-            return null;
-        }
-        return lookForAPair(id1, id2, hashValue);
-    }
-
-    // Try to reduce the allocated memory by the pair manager
-    private void shrinkMemory() {
-        final int correctNbElementsHashTable = computeNextPowerOfTwo(mNbOverlappingPairs);
-        if (mNbElementsHashTable == correctNbElementsHashTable) {
-            return;
-        }
-        mNbElementsHashTable = correctNbElementsHashTable;
-        mHashMask = mNbElementsHashTable - 1;
-        reallocatePairs();
-    }
-
-    // Compute the offset of a given pair in the array of overlapping pairs
-    private int computePairOffset(BodyPair pair) {
-        final int offset = Utilities.indexOf(mOverlappingPairs, pair);
-        if (offset == -1) {
-            throw new IllegalArgumentException("pair not in mOverlappingPairs[]");
-        }
-        return offset;
+        final int index = mHashTable[findSlot(computePairKey(id1, id2))];
+        return index == INVALID_INDEX ? null : mOverlappingPairs[index];
     }
 
     /**
@@ -184,25 +145,18 @@ public class PairManager {
      * @return The added pair
      */
     public BodyPair addPair(CollisionBody body1, CollisionBody body2) {
-        final BodyPair newPair = sortBodiesUsingID(body1, body2);
-        body1 = newPair.getFirstBody();
-        body2 = newPair.getSecondBody();
-        final int id1 = body1.getID();
-        final int id2 = body2.getID();
-        int hashValue = computeHashBodies(id1, id2) & mHashMask;
-        final BodyPair pair = findPairWithHashValue(id1, id2, hashValue);
-        if (pair != null) {
-            return pair;
+        if (mNbOverlappingPairs >= mCapacity) {
+            reallocatePairs(Math.max(MIN_CAPACITY, mCapacity * 2));
         }
-        if (mNbOverlappingPairs >= mNbElementsHashTable) {
-            mNbElementsHashTable = computeNextPowerOfTwo(mNbOverlappingPairs + 1);
-            mHashMask = mNbElementsHashTable - 1;
-            reallocatePairs();
-            hashValue = computeHashBodies(id1, id2) & mHashMask;
+        final long key = computePairKey(body1.getID(), body2.getID());
+        final int slot = findSlot(key);
+        if (mHashTable[slot] != INVALID_INDEX) {
+            return mOverlappingPairs[mHashTable[slot]];
         }
+        final BodyPair newPair = body1.getID() > body2.getID() ? new BodyPair(body2, body1) : new BodyPair(body1, body2);
         mOverlappingPairs[mNbOverlappingPairs] = newPair;
-        mOffsetNextPair[mNbOverlappingPairs] = mHashTable[hashValue];
-        mHashTable[hashValue] = mNbOverlappingPairs++;
+        mPairKeys[mNbOverlappingPairs] = key;
+        mHashTable[slot] = mNbOverlappingPairs++;
         mCollisionDetection.broadPhaseNotifyAddedOverlappingPair(newPair);
         return newPair;
     }
@@ -215,110 +169,69 @@ public class PairManager {
      * @return Whether or not the pair has been removed
      */
     public boolean removePair(int id1, int id2) {
-        final IntPair intPair = sortIDs(id1, id2);
-        id1 = intPair.getFirst();
-        id2 = intPair.getSecond();
-        final int hashValue = computeHashBodies(id1, id2) & mHashMask;
-        final BodyPair pair = findPairWithHashValue(id1, id2, hashValue);
-        if (pair == null) {
+        if (mHashTable == null) {
             return false;
         }
-        if (pair.getFirstBody().getID() != id1) {
-            throw new IllegalStateException("Incorrect pair was found");
+        final int slot = findSlot(computePairKey(id1, id2));
+        final int indexPair = mHashTable[slot];
+        if (indexPair == INVALID_INDEX) {
+            return false;
+        }
+        mCollisionDetection.broadPhaseNotifyRemovedOverlappingPair(mOverlappingPairs[indexPair]);
+        removeSlot(slot);
+        final int indexLastPair = mNbOverlappingPairs - 1;
+        if (indexPair != indexLastPair) {
+            // the last pair fills the hole to keep the array dense
+            mHashTable[findSlot(mPairKeys[indexLastPair])] = indexPair;
+            mOverlappingPairs[indexPair] = mOverlappingPairs[indexLastPair];
+            mPairKeys[indexPair] = mPairKeys[indexLastPair];
         }
-        if (pair.getSecondBody().getID() != id2) {
-            throw new IllegalStateException("Incorrect pair was found");
+        mOverlappingPairs[indexLastPair] = null;
+        mNbOverlappingPairs--;
+        // only shrink well below the capacity, so the pairs that appear and disappear around a size don't reallocate every time
+        if (mCapacity > MIN_CAPACITY && mNbOverlappingPairs < mCapacity / 4) {
+            reallocatePairs(mCapacity / 2);
         }
-        mCollisionDetection.broadPhaseNotifyRemovedOverlappingPair(pair);
-        removePairWithHashValue(hashValue, computePairOffset(pair));
-        shrinkMemory();
         return true;
     }
 
-    // Internal method to remove a pair from the set of overlapping pair
-    private void removePairWithHashValue(int hashValue, int indexPair) {
-        int offset = mHashTable[hashValue];
-        if (offset == INVALID_INDEX) {
-            throw new IllegalStateException("offset cannot be equal to INVALID_INDEX");
-        }
-        int previousPair = INVALID_INDEX;
-        while (offset != indexPair) {
-            previousPair = offset;
-            offset = mOffsetNextPair[offset];
-        }
-        if (previousPair == INVALID_INDEX) {
-            mHashTable[hashValue] = mOffsetNextPair[indexPair];
-        } else {
-            if (mOffsetNextPair[previousPair] != indexPair) {
-                throw new IllegalStateException("offsetNextPair at index previousPair must be equal to indexPair");
-            }
-            mOffsetNextPair[previousPair] = mOffsetNextPair[indexPair];
-        }
-        final int indexLastPair = mNbOverlappingPairs - 1;
-        if (indexPair == indexLastPair) {
-            mNbOverlappingPairs--;
-        } else {
-            final BodyPair lastPair = mOverlappingPairs[indexLastPair];
-            final int lastPairHashValue = computeHashBodies(lastPair.getFirstBody().getID(), lastPair.getSecondBody().getID()) & mHashMask;
-            offset = mHashTable[lastPairHashValue];
-            if (offset == INVALID_INDEX) {
-                throw new IllegalStateException("offset cannot be equal to INVALID_INDEX");
-            }
-            int previous = INVALID_INDEX;
-            while (offset != indexLastPair) {
-                previous = offset;
-                offset = mOffsetNextPair[offset];
+    // Empties a slot of the hash table and moves back the following entries of the probe sequence so the lookups don't stop early.
+    private void removeSlot(int slot) {
+        int empty = slot;
+        int next = slot;
+        while (true) {
+            next = next + 1 & mHashMask;
+            final int index = mHashTable[next];
+            if (index == INVALID_INDEX) {
+                break;
             }
-            if (previous != INVALID_INDEX) {
-                if (mOffsetNextPair[previous] != indexLastPair) {
-                    throw new IllegalStateException("offsetNextPair at index previous must be equal to indexLastPair");
-                }
-                mOffsetNextPair[previous] = mOffsetNextPair[indexLastPair];
-            } else {
-                mHashTable[lastPairHashValue] = mOffsetNextPair[indexLastPair];
+            final int home = computeHashSlot(mPairKeys[index]);
+            // the entry can move to the empty slot if its home slot isn't between the empty slot and its current slot
+            if ((next - home & mHashMask) >= (next - empty & mHashMask)) {
+                mHashTable[empty] = index;
+                empty = next;
             }
-            mOverlappingPairs[indexPair] = mOverlappingPairs[indexLastPair];
-            mOffsetNextPair[indexPair] = mHashTable[lastPairHashValue];
-            mHashTable[lastPairHashValue] = indexPair;
-
-            mNbOverlappingPairs--;
         }
+        mHashTable[empty] = INVALID_INDEX;
     }
 
-    // Look for a pair in the set of overlapping pairs
-    private BodyPair lookForAPair(int id1, int id2, int hashValue) {
-        int offset = mHashTable[hashValue];
-        while (offset != INVALID_INDEX && isDifferentPair(mOverlappingPairs[offset], id1, id2)) {
-            offset = mOffsetNextPair[offset];
-        }
-        if (offset == INVALID_INDEX) {
-            return null;
-        }
-        if (offset >= mNbOverlappingPairs) {
-            throw new IllegalStateException("offset cannot be greater or equal to nbOverlappingPairs");
-        }
-        return mOverlappingPairs[offset];
-    }
-
-    // Reallocate more pairs
-    private void reallocatePairs() {
-        mHashTable = new int[mNbElementsHashTable];
-        for (int i = 0; i < mNbElementsHashTable; i++) {
-            mHashTable[i] = INVALID_INDEX;
-        }
-        final BodyPair[] newOverlappingPairs = new BodyPair[mNbElementsHashTable];
-        int[] newOffsetNextPair = new int[mNbElementsHashTable];
+    // Reallocate the pairs with the capacity and rebuild the hash table, which has twice more slots than the capacity.
+    private void reallocatePairs(int capacity) {
+        mCapacity = capacity;
+        mHashMask = capacity * 2 - 1;
+        mHashTable = new int[capacity * 2];
+        Arrays.fill(mHashTable, INVALID_INDEX);
+        final BodyPair[] newOverlappingPairs = new BodyPair[capacity];
+        final long[] newPairKeys = new long[capacity];
         if (mNbOverlappingPairs != 0) {
             System.arraycopy(mOverlappingPairs, 0, newOverlappingPairs, 0, mNbOverlappingPairs);
+            System.arraycopy(mPairKeys, 0, newPairKeys, 0, mNbOverlappingPairs);
         }
+        mOverlappingPairs = newOverlappingPairs;
+        mPairKeys = newPairKeys;
         for (int i = 0; i < mNbOverlappingPairs; i++) {
-            final int newHashValue = computeHashBodies(mOverlappingPairs[i].getFirstBody().getID(),
-                    mOverlappingPairs[i].getSecondBody().getID()) & mHashMask;
-            newOffsetNextPair[i] = mHashTable[newHashValue];
-            mHashTable[newHashValue] = i;
+            mHashTable[findSlot(mPairKeys[i])] = i;
         }
-        mOverlappingPairs = newOverlappingPairs;
-        mOffsetNextPair = newOffsetNextPair;
     }
 
     /**
@@ -342,6 +255,7 @@ public class PairManager {
     public static class BodyPair {
         private CollisionBody body1;
         private CollisionBody body2;
+        private BroadPhasePair mBroadPhasePair;
 
         /**
          * Default constructor. Both bodies are null.
@@ -396,6 +310,24 @@ public class PairManager {
             this.body2 = body2;
         }
 
+        /**
+         * Gets the broad phase pair of the collision detection for this pair, or null if it hasn't been notified yet.
+         *
+         * @return The broad phase pair
+         */
+        public BroadPhasePair getBroadPhasePair() {
+            return mBroadPhasePair;
+        }
+
+        /**
+         * Sets the broad phase pair of the collision detection for this pair.
+         *
+         * @param broadPhasePair The broad phase pair
+         */
+        public void setBroadPhasePair(BroadPhasePair broadPhasePair) {
+            mBroadPhasePair = broadPhasePair;
+        }
+
         /**
          * Gets the indexes (IDs) of the bodies as a pair of integers.
          *
@@ -0,0 +1,153 @@
+package com.flowpowered.react.collision.broadphase;
+
+import com.flowpowered.react.Utilities.*;
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.*;
+import com.flowpowered.react.collision.broadphase.PairManager.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.engine.*;
+import com.flowpowered.react.math.*;
+
+import java.util.*;
+
+/**
+ * Runnable brute force check of the {@link PairManager} against a {@link HashMap} keyed by the sorted ID pairs, exits with 1 if a check fails.
+ * The packed pair keys must be the same for both orders of the IDs and unique for the different pairs, the extreme IDs included.
+ * Random adds, finds and removes with the IDs in a random order make the table grow and shrink, they must give the same pairs as the map,
+ * keep the array of the pairs dense and notify the collision detection of each added and removed pair once.
+ * Arguments: number of random operations (default 1000000) and seed (default 5).
+ */
+public class PairManagerCheck {
+    private static int failures;
+
+    public static void main(String[] args) {
+        final int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : 5;
+        final Random random = new Random(seed);
+        checkKeys(random);
+        checkOperations(random, operations);
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkKeys(Random random) {
+        final int[] ids = {0, 1, 2, 3, 65535, 65536, Integer.MAX_VALUE - 1, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        final Map<Long, IntPair> pairByKey = new HashMap<>();
+        boolean symmetric = true;
+        boolean unique = true;
+        for (int i = 0; i < ids.length; i++) {
+            for (int j = i + 1; j < ids.length; j++) {
+                final long key = PairManager.computePairKey(ids[i], ids[j]);
+                symmetric &= key == PairManager.computePairKey(ids[j], ids[i]);
+                unique &= pairByKey.put(key, new IntPair(Math.min(ids[i], ids[j]), Math.max(ids[i], ids[j]))) == null;
+            }
+        }
+        for (int n = 0; n < 200000; n++) {
+            final int id1 = random.nextInt(1 << 20);
+            final int id2 = random.nextInt(1 << 20);
+            if (id1 == id2) {
+                continue;
+            }
+            final long key = PairManager.computePairKey(id1, id2);
+            symmetric &= key == PairManager.computePairKey(id2, id1);
+            final IntPair pair = new IntPair(Math.min(id1, id2), Math.max(id1, id2));
+            final IntPair previous = pairByKey.put(key, pair);
+            unique &= previous == null || previous.equals(pair);
+        }
+        check("pair keys are the same for both orders of the IDs", symmetric);
+        check("pair keys are unique for the different pairs", unique);
+    }
+
+    private static void checkOperations(Random random, int operations) {
+        final DynamicsWorld world = new DynamicsWorld(new Vector3(0, 0, 0), 1 / 60f);
+        final CollisionDetection collisionDetection = new CollisionDetection(world);
+        final PairManager pairManager = new PairManager(collisionDetection);
+        final CollisionShape shape = new SphereShape(1);
+        // IDs spread over the whole positive range so the keys don't only differ in their low bits
+        final CollisionBody[] bodies = new CollisionBody[300];
+        for (int i = 0; i < bodies.length; i++) {
+            final int id = i < 100 ? i : i < 200 ? Integer.MAX_VALUE - i : i * 7919 * 1021;
+            bodies[i] = new RigidBody(new Transform(), 1, Matrix3x3.identity(), shape, id);
+        }
+        final Map<IntPair, BodyPair> expected = new HashMap<>();
+        boolean results = true;
+        boolean dense = true;
+        boolean notified = true;
+        int maxPairs = 0;
+        for (int n = 0; n < operations; n++) {
+            final CollisionBody body1 = bodies[random.nextInt(bodies.length)];
+            final CollisionBody body2 = bodies[random.nextInt(bodies.length)];
+            if (body1 == body2) {
+                continue;
+            }
+            final IntPair ids = new IntPair(Math.min(body1.getID(), body2.getID()), Math.max(body1.getID(), body2.getID()));
+            // more adds in the first half of each period, more removes in the second one, so the table grows and shrinks
+            final boolean growing = (n / 100000) % 2 == 0;
+            final int operation = random.nextInt(10);
+            if (operation < (growing ? 6 : 3)) {
+                final BodyPair existing = expected.get(ids);
+                final BodyPair pair = pairManager.addPair(body1, body2);
+                if (existing != null) {
+                    results &= pair == existing;
+                } else {
+                    results &= pair.getFirstBody().getID() == ids.getFirst() && pair.getSecondBody().getID() == ids.getSecond();
+                    notified &= pair.getBroadPhasePair() != null;
+                    expected.put(ids, pair);
+                }
+            } else if (operation < 8) {
+                final BodyPair existing = expected.remove(ids);
+                results &= pairManager.removePair(body2.getID(), body1.getID()) == (existing != null);
+                if (existing != null) {
+                    notified &= existing.getBroadPhasePair() == null;
+                }
+            } else {
+                results &= pairManager.findPair(body2.getID(), body1.getID()) == expected.get(ids);
+                results &= pairManager.findPair(body1.getID(), body2.getID()) == expected.get(ids);
+            }
+            results &= pairManager.getNbOverlappingPairs() == expected.size();
+            maxPairs = Math.max(maxPairs, expected.size());
+            if (n % 5000 == 0) {
+                dense &= isDense(pairManager, expected);
+            }
+        }
+        check("random adds, finds and removes give the pairs of the map (up to " + maxPairs + " pairs)", results);
+        check("the array of the pairs stays dense and holds the pairs of the map", dense && isDense(pairManager, expected));
+        check("the collision detection is notified of each added and removed pair", notified);
+        for (BodyPair pair : new ArrayList<>(expected.values())) {
+            pairManager.removePair(pair.getFirstBody().getID(), pair.getSecondBody().getID());
+        }
+        check("all the pairs removed", pairManager.getNbOverlappingPairs() == 0 && pairManager.getLastOverlappingPair() == null);
+    }
+
+    // The first pairs of the array are the pairs of the map, each one found by its IDs, and the rest is null.
+    private static boolean isDense(PairManager pairManager, Map<IntPair, BodyPair> expected) {
+        final BodyPair[] pairs = pairManager.getOverlappingPairs();
+        final int count = (int) pairManager.getNbOverlappingPairs();
+        if (pairs == null) {
+            // nothing allocated before the first pair
+            return count == 0 && expected.isEmpty();
+        }
+        final Set<BodyPair> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < pairs.length; i++) {
+            if (i < count) {
+                final BodyPair pair = pairs[i];
+                if (pair == null || !seen.add(pair) || expected.get(new IntPair(pair.getFirstBody().getID(), pair.getSecondBody().getID())) != pair
+                        || pairManager.findPair(pair.getSecondBody().getID(), pair.getFirstBody().getID()) != pair) {
+                    return false;
+                }
+            } else if (pairs[i] != null) {
+                return false;
+            }
+        }
+        return seen.size() == expected.size();
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
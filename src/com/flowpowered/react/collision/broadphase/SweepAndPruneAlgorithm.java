@@ -48,6 +48,7 @@ public class SweepAndPruneAlgorithm extends BroadPhaseAlgorithm {
     private int mNbMaxBoxes = 0;
     private final TIntList mFreeBoxIndices = new TIntArrayList();
     private final TObjectIntMap<CollisionBody> mMapBodyToBoxIndex = new TObjectIntHashMap<>();
+    private final AABBInt mUpdatedAABB = new AABBInt(0, 0);
 
     /**
      * Constructs a new sweep and prune algorithm from the collision detection it's associated to.
@@ -161,8 +162,7 @@ public class SweepAndPruneAlgorithm extends BroadPhaseAlgorithm {
 
     @Override
     public void updateObject(CollisionBody body, AABB aabb) {
-        final AABBInt aabbInt = new AABBInt(aabb);
-        updateObjectIntegerAABB(body, aabbInt);
+        updateObjectIntegerAABB(body, mUpdatedAABB.set(aabb));
     }
 
     public void updateObjectIntegerAABB(CollisionBody body, AABBInt aabbInt) {
@@ -546,12 +546,7 @@ public class SweepAndPruneAlgorithm extends BroadPhaseAlgorithm {
         }
 
         private AABBInt(AABB aabb) {
-            min[0] = encodeFloatIntoInteger(aabb.getMin().getX());
-            min[1] = encodeFloatIntoInteger(aabb.getMin().getY());
-            min[2] = encodeFloatIntoInteger(aabb.getMin().getZ());
-            max[0] = encodeFloatIntoInteger(aabb.getMax().getX());
-            max[1] = encodeFloatIntoInteger(aabb.getMax().getY());
-            max[2] = encodeFloatIntoInteger(aabb.getMax().getZ());
+            set(aabb);
         }
 
         private AABBInt(long minValue, long maxValue) {
@@ -562,5 +557,15 @@ public class SweepAndPruneAlgorithm extends BroadPhaseAlgorithm {
             max[1] = maxValue;
             max[2] = maxValue;
         }
+
+        private AABBInt set(AABB aabb) {
+            min[0] = encodeFloatIntoInteger(aabb.getMin().getX());
+            min[1] = encodeFloatIntoInteger(aabb.getMin().getY());
+            min[2] = encodeFloatIntoInteger(aabb.getMin().getZ());
+            max[0] = encodeFloatIntoInteger(aabb.getMax().getX());
+            max[1] = encodeFloatIntoInteger(aabb.getMax().getY());
+            max[2] = encodeFloatIntoInteger(aabb.getMax().getZ());
+            return this;
+        }
     }
 }
@@ -43,6 +43,26 @@ import java.util.*;
 public class EPAAlgorithm {
     private static final int MAX_SUPPORT_POINTS = 100;
     private static final int MAX_FACETS = 200;
+    // Memory of the algorithm, reused for every run
+    private final Vector3[] mSuppPointsA = newVectors(MAX_SUPPORT_POINTS);
+    private final Vector3[] mSuppPointsB = newVectors(MAX_SUPPORT_POINTS);
+    private final Vector3[] mPoints = newVectors(MAX_SUPPORT_POINTS);
+    private final TrianglesStore mTriangleStore = new TrianglesStore();
+    private final Queue<TriangleEPA> mTriangleHeap = new PriorityQueue<>(MAX_FACETS, new TriangleComparison());
+    private final Transform mBody2ToBody1 = new Transform();
+    private final Transform mBody1ToBody2 = new Transform();
+    private final Matrix3x3 mRotateToBody2 = new Matrix3x3();
+    private final Matrix3x3 mRotation = new Matrix3x3();
+    private final Quaternion mRotationQuaternion = new Quaternion();
+    private final Vector3 mDirection = new Vector3();
+    private final Vector3 mD = new Vector3();
+    private final Vector3 mV1 = new Vector3();
+    private final Vector3 mV2 = new Vector3();
+    private final Vector3 mV3 = new Vector3();
+    private final Vector3 mN = new Vector3();
+    private final Vector3 mPALocal = new Vector3();
+    private final Vector3 mPBLocal = new Vector3();
+    private final Vector3 mNormal = new Vector3();
 
     /**
      * Computes the penetration depth with the EPA algorithm. This method computes the penetration depth and contact points between two enlarged objects (with margin) where the original objects
@@ -62,13 +82,15 @@ public class EPAAlgorithm {
                                                            CollisionShape collisionShape1, Transform transform1,
                                                            CollisionShape collisionShape2, Transform transform2,
                                                            Vector3 v, ContactPointInfo contactInfo) {
-        final Vector3[] suppPointsA = new Vector3[MAX_SUPPORT_POINTS];
-        final Vector3[] suppPointsB = new Vector3[MAX_SUPPORT_POINTS];
-        final Vector3[] points = new Vector3[MAX_SUPPORT_POINTS];
-        final TrianglesStore triangleStore = new TrianglesStore();
-        final Queue<TriangleEPA> triangleHeap = new PriorityQueue<>(MAX_FACETS, new TriangleComparison());
-        final Transform body2Tobody1 = Transform.multiply(transform1.getInverse(), transform2);
-        final Matrix3x3 rotateToBody2 = Matrix3x3.multiply(transform2.getOrientation().getMatrix().getTranspose(), transform1.getOrientation().getMatrix());
+        final Vector3[] suppPointsA = mSuppPointsA;
+        final Vector3[] suppPointsB = mSuppPointsB;
+        final Vector3[] points = mPoints;
+        final TrianglesStore triangleStore = mTriangleStore;
+        final Queue<TriangleEPA> triangleHeap = mTriangleHeap;
+        triangleHeap.clear();
+        final Transform body2Tobody1 = Transform.multiply(transform1.getInverse(mBody2ToBody1), transform2, mBody2ToBody1);
+        transform2.getOrientation().getMatrix(mRotateToBody2).getTranspose(mRotateToBody2);
+        Matrix3x3.multiply(mRotateToBody2, transform1.getOrientation().getMatrix(mRotation), mRotateToBody2);
         int nbVertices = simplex.getSimplex(suppPointsA, suppPointsB, points);
         final float tolerance = ReactDefaults.MACHINE_EPSILON * simplex.getMaxLengthSquareOfAPoint();
         int nbTriangles = 0;
@@ -77,29 +99,19 @@ public class EPAAlgorithm {
             case 1:
                 return false;
             case 2: {
-                final Vector3 d = Vector3.subtract(points[1], points[0]).getUnit();
-                final int minAxis = d.getAbsoluteVector().getMinAxis();
+                final Vector3 d = mD.set(points[1]).subtract(points[0]).getUnit(mD);
+                mV1.setAllValues(Math.abs(d.getX()), Math.abs(d.getY()), Math.abs(d.getZ()));
+                final int minAxis = mV1.getMinAxis();
                 final float sin60 = (float) Math.sqrt(3) * 0.5f;
-                final Quaternion rotationQuat = new Quaternion(d.getX() * sin60, d.getY() * sin60, d.getZ() * sin60, 0.5f);
-                final Matrix3x3 rotationMat = rotationQuat.getMatrix();
-                final Vector3 v1 = d.cross(new Vector3(minAxis == 0 ? 1 : 0, minAxis == 1 ? 1 : 0, minAxis == 2 ? 1 : 0));
-                final Vector3 v2 = Matrix3x3.multiply(rotationMat, v1);
-                final Vector3 v3 = Matrix3x3.multiply(rotationMat, v2);
-                suppPointsA[2] = collisionShape1.getLocalSupportPointWithMargin(v1);
-                suppPointsB[2] = Transform.multiply(
-                        body2Tobody1,
-                        collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, Vector3.negate(v1))));
-                points[2] = Vector3.subtract(suppPointsA[2], suppPointsB[2]);
-                suppPointsA[3] = collisionShape1.getLocalSupportPointWithMargin(v2);
-                suppPointsB[3] = Transform.multiply(
-                        body2Tobody1,
-                        collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, Vector3.negate(v2))));
-                points[3] = Vector3.subtract(suppPointsA[3], suppPointsB[3]);
-                suppPointsA[4] = collisionShape1.getLocalSupportPointWithMargin(v3);
-                suppPointsB[4] = Transform.multiply(
-                        body2Tobody1,
-                        collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, Vector3.negate(v3))));
-                points[4] = Vector3.subtract(suppPointsA[4], suppPointsB[4]);
+                mRotationQuaternion.setAllValues(d.getX() * sin60, d.getY() * sin60, d.getZ() * sin60, 0.5f);
+                final Matrix3x3 rotationMat = mRotationQuaternion.getMatrix(mRotation);
+                mV1.setAllValues(minAxis == 0 ? 1 : 0, minAxis == 1 ? 1 : 0, minAxis == 2 ? 1 : 0);
+                final Vector3 v1 = d.cross(mV1, mV1);
+                final Vector3 v2 = Matrix3x3.multiply(rotationMat, v1, mV2);
+                final Vector3 v3 = Matrix3x3.multiply(rotationMat, v2, mV3);
+                computeSupportPoint(collisionShape1, collisionShape2, v1, 2);
+                computeSupportPoint(collisionShape1, collisionShape2, v2, 3);
+                computeSupportPoint(collisionShape1, collisionShape2, v3, 4);
                 if (isOriginInTetrahedron(points[0], points[2], points[3], points[4]) == 0) {
                     suppPointsA[1].set(suppPointsA[4]);
                     suppPointsB[1].set(suppPointsB[4]);
@@ -125,39 +137,32 @@ public class EPAAlgorithm {
                             && face2.getDistSquare() > 0 && face3.getDistSquare() > 0)) {
                         return false;
                     }
-                    TriangleEPA.link(new EdgeEPA(face0, 0), new EdgeEPA(face1, 2));
-                    TriangleEPA.link(new EdgeEPA(face0, 1), new EdgeEPA(face3, 2));
-                    TriangleEPA.link(new EdgeEPA(face0, 2), new EdgeEPA(face2, 0));
-                    TriangleEPA.link(new EdgeEPA(face1, 0), new EdgeEPA(face2, 2));
-                    TriangleEPA.link(new EdgeEPA(face1, 1), new EdgeEPA(face3, 0));
-                    TriangleEPA.link(new EdgeEPA(face2, 1), new EdgeEPA(face3, 1));
+                    TriangleEPA.link(face0.getEdge(0), face1.getEdge(2));
+                    TriangleEPA.link(face0.getEdge(1), face3.getEdge(2));
+                    TriangleEPA.link(face0.getEdge(2), face2.getEdge(0));
+                    TriangleEPA.link(face1.getEdge(0), face2.getEdge(2));
+                    TriangleEPA.link(face1.getEdge(1), face3.getEdge(0));
+                    TriangleEPA.link(face2.getEdge(1), face3.getEdge(1));
                     nbTriangles = addFaceCandidate(face0, triangleHeap, nbTriangles, Float.MAX_VALUE);
                     nbTriangles = addFaceCandidate(face1, triangleHeap, nbTriangles, Float.MAX_VALUE);
                     nbTriangles = addFaceCandidate(face2, triangleHeap, nbTriangles, Float.MAX_VALUE);
                     nbTriangles = addFaceCandidate(face3, triangleHeap, nbTriangles, Float.MAX_VALUE);
                     break;
                 }
+                // the bad vertex is replaced by the fourth one, the only one left out of the triangle
                 if (badVertex < 4) {
-                    suppPointsA[badVertex - 1].set(suppPointsA[4]);
-                    suppPointsB[badVertex - 1].set(suppPointsB[4]);
-                    points[badVertex - 1].set(points[4]);
+                    suppPointsA[badVertex - 1].set(suppPointsA[3]);
+                    suppPointsB[badVertex - 1].set(suppPointsB[3]);
+                    points[badVertex - 1].set(points[3]);
                 }
                 nbVertices = 3;
             }
             case 3: {
-                final Vector3 v1 = Vector3.subtract(points[1], points[0]);
-                final Vector3 v2 = Vector3.subtract(points[2], points[0]);
-                final Vector3 n = v1.cross(v2);
-                suppPointsA[3] = collisionShape1.getLocalSupportPointWithMargin(n);
-                suppPointsB[3] = Transform.multiply(
-                        body2Tobody1,
-                        collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, Vector3.negate(n))));
-                points[3] = Vector3.subtract(suppPointsA[3], suppPointsB[3]);
-                suppPointsA[4] = collisionShape1.getLocalSupportPointWithMargin(Vector3.negate(n));
-                suppPointsB[4] = Transform.multiply(
-                        body2Tobody1,
-                        collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, n)));
-                points[4] = Vector3.subtract(suppPointsA[4], suppPointsB[4]);
+                final Vector3 v1 = mV1.set(points[1]).subtract(points[0]);
+                final Vector3 v2 = mV2.set(points[2]).subtract(points[0]);
+                final Vector3 n = v1.cross(v2, mN);
+                computeSupportPoint(collisionShape1, collisionShape2, n, 3);
+                computeSupportPoint(collisionShape1, collisionShape2, mV3.set(n).negate(), 4);
                 final TriangleEPA face0 = triangleStore.newTriangle(points, 0, 1, 3);
                 final TriangleEPA face1 = triangleStore.newTriangle(points, 1, 2, 3);
                 final TriangleEPA face2 = triangleStore.newTriangle(points, 2, 0, 3);
@@ -170,15 +175,15 @@ public class EPAAlgorithm {
                         face4.getDistSquare() > 0 && face5.getDistSquare() > 0)) {
                     return false;
                 }
-                TriangleEPA.link(new EdgeEPA(face0, 1), new EdgeEPA(face1, 2));
-                TriangleEPA.link(new EdgeEPA(face1, 1), new EdgeEPA(face2, 2));
-                TriangleEPA.link(new EdgeEPA(face2, 1), new EdgeEPA(face0, 2));
-                TriangleEPA.link(new EdgeEPA(face0, 0), new EdgeEPA(face5, 0));
-                TriangleEPA.link(new EdgeEPA(face1, 0), new EdgeEPA(face4, 0));
-                TriangleEPA.link(new EdgeEPA(face2, 0), new EdgeEPA(face3, 0));
-                TriangleEPA.link(new EdgeEPA(face3, 1), new EdgeEPA(face4, 2));
-                TriangleEPA.link(new EdgeEPA(face4, 1), new EdgeEPA(face5, 2));
-                TriangleEPA.link(new EdgeEPA(face5, 1), new EdgeEPA(face3, 2));
+                TriangleEPA.link(face0.getEdge(1), face1.getEdge(2));
+                TriangleEPA.link(face1.getEdge(1), face2.getEdge(2));
+                TriangleEPA.link(face2.getEdge(1), face0.getEdge(2));
+                TriangleEPA.link(face0.getEdge(0), face5.getEdge(0));
+                TriangleEPA.link(face1.getEdge(0), face4.getEdge(0));
+                TriangleEPA.link(face2.getEdge(0), face3.getEdge(0));
+                TriangleEPA.link(face3.getEdge(1), face4.getEdge(2));
+                TriangleEPA.link(face4.getEdge(1), face5.getEdge(2));
+                TriangleEPA.link(face5.getEdge(1), face3.getEdge(2));
                 nbTriangles = addFaceCandidate(face0, triangleHeap, nbTriangles, Float.MAX_VALUE);
                 nbTriangles = addFaceCandidate(face1, triangleHeap, nbTriangles, Float.MAX_VALUE);
                 nbTriangles = addFaceCandidate(face2, triangleHeap, nbTriangles, Float.MAX_VALUE);
@@ -201,11 +206,7 @@ public class EPAAlgorithm {
                 if (nbVertices == MAX_SUPPORT_POINTS) {
                     break;
                 }
-                suppPointsA[nbVertices] = collisionShape1.getLocalSupportPointWithMargin(triangle.getClosestPoint());
-                suppPointsB[nbVertices] = Transform.multiply(
-                        body2Tobody1,
-                        collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, Vector3.negate(triangle.getClosestPoint()))));
-                points[nbVertices] = Vector3.subtract(suppPointsA[nbVertices], suppPointsB[nbVertices]);
+                computeSupportPoint(collisionShape1, collisionShape2, triangle.getClosestPoint(), nbVertices);
                 final int indexNewVertex = nbVertices;
                 nbVertices++;
                 final float wDotv = points[indexNewVertex].dot(triangle.getClosestPoint());
@@ -235,10 +236,10 @@ public class EPAAlgorithm {
             }
         }
         while (nbTriangles > 0 && triangleHeap.element().getDistSquare() <= upperBoundSquarePenDepth);
-        v.set(Matrix3x3.multiply(transform1.getOrientation().getMatrix(), triangle.getClosestPoint()));
-        final Vector3 pALocal = triangle.computeClosestPointOfObject(suppPointsA);
-        final Vector3 pBLocal = Transform.multiply(body2Tobody1.getInverse(), triangle.computeClosestPointOfObject(suppPointsB));
-        final Vector3 normal = v.getUnit();
+        Matrix3x3.multiply(transform1.getOrientation().getMatrix(mRotation), triangle.getClosestPoint(), v);
+        final Vector3 pALocal = triangle.computeClosestPointOfObject(suppPointsA, mPALocal);
+        final Vector3 pBLocal = Transform.multiply(body2Tobody1.getInverse(mBody1ToBody2), triangle.computeClosestPointOfObject(suppPointsB, mPBLocal), mPBLocal);
+        final Vector3 normal = v.getUnit(mNormal);
         final float penetrationDepth = v.length();
         if (penetrationDepth <= 0) {
             throw new IllegalStateException("penetration depth must be greater that zero");
@@ -247,29 +248,51 @@ public class EPAAlgorithm {
         return true;
     }
 
+    // Computes the support point of the first shape in the direction and the one of the second shape in the opposite direction, moved to the space of the first shape,
+    // and stores them with their difference at the index.
+    private void computeSupportPoint(CollisionShape collisionShape1, CollisionShape collisionShape2, Vector3 direction, int index) {
+        collisionShape1.getLocalSupportPointWithMargin(direction, mSuppPointsA[index]);
+        Matrix3x3.multiply(mRotateToBody2, mDirection.set(direction).negate(), mDirection);
+        Transform.multiply(mBody2ToBody1, collisionShape2.getLocalSupportPointWithMargin(mDirection, mSuppPointsB[index]), mSuppPointsB[index]);
+        mPoints[index].set(mSuppPointsA[index]).subtract(mSuppPointsB[index]);
+    }
+
     // Decides if the origin is in the tetrahedron.
     // Returns 0 if the origin is in the tetrahedron or returns the index (1,2,3 or 4) of the bad
     // vertex if the origin is not in the tetrahedron.
-    private static int isOriginInTetrahedron(Vector3 p1, Vector3 p2, Vector3 p3, Vector3 p4) {
-        final Vector3 normal1 = Vector3.subtract(p2, p1).cross(Vector3.subtract(p3, p1));
+    private int isOriginInTetrahedron(Vector3 p1, Vector3 p2, Vector3 p3, Vector3 p4) {
+        final Vector3 normal1 = computeNormal(p1, p2, p3);
         if (normal1.dot(p1) > 0 == normal1.dot(p4) > 0) {
             return 4;
         }
-        final Vector3 normal2 = Vector3.subtract(p4, p2).cross(Vector3.subtract(p3, p2));
+        final Vector3 normal2 = computeNormal(p2, p4, p3);
         if (normal2.dot(p2) > 0 == normal2.dot(p1) > 0) {
             return 1;
         }
-        final Vector3 normal3 = Vector3.subtract(p4, p3).cross(Vector3.subtract(p1, p3));
+        final Vector3 normal3 = computeNormal(p3, p4, p1);
         if (normal3.dot(p3) > 0 == normal3.dot(p2) > 0) {
             return 2;
         }
-        final Vector3 normal4 = Vector3.subtract(p2, p4).cross(Vector3.subtract(p1, p4));
+        final Vector3 normal4 = computeNormal(p4, p2, p1);
         if (normal4.dot(p4) > 0 == normal4.dot(p3) > 0) {
             return 3;
         }
         return 0;
     }
 
+    // Returns (b - a) x (c - a) in a scratch vector.
+    private Vector3 computeNormal(Vector3 a, Vector3 b, Vector3 c) {
+        return mNormal.set(b).subtract(a).cross(mN.set(c).subtract(a), mNormal);
+    }
+
+    private static Vector3[] newVectors(int count) {
+        final Vector3[] vectors = new Vector3[count];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = new Vector3();
+        }
+        return vectors;
+    }
+
     // Adds a triangle face in the candidate triangle heap in the EPA algorithm.
     private static int addFaceCandidate(TriangleEPA triangle, Queue<TriangleEPA> heap, int nbTriangles, float upperBoundSquarePenDepth) {
         if (triangle.isClosestPointInternalToTriangle() && triangle.getDistSquare() <= upperBoundSquarePenDepth) {
@@ -128,7 +128,7 @@ public class EdgeEPA {
                         getTargetVertexIndex(),
                         getSourceVertexIndex());
                 if (triangle != null) {
-                    TriangleEPA.halfLink(new EdgeEPA(triangle, 1), this);
+                    TriangleEPA.halfLink(triangle.getEdge(1), this);
                     return true;
                 }
                 return false;
@@ -144,7 +144,7 @@ public class EdgeEPA {
                             getTargetVertexIndex(),
                             getSourceVertexIndex());
                     if (triangle != null) {
-                        TriangleEPA.halfLink(new EdgeEPA(triangle, 1), this);
+                        TriangleEPA.halfLink(triangle.getEdge(1), this);
                         return true;
                     }
                     return false;
@@ -158,7 +158,7 @@ public class EdgeEPA {
                             getTargetVertexIndex(),
                             getSourceVertexIndex());
                     if (triangle != null) {
-                        TriangleEPA.halfLink(new EdgeEPA(triangle, 1), this);
+                        TriangleEPA.halfLink(triangle.getEdge(1), this);
                         return true;
                     }
                     return false;
@@ -33,6 +33,8 @@ import com.flowpowered.react.math.*;
 public class TriangleEPA {
     private final int[] mIndicesVertices = new int[3];
     private final EdgeEPA[] mAdjacentEdges = new EdgeEPA[3];
+    // The edges of this triangle, linked to the adjacent edges of the neighbours
+    private final EdgeEPA[] mEdges = {new EdgeEPA(this, 0), new EdgeEPA(this, 1), new EdgeEPA(this, 2)};
     private boolean mIsObsolete = false;
     private float mDet;
     private final Vector3 mClosestPoint = new Vector3();
@@ -55,9 +57,37 @@ public class TriangleEPA {
      * @param indexVertex3 The third vertex index
      */
     public TriangleEPA(int indexVertex1, int indexVertex2, int indexVertex3) {
+        set(indexVertex1, indexVertex2, indexVertex3);
+    }
+
+    /**
+     * Resets this triangle to the three vertex indices, without adjacent edges and not flagged as obsolete, so it can be reused as a new triangle.
+     *
+     * @param indexVertex1 The first vertex index
+     * @param indexVertex2 The second vertex index
+     * @param indexVertex3 The third vertex index
+     */
+    public void set(int indexVertex1, int indexVertex2, int indexVertex3) {
         mIndicesVertices[0] = indexVertex1;
         mIndicesVertices[1] = indexVertex2;
         mIndicesVertices[2] = indexVertex3;
+        mAdjacentEdges[0] = null;
+        mAdjacentEdges[1] = null;
+        mAdjacentEdges[2] = null;
+        mIsObsolete = false;
+    }
+
+    /**
+     * Gets the edge of this triangle at the desired index. The index must be greater or equal to zero and smaller than three.
+     *
+     * @param index An index in the [0,3[ range
+     * @return The edge of the triangle at the index
+     */
+    public EdgeEPA getEdge(int index) {
+        if (index < 0 || index >= 3) {
+            throw new IllegalArgumentException("index must be greater or equal to zero and smaller than three");
+        }
+        return mEdges[index];
     }
 
     /**
@@ -139,22 +169,21 @@ public class TriangleEPA {
      * @return True if the triangle is visible, false if not
      */
     public boolean isVisibleFromVertex(Vector3[] vertices, int index) {
-        final Vector3 closestToVert = Vector3.subtract(vertices[index], mClosestPoint);
-        return mClosestPoint.dot(closestToVert) > 0;
+        final Vector3 vertex = vertices[index];
+        return mClosestPoint.getX() * (vertex.getX() - mClosestPoint.getX())
+                + mClosestPoint.getY() * (vertex.getY() - mClosestPoint.getY())
+                + mClosestPoint.getZ() * (vertex.getZ() - mClosestPoint.getZ()) > 0;
     }
 
     /**
-     * Computes the point of the object closest to the origin and returns it.
+     * Computes the point of the object closest to the origin and stores it in the destination vector. Does not create a new vector.
      *
      * @param supportPointsOfObject The points of the object
-     * @return The closes point to the origin
+     * @param closestPoint The vector in which to store the closest point
+     * @return The closest point to the origin
      */
-    public Vector3 computeClosestPointOfObject(Vector3[] supportPointsOfObject) {
-        final Vector3 p0 = supportPointsOfObject[mIndicesVertices[0]];
-        return Vector3.add(p0, Vector3.multiply(1 / mDet, Vector3.add(
-                Vector3.multiply(mLambda1, Vector3.subtract(supportPointsOfObject[mIndicesVertices[1]], p0)),
-                Vector3.multiply(mLambda2, Vector3.subtract(supportPointsOfObject[mIndicesVertices[2]], p0))
-        )));
+    public Vector3 computeClosestPointOfObject(Vector3[] supportPointsOfObject, Vector3 closestPoint) {
+        return computePoint(supportPointsOfObject, closestPoint);
     }
 
     /**
@@ -178,26 +207,43 @@ public class TriangleEPA {
      */
     public boolean computeClosestPoint(Vector3[] vertices) {
         final Vector3 p0 = vertices[mIndicesVertices[0]];
-        final Vector3 v1 = Vector3.subtract(vertices[mIndicesVertices[1]], p0);
-        final Vector3 v2 = Vector3.subtract(vertices[mIndicesVertices[2]], p0);
-        final float v1Dotv1 = v1.dot(v1);
-        final float v1Dotv2 = v1.dot(v2);
-        final float v2Dotv2 = v2.dot(v2);
-        final float p0Dotv1 = p0.dot(v1);
-        final float p0Dotv2 = p0.dot(v2);
+        final Vector3 p1 = vertices[mIndicesVertices[1]];
+        final Vector3 p2 = vertices[mIndicesVertices[2]];
+        final float v1x = p1.getX() - p0.getX();
+        final float v1y = p1.getY() - p0.getY();
+        final float v1z = p1.getZ() - p0.getZ();
+        final float v2x = p2.getX() - p0.getX();
+        final float v2y = p2.getY() - p0.getY();
+        final float v2z = p2.getZ() - p0.getZ();
+        final float v1Dotv1 = v1x * v1x + v1y * v1y + v1z * v1z;
+        final float v1Dotv2 = v1x * v2x + v1y * v2y + v1z * v2z;
+        final float v2Dotv2 = v2x * v2x + v2y * v2y + v2z * v2z;
+        final float p0Dotv1 = p0.getX() * v1x + p0.getY() * v1y + p0.getZ() * v1z;
+        final float p0Dotv2 = p0.getX() * v2x + p0.getY() * v2y + p0.getZ() * v2z;
         mDet = v1Dotv1 * v2Dotv2 - v1Dotv2 * v1Dotv2;
         mLambda1 = p0Dotv2 * v1Dotv2 - p0Dotv1 * v2Dotv2;
         mLambda2 = p0Dotv1 * v1Dotv2 - p0Dotv2 * v1Dotv1;
         if (mDet > 0) {
-            mClosestPoint.set(Vector3.add(p0, Vector3.multiply(1 / mDet, Vector3.add(
-                    Vector3.multiply(mLambda1, v1),
-                    Vector3.multiply(mLambda2, v2)))));
+            computePoint(vertices, mClosestPoint);
             mDistSquare = mClosestPoint.dot(mClosestPoint);
             return true;
         }
         return false;
     }
 
+    // Stores in "point" the point p0 + (lambda1 * (p1 - p0) + lambda2 * (p2 - p0)) / det of the triangle made of the points at the vertex indices.
+    private Vector3 computePoint(Vector3[] points, Vector3 point) {
+        final Vector3 p0 = points[mIndicesVertices[0]];
+        final Vector3 p1 = points[mIndicesVertices[1]];
+        final Vector3 p2 = points[mIndicesVertices[2]];
+        final float detInv = 1 / mDet;
+        point.setAllValues(
+                p0.getX() + detInv * (mLambda1 * (p1.getX() - p0.getX()) + mLambda2 * (p2.getX() - p0.getX())),
+                p0.getY() + detInv * (mLambda1 * (p1.getY() - p0.getY()) + mLambda2 * (p2.getY() - p0.getY())),
+                p0.getZ() + detInv * (mLambda1 * (p1.getZ() - p0.getZ()) + mLambda2 * (p2.getZ() - p0.getZ())));
+        return point;
+    }
+
     /**
      * Executes the recursive silhouette algorithm from this triangle face. The parameter "vertices" is an array that contains the vertices of the current polytope and the parameter "indexNewVertex"
      * is the index of the new vertex in this array. The goal of the silhouette algorithm is to add the new vertex in the polytope by keeping it convex. Therefore, the triangle faces that are visible
@@ -220,8 +266,8 @@ public class TriangleEPA {
         if (result) {
             for (int i = first, j = triangleStore.getNbTriangles() - 1; i != triangleStore.getNbTriangles(); j = i++) {
                 final TriangleEPA triangle = triangleStore.get(i);
-                halfLink(triangle.getAdjacentEdge(1), new EdgeEPA(triangle, 1));
-                if (!link(new EdgeEPA(triangle, 0), new EdgeEPA(triangleStore.get(j), 2))) {
+                halfLink(triangle.getAdjacentEdge(1), triangle.getEdge(1));
+                if (!link(triangle.getEdge(0), triangleStore.get(j).getEdge(2))) {
                     return false;
                 }
             }
@@ -28,13 +28,23 @@ package com.flowpowered.react.collision.narrowphase.EPA;
 import com.flowpowered.react.math.*;
 
 /**
- * This class stores several triangles for the polytope in the EPA algorithm. The max number of triangles is {@link #MAX_TRIANGLES}.
+ * This class stores several triangles for the polytope in the EPA algorithm. The max number of triangles is {@link #MAX_TRIANGLES}. The triangles are created with the store and reused by each run of
+ * the algorithm.
  */
 public class TrianglesStore {
     public static final int MAX_TRIANGLES = 200;
     private final TriangleEPA[] mTriangles = new TriangleEPA[MAX_TRIANGLES];
     private int mNbTriangles = 0;
 
+    /**
+     * Constructs a new empty store with all its triangles.
+     */
+    public TrianglesStore() {
+        for (int i = 0; i < MAX_TRIANGLES; i++) {
+            mTriangles[i] = new TriangleEPA();
+        }
+    }
+
     /**
      * Clears all the triangles in the storage.
      */
@@ -74,7 +84,7 @@ public class TrianglesStore {
     }
 
     /**
-     * Creates and returns a new triangle, keeping it in the store. If the store is full or the triangle is invalid, this will return null.
+     * Resets the next triangle of the store to the vertices and returns it. If the store is full or the triangle is invalid, this will return null.
      *
      * @param vertices The vertices of this triangle (three)
      * @param v0 The index of the first vertex
@@ -85,12 +95,11 @@ public class TrianglesStore {
     public TriangleEPA newTriangle(Vector3[] vertices, int v0, int v1, int v2) {
         TriangleEPA newTriangle = null;
         if (mNbTriangles != MAX_TRIANGLES) {
-            newTriangle = new TriangleEPA(v0, v1, v2);
-            mTriangles[mNbTriangles++] = newTriangle;
+            newTriangle = mTriangles[mNbTriangles++];
+            newTriangle.set(v0, v1, v2);
             if (!newTriangle.computeClosestPoint(vertices)) {
                 mNbTriangles--;
                 newTriangle = null;
-                mTriangles[mNbTriangles] = null;
             }
         }
         return newTriangle;
@@ -100,7 +109,7 @@ public class TrianglesStore {
      * Gets the triangle at the desired index in the store. This index should be smaller than {@link #MAX_TRIANGLES}.
      *
      * @param index The index
-     * @return The triangle, or null if there's not triangle at the index
+     * @return The triangle, which is only in use if the index is smaller than the number of triangles
      */
     public TriangleEPA get(int index) {
         return mTriangles[index];
@@ -43,34 +43,48 @@ public class GJKAlgorithm extends NarrowPhaseAlgorithm {
     public static final float REL_ERROR = 1e-3f;
     public static final float REL_ERROR_SQUARE = REL_ERROR * REL_ERROR;
     private final EPAAlgorithm mAlgoEPA = new EPAAlgorithm();
+    // Scratch objects of the algorithm, reused for every test
+    private final Simplex mSimplex = new Simplex();
+    private final Vector3 mSuppA = new Vector3();
+    private final Vector3 mSuppB = new Vector3();
+    private final Vector3 mW = new Vector3();
+    private final Vector3 mPA = new Vector3();
+    private final Vector3 mPB = new Vector3();
+    private final Vector3 mDirection = new Vector3();
+    private final Vector3 mNormal = new Vector3();
+    private final Transform mBody2ToBody1 = new Transform();
+    private final Transform mBody1ToBody2 = new Transform();
+    private final Matrix3x3 mRotateToBody2 = new Matrix3x3();
+    private final Matrix3x3 mRotation = new Matrix3x3();
 
     @Override
     public boolean testCollision(CollisionShape collisionShape1, Transform transform1,
                                  CollisionShape collisionShape2, Transform transform2,
                                  ContactPointInfo contactInfo) {
-        final Vector3 suppA = new Vector3();
-        final Vector3 suppB = new Vector3();
-        final Vector3 w = new Vector3();
-        final Vector3 pA = new Vector3();
-        final Vector3 pB = new Vector3();
+        final Vector3 suppA = mSuppA;
+        final Vector3 suppB = mSuppB;
+        final Vector3 w = mW;
+        final Vector3 pA = mPA;
+        final Vector3 pB = mPB;
+        pA.setToZero();
+        pB.setToZero();
         float vDotw;
         float prevDistSquare;
-        final Transform body2ToBody1 = Transform.multiply(transform1.getInverse(), transform2);
-        final Matrix3x3 rotateToBody2 = Matrix3x3.multiply(
-                transform2.getOrientation().getMatrix().getTranspose(),
-                transform1.getOrientation().getMatrix());
+        final Transform body2ToBody1 = computeBody2ToBody1(transform1, transform2);
+        final Matrix3x3 rotateToBody2 = computeRotateToBody2(transform1, transform2);
         final float margin = collisionShape1.getMargin() + collisionShape2.getMargin();
         final float marginSquare = margin * margin;
         if (margin <= 0) {
             throw new IllegalStateException("margin must be greater than zero");
         }
-        final Simplex simplex = new Simplex();
+        final Simplex simplex = mSimplex;
+        simplex.reset();
         final Vector3 v = mCurrentOverlappingPair.getPreviousSeparatingAxis();
         float distSquare = Float.MAX_VALUE;
         do {
-            suppA.set(collisionShape1.getLocalSupportPointWithoutMargin(Vector3.negate(v)));
-            suppB.set(Transform.multiply(body2ToBody1, collisionShape2.getLocalSupportPointWithoutMargin(Matrix3x3.multiply(rotateToBody2, v))));
-            w.set(Vector3.subtract(suppA, suppB));
+            collisionShape1.getLocalSupportPointWithoutMargin(mDirection.set(v).negate(), suppA);
+            Transform.multiply(body2ToBody1, collisionShape2.getLocalSupportPointWithoutMargin(Matrix3x3.multiply(rotateToBody2, v, mDirection), suppB), suppB);
+            w.set(suppA).subtract(suppB);
             vDotw = v.dot(w);
             if (vDotw > 0 && vDotw * vDotw > distSquare * marginSquare) {
                 mCurrentOverlappingPair.setPreviousSeparatingAxis(v);
@@ -82,9 +96,10 @@ public class GJKAlgorithm extends NarrowPhaseAlgorithm {
                 if (dist <= 0) {
                     throw new IllegalStateException("dist must be greater than zero");
                 }
-                pA.set(Vector3.subtract(pA, Vector3.multiply(collisionShape1.getMargin() / dist, v)));
-                pB.set(Transform.multiply(body2ToBody1.getInverse(), Vector3.add(pB, Vector3.multiply(collisionShape2.getMargin() / dist, v))));
-                final Vector3 normal = Matrix3x3.multiply(transform1.getOrientation().getMatrix(), Vector3.negate(v.getUnit()));
+                pA.subtract(mDirection.set(v).multiply(collisionShape1.getMargin() / dist));
+                pB.add(mDirection.set(v).multiply(collisionShape2.getMargin() / dist));
+                Transform.multiply(body2ToBody1.getInverse(mBody1ToBody2), pB, pB);
+                final Vector3 normal = transform1.getOrientation().rotate(v.getUnit(mNormal).negate(), mNormal);
                 final float penetrationDepth = margin - dist;
                 if (penetrationDepth <= 0) {
                     return false;
@@ -99,9 +114,10 @@ public class GJKAlgorithm extends NarrowPhaseAlgorithm {
                 if (dist <= 0) {
                     throw new IllegalStateException("dist must be greater than zero");
                 }
-                pA.set(Vector3.subtract(pA, Vector3.multiply(collisionShape1.getMargin() / dist, v)));
-                pB.set(Transform.multiply(body2ToBody1.getInverse(), Vector3.add(pB, Vector3.multiply(collisionShape2.getMargin() / dist, v))));
-                final Vector3 normal = Matrix3x3.multiply(transform1.getOrientation().getMatrix(), Vector3.negate(v.getUnit()));
+                pA.subtract(mDirection.set(v).multiply(collisionShape1.getMargin() / dist));
+                pB.add(mDirection.set(v).multiply(collisionShape2.getMargin() / dist));
+                Transform.multiply(body2ToBody1.getInverse(mBody1ToBody2), pB, pB);
+                final Vector3 normal = transform1.getOrientation().rotate(v.getUnit(mNormal).negate(), mNormal);
                 final float penetrationDepth = margin - dist;
                 if (penetrationDepth <= 0) {
                     return false;
@@ -115,9 +131,10 @@ public class GJKAlgorithm extends NarrowPhaseAlgorithm {
                 if (dist <= 0) {
                     throw new IllegalStateException("dist must be greater than zero");
                 }
-                pA.set(Vector3.subtract(pA, Vector3.multiply(collisionShape1.getMargin() / dist, v)));
-                pB.set(Transform.multiply(body2ToBody1.getInverse(), Vector3.add(pB, Vector3.multiply(collisionShape2.getMargin() / dist, v))));
-                final Vector3 normal = Matrix3x3.multiply(transform1.getOrientation().getMatrix(), Vector3.negate(v.getUnit()));
+                pA.subtract(mDirection.set(v).multiply(collisionShape1.getMargin() / dist));
+                pB.add(mDirection.set(v).multiply(collisionShape2.getMargin() / dist));
+                Transform.multiply(body2ToBody1.getInverse(mBody1ToBody2), pB, pB);
+                final Vector3 normal = transform1.getOrientation().rotate(v.getUnit(mNormal).negate(), mNormal);
                 final float penetrationDepth = margin - dist;
                 if (penetrationDepth <= 0) {
                     return false;
@@ -135,9 +152,10 @@ public class GJKAlgorithm extends NarrowPhaseAlgorithm {
                 if (dist <= 0) {
                     throw new IllegalStateException("dist must be greater than zero");
                 }
-                pA.set(Vector3.subtract(pA, Vector3.multiply(collisionShape1.getMargin() / dist, v)));
-                pB.set(Transform.multiply(body2ToBody1.getInverse(), Vector3.add(pB, Vector3.multiply(collisionShape2.getMargin() / dist, v))));
-                final Vector3 normal = Matrix3x3.multiply(transform1.getOrientation().getMatrix(), Vector3.negate(v.getUnit()));
+                pA.subtract(mDirection.set(v).multiply(collisionShape1.getMargin() / dist));
+                pB.add(mDirection.set(v).multiply(collisionShape2.getMargin() / dist));
+                Transform.multiply(body2ToBody1.getInverse(mBody1ToBody2), pB, pB);
+                final Vector3 normal = transform1.getOrientation().rotate(v.getUnit(mNormal).negate(), mNormal);
                 final float penetrationDepth = margin - dist;
                 if (penetrationDepth <= 0) {
                     return false;
@@ -158,21 +176,20 @@ public class GJKAlgorithm extends NarrowPhaseAlgorithm {
     private boolean computePenetrationDepthForEnlargedObjects(CollisionShape collisionShape1, Transform transform1,
                                                               CollisionShape collisionShape2, Transform transform2,
                                                               ContactPointInfo contactInfo, Vector3 v) {
-        final Simplex simplex = new Simplex();
-        final Vector3 suppA = new Vector3();
-        final Vector3 suppB = new Vector3();
-        final Vector3 w = new Vector3();
+        final Simplex simplex = mSimplex;
+        simplex.reset();
+        final Vector3 suppA = mSuppA;
+        final Vector3 suppB = mSuppB;
+        final Vector3 w = mW;
         float vDotw;
         float distSquare = Float.MAX_VALUE;
         float prevDistSquare;
-        final Transform body2ToBody1 = Transform.multiply(transform1.getInverse(), transform2);
-        final Matrix3x3 rotateToBody2 = Matrix3x3.multiply(
-                transform2.getOrientation().getMatrix().getTranspose(),
-                transform1.getOrientation().getMatrix());
+        final Transform body2ToBody1 = computeBody2ToBody1(transform1, transform2);
+        final Matrix3x3 rotateToBody2 = computeRotateToBody2(transform1, transform2);
         do {
-            suppA.set(collisionShape1.getLocalSupportPointWithMargin(Vector3.negate(v)));
-            suppB.set(Transform.multiply(body2ToBody1, collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, v))));
-            w.set(Vector3.subtract(suppA, suppB));
+            collisionShape1.getLocalSupportPointWithMargin(mDirection.set(v).negate(), suppA);
+            Transform.multiply(body2ToBody1, collisionShape2.getLocalSupportPointWithMargin(Matrix3x3.multiply(rotateToBody2, v, mDirection), suppB), suppB);
+            w.set(suppA).subtract(suppB);
             vDotw = v.dot(w);
             if (vDotw > 0) {
                 return false;
@@ -194,4 +211,15 @@ public class GJKAlgorithm extends NarrowPhaseAlgorithm {
         while (!simplex.isFull() && distSquare > ReactDefaults.MACHINE_EPSILON * simplex.getMaxLengthSquareOfAPoint());
         return mAlgoEPA.computePenetrationDepthAndContactPoints(simplex, collisionShape1, transform1, collisionShape2, transform2, v, contactInfo);
     }
+
+    // Computes the transform from the local space of the second body to the local space of the first one.
+    private Transform computeBody2ToBody1(Transform transform1, Transform transform2) {
+        return Transform.multiply(transform1.getInverse(mBody2ToBody1), transform2, mBody2ToBody1);
+    }
+
+    // Computes the rotation from the local space of the first body to the local space of the second one.
+    private Matrix3x3 computeRotateToBody2(Transform transform1, Transform transform2) {
+        transform2.getOrientation().getMatrix(mRotateToBody2).getTranspose(mRotateToBody2);
+        return Matrix3x3.multiply(mRotateToBody2, transform1.getOrientation().getMatrix(mRotation), mRotateToBody2);
+    }
 }
@@ -27,6 +27,8 @@ package com.flowpowered.react.collision.narrowphase.GJK;
 
 import com.flowpowered.react.math.*;
 
+import java.util.*;
+
 /**
  * Represents a simplex which is a set of 3D points. This class is used in the GJK algorithm. This implementation is based on the implementation discussed in the book "Collision Detection in 3D
  * Environments". This class implements the Johnson's algorithm for computing the point of a simplex that is closest to the origin and  the smallest simplex needed to represent that closest point.
@@ -51,6 +53,8 @@ public class Simplex {
     };
     private final float[][] mDet = new float[16][4];
     private final float[][] mNormSquare = new float[4][4];
+    // Scratch vector of the backup of the closest point
+    private final Vector3 mClosestPoint = new Vector3();
     /// 4 bits that identify the current points of the simplex
     /// For instance, 0101 means that points[1] and points[3] are in the simplex
     private int mBitsCurrentSimplex = 0x0;
@@ -61,6 +65,32 @@ public class Simplex {
     /// allBits = bitsCurrentSimplex | lastFoundBit;
     private int mAllBits = 0x0;
 
+    /**
+     * Empties the simplex and clears all its cached values so that it can be reused as a new one.
+     */
+    public void reset() {
+        for (int i = 0; i < 4; i++) {
+            mPoints[i].setToZero();
+            mSuppPointsA[i].setToZero();
+            mSuppPointsB[i].setToZero();
+            for (int j = 0; j < 4; j++) {
+                mDiffLength[i][j].setToZero();
+            }
+        }
+        Arrays.fill(mPointsLengthSquare, 0);
+        for (float[] det : mDet) {
+            Arrays.fill(det, 0);
+        }
+        for (float[] normSquare : mNormSquare) {
+            Arrays.fill(normSquare, 0);
+        }
+        mMaxLengthSquare = 0;
+        mBitsCurrentSimplex = 0x0;
+        mLastFound = 0;
+        mLastFoundBit = 0;
+        mAllBits = 0x0;
+    }
+
     /**
      * Returns true if the simplex contains 4 points, false if not.
      *
@@ -136,8 +166,8 @@ public class Simplex {
     private void updateCache() {
         for (int i = 0, bit = 0x1; i < 4; i++, bit <<= 1) {
             if (overlap(mBitsCurrentSimplex, bit)) {
-                mDiffLength[i][mLastFound] = Vector3.subtract(mPoints[i], mPoints[mLastFound]);
-                mDiffLength[mLastFound][i] = Vector3.negate(mDiffLength[i][mLastFound]);
+                mDiffLength[i][mLastFound].set(mPoints[i]).subtract(mPoints[mLastFound]);
+                mDiffLength[mLastFound][i].set(mDiffLength[i][mLastFound]).negate();
                 mNormSquare[i][mLastFound] = mNormSquare[mLastFound][i] = mDiffLength[i][mLastFound].dot(mDiffLength[i][mLastFound]);
             }
         }
@@ -155,9 +185,9 @@ public class Simplex {
         int nbVertices = 0;
         for (int i = 0, bit = 0x1; i < 4; i++, bit <<= 1) {
             if (overlap(mBitsCurrentSimplex, bit)) {
-                suppPointsA[nbVertices] = new Vector3(mSuppPointsA[nbVertices]);
-                suppPointsB[nbVertices] = new Vector3(mSuppPointsB[nbVertices]);
-                points[nbVertices] = new Vector3(mPoints[nbVertices]);
+                suppPointsA[nbVertices].set(mSuppPointsA[nbVertices]);
+                suppPointsB[nbVertices].set(mSuppPointsB[nbVertices]);
+                points[nbVertices].set(mPoints[nbVertices]);
                 nbVertices++;
             }
         }
@@ -278,8 +308,8 @@ public class Simplex {
         for (int i = 0, bit = 0x1; i < 4; i++, bit <<= 1) {
             if (overlap(mBitsCurrentSimplex, bit)) {
                 deltaX += mDet[mBitsCurrentSimplex][i];
-                pA.add(Vector3.multiply(mDet[mBitsCurrentSimplex][i], mSuppPointsA[i]));
-                pB.add(Vector3.multiply(mDet[mBitsCurrentSimplex][i], mSuppPointsB[i]));
+                addScaled(pA, mDet[mBitsCurrentSimplex][i], mSuppPointsA[i]);
+                addScaled(pB, mDet[mBitsCurrentSimplex][i], mSuppPointsB[i]);
             }
         }
         if (deltaX <= 0) {
@@ -301,7 +331,7 @@ public class Simplex {
         for (int subset = mBitsCurrentSimplex; subset != 0x0; subset--) {
             if (isSubset(subset, mBitsCurrentSimplex) && isValidSubset(subset | mLastFoundBit)) {
                 mBitsCurrentSimplex = subset | mLastFoundBit;
-                v.set(computeClosestPointForSubset(mBitsCurrentSimplex));
+                computeClosestPointForSubset(mBitsCurrentSimplex, v);
                 return true;
             }
         }
@@ -323,7 +353,7 @@ public class Simplex {
         float minDistSquare = Float.MAX_VALUE;
         for (int bit = mAllBits; bit != 0x0; bit--) {
             if (isSubset(bit, mAllBits) && isProperSubset(bit)) {
-                final Vector3 u = computeClosestPointForSubset(bit);
+                final Vector3 u = computeClosestPointForSubset(bit, mClosestPoint);
                 final float distSquare = u.dot(u);
                 if (distSquare < minDistSquare) {
                     minDistSquare = distSquare;
@@ -334,10 +364,10 @@ public class Simplex {
         }
     }
 
-    // Returns the closest point "v" in the convex hull of the points in the subset represented
-    // by the bits "subset".
-    private Vector3 computeClosestPointForSubset(int subset) {
-        final Vector3 v = new Vector3(0, 0, 0);
+    // Stores in "v" the closest point in the convex hull of the points in the subset represented
+    // by the bits "subset" and returns it.
+    private Vector3 computeClosestPointForSubset(int subset, Vector3 v) {
+        v.setToZero();
         mMaxLengthSquare = 0;
         float deltaX = 0;
         for (int i = 0, bit = 0x1; i < 4; i++, bit <<= 1) {
@@ -346,13 +376,18 @@ public class Simplex {
                 if (mMaxLengthSquare < mPointsLengthSquare[i]) {
                     mMaxLengthSquare = mPointsLengthSquare[i];
                 }
-                v.add(Vector3.multiply(mDet[subset][i], mPoints[i]));
+                addScaled(v, mDet[subset][i], mPoints[i]);
             }
         }
         if (deltaX <= 0) {
             throw new IllegalStateException("deltaX must be greater than zero");
         }
-        return Vector3.multiply(1 / deltaX, v);
+        return v.multiply(1 / deltaX);
+    }
+
+    // Adds the vector scaled by the factor to the destination vector.
+    private static void addScaled(Vector3 dest, float factor, Vector3 vector) {
+        dest.setAllValues(dest.getX() + factor * vector.getX(), dest.getY() + factor * vector.getY(), dest.getZ() + factor * vector.getZ());
     }
 
     // Returns true if some bits of "a" overlap with bits of "b".
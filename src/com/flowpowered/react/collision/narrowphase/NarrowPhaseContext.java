@@ -0,0 +1,74 @@
+/*
+ * This file is part of React, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2013 Flow Powered <https://flowpowered.com/>
+ * Original ReactPhysics3D C++ library by Daniel Chappuis <http://danielchappuis.ch>
+ * React is re-licensed with permission from ReactPhysics3D author.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.flowpowered.react.collision.narrowphase;
+
+import com.flowpowered.react.collision.*;
+import com.flowpowered.react.collision.narrowphase.GJK.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.collision.shape.CollisionShape.*;
+import com.flowpowered.react.constraint.ContactPoint.*;
+import com.flowpowered.react.math.*;
+
+/**
+ * The narrow-phase algorithms used by one thread. The GJK and EPA algorithms keep the current pair and their memory as mutable state, so each thread testing pairs needs its own context.
+ */
+public class NarrowPhaseContext {
+    private final GJKAlgorithm mGJKAlgorithm = new GJKAlgorithm();
+    private final SphereVsSphereAlgorithm mSphereVsSphereAlgorithm = new SphereVsSphereAlgorithm();
+    // a body is tested on several threads at once, its transform is copied here
+    private final Transform mTransform1 = new Transform();
+    private final Transform mTransform2 = new Transform();
+
+    /**
+     * Selects the narrow-phase collision algorithm to use given two collision shapes.
+     *
+     * @param collisionShape1 The first shape
+     * @param collisionShape2 The second shape
+     * @return The algorithm to use
+     */
+    public NarrowPhaseAlgorithm selectAlgorithm(CollisionShape collisionShape1, CollisionShape collisionShape2) {
+        if (collisionShape1.getType() == CollisionShapeType.SPHERE && collisionShape2.getType() == CollisionShapeType.SPHERE) {
+            return mSphereVsSphereAlgorithm;
+        } else {
+            return mGJKAlgorithm;
+        }
+    }
+
+    /**
+     * Tests the collision between the two bodies of the pair and stores the contact info if there is one.
+     *
+     * @param pair The pair to test
+     * @param contactInfo The contact info in which to store the contact
+     * @return Whether or not the bodies collide
+     */
+    public boolean testCollision(BroadPhasePair pair, ContactPointInfo contactInfo) {
+        final CollisionShape shape1 = pair.getFirstBody().getCollisionShape();
+        final CollisionShape shape2 = pair.getSecondBody().getCollisionShape();
+        final NarrowPhaseAlgorithm narrowPhaseAlgorithm = selectAlgorithm(shape1, shape2);
+        narrowPhaseAlgorithm.setCurrentOverlappingPair(pair);
+        return narrowPhaseAlgorithm.testCollision(shape1, pair.getFirstBody().getTransform(mTransform1), shape2, pair.getSecondBody().getTransform(mTransform2), contactInfo);
+    }
+}
@@ -33,22 +33,28 @@ import com.flowpowered.react.math.*;
  * This class is used to compute the narrow-phase collision detection between two sphere shaped collision volumes.
  */
 public class SphereVsSphereAlgorithm extends NarrowPhaseAlgorithm {
+    // Scratch objects of the algorithm, reused for every test
+    private final Vector3 mVectorBetweenCenters = new Vector3();
+    private final Vector3 mIntersectionOnBody1 = new Vector3();
+    private final Vector3 mIntersectionOnBody2 = new Vector3();
+    private final Transform mInverseTransform = new Transform();
+
     @Override
     public boolean testCollision(CollisionShape collisionShape1, Transform transform1,
                                  CollisionShape collisionShape2, Transform transform2,
                                  ContactPointInfo contactInfo) {
         final SphereShape sphereShape1 = (SphereShape) collisionShape1;
         final SphereShape sphereShape2 = (SphereShape) collisionShape2;
-        final Vector3 vectorBetweenCenters = Vector3.subtract(transform2.getPosition(), transform1.getPosition());
+        final Vector3 vectorBetweenCenters = mVectorBetweenCenters.set(transform2.getPosition()).subtract(transform1.getPosition());
         final float squaredDistanceBetweenCenters = vectorBetweenCenters.lengthSquare();
         final float sumRadius = sphereShape1.getRadius() + sphereShape2.getRadius();
         if (squaredDistanceBetweenCenters <= sumRadius * sumRadius) {
-            final Vector3 centerSphere2InBody1LocalSpace = Transform.multiply(transform1.getInverse(), transform2.getPosition());
-            final Vector3 centerSphere1InBody2LocalSpace = Transform.multiply(transform2.getInverse(), transform1.getPosition());
-            final Vector3 intersectionOnBody1 = Vector3.multiply(sphereShape1.getRadius(), centerSphere2InBody1LocalSpace.getUnit());
-            final Vector3 intersectionOnBody2 = Vector3.multiply(sphereShape2.getRadius(), centerSphere1InBody2LocalSpace.getUnit());
+            final Vector3 centerSphere2InBody1LocalSpace = Transform.multiply(transform1.getInverse(mInverseTransform), transform2.getPosition(), mIntersectionOnBody1);
+            final Vector3 centerSphere1InBody2LocalSpace = Transform.multiply(transform2.getInverse(mInverseTransform), transform1.getPosition(), mIntersectionOnBody2);
+            final Vector3 intersectionOnBody1 = centerSphere2InBody1LocalSpace.getUnit(mIntersectionOnBody1).multiply(sphereShape1.getRadius());
+            final Vector3 intersectionOnBody2 = centerSphere1InBody2LocalSpace.getUnit(mIntersectionOnBody2).multiply(sphereShape2.getRadius());
             final float penetrationDepth = sumRadius - (float) Math.sqrt(squaredDistanceBetweenCenters);
-            contactInfo.set(vectorBetweenCenters.getUnit(), penetrationDepth, intersectionOnBody1, intersectionOnBody2);
+            contactInfo.set(vectorBetweenCenters.getUnit(mVectorBetweenCenters), penetrationDepth, intersectionOnBody1, intersectionOnBody2);
             return true;
         }
         return false;
@@ -102,28 +102,30 @@ public class BoxShape extends CollisionShape {
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithMargin(Vector3 direction) {
+    public Vector3 getLocalSupportPointWithMargin(Vector3 direction, Vector3 supportPoint) {
         if (mMargin < 0) {
             throw new IllegalStateException("margin must be greater than zero");
         }
-        return new Vector3(
+        supportPoint.setAllValues(
                 direction.getX() < 0 ? -mExtent.getX() - mMargin : mExtent.getX() + mMargin,
                 direction.getY() < 0 ? -mExtent.getY() - mMargin : mExtent.getY() + mMargin,
                 direction.getZ() < 0 ? -mExtent.getZ() - mMargin : mExtent.getZ() + mMargin);
+        return supportPoint;
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction) {
-        return new Vector3(
+    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction, Vector3 supportPoint) {
+        supportPoint.setAllValues(
                 direction.getX() < 0 ? -mExtent.getX() : mExtent.getX(),
                 direction.getY() < 0 ? -mExtent.getY() : mExtent.getY(),
                 direction.getZ() < 0 ? -mExtent.getZ() : mExtent.getZ());
+        return supportPoint;
     }
 
     @Override
     public void getLocalBounds(Vector3 min, Vector3 max) {
-        max.set(Vector3.add(mExtent, new Vector3(mMargin, mMargin, mMargin)));
-        min.set(Vector3.negate(max));
+        max.setAllValues(mExtent.getX() + mMargin, mExtent.getY() + mMargin, mExtent.getZ() + mMargin);
+        min.setAllValues(-max.getX(), -max.getY(), -max.getZ());
     }
 
     @Override
@@ -91,31 +91,31 @@ public class CapsuleShape extends CollisionShape {
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithMargin(Vector3 direction) {
+    public Vector3 getLocalSupportPointWithMargin(Vector3 direction, Vector3 supportPoint) {
         if (direction.lengthSquare() >= ReactDefaults.MACHINE_EPSILON * ReactDefaults.MACHINE_EPSILON) {
-            final Vector3 unitDirection = direction.getUnit();
-            final Vector3 centerTopSphere = new Vector3(0, mHalfHeight, 0);
-            final Vector3 topSpherePoint = Vector3.add(centerTopSphere, Vector3.multiply(unitDirection, mRadius));
-            final float dotProductTop = topSpherePoint.dot(direction);
-            final Vector3 centerBottomSphere = new Vector3(0, -mHalfHeight, 0);
-            final Vector3 bottomSpherePoint = Vector3.add(centerBottomSphere, Vector3.multiply(unitDirection, mRadius));
-            final float dotProductBottom = bottomSpherePoint.dot(direction);
-            if (dotProductTop > dotProductBottom) {
-                return topSpherePoint;
-            } else {
-                return bottomSpherePoint;
-            }
+            // the point of the sphere in the direction, moved to the center of the top or the bottom sphere
+            final Vector3 spherePoint = direction.getUnit(supportPoint).multiply(mRadius);
+            final float x = spherePoint.getX();
+            final float z = spherePoint.getZ();
+            final float topY = mHalfHeight + spherePoint.getY();
+            final float bottomY = -mHalfHeight + spherePoint.getY();
+            final float dotProductTop = x * direction.getX() + topY * direction.getY() + z * direction.getZ();
+            final float dotProductBottom = x * direction.getX() + bottomY * direction.getY() + z * direction.getZ();
+            supportPoint.setY(dotProductTop > dotProductBottom ? topY : bottomY);
+            return supportPoint;
         }
-        return new Vector3(0, mRadius, 0);
+        supportPoint.setAllValues(0, mRadius, 0);
+        return supportPoint;
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction) {
+    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction, Vector3 supportPoint) {
         if (direction.getY() > 0) {
-            return new Vector3(0, mHalfHeight, 0);
+            supportPoint.setAllValues(0, mHalfHeight, 0);
         } else {
-            return new Vector3(0, -mHalfHeight, 0);
+            supportPoint.setAllValues(0, -mHalfHeight, 0);
         }
+        return supportPoint;
     }
 
     @Override
@@ -30,6 +30,8 @@ import com.flowpowered.react.math.Transform;
 import fr.ostix.worldCreator.entity.*;
 import org.joml.*;
 
+import java.lang.Math;
+
 /**
  * Represents the collision shape associated with a body that is used during the narrow-phase collision detection.
  */
@@ -86,7 +88,18 @@ public abstract class CollisionShape extends BoundingModel {
      * @param direction The desired direction
      * @return The local support point as a vector3
      */
-    public abstract Vector3 getLocalSupportPointWithMargin(Vector3 direction);
+    public Vector3 getLocalSupportPointWithMargin(Vector3 direction) {
+        return getLocalSupportPointWithMargin(direction, new Vector3());
+    }
+
+    /**
+     * Stores a local support point in a given direction with the object margin in the destination vector. Does not create a new vector. The destination must not be the direction.
+     *
+     * @param direction The desired direction
+     * @param supportPoint The vector in which to store the support point
+     * @return The destination vector
+     */
+    public abstract Vector3 getLocalSupportPointWithMargin(Vector3 direction, Vector3 supportPoint);
 
     /**
      * Gets a local support point in a given direction without the object margin.
@@ -94,7 +107,18 @@ public abstract class CollisionShape extends BoundingModel {
      * @param direction The desired direction
      * @return The local support point as a vector3
      */
-    public abstract Vector3 getLocalSupportPointWithoutMargin(Vector3 direction);
+    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction) {
+        return getLocalSupportPointWithoutMargin(direction, new Vector3());
+    }
+
+    /**
+     * Stores a local support point in a given direction without the object margin in the destination vector. Does not create a new vector. The destination must not be the direction.
+     *
+     * @param direction The desired direction
+     * @param supportPoint The vector in which to store the support point
+     * @return The destination vector
+     */
+    public abstract Vector3 getLocalSupportPointWithoutMargin(Vector3 direction, Vector3 supportPoint);
 
     /**
      * Gets the local extents in x,y and z direction.
@@ -127,6 +151,17 @@ public abstract class CollisionShape extends BoundingModel {
      */
     public abstract boolean isEqualTo(CollisionShape otherCollisionShape);
 
+    /**
+     * Returns true if the AABB of the shape is the same for any orientation, its local bounds are then only moved by the position in {@link #updateAABB(AABB, Transform)}. The
+     * {@link com.flowpowered.react.body.RigidBodyStore} computes the AABBs of the rigid bodies from the local bounds with the same formulas as this class, a shape overriding
+     * {@link #updateAABB(AABB, Transform)} must give the same results.
+     *
+     * @return Whether or not the AABB is the same for any orientation
+     */
+    public boolean hasRotationInvariantAABB() {
+        return false;
+    }
+
     /**
      * Update the AABB of a body using its collision shape.
      *
@@ -134,22 +169,53 @@ public abstract class CollisionShape extends BoundingModel {
      * @param transform The AABB's transform
      */
     public void updateAABB(AABB aabb, Transform transform) {
-        final Vector3 minBounds = new Vector3();
-        final Vector3 maxBounds = new Vector3();
-        getLocalBounds(minBounds, maxBounds);
-        final Matrix3x3 worldAxis = transform.getOrientation().getMatrix().getAbsoluteMatrix();
-        final Vector3 worldMinBounds = new Vector3(
-                worldAxis.getColumn(0).dot(minBounds),
-                worldAxis.getColumn(1).dot(minBounds),
-                worldAxis.getColumn(2).dot(minBounds));
-        final Vector3 worldMaxBounds = new Vector3(
-                worldAxis.getColumn(0).dot(maxBounds),
-                worldAxis.getColumn(1).dot(maxBounds),
-                worldAxis.getColumn(2).dot(maxBounds));
-        final Vector3 minCoordinates = Vector3.add(transform.getPosition(), worldMinBounds);
-        final Vector3 maxCoordinates = Vector3.add(transform.getPosition(), worldMaxBounds);
-        aabb.setMin(minCoordinates);
-        aabb.setMax(maxCoordinates);
+        final Vector3 min = aabb.getMin();
+        final Vector3 max = aabb.getMax();
+        getLocalBounds(min, max);
+        // absolute values of the rotation matrix of the orientation, computed like Quaternion.getMatrix
+        final Quaternion q = transform.getOrientation();
+        final float nQ = q.getX() * q.getX() + q.getY() * q.getY() + q.getZ() * q.getZ() + q.getW() * q.getW();
+        final float s = nQ > 0.0 ? 2 / nQ : 0;
+        final float xs = q.getX() * s;
+        final float ys = q.getY() * s;
+        final float zs = q.getZ() * s;
+        final float wxs = q.getW() * xs;
+        final float wys = q.getW() * ys;
+        final float wzs = q.getW() * zs;
+        final float xxs = q.getX() * xs;
+        final float xys = q.getX() * ys;
+        final float xzs = q.getX() * zs;
+        final float yys = q.getY() * ys;
+        final float yzs = q.getY() * zs;
+        final float zzs = q.getZ() * zs;
+        final float a00 = Math.abs(1 - yys - zzs);
+        final float a01 = Math.abs(xys - wzs);
+        final float a02 = Math.abs(xzs + wys);
+        final float a10 = Math.abs(xys + wzs);
+        final float a11 = Math.abs(1 - xxs - zzs);
+        final float a12 = Math.abs(yzs - wxs);
+        final float a20 = Math.abs(xzs - wys);
+        final float a21 = Math.abs(yzs + wxs);
+        final float a22 = Math.abs(1 - xxs - yys);
+        final Vector3 position = transform.getPosition();
+        min.setAllValues(
+                position.getX() + (a00 * min.getX() + a10 * min.getY() + a20 * min.getZ()),
+                position.getY() + (a01 * min.getX() + a11 * min.getY() + a21 * min.getZ()),
+                position.getZ() + (a02 * min.getX() + a12 * min.getY() + a22 * min.getZ()));
+        max.setAllValues(
+                position.getX() + (a00 * max.getX() + a10 * max.getY() + a20 * max.getZ()),
+                position.getY() + (a01 * max.getX() + a11 * max.getY() + a21 * max.getZ()),
+                position.getZ() + (a02 * max.getX() + a12 * max.getY() + a22 * max.getZ()));
+    }
+
+    /**
+     * Returns true if the support point queries change the state of this shape, like a cache of the last support vertex. The collisions of such a shape must not be tested by several threads at
+     * once.
+     *
+     * @return Whether or not the support point queries modify the shape
+     */
+    public boolean hasSupportPointCache() {
+        return false;
     }
 
     public abstract float getHeight();
@@ -112,15 +112,17 @@ public class ConeShape extends CollisionShape {
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithMargin(Vector3 direction) {
-        final Vector3 supportPoint = getLocalSupportPointWithoutMargin(direction);
-        final Vector3 unitVec;
+    public Vector3 getLocalSupportPointWithMargin(Vector3 direction, Vector3 supportPoint) {
+        getLocalSupportPointWithoutMargin(direction, supportPoint);
         if (direction.lengthSquare() > ReactDefaults.MACHINE_EPSILON * ReactDefaults.MACHINE_EPSILON) {
-            unitVec = direction.getUnit();
+            final float lengthInv = 1 / direction.length();
+            supportPoint.setAllValues(
+                    supportPoint.getX() + direction.getX() * lengthInv * mMargin,
+                    supportPoint.getY() + direction.getY() * lengthInv * mMargin,
+                    supportPoint.getZ() + direction.getZ() * lengthInv * mMargin);
         } else {
-            unitVec = new Vector3(0, -1, 0);
+            supportPoint.setY(supportPoint.getY() - mMargin);
         }
-        supportPoint.add(Vector3.multiply(unitVec, mMargin));
         return supportPoint;
     }
 
@@ -152,19 +154,18 @@ public class ConeShape extends CollisionShape {
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction) {
+    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction, Vector3 supportPoint) {
         final Vector3 v = direction;
         final float sinThetaTimesLengthV = mSinTheta * v.length();
-        final Vector3 supportPoint;
         if (v.getY() > sinThetaTimesLengthV) {
-            supportPoint = new Vector3(0, mHalfHeight, 0);
+            supportPoint.setAllValues(0, mHalfHeight, 0);
         } else {
             final float projectedLength = (float) Math.sqrt(v.getX() * v.getX() + v.getZ() * v.getZ());
             if (projectedLength > ReactDefaults.MACHINE_EPSILON) {
                 final float d = mRadius / projectedLength;
-                supportPoint = new Vector3(v.getX() * d, -mHalfHeight, v.getZ() * d);
+                supportPoint.setAllValues(v.getX() * d, -mHalfHeight, v.getZ() * d);
             } else {
-                supportPoint = new Vector3(0, -mHalfHeight, 0);
+                supportPoint.setAllValues(0, -mHalfHeight, 0);
             }
         }
         return supportPoint;
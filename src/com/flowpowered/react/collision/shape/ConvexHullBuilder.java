@@ -0,0 +1,310 @@
+/*
+ * This file is part of React, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2013 Flow Powered <https://flowpowered.com/>
+ * Original ReactPhysics3D C++ library by Daniel Chappuis <http://danielchappuis.ch>
+ * React is re-licensed with permission from ReactPhysics3D author.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.flowpowered.react.collision.shape;
+
+import com.flowpowered.react.*;
+import gnu.trove.list.*;
+import gnu.trove.list.array.*;
+import gnu.trove.set.*;
+import gnu.trove.set.hash.*;
+
+import java.util.*;
+
+/**
+ * Builds the convex hull of a set of points as a {@link ConvexMeshShape} using its edges information and its support lookup. The points don't need to be convex, the ones inside of the hull or on
+ * its faces are dropped. The hull is grown one point at a time: the faces seen by the point are removed and the horizon of these faces is joined to the point.
+ */
+public class ConvexHullBuilder {
+    private final double[] mPoints;
+    private final int mNbPoints;
+    private final double mEpsilon;
+    // the three vertices of each face in counter clockwise order seen from the outside, the first one is -1 for a removed face
+    private int[] mFaces = new int[64 * 3];
+    // the unit normal and the offset of the plane of each face
+    private double[] mPlanes = new double[64 * 4];
+    private int mNbFaces;
+    private int mNbRemovedFaces;
+
+    private ConvexHullBuilder(float[] positions, int nbPoints) {
+        mPoints = new double[nbPoints * 3];
+        double maxX = 0, maxY = 0, maxZ = 0;
+        for (int i = 0; i < nbPoints * 3; i += 3) {
+            mPoints[i] = positions[i];
+            mPoints[i + 1] = positions[i + 1];
+            mPoints[i + 2] = positions[i + 2];
+            maxX = Math.max(maxX, Math.abs(positions[i]));
+            maxY = Math.max(maxY, Math.abs(positions[i + 1]));
+            maxZ = Math.max(maxZ, Math.abs(positions[i + 2]));
+        }
+        mNbPoints = nbPoints;
+        // the points are floats, the distances below their precision are ignored
+        mEpsilon = 3 * Math.ulp(1f) * (maxX + maxY + maxZ);
+    }
+
+    /**
+     * Builds the convex hull of the points with the default collision margin.
+     *
+     * @param positions The x, y and z of each point
+     * @return The convex mesh shape of the hull
+     * @throws IllegalArgumentException If the points are all on a same plane
+     */
+    public static ConvexMeshShape build(float[] positions) {
+        return build(positions, ReactDefaults.OBJECT_MARGIN);
+    }
+
+    /**
+     * Builds the convex hull of the points. The shape uses the edges of the hull to find its support points and has its support lookup computed.
+     *
+     * @param positions The x, y and z of each point
+     * @param margin The collision margin
+     * @return The convex mesh shape of the hull
+     * @throws IllegalArgumentException If the points are all on a same plane
+     */
+    public static ConvexMeshShape build(float[] positions, float margin) {
+        if (positions.length < 12) {
+            throw new IllegalArgumentException("A convex hull needs at least four points");
+        }
+        final ConvexHullBuilder builder = new ConvexHullBuilder(positions, positions.length / 3);
+        builder.computeHull();
+        return builder.createShape(margin);
+    }
+
+    private void computeHull() {
+        createInitialTetrahedron();
+        final TLongSet visibleEdges = new TLongHashSet();
+        final TIntList horizon = new TIntArrayList();
+        for (int p = 0; p < mNbPoints; p++) {
+            final int nbFaces = mNbFaces;
+            for (int f = 0; f < nbFaces; f++) {
+                if (mFaces[f * 3] >= 0 && getDistance(f, p) > mEpsilon) {
+                    for (int e = 0; e < 3; e++) {
+                        visibleEdges.add(getEdgeKey(mFaces[f * 3 + e], mFaces[f * 3 + (e + 1) % 3]));
+                    }
+                    removeFace(f);
+                }
+            }
+            if (visibleEdges.isEmpty()) {
+                continue;
+            }
+            // the edges of the visible faces which other face isn't visible, in the same direction as in their visible face
+            horizon.clear();
+            visibleEdges.forEach(key -> {
+                final int v1 = (int) (key >>> 32);
+                final int v2 = (int) key;
+                if (!visibleEdges.contains(getEdgeKey(v2, v1))) {
+                    horizon.add(v1);
+                    horizon.add(v2);
+                }
+                return true;
+            });
+            for (int e = 0; e < horizon.size(); e += 2) {
+                addFace(horizon.get(e), horizon.get(e + 1), p);
+            }
+            visibleEdges.clear();
+            if (mNbRemovedFaces > mNbFaces / 2) {
+                compactFaces();
+            }
+        }
+    }
+
+    // Creates the first four faces from the points the furthest away from each other.
+    private void createInitialTetrahedron() {
+        int axis = 0;
+        int v1 = 0;
+        int v2 = 0;
+        double maxExtent = -1;
+        for (int a = 0; a < 3; a++) {
+            int min = 0;
+            int max = 0;
+            for (int p = 1; p < mNbPoints; p++) {
+                if (mPoints[p * 3 + a] < mPoints[min * 3 + a]) {
+                    min = p;
+                }
+                if (mPoints[p * 3 + a] > mPoints[max * 3 + a]) {
+                    max = p;
+                }
+            }
+            if (mPoints[max * 3 + a] - mPoints[min * 3 + a] > maxExtent) {
+                maxExtent = mPoints[max * 3 + a] - mPoints[min * 3 + a];
+                axis = a;
+                v1 = min;
+                v2 = max;
+            }
+        }
+        if (maxExtent <= mEpsilon) {
+            throw new IllegalArgumentException("The points must not all be at the same position");
+        }
+        // the point the furthest away from the line
+        final double dx = mPoints[v2 * 3] - mPoints[v1 * 3];
+        final double dy = mPoints[v2 * 3 + 1] - mPoints[v1 * 3 + 1];
+        final double dz = mPoints[v2 * 3 + 2] - mPoints[v1 * 3 + 2];
+        int v3 = -1;
+        double maxDistance = 0;
+        for (int p = 0; p < mNbPoints; p++) {
+            final double px = mPoints[p * 3] - mPoints[v1 * 3];
+            final double py = mPoints[p * 3 + 1] - mPoints[v1 * 3 + 1];
+            final double pz = mPoints[p * 3 + 2] - mPoints[v1 * 3 + 2];
+            final double cx = py * dz - pz * dy;
+            final double cy = pz * dx - px * dz;
+            final double cz = px * dy - py * dx;
+            final double distance = (cx * cx + cy * cy + cz * cz) / (dx * dx + dy * dy + dz * dz);
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                v3 = p;
+            }
+        }
+        if (v3 < 0 || Math.sqrt(maxDistance) <= mEpsilon) {
+            throw new IllegalArgumentException("The points must not all be on a same line");
+        }
+        // the point the furthest away from the plane
+        addFace(v1, v2, v3);
+        int v4 = -1;
+        maxDistance = 0;
+        for (int p = 0; p < mNbPoints; p++) {
+            final double distance = Math.abs(getDistance(0, p));
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                v4 = p;
+            }
+        }
+        if (v4 < 0 || maxDistance <= mEpsilon) {
+            throw new IllegalArgumentException("The points must not all be on a same plane");
+        }
+        mNbFaces = 0;
+        // the faces must face away from the fourth point
+        if (getSignedVolume(v1, v2, v3, v4) > 0) {
+            final int v = v2;
+            v2 = v3;
+            v3 = v;
+        }
+        addFace(v1, v2, v3);
+        addFace(v1, v4, v2);
+        addFace(v2, v4, v3);
+        addFace(v3, v4, v1);
+    }
+
+    // Returns the dot product of the normal of the triangle (v1, v2, v3) with the vector from v1 to v4.
+    private double getSignedVolume(int v1, int v2, int v3, int v4) {
+        final double ax = mPoints[v2 * 3] - mPoints[v1 * 3], ay = mPoints[v2 * 3 + 1] - mPoints[v1 * 3 + 1], az = mPoints[v2 * 3 + 2] - mPoints[v1 * 3 + 2];
+        final double bx = mPoints[v3 * 3] - mPoints[v1 * 3], by = mPoints[v3 * 3 + 1] - mPoints[v1 * 3 + 1], bz = mPoints[v3 * 3 + 2] - mPoints[v1 * 3 + 2];
+        final double cx = mPoints[v4 * 3] - mPoints[v1 * 3], cy = mPoints[v4 * 3 + 1] - mPoints[v1 * 3 + 1], cz = mPoints[v4 * 3 + 2] - mPoints[v1 * 3 + 2];
+        return (ay * bz - az * by) * cx + (az * bx - ax * bz) * cy + (ax * by - ay * bx) * cz;
+    }
+
+    private void addFace(int v1, int v2, int v3) {
+        final double ax = mPoints[v2 * 3] - mPoints[v1 * 3], ay = mPoints[v2 * 3 + 1] - mPoints[v1 * 3 + 1], az = mPoints[v2 * 3 + 2] - mPoints[v1 * 3 + 2];
+        final double bx = mPoints[v3 * 3] - mPoints[v1 * 3], by = mPoints[v3 * 3 + 1] - mPoints[v1 * 3 + 1], bz = mPoints[v3 * 3 + 2] - mPoints[v1 * 3 + 2];
+        double nx = ay * bz - az * by;
+        double ny = az * bx - ax * bz;
+        double nz = ax * by - ay * bx;
+        final double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        // a degenerated face is never seen by a point, the faces around it close the hull
+        if (length > 0) {
+            nx /= length;
+            ny /= length;
+            nz /= length;
+        }
+        if (mNbFaces * 3 == mFaces.length) {
+            mFaces = Arrays.copyOf(mFaces, mFaces.length * 2);
+            mPlanes = Arrays.copyOf(mPlanes, mPlanes.length * 2);
+        }
+        mFaces[mNbFaces * 3] = v1;
+        mFaces[mNbFaces * 3 + 1] = v2;
+        mFaces[mNbFaces * 3 + 2] = v3;
+        mPlanes[mNbFaces * 4] = nx;
+        mPlanes[mNbFaces * 4 + 1] = ny;
+        mPlanes[mNbFaces * 4 + 2] = nz;
+        mPlanes[mNbFaces * 4 + 3] = nx * mPoints[v1 * 3] + ny * mPoints[v1 * 3 + 1] + nz * mPoints[v1 * 3 + 2];
+        mNbFaces++;
+    }
+
+    private void removeFace(int face) {
+        mFaces[face * 3] = -1;
+        mNbRemovedFaces++;
+    }
+
+    private void compactFaces() {
+        int size = 0;
+        for (int f = 0; f < mNbFaces; f++) {
+            if (mFaces[f * 3] < 0) {
+                continue;
+            }
+            System.arraycopy(mFaces, f * 3, mFaces, size * 3, 3);
+            System.arraycopy(mPlanes, f * 4, mPlanes, size * 4, 4);
+            size++;
+        }
+        mNbFaces = size;
+        mNbRemovedFaces = 0;
+    }
+
+    // Returns the distance of the point in front of the plane of the face.
+    private double getDistance(int face, int point) {
+        return mPlanes[face * 4] * mPoints[point * 3] + mPlanes[face * 4 + 1] * mPoints[point * 3 + 1] + mPlanes[face * 4 + 2] * mPoints[point * 3 + 2] - mPlanes[face * 4 + 3];
+    }
+
+    private static long getEdgeKey(int v1, int v2) {
+        return (long) v1 << 32 | v2 & 0xFFFFFFFFL;
+    }
+
+    // Creates the shape from the vertices and the edges of the remaining faces, the vertices keep the order of the points.
+    private ConvexMeshShape createShape(float margin) {
+        final int[] vertexIndices = new int[mNbPoints];
+        for (int f = 0; f < mNbFaces; f++) {
+            if (mFaces[f * 3] >= 0) {
+                for (int i = 0; i < 3; i++) {
+                    vertexIndices[mFaces[f * 3 + i]] = 1;
+                }
+            }
+        }
+        final TFloatList vertices = new TFloatArrayList();
+        int nbVertices = 0;
+        for (int p = 0; p < mNbPoints; p++) {
+            if (vertexIndices[p] != 0) {
+                vertexIndices[p] = nbVertices++;
+                vertices.add((float) mPoints[p * 3]);
+                vertices.add((float) mPoints[p * 3 + 1]);
+                vertices.add((float) mPoints[p * 3 + 2]);
+            }
+        }
+        final ConvexMeshShape shape = new ConvexMeshShape(vertices.toArray(), nbVertices, 12, margin);
+        final TLongSet edges = new TLongHashSet();
+        for (int f = 0; f < mNbFaces; f++) {
+            if (mFaces[f * 3] < 0) {
+                continue;
+            }
+            for (int e = 0; e < 3; e++) {
+                final int v1 = vertexIndices[mFaces[f * 3 + e]];
+                final int v2 = vertexIndices[mFaces[f * 3 + (e + 1) % 3]];
+                if (edges.add(getEdgeKey(Math.min(v1, v2), Math.max(v1, v2)))) {
+                    shape.addEdge(v1, v2);
+                }
+            }
+        }
+        shape.setIsEdgesInformationUsed(true);
+        shape.computeSupportLookup();
+        return shape;
+    }
+}
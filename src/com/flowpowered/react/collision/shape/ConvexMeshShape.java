@@ -27,13 +27,9 @@ package com.flowpowered.react.collision.shape;
 
 import com.flowpowered.react.*;
 import com.flowpowered.react.math.*;
-import gnu.trove.iterator.*;
-import gnu.trove.map.*;
-import gnu.trove.map.hash.*;
-import gnu.trove.set.*;
-import gnu.trove.set.hash.*;
 import org.joml.*;
 
+import java.lang.Math;
 import java.util.*;
 
 /**
@@ -42,15 +38,26 @@ import java.util.*;
  * the origin of the local-space geometry that you use to create the mesh. The method used for collision detection with a convex mesh shape has an O(n) running time with "n" being the number of
  * vertices in the mesh. Therefore, you should try not to use too many vertices. However, it is possible to speed up the collision detection by using the edges information of your mesh. The running
  * time of the collision detection that uses the edges is almost O(1) constant time at the cost of additional memory used to store the vertices. You can indicate edges information with the addEdge()
- * method. Then, you must use the setIsEdgesInformationUsed(true) method in order to use the edges information for collision detection.
+ * method. Then, you must use the setIsEdgesInformationUsed(true) method in order to use the edges information for collision detection. The search along the edges starts from the last support vertex
+ * found, or from a vertex taken in a precomputed lookup of the directions if {@link #computeSupportLookup()} was called. With the lookup the shape keeps no state between two searches, so the pairs using
+ * it can be tested on several threads. Use {@link ConvexHullBuilder} to create the shape from the convex hull of any set of points.
  */
 public class ConvexMeshShape extends CollisionShape {
-    private final List<Vector3> mVertices = new ArrayList<>();
+    // x, y and z of each vertex
+    private float[] mVertices;
     private int mNbVertices;
     private final Vector3 mMinBounds;
     private final Vector3 mMaxBounds;
     private boolean mIsEdgesInformationUsed;
-    private final TIntObjectMap<TIntSet> mEdgesAdjacencyList = new TIntObjectHashMap<>();
+    // the two vertex indices of each edge, in the order they were added
+    private int[] mEdges;
+    private int mNbEdges;
+    // the neighbours of vertex i are mAdjacency[mAdjacencyOffsets[i]] to mAdjacency[mAdjacencyOffsets[i + 1] - 1], built from the edges when first needed
+    private int[] mAdjacencyOffsets;
+    private int[] mAdjacency;
+    // the support vertex of the direction at the center of each cell of a cube map, the starting vertex of the search along the edges
+    private int[] mSupportLookup;
+    private int mSupportLookupResolution;
     private int mCachedSupportVertex;
 
     /**
@@ -78,6 +85,7 @@ public class ConvexMeshShape extends CollisionShape {
         mMinBounds = new Vector3(0, 0, 0);
         mMaxBounds = new Vector3(0, 0, 0);
         mIsEdgesInformationUsed = false;
+        mEdges = new int[0];
         mCachedSupportVertex = 0;
         if (nbVertices <= 0) {
             throw new IllegalArgumentException("Number of vertices must be greater than zero");
@@ -88,10 +96,13 @@ public class ConvexMeshShape extends CollisionShape {
         if (margin <= 0) {
             throw new IllegalArgumentException("Margin must be greater than 0");
         }
+        mVertices = new float[mNbVertices * 3];
         int vertexPointer = 0;
         for (int i = 0; i < mNbVertices; i++) {
             final int newPoint = vertexPointer / 4;
-            mVertices.add(new Vector3(arrayVertices[newPoint], arrayVertices[newPoint + 1], arrayVertices[newPoint + 2]));
+            mVertices[i * 3] = arrayVertices[newPoint];
+            mVertices[i * 3 + 1] = arrayVertices[newPoint + 1];
+            mVertices[i * 3 + 2] = arrayVertices[newPoint + 2];
             vertexPointer += stride;
         }
         recalculateBounds();
@@ -112,9 +123,11 @@ public class ConvexMeshShape extends CollisionShape {
     public ConvexMeshShape(float margin) {
         super(CollisionShapeType.CONVEX_MESH, margin);
         mNbVertices = 0;
+        mVertices = new float[0];
         mMinBounds = new Vector3(0, 0, 0);
         mMaxBounds = new Vector3(0, 0, 0);
         mIsEdgesInformationUsed = false;
+        mEdges = new int[0];
         mCachedSupportVertex = 0;
         if (margin <= 0) {
             throw new IllegalArgumentException("Margin must be greater than 0");
@@ -122,22 +135,24 @@ public class ConvexMeshShape extends CollisionShape {
     }
 
     /**
-     * Copy constructor.
+     * Copy constructor. The adjacency and the support lookup are never modified once built, so they are shared with the copied shape.
      *
      * @param shape The shape to copy
      */
     public ConvexMeshShape(ConvexMeshShape shape) {
         super(shape);
-        mVertices.addAll(shape.mVertices);
+        mVertices = Arrays.copyOf(shape.mVertices, shape.mNbVertices * 3);
         mNbVertices = shape.mNbVertices;
         mMinBounds = new Vector3(shape.mMinBounds);
         mMaxBounds = new Vector3(shape.mMaxBounds);
         mIsEdgesInformationUsed = shape.mIsEdgesInformationUsed;
-        mEdgesAdjacencyList.putAll(shape.mEdgesAdjacencyList);
+        mEdges = Arrays.copyOf(shape.mEdges, shape.mNbEdges * 2);
+        mNbEdges = shape.mNbEdges;
+        mAdjacencyOffsets = shape.mAdjacencyOffsets;
+        mAdjacency = shape.mAdjacency;
+        mSupportLookup = shape.mSupportLookup;
+        mSupportLookupResolution = shape.mSupportLookupResolution;
         mCachedSupportVertex = shape.mCachedSupportVertex;
-        if (mNbVertices != mVertices.size()) {
-            throw new IllegalArgumentException("The number of vertices must be equal to the size of the vertex list");
-        }
     }
 
     // Recomputes the bounds of the mesh.
@@ -145,55 +160,50 @@ public class ConvexMeshShape extends CollisionShape {
         mMinBounds.setToZero();
         mMaxBounds.setToZero();
         for (int i = 0; i < mNbVertices; i++) {
-            if (mVertices.get(i).getX() > mMaxBounds.getX()) {
-                mMaxBounds.setX(mVertices.get(i).getX());
-            }
-            if (mVertices.get(i).getX() < mMinBounds.getX()) {
-                mMinBounds.setX(mVertices.get(i).getX());
-            }
-            if (mVertices.get(i).getY() > mMaxBounds.getY()) {
-                mMaxBounds.setY(mVertices.get(i).getY());
-            }
-            if (mVertices.get(i).getY() < mMinBounds.getY()) {
-                mMinBounds.setY(mVertices.get(i).getY());
-            }
-            if (mVertices.get(i).getZ() > mMaxBounds.getZ()) {
-                mMaxBounds.setZ(mVertices.get(i).getZ());
-            }
-            if (mVertices.get(i).getZ() < mMinBounds.getZ()) {
-                mMinBounds.setZ(mVertices.get(i).getZ());
-            }
+            extendBounds(mVertices[i * 3], mVertices[i * 3 + 1], mVertices[i * 3 + 2]);
         }
         mMaxBounds.add(new Vector3(mMargin, mMargin, mMargin));
         mMinBounds.subtract(new Vector3(mMargin, mMargin, mMargin));
     }
 
+    private void extendBounds(float x, float y, float z) {
+        if (x > mMaxBounds.getX()) {
+            mMaxBounds.setX(x);
+        }
+        if (x < mMinBounds.getX()) {
+            mMinBounds.setX(x);
+        }
+        if (y > mMaxBounds.getY()) {
+            mMaxBounds.setY(y);
+        }
+        if (y < mMinBounds.getY()) {
+            mMinBounds.setY(y);
+        }
+        if (z > mMaxBounds.getZ()) {
+            mMaxBounds.setZ(z);
+        }
+        if (z < mMinBounds.getZ()) {
+            mMinBounds.setZ(z);
+        }
+    }
+
     /**
      * Adds a vertex into the convex mesh.
      *
      * @param vertex The vertex to add
      */
     public void addVertex(Vector3 vertex) {
-        mVertices.add(vertex);
-        mNbVertices++;
-        if (vertex.getX() > mMaxBounds.getX()) {
-            mMaxBounds.setX(vertex.getX());
-        }
-        if (vertex.getX() < mMinBounds.getX()) {
-            mMinBounds.setX(vertex.getX());
-        }
-        if (vertex.getY() > mMaxBounds.getY()) {
-            mMaxBounds.setY(vertex.getY());
-        }
-        if (vertex.getY() < mMinBounds.getY()) {
-            mMinBounds.setY(vertex.getY());
-        }
-        if (vertex.getZ() > mMaxBounds.getZ()) {
-            mMaxBounds.setZ(vertex.getZ());
-        }
-        if (vertex.getZ() < mMinBounds.getZ()) {
-            mMinBounds.setZ(vertex.getZ());
+        if (mVertices.length < (mNbVertices + 1) * 3) {
+            mVertices = Arrays.copyOf(mVertices, Math.max(mNbVertices * 2, 4) * 3);
         }
+        mVertices[mNbVertices * 3] = vertex.getX();
+        mVertices[mNbVertices * 3 + 1] = vertex.getY();
+        mVertices[mNbVertices * 3 + 2] = vertex.getZ();
+        mNbVertices++;
+        extendBounds(vertex.getX(), vertex.getY(), vertex.getZ());
+        mAdjacencyOffsets = null;
+        mAdjacency = null;
+        mSupportLookup = null;
     }
 
     /**
@@ -210,14 +220,33 @@ public class ConvexMeshShape extends CollisionShape {
         if (v2 < 0) {
             throw new IllegalArgumentException("v2 must be greater or equal to zero");
         }
-        if (!mEdgesAdjacencyList.containsKey(v1)) {
-            mEdgesAdjacencyList.put(v1, new TIntHashSet());
+        if (mEdges.length < (mNbEdges + 1) * 2) {
+            mEdges = Arrays.copyOf(mEdges, Math.max(mNbEdges * 2, 8) * 2);
         }
-        if (!mEdgesAdjacencyList.containsKey(v2)) {
-            mEdgesAdjacencyList.put(v2, new TIntHashSet());
-        }
-        mEdgesAdjacencyList.get(v1).add(v2);
-        mEdgesAdjacencyList.get(v2).add(v1);
+        mEdges[mNbEdges * 2] = v1;
+        mEdges[mNbEdges * 2 + 1] = v2;
+        mNbEdges++;
+        mAdjacencyOffsets = null;
+        mAdjacency = null;
+        mSupportLookup = null;
+    }
+
+    /**
+     * Gets the number of vertices of the mesh.
+     *
+     * @return The number of vertices
+     */
+    public int getNbVertices() {
+        return mNbVertices;
+    }
+
+    /**
+     * Gets the number of edges added to the mesh.
+     *
+     * @return The number of edges
+     */
+    public int getNbEdges() {
+        return mNbEdges;
     }
 
     /**
@@ -238,63 +267,229 @@ public class ConvexMeshShape extends CollisionShape {
         mIsEdgesInformationUsed = isEdgesUsed;
     }
 
+    /**
+     * Computes the lookup of the starting vertices of the search along the edges with the default resolution. See {@link #computeSupportLookup(int)}.
+     */
+    public void computeSupportLookup() {
+        computeSupportLookup(ReactDefaults.CONVEX_MESH_SUPPORT_LOOKUP_RESOLUTION);
+    }
+
+    /**
+     * Computes the lookup of the starting vertices of the search along the edges. Each face of a cube around the shape is split in resolution x resolution cells, and the support vertex of the
+     * direction at the center of each cell is stored. The search then starts next to the support vertex instead of from the last one found, and the shape keeps no state between two searches. The
+     * lookup is only used with the edges information and must be computed again after adding vertices or edges.
+     *
+     * @param resolution The number of cells on each side of a face of the cube map
+     */
+    public void computeSupportLookup(int resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be greater than zero");
+        }
+        if (mNbVertices <= 0) {
+            throw new IllegalStateException("The mesh has no vertices");
+        }
+        buildAdjacency();
+        final int[] lookup = new int[6 * resolution * resolution];
+        for (int face = 0; face < 6; face++) {
+            final float sign = (face & 1) == 0 ? 1 : -1;
+            for (int j = 0; j < resolution; j++) {
+                final float v = (j + 0.5f) / resolution * 2 - 1;
+                for (int i = 0; i < resolution; i++) {
+                    final float u = (i + 0.5f) / resolution * 2 - 1;
+                    final float x, y, z;
+                    if (face < 2) {
+                        x = sign;
+                        y = u;
+                        z = v;
+                    } else if (face < 4) {
+                        x = u;
+                        y = sign;
+                        z = v;
+                    } else {
+                        x = u;
+                        y = v;
+                        z = sign;
+                    }
+                    lookup[(face * resolution + j) * resolution + i] = findSupportVertex(x, y, z);
+                }
+            }
+        }
+        mSupportLookupResolution = resolution;
+        mSupportLookup = lookup;
+    }
+
+    /**
+     * Returns true if the lookup of the starting vertices was computed.
+     *
+     * @return Whether or not the support lookup is available
+     */
+    public boolean hasSupportLookup() {
+        return mSupportLookup != null;
+    }
+
+    // Returns the index of the cube map cell containing the direction.
+    private int getSupportLookupCell(float x, float y, float z) {
+        final float absX = Math.abs(x);
+        final float absY = Math.abs(y);
+        final float absZ = Math.abs(z);
+        final int face;
+        final float u, v, max;
+        if (absX >= absY && absX >= absZ) {
+            face = x >= 0 ? 0 : 1;
+            u = y;
+            v = z;
+            max = absX;
+        } else if (absY >= absZ) {
+            face = y >= 0 ? 2 : 3;
+            u = x;
+            v = z;
+            max = absY;
+        } else {
+            face = z >= 0 ? 4 : 5;
+            u = x;
+            v = y;
+            max = absZ;
+        }
+        final int resolution = mSupportLookupResolution;
+        if (max <= 0) {
+            return 0;
+        }
+        final int i = Math.min((int) ((u / max + 1) * 0.5f * resolution), resolution - 1);
+        final int j = Math.min((int) ((v / max + 1) * 0.5f * resolution), resolution - 1);
+        return (face * resolution + j) * resolution + i;
+    }
+
+    // Finds the vertex with the largest dot product with the direction by testing all of them.
+    private int findSupportVertex(float x, float y, float z) {
+        final float[] vertices = mVertices;
+        final int end = mNbVertices * 3;
+        float maxDotProduct = -Float.MAX_VALUE;
+        int indexMaxDotProduct = 0;
+        for (int i = 0; i < end; i += 3) {
+            final float dotProduct = x * vertices[i] + y * vertices[i + 1] + z * vertices[i + 2];
+            if (dotProduct > maxDotProduct) {
+                indexMaxDotProduct = i;
+                maxDotProduct = dotProduct;
+            }
+        }
+        return indexMaxDotProduct / 3;
+    }
+
+    // Builds the compressed adjacency lists from the edges, without the duplicated edges.
+    private void buildAdjacency() {
+        if (mAdjacency != null) {
+            return;
+        }
+        final int[] offsets = new int[mNbVertices + 1];
+        for (int e = 0; e < mNbEdges * 2; e++) {
+            if (mEdges[e] >= mNbVertices) {
+                throw new IllegalStateException("Edge vertex " + mEdges[e] + " is not a vertex of the mesh");
+            }
+            offsets[mEdges[e] + 1]++;
+        }
+        for (int i = 0; i < mNbVertices; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        final int[] adjacency = new int[mNbEdges * 2];
+        final int[] next = Arrays.copyOf(offsets, mNbVertices);
+        for (int e = 0; e < mNbEdges; e++) {
+            final int v1 = mEdges[e * 2];
+            final int v2 = mEdges[e * 2 + 1];
+            adjacency[next[v1]++] = v2;
+            adjacency[next[v2]++] = v1;
+        }
+        // sorts each list and removes the duplicates, the lists are moved back to stay contiguous
+        int size = 0;
+        for (int i = 0; i < mNbVertices; i++) {
+            final int start = offsets[i];
+            final int end = offsets[i + 1];
+            Arrays.sort(adjacency, start, end);
+            offsets[i] = size;
+            for (int a = start; a < end; a++) {
+                if (a == start || adjacency[a] != adjacency[a - 1]) {
+                    adjacency[size++] = adjacency[a];
+                }
+            }
+            if (size == offsets[i]) {
+                throw new IllegalStateException("The number of adjacent edges must be greater than zero");
+            }
+        }
+        offsets[mNbVertices] = size;
+        mAdjacencyOffsets = offsets;
+        mAdjacency = Arrays.copyOf(adjacency, size);
+    }
+
+    @Override
+    public boolean hasSupportPointCache() {
+        return mIsEdgesInformationUsed && mSupportLookup == null;
+    }
+
     @Override
-    public Vector3 getLocalSupportPointWithMargin(Vector3 direction) {
-        final Vector3 supportPoint = getLocalSupportPointWithoutMargin(direction);
-        final Vector3 unitDirection = new Vector3(direction);
+    public Vector3 getLocalSupportPointWithMargin(Vector3 direction, Vector3 supportPoint) {
+        getLocalSupportPointWithoutMargin(direction, supportPoint);
+        float x = direction.getX();
+        float y = direction.getY();
+        float z = direction.getZ();
         if (direction.lengthSquare() < ReactDefaults.MACHINE_EPSILON * ReactDefaults.MACHINE_EPSILON) {
-            unitDirection.setAllValues(1, 1, 1);
+            x = 1;
+            y = 1;
+            z = 1;
         }
-        unitDirection.normalize();
-        return Vector3.add(supportPoint, Vector3.multiply(unitDirection, mMargin));
+        final float length = (float) Math.sqrt(x * x + y * y + z * z);
+        supportPoint.setAllValues(
+                supportPoint.getX() + x / length * mMargin,
+                supportPoint.getY() + y / length * mMargin,
+                supportPoint.getZ() + z / length * mMargin);
+        return supportPoint;
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction) {
-        if (mNbVertices != mVertices.size()) {
-            throw new IllegalArgumentException("The number of vertices must be equal to the size of the vertex list");
-        }
+    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction, Vector3 supportPoint) {
+        final float x = direction.getX();
+        final float y = direction.getY();
+        final float z = direction.getZ();
+        final int vertex;
         if (mIsEdgesInformationUsed) {
-            if (mEdgesAdjacencyList.size() != mNbVertices) {
-                throw new IllegalStateException("The number of adjacent edge lists must be equal to the number of vertices");
-            }
-            int maxVertex = mCachedSupportVertex;
-            float maxDotProduct = direction.dot(mVertices.get(maxVertex));
-            boolean isOptimal;
-            do {
-                isOptimal = true;
-                final TIntSet edgeSet = mEdgesAdjacencyList.get(maxVertex);
-                if (edgeSet.size() <= 0) {
-                    throw new IllegalStateException("The number of adjacent edges must be greater than zero");
-                }
-                final TIntIterator it = edgeSet.iterator();
-                while (it.hasNext()) {
-                    final int i = it.next();
-                    final float dotProduct = direction.dot(mVertices.get(i));
-                    if (dotProduct > maxDotProduct) {
-                        maxVertex = i;
-                        maxDotProduct = dotProduct;
-                        isOptimal = false;
-                    }
-                }
-            } while (!isOptimal);
-            mCachedSupportVertex = maxVertex;
-            return mVertices.get(maxVertex);
+            vertex = climbToSupportVertex(x, y, z);
         } else {
-            float maxDotProduct = -Float.MAX_VALUE;
-            int indexMaxDotProduct = 0;
-            for (int i = 0; i < mNbVertices; i++) {
-                final float dotProduct = direction.dot(mVertices.get(i));
+            vertex = findSupportVertex(x, y, z);
+            if (x * mVertices[vertex * 3] + y * mVertices[vertex * 3 + 1] + z * mVertices[vertex * 3 + 2] < 0) {
+                throw new IllegalStateException("Max dot product is not greater or equal to zero");
+            }
+        }
+        supportPoint.setAllValues(mVertices[vertex * 3], mVertices[vertex * 3 + 1], mVertices[vertex * 3 + 2]);
+        return supportPoint;
+    }
+
+    // Finds the vertex with the largest dot product with the direction by moving along the edges to a neighbour with a larger dot product until there is none.
+    private int climbToSupportVertex(float x, float y, float z) {
+        if (mAdjacency == null) {
+            buildAdjacency();
+        }
+        final float[] vertices = mVertices;
+        final int[] offsets = mAdjacencyOffsets;
+        final int[] adjacency = mAdjacency;
+        final int[] lookup = mSupportLookup;
+        int maxVertex = lookup != null ? lookup[getSupportLookupCell(x, y, z)] : mCachedSupportVertex;
+        float maxDotProduct = x * vertices[maxVertex * 3] + y * vertices[maxVertex * 3 + 1] + z * vertices[maxVertex * 3 + 2];
+        boolean isOptimal;
+        do {
+            isOptimal = true;
+            final int end = offsets[maxVertex + 1];
+            for (int a = offsets[maxVertex]; a < end; a++) {
+                final int i = adjacency[a];
+                final float dotProduct = x * vertices[i * 3] + y * vertices[i * 3 + 1] + z * vertices[i * 3 + 2];
                 if (dotProduct > maxDotProduct) {
-                    indexMaxDotProduct = i;
+                    maxVertex = i;
                     maxDotProduct = dotProduct;
+                    isOptimal = false;
                 }
             }
-            if (maxDotProduct < 0) {
-                throw new IllegalStateException("Max dot product is not greater or equal to zero");
-            }
-            return mVertices.get(indexMaxDotProduct);
+        } while (!isOptimal);
+        if (lookup == null) {
+            mCachedSupportVertex = maxVertex;
         }
+        return maxVertex;
     }
 
     @Override
@@ -327,7 +522,8 @@ public class ConvexMeshShape extends CollisionShape {
     @Override
     public boolean isEqualTo(CollisionShape otherCollisionShape) {
         final ConvexMeshShape otherShape = (ConvexMeshShape) otherCollisionShape;
-        return mNbVertices == otherShape.mNbVertices && !mIsEdgesInformationUsed && mVertices.equals(otherShape.mVertices) && mEdgesAdjacencyList.equals(otherShape.mVertices);
+        return mNbVertices == otherShape.mNbVertices && !mIsEdgesInformationUsed && !otherShape.mIsEdgesInformationUsed
+                && Arrays.equals(mVertices, 0, mNbVertices * 3, otherShape.mVertices, 0, mNbVertices * 3);
     }
 
     @Override
@@ -342,6 +538,15 @@ public class ConvexMeshShape extends CollisionShape {
 
     @Override
     public void scale(Vector3f scale) {
-
+        for (int i = 0; i < mNbVertices; i++) {
+            mVertices[i * 3] *= scale.x();
+            mVertices[i * 3 + 1] *= scale.y();
+            mVertices[i * 3 + 2] *= scale.z();
+        }
+        recalculateBounds();
+        // a non uniform scale moves the support vertices of the directions, the edges stay the same
+        if (mSupportLookup != null) {
+            computeSupportLookup(mSupportLookupResolution);
+        }
     }
 }
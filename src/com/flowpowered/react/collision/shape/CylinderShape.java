@@ -108,37 +108,30 @@ public class CylinderShape extends CollisionShape {
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithMargin(Vector3 direction) {
-        final Vector3 supportPoint = getLocalSupportPointWithoutMargin(direction);
-        final Vector3 unitVec;
+    public Vector3 getLocalSupportPointWithMargin(Vector3 direction, Vector3 supportPoint) {
+        getLocalSupportPointWithoutMargin(direction, supportPoint);
         if (direction.lengthSquare() > ReactDefaults.MACHINE_EPSILON * ReactDefaults.MACHINE_EPSILON) {
-            unitVec = direction.getUnit();
+            final float lengthInv = 1 / direction.length();
+            supportPoint.setAllValues(
+                    supportPoint.getX() + direction.getX() * lengthInv * mMargin,
+                    supportPoint.getY() + direction.getY() * lengthInv * mMargin,
+                    supportPoint.getZ() + direction.getZ() * lengthInv * mMargin);
         } else {
-            unitVec = new Vector3(0, 1, 0);
+            supportPoint.setY(supportPoint.getY() + mMargin);
         }
-        supportPoint.add(Vector3.multiply(unitVec, mMargin));
         return supportPoint;
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction) {
-        final Vector3 supportPoint = new Vector3(0, 0, 0);
+    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction, Vector3 supportPoint) {
         final float uDotv = direction.getY();
-        final Vector3 w = new Vector3(direction.getX(), 0, direction.getZ());
         final float lengthW = (float) Math.sqrt(direction.getX() * direction.getX() + direction.getZ() * direction.getZ());
+        final float y = uDotv < 0.0 ? -mHalfHeight : mHalfHeight;
         if (lengthW > ReactDefaults.MACHINE_EPSILON) {
-            if (uDotv < 0.0) {
-                supportPoint.setY(-mHalfHeight);
-            } else {
-                supportPoint.setY(mHalfHeight);
-            }
-            supportPoint.add(Vector3.multiply(mRadius / lengthW, w));
+            final float d = mRadius / lengthW;
+            supportPoint.setAllValues(d * direction.getX(), y, d * direction.getZ());
         } else {
-            if (uDotv < 0.0) {
-                supportPoint.setY(-mHalfHeight);
-            } else {
-                supportPoint.setY(mHalfHeight);
-            }
+            supportPoint.setAllValues(0, y, 0);
         }
         return supportPoint;
     }
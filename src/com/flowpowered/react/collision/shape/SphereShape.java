@@ -69,16 +69,18 @@ public class SphereShape extends CollisionShape {
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithMargin(Vector3 direction) {
+    public Vector3 getLocalSupportPointWithMargin(Vector3 direction, Vector3 supportPoint) {
         if (direction.lengthSquare() >= ReactDefaults.MACHINE_EPSILON * ReactDefaults.MACHINE_EPSILON) {
-            return Vector3.multiply(mMargin, direction.getUnit());
+            return direction.getUnit(supportPoint).multiply(mMargin);
         }
-        return new Vector3(0, mMargin, 0);
+        supportPoint.setAllValues(0, mMargin, 0);
+        return supportPoint;
     }
 
     @Override
-    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction) {
-        return new Vector3(0, 0, 0);
+    public Vector3 getLocalSupportPointWithoutMargin(Vector3 direction, Vector3 supportPoint) {
+        supportPoint.setToZero();
+        return supportPoint;
     }
 
     @Override
@@ -100,11 +102,16 @@ public class SphereShape extends CollisionShape {
                 0, 0, diag);
     }
 
+    @Override
+    public boolean hasRotationInvariantAABB() {
+        return true;
+    }
+
     @Override
     public void updateAABB(AABB aabb, Transform transform) {
-        final Vector3 extents = new Vector3(mRadius, mRadius, mRadius);
-        aabb.setMin(Vector3.subtract(transform.getPosition(), extents));
-        aabb.setMax(Vector3.add(transform.getPosition(), extents));
+        final Vector3 position = transform.getPosition();
+        aabb.getMin().setAllValues(position.getX() - mRadius, position.getY() - mRadius, position.getZ() - mRadius);
+        aabb.getMax().setAllValues(position.getX() + mRadius, position.getY() + mRadius, position.getZ() + mRadius);
     }
 
     @Override
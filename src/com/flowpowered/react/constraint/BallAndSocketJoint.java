@@ -44,6 +44,14 @@ public class BallAndSocketJoint extends Joint {
     private final Vector3 mBiasVector = new Vector3();
     private final Matrix3x3 mInverseMassMatrix = new Matrix3x3();
     private final Vector3 mImpulse;
+    // Scratch values of the solver, a joint is only solved by one thread at a time
+    private final Matrix3x3 mMassMatrix = new Matrix3x3();
+    private final Matrix3x3 mSkewSymmetricMatrix = new Matrix3x3();
+    private final Matrix3x3 mTempMatrix = new Matrix3x3();
+    private final Vector3 mJv = new Vector3();
+    private final Vector3 mLambda = new Vector3();
+    private final Vector3 mTemp = new Vector3();
+    private final Quaternion mTempQuaternion = new Quaternion();
 
     /**
      * Constructs a new ball and socket joint from provided ball and socket joint info.
@@ -61,41 +69,21 @@ public class BallAndSocketJoint extends Joint {
     public void initBeforeSolve(ConstraintSolverData constraintSolverData) {
         mIndexBody1 = constraintSolverData.getMapBodyToConstrainedVelocityIndex().get(mBody1);
         mIndexBody2 = constraintSolverData.getMapBodyToConstrainedVelocityIndex().get(mBody2);
-        final Vector3 x1 = mBody1.getTransform().getPosition();
-        final Vector3 x2 = mBody2.getTransform().getPosition();
-        final Quaternion orientationBody1 = mBody1.getTransform().getOrientation();
-        final Quaternion orientationBody2 = mBody2.getTransform().getOrientation();
-        mI1.set(mBody1.getInertiaTensorInverseWorld());
-        mI2.set(mBody2.getInertiaTensorInverseWorld());
-        mR1World.set(Quaternion.multiply(orientationBody1, mLocalAnchorPointBody1));
-        mR2World.set(Quaternion.multiply(orientationBody2, mLocalAnchorPointBody2));
-        final Matrix3x3 skewSymmetricMatrixU1 = Matrix3x3.computeSkewSymmetricMatrixForCrossProduct(mR1World);
-        final Matrix3x3 skewSymmetricMatrixU2 = Matrix3x3.computeSkewSymmetricMatrixForCrossProduct(mR2World);
-        float inverseMassBodies = 0;
-        if (mBody1.isMotionEnabled()) {
-            inverseMassBodies += mBody1.getMassInverse();
-        }
-        if (mBody2.isMotionEnabled()) {
-            inverseMassBodies += mBody2.getMassInverse();
-        }
-        final Matrix3x3 massMatrix = new Matrix3x3(
-                inverseMassBodies, 0, 0,
-                0, inverseMassBodies, 0,
-                0, 0, inverseMassBodies);
-        if (mBody1.isMotionEnabled()) {
-            massMatrix.add(Matrix3x3.multiply(skewSymmetricMatrixU1, Matrix3x3.multiply(mI1, skewSymmetricMatrixU1.getTranspose())));
-        }
-        if (mBody2.isMotionEnabled()) {
-            massMatrix.add(Matrix3x3.multiply(skewSymmetricMatrixU2, Matrix3x3.multiply(mI2, skewSymmetricMatrixU2.getTranspose())));
-        }
-        mInverseMassMatrix.setToZero();
-        if (mBody1.isMotionEnabled() || mBody2.isMotionEnabled()) {
-            mInverseMassMatrix.set(massMatrix.getInverse());
-        }
+        final Transform transform1 = mBody1.getTransform(mTransform1);
+        final Transform transform2 = mBody2.getTransform(mTransform2);
+        final Vector3 x1 = transform1.getPosition();
+        final Vector3 x2 = transform2.getPosition();
+        final Quaternion orientationBody1 = transform1.getOrientation();
+        final Quaternion orientationBody2 = transform2.getOrientation();
+        mBody1.getInertiaTensorInverseWorld(mI1);
+        mBody2.getInertiaTensorInverseWorld(mI2);
+        orientationBody1.rotate(mLocalAnchorPointBody1, mR1World);
+        orientationBody2.rotate(mLocalAnchorPointBody2, mR2World);
+        computeInverseMassMatrix(mBody1.getMassInverse(), mBody2.getMassInverse());
         mBiasVector.setToZero();
         if (mPositionCorrectionTechnique == JointsPositionCorrectionTechnique.BAUMGARTE_JOINTS) {
             final float biasFactor = BETA / constraintSolverData.getTimeStep();
-            mBiasVector.set(Vector3.multiply(biasFactor, Vector3.subtract(Vector3.subtract(Vector3.add(x2, mR2World), x1), mR1World)));
+            mBiasVector.set(x2).add(mR2World).subtract(x1).subtract(mR1World).multiply(biasFactor);
         }
         if (!constraintSolverData.isWarmStartingActive()) {
             mImpulse.setToZero();
@@ -108,20 +96,7 @@ public class BallAndSocketJoint extends Joint {
         final Vector3 v2 = constraintSolverData.getLinearVelocities()[mIndexBody2];
         final Vector3 w1 = constraintSolverData.getAngularVelocities()[mIndexBody1];
         final Vector3 w2 = constraintSolverData.getAngularVelocities()[mIndexBody2];
-        final float inverseMassBody1 = mBody1.getMassInverse();
-        final float inverseMassBody2 = mBody2.getMassInverse();
-        if (mBody1.isMotionEnabled()) {
-            final Vector3 linearImpulseBody1 = Vector3.negate(mImpulse);
-            final Vector3 angularImpulseBody1 = mImpulse.cross(mR1World);
-            v1.add(Vector3.multiply(inverseMassBody1, linearImpulseBody1));
-            w1.add(Matrix3x3.multiply(mI1, angularImpulseBody1));
-        }
-        if (mBody2.isMotionEnabled()) {
-            final Vector3 linearImpulseBody2 = mImpulse;
-            final Vector3 angularImpulseBody2 = Vector3.negate(mImpulse.cross(mR2World));
-            v2.add(Vector3.multiply(inverseMassBody2, linearImpulseBody2));
-            w2.add(Matrix3x3.multiply(mI2, angularImpulseBody2));
-        }
+        applyImpulse(mImpulse, v1, w1, v2, w2);
     }
 
     @Override
@@ -130,23 +105,10 @@ public class BallAndSocketJoint extends Joint {
         final Vector3 v2 = constraintSolverData.getLinearVelocities()[mIndexBody2];
         final Vector3 w1 = constraintSolverData.getAngularVelocities()[mIndexBody1];
         final Vector3 w2 = constraintSolverData.getAngularVelocities()[mIndexBody2];
-        float inverseMassBody1 = mBody1.getMassInverse();
-        float inverseMassBody2 = mBody2.getMassInverse();
-        final Vector3 Jv = Vector3.subtract(Vector3.subtract(Vector3.add(v2, w2.cross(mR2World)), v1), w1.cross(mR1World));
-        final Vector3 deltaLambda = Matrix3x3.multiply(mInverseMassMatrix, Vector3.subtract(Vector3.negate(Jv), mBiasVector));
+        final Vector3 Jv = mJv.set(v2).add(w2.cross(mR2World, mTemp)).subtract(v1).subtract(w1.cross(mR1World, mTemp));
+        final Vector3 deltaLambda = Matrix3x3.multiply(mInverseMassMatrix, Jv.negate().subtract(mBiasVector), mLambda);
         mImpulse.add(deltaLambda);
-        if (mBody1.isMotionEnabled()) {
-            final Vector3 linearImpulseBody1 = Vector3.negate(deltaLambda);
-            final Vector3 angularImpulseBody1 = deltaLambda.cross(mR1World);
-            v1.add(Vector3.multiply(inverseMassBody1, linearImpulseBody1));
-            w1.add(Matrix3x3.multiply(mI1, angularImpulseBody1));
-        }
-        if (mBody2.isMotionEnabled()) {
-            final Vector3 linearImpulseBody2 = deltaLambda;
-            final Vector3 angularImpulseBody2 = Vector3.negate(deltaLambda.cross(mR2World));
-            v2.add(Vector3.multiply(inverseMassBody2, linearImpulseBody2));
-            w2.add(Matrix3x3.multiply(mI2, angularImpulseBody2));
-        }
+        applyImpulse(deltaLambda, v1, w1, v2, w2);
     }
 
     @Override
@@ -160,12 +122,31 @@ public class BallAndSocketJoint extends Joint {
         final Quaternion q2 = constraintSolverData.getOrientations().get(mIndexBody2);
         final float inverseMassBody1 = mBody1.getMassInverse();
         final float inverseMassBody2 = mBody2.getMassInverse();
-        mI1.set(mBody1.getInertiaTensorInverseWorld());
-        mI2.set(mBody2.getInertiaTensorInverseWorld());
-        mR1World.set(Quaternion.multiply(q1, mLocalAnchorPointBody1));
-        mR2World.set(Quaternion.multiply(q2, mLocalAnchorPointBody2));
-        final Matrix3x3 skewSymmetricMatrixU1 = Matrix3x3.computeSkewSymmetricMatrixForCrossProduct(mR1World);
-        final Matrix3x3 skewSymmetricMatrixU2 = Matrix3x3.computeSkewSymmetricMatrixForCrossProduct(mR2World);
+        mBody1.getInertiaTensorInverseWorld(mI1);
+        mBody2.getInertiaTensorInverseWorld(mI2);
+        q1.rotate(mLocalAnchorPointBody1, mR1World);
+        q2.rotate(mLocalAnchorPointBody2, mR2World);
+        computeInverseMassMatrix(inverseMassBody1, inverseMassBody2);
+        final Vector3 constraintError = mJv.set(x2).add(mR2World).subtract(x1).subtract(mR1World);
+        final Vector3 lambda = Matrix3x3.multiply(mInverseMassMatrix, constraintError.negate(), mLambda);
+        if (mBody1.isMotionEnabled()) {
+            final Vector3 v1 = mTemp.set(lambda).negate().multiply(inverseMassBody1);
+            x1.add(v1);
+            final Vector3 w1 = Matrix3x3.multiply(mI1, lambda.cross(mR1World, mTemp), mTemp);
+            q1.add(Quaternion.multiply(mTempQuaternion.set(0, w1), q1, mTempQuaternion).multiply(0.5f));
+            q1.normalize();
+        }
+        if (mBody2.isMotionEnabled()) {
+            final Vector3 v2 = mTemp.set(lambda).multiply(inverseMassBody2);
+            x2.add(v2);
+            final Vector3 w2 = Matrix3x3.multiply(mI2, lambda.cross(mR2World, mTemp).negate(), mTemp);
+            q2.add(Quaternion.multiply(mTempQuaternion.set(0, w2), q2, mTempQuaternion).multiply(0.5f));
+            q2.normalize();
+        }
+    }
+
+    // Computes the inverse of the mass matrix of the constraint from the world anchor points and inertia tensors of the bodies, in place.
+    private void computeInverseMassMatrix(float inverseMassBody1, float inverseMassBody2) {
         float inverseMassBodies = 0;
         if (mBody1.isMotionEnabled()) {
             inverseMassBodies += inverseMassBody1;
@@ -173,39 +154,34 @@ public class BallAndSocketJoint extends Joint {
         if (mBody2.isMotionEnabled()) {
             inverseMassBodies += inverseMassBody2;
         }
-        final Matrix3x3 massMatrix = new Matrix3x3(
+        final Matrix3x3 massMatrix = mMassMatrix;
+        massMatrix.setAllValues(
                 inverseMassBodies, 0, 0,
                 0, inverseMassBodies, 0,
                 0, 0, inverseMassBodies);
         if (mBody1.isMotionEnabled()) {
-            massMatrix.add(Matrix3x3.multiply(skewSymmetricMatrixU1, Matrix3x3.multiply(mI1, skewSymmetricMatrixU1.getTranspose())));
+            final Matrix3x3 skewSymmetricMatrixU1 = Matrix3x3.computeSkewSymmetricMatrixForCrossProduct(mR1World, mSkewSymmetricMatrix);
+            massMatrix.add(Matrix3x3.multiply(skewSymmetricMatrixU1, Matrix3x3.multiply(mI1, skewSymmetricMatrixU1.getTranspose(mTempMatrix), mTempMatrix), mTempMatrix));
         }
         if (mBody2.isMotionEnabled()) {
-            massMatrix.add(Matrix3x3.multiply(skewSymmetricMatrixU2, Matrix3x3.multiply(mI2, skewSymmetricMatrixU2.getTranspose())));
+            final Matrix3x3 skewSymmetricMatrixU2 = Matrix3x3.computeSkewSymmetricMatrixForCrossProduct(mR2World, mSkewSymmetricMatrix);
+            massMatrix.add(Matrix3x3.multiply(skewSymmetricMatrixU2, Matrix3x3.multiply(mI2, skewSymmetricMatrixU2.getTranspose(mTempMatrix), mTempMatrix), mTempMatrix));
         }
         mInverseMassMatrix.setToZero();
         if (mBody1.isMotionEnabled() || mBody2.isMotionEnabled()) {
-            mInverseMassMatrix.set(massMatrix.getInverse());
+            massMatrix.getInverse(mInverseMassMatrix);
         }
-        final Vector3 constraintError = Vector3.subtract(Vector3.subtract(Vector3.add(x2, mR2World), x1), mR1World);
-        final Vector3 lambda = Matrix3x3.multiply(mInverseMassMatrix, Vector3.negate(constraintError));
+    }
+
+    // Applies the impulse to the velocities of the bodies, the first body receives the opposite of the impulse.
+    private void applyImpulse(Vector3 impulse, Vector3 v1, Vector3 w1, Vector3 v2, Vector3 w2) {
         if (mBody1.isMotionEnabled()) {
-            final Vector3 linearImpulseBody1 = Vector3.negate(lambda);
-            final Vector3 angularImpulseBody1 = lambda.cross(mR1World);
-            final Vector3 v1 = Vector3.multiply(inverseMassBody1, linearImpulseBody1);
-            final Vector3 w1 = Matrix3x3.multiply(mI1, angularImpulseBody1);
-            x1.add(v1);
-            q1.add(Quaternion.multiply(Quaternion.multiply(new Quaternion(0, w1), q1), 0.5f));
-            q1.normalize();
+            v1.add(mTemp.set(impulse).negate().multiply(mBody1.getMassInverse()));
+            w1.add(Matrix3x3.multiply(mI1, impulse.cross(mR1World, mTemp), mTemp));
         }
         if (mBody2.isMotionEnabled()) {
-            final Vector3 linearImpulseBody2 = lambda;
-            final Vector3 angularImpulseBody2 = Vector3.negate(lambda.cross(mR2World));
-            final Vector3 v2 = Vector3.multiply(inverseMassBody2, linearImpulseBody2);
-            final Vector3 w2 = Matrix3x3.multiply(mI2, angularImpulseBody2);
-            x2.add(v2);
-            q2.add(Quaternion.multiply(Quaternion.multiply(new Quaternion(0, w2), q2), 0.5f));
-            q2.normalize();
+            v2.add(mTemp.set(impulse).multiply(mBody2.getMassInverse()));
+            w2.add(Matrix3x3.multiply(mI2, impulse.cross(mR2World, mTemp).negate(), mTemp));
         }
     }
 
@@ -32,17 +32,17 @@ import com.flowpowered.react.math.*;
  * Represents a collision contact point between two bodies in the physics engine.
  */
 public class ContactPoint {
-    private final RigidBody mBody1;
-    private final RigidBody mBody2;
-    private final Vector3 mNormal;
+    private RigidBody mBody1;
+    private RigidBody mBody2;
+    private final Vector3 mNormal = new Vector3();
     private float mPenetrationDepth;
-    private final Vector3 mLocalPointOnBody1;
-    private final Vector3 mLocalPointOnBody2;
-    private final Vector3 mWorldPointOnBody1;
-    private final Vector3 mWorldPointOnBody2;
+    private final Vector3 mLocalPointOnBody1 = new Vector3();
+    private final Vector3 mLocalPointOnBody2 = new Vector3();
+    private final Vector3 mWorldPointOnBody1 = new Vector3();
+    private final Vector3 mWorldPointOnBody2 = new Vector3();
     private boolean mIsRestingContact;
-    private final Vector3 mFrictionVector1;
-    private final Vector3 mFrictionVector2;
+    private final Vector3 mFrictionVector1 = new Vector3();
+    private final Vector3 mFrictionVector2 = new Vector3();
     private float mPenetrationImpulse;
     private float mFrictionImpulse1;
     private float mFrictionImpulse2;
@@ -53,20 +53,32 @@ public class ContactPoint {
      * @param contactInfo The contact info
      */
     public ContactPoint(ContactPointInfo contactInfo) {
+        set(contactInfo);
+    }
+
+    /**
+     * Resets this contact point to the contact info, as a new contact point with no accumulated impulses.
+     *
+     * @param contactInfo The contact info
+     */
+    public void set(ContactPointInfo contactInfo) {
         if (contactInfo.getPenetrationDepth() <= 0) {
             throw new IllegalArgumentException("Penetration depth must be greater than zero");
         }
         mBody1 = contactInfo.getFirstBody();
         mBody2 = contactInfo.getSecondBody();
-        mNormal = new Vector3(contactInfo.getNormal());
+        mNormal.set(contactInfo.getNormal());
         mPenetrationDepth = contactInfo.getPenetrationDepth();
-        mLocalPointOnBody1 = new Vector3(contactInfo.getFirstLocalPoint());
-        mLocalPointOnBody2 = new Vector3(contactInfo.getSecondLocalPoint());
-        mWorldPointOnBody1 = Transform.multiply(contactInfo.getFirstBody().getTransform(), contactInfo.getFirstLocalPoint());
-        mWorldPointOnBody2 = Transform.multiply(contactInfo.getSecondBody().getTransform(), contactInfo.getSecondLocalPoint());
+        mLocalPointOnBody1.set(contactInfo.getFirstLocalPoint());
+        mLocalPointOnBody2.set(contactInfo.getSecondLocalPoint());
+        Transform.multiply(contactInfo.getFirstBody().getTransform(), contactInfo.getFirstLocalPoint(), mWorldPointOnBody1);
+        Transform.multiply(contactInfo.getSecondBody().getTransform(), contactInfo.getSecondLocalPoint(), mWorldPointOnBody2);
         mIsRestingContact = false;
-        mFrictionVector1 = new Vector3(0, 0, 0);
-        mFrictionVector2 = new Vector3(0, 0, 0);
+        mFrictionVector1.setToZero();
+        mFrictionVector2.setToZero();
+        mPenetrationImpulse = 0;
+        mFrictionImpulse1 = 0;
+        mFrictionImpulse2 = 0;
     }
 
     /**
@@ -28,6 +28,7 @@ package com.flowpowered.react.constraint;
 import com.flowpowered.react.ReactDefaults.*;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.constraint.ConstraintSolver.*;
+import com.flowpowered.react.math.*;
 
 /**
  * This abstract class represents a joint between two bodies.
@@ -41,6 +42,9 @@ public abstract class Joint {
     protected int mIndexBody1;
     protected int mIndexBody2;
     protected boolean mIsAlreadyInIsland;
+    // the bodies that can't move are shared by the joints initialized on other threads, their transforms are copied here
+    protected final Transform mTransform1 = new Transform();
+    protected final Transform mTransform2 = new Transform();
 
     /**
      * Constructs a new joint from the provided joint info.
@@ -118,12 +118,14 @@ public class SliderJoint extends Joint {
     public void initBeforeSolve(ConstraintSolverData constraintSolverData) {
         mIndexBody1 = constraintSolverData.getMapBodyToConstrainedVelocityIndex().get(mBody1);
         mIndexBody2 = constraintSolverData.getMapBodyToConstrainedVelocityIndex().get(mBody2);
-        final Vector3 x1 = mBody1.getTransform().getPosition();
-        final Vector3 x2 = mBody2.getTransform().getPosition();
-        final Quaternion orientationBody1 = mBody1.getTransform().getOrientation();
-        final Quaternion orientationBody2 = mBody2.getTransform().getOrientation();
-        mI1.set(mBody1.getInertiaTensorInverseWorld());
-        mI2.set(mBody2.getInertiaTensorInverseWorld());
+        final Transform transform1 = mBody1.getTransform(mTransform1);
+        final Transform transform2 = mBody2.getTransform(mTransform2);
+        final Vector3 x1 = transform1.getPosition();
+        final Vector3 x2 = transform2.getPosition();
+        final Quaternion orientationBody1 = transform1.getOrientation();
+        final Quaternion orientationBody2 = transform2.getOrientation();
+        mBody1.getInertiaTensorInverseWorld(mI1);
+        mBody2.getInertiaTensorInverseWorld(mI2);
         mR1.set(Quaternion.multiply(orientationBody1, mLocalAnchorPointBody1));
         mR2.set(Quaternion.multiply(orientationBody2, mLocalAnchorPointBody2));
         final Vector3 u = Vector3.subtract(Vector3.subtract(Vector3.add(x2, mR2), x1), mR1);
@@ -375,8 +377,8 @@ public class SliderJoint extends Joint {
         final Quaternion q2 = constraintSolverData.getOrientations().get(mIndexBody2);
         final float inverseMassBody1 = mBody1.getMassInverse();
         final float inverseMassBody2 = mBody2.getMassInverse();
-        mI1.set(mBody1.getInertiaTensorInverseWorld());
-        mI2.set(mBody2.getInertiaTensorInverseWorld());
+        mBody1.getInertiaTensorInverseWorld(mI1);
+        mBody2.getInertiaTensorInverseWorld(mI2);
         mR1.set(Quaternion.multiply(q1, mLocalAnchorPointBody1));
         mR2.set(Quaternion.multiply(q2, mLocalAnchorPointBody2));
         final Vector3 u = Vector3.subtract(Vector3.subtract(Vector3.add(x2, mR2), x1), mR1);
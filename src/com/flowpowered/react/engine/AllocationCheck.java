@@ -0,0 +1,119 @@
+package com.flowpowered.react.engine;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.constraint.BallAndSocketJoint.*;
+import com.flowpowered.react.math.*;
+
+import java.lang.management.*;
+import java.util.*;
+
+/**
+ * Steps a scene of resting piles and checks that the steady-state {@link DynamicsWorld#tick()} allocates nothing, exits with 1 if it does.
+ * The piles mix all the shapes so the sphere, GJK and EPA algorithms are all used, some of them are linked by joints, and the sleeping is disabled so every body is integrated and solved on each step.
+ * The parallel paths are disabled because only the allocations of the calling thread are counted.
+ * Arguments: number of warm-up steps (default 1200) and number of measured steps (default 600).
+ */
+public class AllocationCheck {
+    public static void main(String[] args) {
+        final int warmUpSteps = args.length > 0 ? Integer.parseInt(args[0]) : 1200;
+        final int steps = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("The thread allocated bytes are not supported by this JVM");
+            System.exit(1);
+        }
+        final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        final long thread = Thread.currentThread().getId();
+        final DynamicsWorld world = createWorld();
+        for (int i = 0; i < warmUpSteps; i++) {
+            world.tick();
+        }
+        long worstStep = 0;
+        final long start = allocations.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < steps; i++) {
+            final long before = allocations.getThreadAllocatedBytes(thread);
+            world.tick();
+            worstStep = Math.max(worstStep, allocations.getThreadAllocatedBytes(thread) - before);
+        }
+        final long total = allocations.getThreadAllocatedBytes(thread) - start;
+        System.out.println(world.getNbRigidBodies() + " bodies, " + world.getNbContactManifolds() + " contact manifolds, " + steps + " steps");
+        System.out.println("allocated " + total + " bytes, " + total / steps + " bytes per step, " + worstStep + " bytes for the worst step");
+        if (total != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static DynamicsWorld createWorld() {
+        final DynamicsWorld world = new DynamicsWorld(new Vector3(0, -9.81f, 0), 1 / 60f);
+        world.enableSleeping(false);
+        world.enableParallelIslandSolving(false);
+        world.mCollisionDetection.enableParallelNarrowPhase(false);
+        final RigidBody floor = world.createRigidBody(new Transform(new Vector3(0, -1, 0), Quaternion.identity()), 1, new BoxShape(new Vector3(16, 1, 16)));
+        floor.enableMotion(false);
+        final float[] cube = {
+                -0.5f, -0.5f, -0.5f, 0.5f, -0.5f, -0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, -0.5f,
+                -0.5f, -0.5f, 0.5f, 0.5f, -0.5f, 0.5f, -0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f
+        };
+        final CollisionShape box = new BoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+        final CollisionShape sphere = new SphereShape(0.5f);
+        final CollisionShape convexMesh = new ConvexMeshShape(cube, 8, 3 * Float.BYTES);
+        final CollisionShape cylinder = new CylinderShape(0.5f, 1);
+        final CollisionShape capsule = new CapsuleShape(0.4f, 1);
+        final CollisionShape cone = new ConeShape(0.5f, 1);
+        // the round bodies roll on a flat surface, they are pinned to the body below them
+        // lying capsule, rotated around the z axis
+        final Quaternion lying = new Quaternion(0, 0, (float) Math.sqrt(0.5), (float) Math.sqrt(0.5));
+        for (int p = 0; p < 36; p++) {
+            final float x = (p % 6) * 4 - 10;
+            final float z = (p / 6) * 4 - 10;
+            switch (p % 6) {
+                case 0:
+                    pile(world, x, z, false, box, box, box, box);
+                    break;
+                case 1:
+                    pile(world, x, z, false, convexMesh, convexMesh, convexMesh, box);
+                    break;
+                case 2:
+                    pile(world, x, z, false, cylinder, box, cone);
+                    break;
+                case 3:
+                    pile(world, x, z, true, box, box, box, box);
+                    break;
+                case 4: {
+                    final RigidBody base = pile(world, x, z, false, box);
+                    final RigidBody ball = world.createRigidBody(new Transform(new Vector3(x, 1.51f, z), Quaternion.identity()), 1, sphere);
+                    pin(world, base, ball);
+                    pin(world, base, world.createRigidBody(new Transform(new Vector3(x, 2.52f, z), Quaternion.identity()), 1, sphere));
+                    break;
+                }
+                default: {
+                    final RigidBody base = pile(world, x, z, false, box);
+                    pin(world, base, world.createRigidBody(new Transform(new Vector3(x, 1.41f, z), lying), 1, capsule));
+                    break;
+                }
+            }
+        }
+        world.start();
+        return world;
+    }
+
+    // Stacks the unit shapes at x and z and returns the top one, the linked bodies are pinned to the body below them.
+    private static RigidBody pile(DynamicsWorld world, float x, float z, boolean linked, CollisionShape... shapes) {
+        RigidBody previous = null;
+        for (int i = 0; i < shapes.length; i++) {
+            final RigidBody body = world.createRigidBody(new Transform(new Vector3(x, 0.51f + i * 1.01f, z), Quaternion.identity()), 1, shapes[i]);
+            if (previous != null && linked) {
+                pin(world, previous, body);
+            }
+            previous = body;
+        }
+        return previous;
+    }
+
+    // Holds the body on the base with a joint at its center, they still collide.
+    private static void pin(DynamicsWorld world, RigidBody base, RigidBody body) {
+        world.createJoint(new BallAndSocketJointInfo(base, body, body.getTransform().getPosition()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.flowpowered.react.engine;
+
+import com.flowpowered.react.ReactDefaults.*;
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.math.*;
+
+import java.util.*;
+
+/**
+ * Runnable benchmark of the cost of a {@link DynamicsWorld#tick()} per body, taken from the median step. The bodies are boxes, spheres and capsules on a grid, far enough from each other not to
+ * touch, with small random linear and angular velocities and no gravity. The sleeping is disabled so every body is integrated and gets its AABB updated on each step, and the broad-phase is the
+ * dynamic AABB tree so the bodies which stay in their fattened AABB cost little there. Run it with -XX:-UseSuperWord to compare with loops that are not vectorized.
+ * Arguments: number of warm-up steps (default 300), number of measured steps (default 300) and the numbers of bodies (default 1000 10000 50000).
+ */
+public class BodyStepBenchmark {
+    private static final long SEED = 16;
+
+    public static void main(String[] args) {
+        final int warmUpSteps = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        final int steps = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        final int[] nbBodies = args.length > 2 ? new int[args.length - 2] : new int[]{1000, 10000, 50000};
+        for (int i = 2; i < args.length; i++) {
+            nbBodies[i - 2] = Integer.parseInt(args[i]);
+        }
+        for (final int bodies : nbBodies) {
+            final DynamicsWorld world = createWorld(bodies);
+            for (int i = 0; i < warmUpSteps; i++) {
+                world.tick();
+            }
+            final long[] times = new long[steps];
+            for (int i = 0; i < steps; i++) {
+                final long start = System.nanoTime();
+                world.tick();
+                times[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(times);
+            final long median = times[steps / 2];
+            System.out.printf("%d bodies: median step %.3f ms, %.1f ns per body (fastest step %.1f ns per body)%n",
+                    bodies, median / 1e6, (double) median / bodies, (double) times[0] / bodies);
+        }
+    }
+
+    private static DynamicsWorld createWorld(int nbBodies) {
+        final DynamicsWorld world = new DynamicsWorld(new Vector3(0, -9.81f, 0), 1 / 60f, BroadPhaseAlgorithmType.DYNAMIC_AABB_TREE);
+        world.setIsGravityEnabled(false);
+        world.enableSleeping(false);
+        final CollisionShape[] shapes = {new BoxShape(new Vector3(0.5f, 0.4f, 0.3f)), new SphereShape(0.5f), new CapsuleShape(0.3f, 0.8f)};
+        final Random random = new Random(SEED);
+        final int side = (int) Math.ceil(Math.cbrt(nbBodies));
+        world.beginBodyBatch();
+        for (int i = 0; i < nbBodies; i++) {
+            final Vector3 position = new Vector3(i % side * 4, i / side % side * 4, i / (side * side) * 4);
+            final RigidBody body = world.createRigidBody(new Transform(position, Quaternion.identity()), 1, shapes[i % shapes.length]);
+            body.setLinearVelocity(new Vector3(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f).multiply(0.1f));
+            body.setAngularVelocity(new Vector3(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f));
+        }
+        world.endBodyBatch();
+        world.start();
+        return world;
+    }
+}
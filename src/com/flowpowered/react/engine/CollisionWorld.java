@@ -25,7 +25,7 @@
  */
 package com.flowpowered.react.engine;
 
-import com.flowpowered.react.Utilities.*;
+import com.flowpowered.react.ReactDefaults.*;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.collision.*;
 import com.flowpowered.react.collision.RayCaster.*;
@@ -44,7 +44,6 @@ public abstract class CollisionWorld {
     protected final CollisionDetection mCollisionDetection;
     protected final Set<CollisionBody> mBodies = new HashSet<>();
     protected final List<CollisionShape> mCollisionShapes = new ArrayList<>();
-    protected final Map<IntPair, OverlappingPair> mOverlappingPairs = new HashMap<>();
     protected int mCurrentBodyID = 0;
     protected final TIntStack mFreeBodiesIDs = new TIntArrayStack();
 
@@ -55,6 +54,15 @@ public abstract class CollisionWorld {
         mCollisionDetection = new CollisionDetection(this);
     }
 
+    /**
+     * Constructs a new empty collision world using the given broad-phase algorithm.
+     *
+     * @param broadPhaseType The broad-phase algorithm of the collision detection
+     */
+    protected CollisionWorld(BroadPhaseAlgorithmType broadPhaseType) {
+        mCollisionDetection = new CollisionDetection(this, broadPhaseType);
+    }
+
     /**
      * Notifies the world about a new broad-phase overlapping pair.
      *
@@ -93,6 +101,16 @@ public abstract class CollisionWorld {
         return mBodies;
     }
 
+    /**
+     * Gets the bodies of the physics world that can move. Only these bodies are checked for a new position by the broad-phase. Creates a new list, the worlds keeping the bodies that can move
+     * apart return the same list on each call.
+     *
+     * @return The {@link List} of the bodies that can move
+     */
+    public List<? extends CollisionBody> getMovableBodies() {
+        return new ArrayList<>(mBodies);
+    }
+
     /**
      * Finds the closest of the bodies in the world intersecting with the ray to the ray start. The ray is defined by a starting point and a direction. This method returns an {@link IntersectedBody}
      * object containing the body and the intersection point.
@@ -102,7 +120,7 @@ public abstract class CollisionWorld {
      * @return The closest body to the ray start and its intersection point
      */
     public IntersectedBody findClosestIntersectingBody(Vector3 rayStart, Vector3 rayDir) {
-        return RayCaster.findClosestIntersectingBody(rayStart, rayDir, mBodies);
+        return RayCaster.findClosestIntersectingBody(rayStart, rayDir, mCollisionDetection.getBodyTree());
     }
 
     /**
@@ -28,6 +28,7 @@ package com.flowpowered.react.engine;
 import com.flowpowered.react.*;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.constraint.*;
+import com.flowpowered.react.constraint.ContactPoint.*;
 import com.flowpowered.react.math.*;
 
 /**
@@ -42,6 +43,9 @@ public class ContactManifold {
     private final CollisionBody mBody2;
     private final ContactPoint[] mContactPoints = new ContactPoint[MAX_CONTACT_POINTS_IN_MANIFOLD];
     private int mNbContactPoints = 0;
+    // The contact points removed from the manifold, reused for the next contacts
+    private final ContactPoint[] mFreeContactPoints = new ContactPoint[MAX_CONTACT_POINTS_IN_MANIFOLD + 1];
+    private int mNbFreeContactPoints = 0;
     private final Vector3 mFrictionVector1 = new Vector3();
     private final Vector3 mFrictionVector2 = new Vector3();
     private float mFrictionImpulse1 = 0;
@@ -211,15 +215,37 @@ public class ContactManifold {
     }
 
     /**
-     * Adds a contact point in the manifold.
+     * Returns a contact point set to the contact info, to add to this manifold. A contact point removed from this manifold is reused if there is one, so the contact points of the manifold must not be
+     * kept after they are removed.
+     *
+     * @param contactInfo The contact info
+     * @return The contact point
+     */
+    public ContactPoint createContactPoint(ContactPointInfo contactInfo) {
+        if (mNbFreeContactPoints == 0) {
+            return new ContactPoint(contactInfo);
+        }
+        final ContactPoint contact = mFreeContactPoints[--mNbFreeContactPoints];
+        mFreeContactPoints[mNbFreeContactPoints] = null;
+        contact.set(contactInfo);
+        return contact;
+    }
+
+    /**
+     * Adds a contact point in the manifold. The contact point is dropped if it is too close to one of the manifold.
      *
      * @param contact The contact point to add
      */
     public void addContactPoint(ContactPoint contact) {
+        final Vector3 point = contact.getWorldPointOnFirstBody();
         for (int i = 0; i < mNbContactPoints; i++) {
-            final float distance = Vector3.subtract(mContactPoints[i].getWorldPointOnFirstBody(),
-                    contact.getWorldPointOnFirstBody()).lengthSquare();
+            final Vector3 other = mContactPoints[i].getWorldPointOnFirstBody();
+            final float dx = other.getX() - point.getX();
+            final float dy = other.getY() - point.getY();
+            final float dz = other.getZ() - point.getZ();
+            final float distance = dx * dx + dy * dy + dz * dz;
             if (distance <= ReactDefaults.PERSISTENT_CONTACT_DIST_THRESHOLD * ReactDefaults.PERSISTENT_CONTACT_DIST_THRESHOLD) {
+                freeContactPoint(contact);
                 return;
             }
         }
@@ -237,11 +263,19 @@ public class ContactManifold {
      */
     public void clear() {
         for (int i = 0; i < mNbContactPoints; i++) {
+            freeContactPoint(mContactPoints[i]);
             mContactPoints[i] = null;
         }
         mNbContactPoints = 0;
     }
 
+    // Keeps a contact point which is no longer in the manifold for a next contact.
+    private void freeContactPoint(ContactPoint contact) {
+        if (mNbFreeContactPoints < mFreeContactPoints.length) {
+            mFreeContactPoints[mNbFreeContactPoints++] = contact;
+        }
+    }
+
     // Removes a contact point from the manifold.
     private void removeContactPoint(int index) {
         if (index >= mNbContactPoints) {
@@ -250,6 +284,7 @@ public class ContactManifold {
         if (mNbContactPoints <= 0) {
             throw new IllegalStateException("nbContactPoints must be greater than zero");
         }
+        freeContactPoint(mContactPoints[index]);
         mContactPoints[index] = null;
         if (index < mNbContactPoints - 1) {
             mContactPoints[index] = mContactPoints[mNbContactPoints - 1];
@@ -270,10 +305,13 @@ public class ContactManifold {
             return;
         }
         for (int i = 0; i < mNbContactPoints; i++) {
-            mContactPoints[i].setWorldPointOnFirstBody(Transform.multiply(transform1, mContactPoints[i].getLocalPointOnFirstBody()));
-            mContactPoints[i].setWorldPointOnSecondBody(Transform.multiply(transform2, mContactPoints[i].getLocalPointOnSecondBody()));
-            mContactPoints[i].setPenetrationDepth(Vector3.subtract(mContactPoints[i].getWorldPointOnFirstBody(), mContactPoints[i]
-                    .getWorldPointOnSecondBody()).dot(mContactPoints[i].getNormal()));
+            final ContactPoint contact = mContactPoints[i];
+            final Vector3 worldPoint1 = Transform.multiply(transform1, contact.getLocalPointOnFirstBody(), contact.getWorldPointOnFirstBody());
+            final Vector3 worldPoint2 = Transform.multiply(transform2, contact.getLocalPointOnSecondBody(), contact.getWorldPointOnSecondBody());
+            final Vector3 normal = contact.getNormal();
+            contact.setPenetrationDepth((worldPoint1.getX() - worldPoint2.getX()) * normal.getX()
+                    + (worldPoint1.getY() - worldPoint2.getY()) * normal.getY()
+                    + (worldPoint1.getZ() - worldPoint2.getZ()) * normal.getZ());
         }
         final float squarePersistentContactThreshold = ReactDefaults.PERSISTENT_CONTACT_DIST_THRESHOLD *
                 ReactDefaults.PERSISTENT_CONTACT_DIST_THRESHOLD;
@@ -285,11 +323,14 @@ public class ContactManifold {
             if (distanceNormal > squarePersistentContactThreshold) {
                 removeContactPoint(i);
             } else {
-                final Vector3 projOfPoint1 = Vector3.add(
-                        mContactPoints[i].getWorldPointOnFirstBody(),
-                        Vector3.multiply(mContactPoints[i].getNormal(), distanceNormal));
-                final Vector3 projDifference = Vector3.subtract(mContactPoints[i].getWorldPointOnSecondBody(), projOfPoint1);
-                if (projDifference.lengthSquare() > squarePersistentContactThreshold) {
+                // difference between the point on the second body and the point on the first body projected on the contact plane
+                final Vector3 worldPoint1 = mContactPoints[i].getWorldPointOnFirstBody();
+                final Vector3 worldPoint2 = mContactPoints[i].getWorldPointOnSecondBody();
+                final Vector3 normal = mContactPoints[i].getNormal();
+                final float dx = worldPoint2.getX() - (worldPoint1.getX() + normal.getX() * distanceNormal);
+                final float dy = worldPoint2.getY() - (worldPoint1.getY() + normal.getY() * distanceNormal);
+                final float dz = worldPoint2.getZ() - (worldPoint1.getZ() + normal.getZ() * distanceNormal);
+                if (dx * dx + dy * dy + dz * dz > squarePersistentContactThreshold) {
                     removeContactPoint(i);
                 }
             }
@@ -333,40 +374,42 @@ public class ContactManifold {
         final float area013N;
         final float area012N;
         if (indexMaxPenetration != 0) {
-            final Vector3 vector1 = Vector3.subtract(newPoint, mContactPoints[1].getLocalPointOnFirstBody());
-            final Vector3 vector2 = Vector3.subtract(mContactPoints[3].getLocalPointOnFirstBody(), mContactPoints[2].getLocalPointOnFirstBody());
-            final Vector3 crossProduct = vector1.cross(vector2);
-            area123N = crossProduct.lengthSquare();
+            area123N = computeCrossProductLengthSquare(newPoint, mContactPoints[1].getLocalPointOnFirstBody(), mContactPoints[3].getLocalPointOnFirstBody(), mContactPoints[2].getLocalPointOnFirstBody());
         } else {
             area123N = 0;
         }
         if (indexMaxPenetration != 1) {
-            final Vector3 vector1 = Vector3.subtract(newPoint, mContactPoints[0].getLocalPointOnFirstBody());
-            final Vector3 vector2 = Vector3.subtract(mContactPoints[3].getLocalPointOnFirstBody(), mContactPoints[2].getLocalPointOnFirstBody());
-            final Vector3 crossProduct = vector1.cross(vector2);
-            area023N = crossProduct.lengthSquare();
+            area023N = computeCrossProductLengthSquare(newPoint, mContactPoints[0].getLocalPointOnFirstBody(), mContactPoints[3].getLocalPointOnFirstBody(), mContactPoints[2].getLocalPointOnFirstBody());
         } else {
             area023N = 1;
         }
         if (indexMaxPenetration != 2) {
-            final Vector3 vector1 = Vector3.subtract(newPoint, mContactPoints[0].getLocalPointOnFirstBody());
-            final Vector3 vector2 = Vector3.subtract(mContactPoints[3].getLocalPointOnFirstBody(), mContactPoints[1].getLocalPointOnFirstBody());
-            final Vector3 crossProduct = vector1.cross(vector2);
-            area013N = crossProduct.lengthSquare();
+            area013N = computeCrossProductLengthSquare(newPoint, mContactPoints[0].getLocalPointOnFirstBody(), mContactPoints[3].getLocalPointOnFirstBody(), mContactPoints[1].getLocalPointOnFirstBody());
         } else {
             area013N = 2;
         }
         if (indexMaxPenetration != 3) {
-            final Vector3 vector1 = Vector3.subtract(newPoint, mContactPoints[0].getLocalPointOnFirstBody());
-            final Vector3 vector2 = Vector3.subtract(mContactPoints[2].getLocalPointOnFirstBody(), mContactPoints[1].getLocalPointOnFirstBody());
-            final Vector3 crossProduct = vector1.cross(vector2);
-            area012N = crossProduct.lengthSquare();
+            area012N = computeCrossProductLengthSquare(newPoint, mContactPoints[0].getLocalPointOnFirstBody(), mContactPoints[2].getLocalPointOnFirstBody(), mContactPoints[1].getLocalPointOnFirstBody());
         } else {
             area012N = 3;
         }
         return getMaxArea(area123N, area023N, area013N, area012N);
     }
 
+    // Returns the square length of (a - b) x (c - d).
+    private static float computeCrossProductLengthSquare(Vector3 a, Vector3 b, Vector3 c, Vector3 d) {
+        final float x1 = a.getX() - b.getX();
+        final float y1 = a.getY() - b.getY();
+        final float z1 = a.getZ() - b.getZ();
+        final float x2 = c.getX() - d.getX();
+        final float y2 = c.getY() - d.getY();
+        final float z2 = c.getZ() - d.getZ();
+        final float x = y1 * z2 - z1 * y2;
+        final float y = z1 * x2 - x1 * z2;
+        final float z = x1 * y2 - y1 * x2;
+        return x * x + y * y + z * z;
+    }
+
     // Returns the index of maximum area.
     private int getMaxArea(float area123N, float area023N, float area013N, float area012N) {
         if (area123N < area023N) {
@@ -66,6 +66,13 @@ public class ContactSolver {
     private float mTimeStep;
     private ContactManifoldSolver[] mContactConstraints;
     private int mNbContactManifolds;
+    // Scratch objects of the solver, reused for every constraint
+    private final Impulse mImpulse = new Impulse();
+    private final Vector3 mDeltaVelocity = new Vector3();
+    private final Vector3 mTempVector = new Vector3();
+    // the bodies that can't move are shared by the islands solved on other threads, their transforms are copied here
+    private final Transform mTransform1 = new Transform();
+    private final Transform mTransform2 = new Transform();
     private final Set<RigidBody> mConstraintBodies = new HashSet<>();
     private Vector3[] mLinearVelocities;
     private Vector3[] mAngularVelocities;
@@ -81,7 +88,7 @@ public class ContactSolver {
     public ContactSolver(TObjectIntMap<RigidBody> mapBodyToVelocityIndex) {
         mSplitLinearVelocities = null;
         mSplitAngularVelocities = null;
-        mContactConstraints = null;
+        mContactConstraints = new ContactManifoldSolver[0];
         mLinearVelocities = null;
         mAngularVelocities = null;
         mMapBodyToConstrainedVelocityIndex = mapBodyToVelocityIndex;
@@ -139,6 +146,15 @@ public class ContactSolver {
         mIsSplitImpulseActive = isActive;
     }
 
+    /**
+     * Returns true if the friction constraints are solved at the center of the contact manifold instead of at each contact point.
+     *
+     * @return Whether or not the friction constraints are solved at the center of the manifold
+     */
+    public boolean isSolveFrictionAtContactManifoldCenterActive() {
+        return mIsSolveFrictionAtContactManifoldCenterActive;
+    }
+
     /**
      * Activates or deactivates the solving of friction constraints at the center of the contact manifold instead of solving them at each contact point.
      *
@@ -162,29 +178,49 @@ public class ContactSolver {
 
     // Computes a penetration constraint impulse.
     private Impulse computePenetrationImpulse(float deltaLambda, ContactPointSolver contactPoint) {
-        return new Impulse(
-                Vector3.multiply(Vector3.negate(contactPoint.normal), deltaLambda),
-                Vector3.multiply(Vector3.negate(contactPoint.r1CrossN), deltaLambda),
-                Vector3.multiply(contactPoint.normal, deltaLambda),
-                Vector3.multiply(contactPoint.r2CrossN, deltaLambda));
+        return computeImpulse(contactPoint.normal, contactPoint.r1CrossN, contactPoint.r2CrossN, deltaLambda);
     }
 
     // Computes the first friction constraint impulse.
     private Impulse computeFriction1Impulse(float deltaLambda, ContactPointSolver contactPoint) {
-        return new Impulse(
-                Vector3.multiply(Vector3.negate(contactPoint.frictionVector1), deltaLambda),
-                Vector3.multiply(Vector3.negate(contactPoint.r1CrossT1), deltaLambda),
-                Vector3.multiply(contactPoint.frictionVector1, deltaLambda),
-                Vector3.multiply(contactPoint.r2CrossT1, deltaLambda));
+        return computeImpulse(contactPoint.frictionVector1, contactPoint.r1CrossT1, contactPoint.r2CrossT1, deltaLambda);
     }
 
     // Computes the second friction constraint impulse.
     private Impulse computeFriction2Impulse(float deltaLambda, ContactPointSolver contactPoint) {
-        return new Impulse(
-                Vector3.multiply(Vector3.negate(contactPoint.frictionVector2), deltaLambda),
-                Vector3.multiply(Vector3.negate(contactPoint.r1CrossT2), deltaLambda),
-                Vector3.multiply(contactPoint.frictionVector2, deltaLambda),
-                Vector3.multiply(contactPoint.r2CrossT2, deltaLambda));
+        return computeImpulse(contactPoint.frictionVector2, contactPoint.r1CrossT2, contactPoint.r2CrossT2, deltaLambda);
+    }
+
+    // Computes the impulse of a constraint along a direction into the reused impulse of the solver.
+    private Impulse computeImpulse(Vector3 direction, Vector3 r1CrossDirection, Vector3 r2CrossDirection, float deltaLambda) {
+        mImpulse.getLinearImpulseFirstBody().set(direction).negate().multiply(deltaLambda);
+        mImpulse.getAngularImpulseFirstBody().set(r1CrossDirection).negate().multiply(deltaLambda);
+        mImpulse.getLinearImpulseSecondBody().set(direction).multiply(deltaLambda);
+        mImpulse.getAngularImpulseSecondBody().set(r2CrossDirection).multiply(deltaLambda);
+        return mImpulse;
+    }
+
+    // Computes the twist friction impulse at the center of a contact manifold into the reused impulse of the solver.
+    private Impulse computeTwistFrictionImpulse(float deltaLambda, ContactManifoldSolver contactManifold) {
+        mImpulse.getLinearImpulseFirstBody().setToZero();
+        mImpulse.getAngularImpulseFirstBody().set(contactManifold.normal).negate().multiply(deltaLambda);
+        mImpulse.getLinearImpulseSecondBody().setToZero();
+        mImpulse.getAngularImpulseSecondBody().set(contactManifold.normal).multiply(deltaLambda);
+        return mImpulse;
+    }
+
+    // Computes the friction impulse of the previous step from its two components and their old friction vectors.
+    private Vector3 computeOldFrictionImpulse(float friction1Impulse, Vector3 oldFrictionVector1, float friction2Impulse, Vector3 oldFrictionVector2) {
+        mTempVector.setAllValues(
+                oldFrictionVector1.getX() * friction1Impulse + oldFrictionVector2.getX() * friction2Impulse,
+                oldFrictionVector1.getY() * friction1Impulse + oldFrictionVector2.getY() * friction2Impulse,
+                oldFrictionVector1.getZ() * friction1Impulse + oldFrictionVector2.getZ() * friction2Impulse);
+        return mTempVector;
+    }
+
+    // Computes the relative velocity of the two bodies at a point: deltaV = v2 + w2 x r2 - v1 - w1 x r1.
+    private Vector3 computeDeltaVelocity(Vector3 v1, Vector3 w1, Vector3 v2, Vector3 w2, Vector3 r1, Vector3 r2) {
+        return w2.cross(r2, mDeltaVelocity).add(v2).subtract(v1).subtract(w1.cross(r1, mTempVector));
     }
 
     /**
@@ -211,23 +247,27 @@ public class ContactSolver {
         }
         mTimeStep = dt;
         mNbContactManifolds = island.getNbContactManifolds();
-        mContactConstraints = new ContactManifoldSolver[mNbContactManifolds];
+        if (mContactConstraints.length < mNbContactManifolds) {
+            mContactConstraints = Arrays.copyOf(mContactConstraints, mNbContactManifolds);
+        }
         final ContactManifold[] contactManifolds = island.getContactManifolds();
         for (int i = 0; i < mNbContactManifolds; i++) {
             final ContactManifold externalManifold = contactManifolds[i];
-            final ContactManifoldSolver internalManifold = new ContactManifoldSolver();
-            mContactConstraints[i] = internalManifold;
+            if (mContactConstraints[i] == null) {
+                mContactConstraints[i] = new ContactManifoldSolver();
+            }
+            final ContactManifoldSolver internalManifold = mContactConstraints[i];
             if (externalManifold.getNbContactPoints() <= 0) {
                 throw new IllegalStateException("external manifold must have at least one contact point");
             }
             final RigidBody body1 = externalManifold.getContactPoint(0).getFirstBody();
             final RigidBody body2 = externalManifold.getContactPoint(0).getSecondBody();
-            final Vector3 x1 = body1.getTransform().getPosition();
-            final Vector3 x2 = body2.getTransform().getPosition();
+            final Vector3 x1 = body1.getTransform(mTransform1).getPosition();
+            final Vector3 x2 = body2.getTransform(mTransform2).getPosition();
             internalManifold.indexBody1 = mMapBodyToConstrainedVelocityIndex.get(body1);
             internalManifold.indexBody2 = mMapBodyToConstrainedVelocityIndex.get(body2);
-            internalManifold.inverseInertiaTensorBody1.set(body1.getInertiaTensorInverseWorld());
-            internalManifold.inverseInertiaTensorBody2.set(body2.getInertiaTensorInverseWorld());
+            body1.getInertiaTensorInverseWorld(internalManifold.inverseInertiaTensorBody1);
+            body2.getInertiaTensorInverseWorld(internalManifold.inverseInertiaTensorBody2);
             internalManifold.isBody1Moving = body1.isMotionEnabled();
             internalManifold.isBody2Moving = body2.isMotionEnabled();
             internalManifold.massInverseBody1 = body1.getMassInverse();
@@ -236,6 +276,12 @@ public class ContactSolver {
             internalManifold.restitutionFactor = computeMixedRestitutionFactor(body1, body2);
             internalManifold.frictionCoefficient = computeMixedFrictionCoefficient(body1, body2);
             internalManifold.externalContactManifold = externalManifold;
+            // the manifold solvers are reused, clear what is only computed by the other friction mode
+            internalManifold.frictionVector1.setToZero();
+            internalManifold.frictionVector2.setToZero();
+            internalManifold.friction1Impulse = 0;
+            internalManifold.friction2Impulse = 0;
+            internalManifold.frictionTwistImpulse = 0;
             if (mIsSolveFrictionAtContactManifoldCenterActive) {
                 internalManifold.frictionPointBody1.setAllValues(0, 0, 0);
                 internalManifold.frictionPointBody2.setAllValues(0, 0, 0);
@@ -250,8 +296,10 @@ public class ContactSolver {
                 final Vector3 p2 = externalContact.getWorldPointOnSecondBody();
                 contactPoint.externalContact = externalContact;
                 contactPoint.normal.set(externalContact.getNormal());
-                contactPoint.r1.set(Vector3.subtract(p1, x1));
-                contactPoint.r2.set(Vector3.subtract(p2, x2));
+                contactPoint.r1.set(p1).subtract(x1);
+                contactPoint.r2.set(p2).subtract(x2);
+                contactPoint.frictionVector1.setToZero();
+                contactPoint.frictionVector2.setToZero();
                 contactPoint.penetrationDepth = externalContact.getPenetrationDepth();
                 contactPoint.isRestingContact = externalContact.isRestingContact();
                 externalContact.setRestingContact(true);
@@ -268,18 +316,14 @@ public class ContactSolver {
             if (mIsSolveFrictionAtContactManifoldCenterActive) {
                 internalManifold.frictionPointBody1.divide(internalManifold.nbContacts);
                 internalManifold.frictionPointBody2.divide(internalManifold.nbContacts);
-                internalManifold.r1Friction.set(Vector3.subtract(internalManifold.frictionPointBody1, x1));
-                internalManifold.r2Friction.set(Vector3.subtract(internalManifold.frictionPointBody2, x2));
+                internalManifold.r1Friction.set(internalManifold.frictionPointBody1).subtract(x1);
+                internalManifold.r2Friction.set(internalManifold.frictionPointBody2).subtract(x2);
                 internalManifold.oldFrictionVector1.set(externalManifold.getFirstFrictionVector());
                 internalManifold.oldFrictionVector2.set(externalManifold.getSecondFrictionVector());
                 if (mIsWarmStartingActive) {
                     internalManifold.friction1Impulse = externalManifold.getFirstFrictionImpulse();
                     internalManifold.friction2Impulse = externalManifold.getSecondFrictionImpulse();
                     internalManifold.frictionTwistImpulse = externalManifold.getFrictionTwistImpulse();
-                } else {
-                    internalManifold.friction1Impulse = 0;
-                    internalManifold.friction2Impulse = 0;
-                    internalManifold.frictionTwistImpulse = 0;
                 }
             }
         }
@@ -302,40 +346,38 @@ public class ContactSolver {
             for (int i = 0; i < manifold.nbContacts; i++) {
                 final ContactPointSolver contactPoint = manifold.contacts[i];
                 final ContactPoint externalContact = contactPoint.externalContact;
-                final Vector3 deltaV = Vector3.subtract(
-                        Vector3.subtract(Vector3.add(v2, w2.cross(contactPoint.r2)), v1),
-                        w1.cross(contactPoint.r1));
-                contactPoint.r1CrossN.set(contactPoint.r1.cross(contactPoint.normal));
-                contactPoint.r2CrossN.set(contactPoint.r2.cross(contactPoint.normal));
+                final Vector3 deltaV = computeDeltaVelocity(v1, w1, v2, w2, contactPoint.r1, contactPoint.r2);
+                contactPoint.r1.cross(contactPoint.normal, contactPoint.r1CrossN);
+                contactPoint.r2.cross(contactPoint.normal, contactPoint.r2CrossN);
                 float massPenetration = 0;
                 if (manifold.isBody1Moving) {
                     massPenetration += manifold.massInverseBody1
-                            + Matrix3x3.multiply(I1, contactPoint.r1CrossN).cross(contactPoint.r1).dot(contactPoint.normal);
+                            + Matrix3x3.multiply(I1, contactPoint.r1CrossN, mTempVector).cross(contactPoint.r1, mTempVector).dot(contactPoint.normal);
                 }
                 if (manifold.isBody2Moving) {
                     massPenetration += manifold.massInverseBody2
-                            + Matrix3x3.multiply(I2, contactPoint.r2CrossN).cross(contactPoint.r2).dot(contactPoint.normal);
+                            + Matrix3x3.multiply(I2, contactPoint.r2CrossN, mTempVector).cross(contactPoint.r2, mTempVector).dot(contactPoint.normal);
                 }
                 contactPoint.inversePenetrationMass = massPenetration > 0 ? 1 / massPenetration : 0;
                 if (!mIsSolveFrictionAtContactManifoldCenterActive) {
                     computeFrictionVectors(deltaV, contactPoint);
-                    contactPoint.r1CrossT1.set(contactPoint.r1.cross(contactPoint.frictionVector1));
-                    contactPoint.r1CrossT2.set(contactPoint.r1.cross(contactPoint.frictionVector2));
-                    contactPoint.r2CrossT1.set(contactPoint.r2.cross(contactPoint.frictionVector1));
-                    contactPoint.r2CrossT2.set(contactPoint.r2.cross(contactPoint.frictionVector2));
+                    contactPoint.r1.cross(contactPoint.frictionVector1, contactPoint.r1CrossT1);
+                    contactPoint.r1.cross(contactPoint.frictionVector2, contactPoint.r1CrossT2);
+                    contactPoint.r2.cross(contactPoint.frictionVector1, contactPoint.r2CrossT1);
+                    contactPoint.r2.cross(contactPoint.frictionVector2, contactPoint.r2CrossT2);
                     float friction1Mass = 0;
                     float friction2Mass = 0;
                     if (manifold.isBody1Moving) {
                         friction1Mass += manifold.massInverseBody1
-                                + Matrix3x3.multiply(I1, contactPoint.r1CrossT1).cross(contactPoint.r1).dot(contactPoint.frictionVector1);
+                                + Matrix3x3.multiply(I1, contactPoint.r1CrossT1, mTempVector).cross(contactPoint.r1, mTempVector).dot(contactPoint.frictionVector1);
                         friction2Mass += manifold.massInverseBody1
-                                + Matrix3x3.multiply(I1, contactPoint.r1CrossT2).cross(contactPoint.r1).dot(contactPoint.frictionVector2);
+                                + Matrix3x3.multiply(I1, contactPoint.r1CrossT2, mTempVector).cross(contactPoint.r1, mTempVector).dot(contactPoint.frictionVector2);
                     }
                     if (manifold.isBody2Moving) {
                         friction1Mass += manifold.massInverseBody2
-                                + Matrix3x3.multiply(I2, contactPoint.r2CrossT1).cross(contactPoint.r2).dot(contactPoint.frictionVector1);
+                                + Matrix3x3.multiply(I2, contactPoint.r2CrossT1, mTempVector).cross(contactPoint.r2, mTempVector).dot(contactPoint.frictionVector1);
                         friction2Mass += manifold.massInverseBody2
-                                + Matrix3x3.multiply(I2, contactPoint.r2CrossT2).cross(contactPoint.r2).dot(contactPoint.frictionVector2);
+                                + Matrix3x3.multiply(I2, contactPoint.r2CrossT2, mTempVector).cross(contactPoint.r2, mTempVector).dot(contactPoint.frictionVector2);
                     }
                     contactPoint.inverseFriction1Mass = friction1Mass > 0 ? 1 / friction1Mass : 0;
                     contactPoint.inverseFriction2Mass = friction2Mass > 0 ? 1 / friction2Mass : 0;
@@ -357,31 +399,29 @@ public class ContactSolver {
             }
             if (mIsSolveFrictionAtContactManifoldCenterActive) {
                 manifold.normal.normalize();
-                final Vector3 deltaVFrictionPoint = Vector3.subtract(
-                        Vector3.subtract(Vector3.add(v2, w2.cross(manifold.r2Friction)), v1),
-                        w1.cross(manifold.r1Friction));
+                final Vector3 deltaVFrictionPoint = computeDeltaVelocity(v1, w1, v2, w2, manifold.r1Friction, manifold.r2Friction);
                 computeFrictionVectors(deltaVFrictionPoint, manifold);
-                manifold.r1CrossT1.set(manifold.r1Friction.cross(manifold.frictionVector1));
-                manifold.r1CrossT2.set(manifold.r1Friction.cross(manifold.frictionVector2));
-                manifold.r2CrossT1.set(manifold.r2Friction.cross(manifold.frictionVector1));
-                manifold.r2CrossT2.set(manifold.r2Friction.cross(manifold.frictionVector2));
+                manifold.r1Friction.cross(manifold.frictionVector1, manifold.r1CrossT1);
+                manifold.r1Friction.cross(manifold.frictionVector2, manifold.r1CrossT2);
+                manifold.r2Friction.cross(manifold.frictionVector1, manifold.r2CrossT1);
+                manifold.r2Friction.cross(manifold.frictionVector2, manifold.r2CrossT2);
                 float friction1Mass = 0;
                 float friction2Mass = 0;
                 if (manifold.isBody1Moving) {
                     friction1Mass += manifold.massInverseBody1
-                            + Matrix3x3.multiply(I1, manifold.r1CrossT1).cross(manifold.r1Friction).dot(manifold.frictionVector1);
+                            + Matrix3x3.multiply(I1, manifold.r1CrossT1, mTempVector).cross(manifold.r1Friction, mTempVector).dot(manifold.frictionVector1);
                     friction2Mass += manifold.massInverseBody1
-                            + Matrix3x3.multiply(I1, manifold.r1CrossT2).cross(manifold.r1Friction).dot(manifold.frictionVector2);
+                            + Matrix3x3.multiply(I1, manifold.r1CrossT2, mTempVector).cross(manifold.r1Friction, mTempVector).dot(manifold.frictionVector2);
                 }
                 if (manifold.isBody2Moving) {
                     friction1Mass += manifold.massInverseBody2
-                            + Matrix3x3.multiply(I2, manifold.r2CrossT1).cross(manifold.r2Friction).dot(manifold.frictionVector1);
+                            + Matrix3x3.multiply(I2, manifold.r2CrossT1, mTempVector).cross(manifold.r2Friction, mTempVector).dot(manifold.frictionVector1);
                     friction2Mass += manifold.massInverseBody2
-                            + Matrix3x3.multiply(I2, manifold.r2CrossT2).cross(manifold.r2Friction).dot(manifold.frictionVector2);
+                            + Matrix3x3.multiply(I2, manifold.r2CrossT2, mTempVector).cross(manifold.r2Friction, mTempVector).dot(manifold.frictionVector2);
                 }
                 final float frictionTwistMass =
-                        manifold.normal.dot(Matrix3x3.multiply(manifold.inverseInertiaTensorBody1, manifold.normal))
-                                + manifold.normal.dot(Matrix3x3.multiply(manifold.inverseInertiaTensorBody2, manifold.normal));
+                        manifold.normal.dot(Matrix3x3.multiply(manifold.inverseInertiaTensorBody1, manifold.normal, mTempVector))
+                                + manifold.normal.dot(Matrix3x3.multiply(manifold.inverseInertiaTensorBody2, manifold.normal, mTempVector));
                 manifold.inverseFriction1Mass = friction1Mass > 0 ? 1 / friction1Mass : 0;
                 manifold.inverseFriction2Mass = friction2Mass > 0 ? 1 / friction2Mass : 0;
                 manifold.inverseTwistFrictionMass = frictionTwistMass > 0 ? 1 / frictionTwistMass : 0;
@@ -408,9 +448,9 @@ public class ContactSolver {
                     final Impulse impulsePenetration = computePenetrationImpulse(contactPoint.penetrationImpulse, contactPoint);
                     applyImpulse(impulsePenetration, contactManifold);
                     if (!mIsSolveFrictionAtContactManifoldCenterActive) {
-                        final Vector3 oldFrictionImpulse = Vector3.add(
-                                Vector3.multiply(contactPoint.friction1Impulse, contactPoint.oldFrictionVector1),
-                                Vector3.multiply(contactPoint.friction2Impulse, contactPoint.oldFrictionVector2));
+                        final Vector3 oldFrictionImpulse = computeOldFrictionImpulse(
+                                contactPoint.friction1Impulse, contactPoint.oldFrictionVector1,
+                                contactPoint.friction2Impulse, contactPoint.oldFrictionVector2);
                         contactPoint.friction1Impulse = oldFrictionImpulse.dot(contactPoint.frictionVector1);
                         contactPoint.friction2Impulse = oldFrictionImpulse.dot(contactPoint.frictionVector2);
                         // --------- Friction 1 --------- //
@@ -427,37 +467,21 @@ public class ContactSolver {
                 }
             }
             if (mIsSolveFrictionAtContactManifoldCenterActive && atLeastOneRestingContactPoint) {
-                final Vector3 oldFrictionImpulse = Vector3.add(
-                        Vector3.multiply(contactManifold.friction1Impulse, contactManifold.oldFrictionVector1),
-                        Vector3.multiply(contactManifold.friction2Impulse, contactManifold.oldFrictionVector2));
+                final Vector3 oldFrictionImpulse = computeOldFrictionImpulse(
+                        contactManifold.friction1Impulse, contactManifold.oldFrictionVector1,
+                        contactManifold.friction2Impulse, contactManifold.oldFrictionVector2);
                 contactManifold.friction1Impulse = oldFrictionImpulse.dot(contactManifold.frictionVector1);
                 contactManifold.friction2Impulse = oldFrictionImpulse.dot(contactManifold.frictionVector2);
                 // ------ First friction constraint at the center of the contact manifold ------ //
-                Vector3 linearImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.frictionVector1), contactManifold.friction1Impulse);
-                Vector3 angularImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.r1CrossT1), contactManifold.friction1Impulse);
-                Vector3 linearImpulseBody2 = Vector3.multiply(contactManifold.frictionVector1, contactManifold.friction1Impulse);
-                Vector3 angularImpulseBody2 = Vector3.multiply(contactManifold.r2CrossT1, contactManifold.friction1Impulse);
-                final Impulse impulseFriction1 = new Impulse(
-                        linearImpulseBody1, angularImpulseBody1,
-                        linearImpulseBody2, angularImpulseBody2);
+                final Impulse impulseFriction1 = computeImpulse(contactManifold.frictionVector1, contactManifold.r1CrossT1, contactManifold.r2CrossT1,
+                        contactManifold.friction1Impulse);
                 applyImpulse(impulseFriction1, contactManifold);
                 // ------ Second friction constraint at the center of the contact manifold ----- //
-                linearImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.frictionVector2), contactManifold.friction2Impulse);
-                angularImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.r1CrossT2), contactManifold.friction2Impulse);
-                linearImpulseBody2 = Vector3.multiply(contactManifold.frictionVector2, contactManifold.friction2Impulse);
-                angularImpulseBody2 = Vector3.multiply(contactManifold.r2CrossT2, contactManifold.friction2Impulse);
-                final Impulse impulseFriction2 = new Impulse(
-                        linearImpulseBody1, angularImpulseBody1,
-                        linearImpulseBody2, angularImpulseBody2);
+                final Impulse impulseFriction2 = computeImpulse(contactManifold.frictionVector2, contactManifold.r1CrossT2, contactManifold.r2CrossT2,
+                        contactManifold.friction2Impulse);
                 applyImpulse(impulseFriction2, contactManifold);
                 // ------ Twist friction constraint at the center of the contact manifold ------ //
-                linearImpulseBody1 = new Vector3(0, 0, 0);
-                angularImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.normal), contactManifold.frictionTwistImpulse);
-                linearImpulseBody2 = new Vector3(0, 0, 0);
-                angularImpulseBody2 = Vector3.multiply(contactManifold.normal, contactManifold.frictionTwistImpulse);
-                final Impulse impulseTwistFriction = new Impulse(
-                        linearImpulseBody1, angularImpulseBody1,
-                        linearImpulseBody2, angularImpulseBody2);
+                final Impulse impulseTwistFriction = computeTwistFrictionImpulse(contactManifold.frictionTwistImpulse, contactManifold);
                 applyImpulse(impulseTwistFriction, contactManifold);
             } else {
                 contactManifold.friction1Impulse = 0;
@@ -485,9 +509,7 @@ public class ContactSolver {
             for (int i = 0; i < contactManifold.nbContacts; i++) {
                 final ContactPointSolver contactPoint = contactManifold.contacts[i];
                 // --------- Penetration --------- //
-                Vector3 deltaV = Vector3.subtract(
-                        Vector3.subtract(Vector3.add(v2, w2.cross(contactPoint.r2)), v1),
-                        w1.cross(contactPoint.r1));
+                Vector3 deltaV = computeDeltaVelocity(v1, w1, v2, w2, contactPoint.r1, contactPoint.r2);
                 final float deltaVDotN = deltaV.dot(contactPoint.normal);
                 float Jv = deltaVDotN;
                 final float beta = mIsSplitImpulseActive ? BETA_SPLIT_IMPULSE : BETA;
@@ -513,9 +535,7 @@ public class ContactSolver {
                     final Vector3 w1Split = mSplitAngularVelocities[contactManifold.indexBody1];
                     final Vector3 v2Split = mSplitLinearVelocities[contactManifold.indexBody2];
                     final Vector3 w2Split = mSplitAngularVelocities[contactManifold.indexBody2];
-                    final Vector3 deltaVSplit = Vector3.subtract(
-                            Vector3.subtract(Vector3.add(v2Split, w2Split.cross(contactPoint.r2)), v1Split),
-                            w1Split.cross(contactPoint.r1));
+                    final Vector3 deltaVSplit = computeDeltaVelocity(v1Split, w1Split, v2Split, w2Split, contactPoint.r1, contactPoint.r2);
                     final float JvSplit = deltaVSplit.dot(contactPoint.normal);
                     final float deltaLambdaSplit = -(JvSplit + biasPenetrationDepth) * contactPoint.inversePenetrationMass;
                     final float lambdaTempSplit = contactPoint.penetrationSplitImpulse;
@@ -527,9 +547,7 @@ public class ContactSolver {
                 }
                 if (!mIsSolveFrictionAtContactManifoldCenterActive) {
                     // --------- Friction 1 --------- //
-                    deltaV = Vector3.subtract(
-                            Vector3.subtract(Vector3.add(v2, w2.cross(contactPoint.r2)), v1),
-                            w1.cross(contactPoint.r1));
+                    deltaV = computeDeltaVelocity(v1, w1, v2, w2, contactPoint.r1, contactPoint.r2);
                     Jv = deltaV.dot(contactPoint.frictionVector1);
                     deltaLambda = -Jv;
                     deltaLambda *= contactPoint.inverseFriction1Mass;
@@ -542,9 +560,7 @@ public class ContactSolver {
                     //log.log(Level.INFO,"lambda 546: " + deltaLambda);
                     applyImpulse(impulseFriction1, contactManifold);
                     // --------- Friction 2 --------- //
-                    deltaV = Vector3.subtract(
-                            Vector3.subtract(Vector3.add(v2, w2.cross(contactPoint.r2)), v1),
-                            w1.cross(contactPoint.r1));
+                    deltaV = computeDeltaVelocity(v1, w1, v2, w2, contactPoint.r1, contactPoint.r2);
                     Jv = deltaV.dot(contactPoint.frictionVector2);
                     deltaLambda = -Jv;
                     deltaLambda *= contactPoint.inverseFriction2Mass;
@@ -560,9 +576,7 @@ public class ContactSolver {
             }
             if (mIsSolveFrictionAtContactManifoldCenterActive) {
                 // ------ First friction constraint at the center of the contact manifold ------ //
-                Vector3 deltaV = Vector3.subtract(
-                        Vector3.subtract(Vector3.add(v2, w2.cross(contactManifold.r2Friction)), v1),
-                        w1.cross(contactManifold.r1Friction));
+                Vector3 deltaV = computeDeltaVelocity(v1, w1, v2, w2, contactManifold.r1Friction, contactManifold.r2Friction);
                 float Jv = deltaV.dot(contactManifold.frictionVector1);
                 deltaLambda = -Jv * contactManifold.inverseFriction1Mass;
                 float frictionLimit = contactManifold.frictionCoefficient * sumPenetrationImpulse;
@@ -570,19 +584,11 @@ public class ContactSolver {
                 contactManifold.friction1Impulse = Math.max(-frictionLimit,
                         Math.min(contactManifold.friction1Impulse + deltaLambda, frictionLimit));
                 deltaLambda = contactManifold.friction1Impulse - lambdaTemp;
-                Vector3 linearImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.frictionVector1), deltaLambda);
-                Vector3 angularImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.r1CrossT1), deltaLambda);
-                Vector3 linearImpulseBody2 = Vector3.multiply(contactManifold.frictionVector1, deltaLambda);
-                Vector3 angularImpulseBody2 = Vector3.multiply(contactManifold.r2CrossT1, deltaLambda);
                 //log.log(Level.INFO,"lambda 581: " + deltaLambda);
-                final Impulse impulseFriction1 = new Impulse(
-                        linearImpulseBody1, angularImpulseBody1,
-                        linearImpulseBody2, angularImpulseBody2);
+                final Impulse impulseFriction1 = computeImpulse(contactManifold.frictionVector1, contactManifold.r1CrossT1, contactManifold.r2CrossT1, deltaLambda);
                 applyImpulse(impulseFriction1, contactManifold);
                 // ------ Second friction constraint at the center of the contact manifold ----- //
-                deltaV = Vector3.subtract(
-                        Vector3.subtract(Vector3.add(v2, w2.cross(contactManifold.r2Friction)), v1),
-                        w1.cross(contactManifold.r1Friction));
+                deltaV = computeDeltaVelocity(v1, w1, v2, w2, contactManifold.r1Friction, contactManifold.r2Friction);
                 Jv = deltaV.dot(contactManifold.frictionVector2);
                 deltaLambda = -Jv * contactManifold.inverseFriction2Mass;
                 frictionLimit = contactManifold.frictionCoefficient * sumPenetrationImpulse;
@@ -590,18 +596,12 @@ public class ContactSolver {
                 contactManifold.friction2Impulse = Math.max(-frictionLimit,
                         Math.min(contactManifold.friction2Impulse + deltaLambda, frictionLimit));
                 deltaLambda = contactManifold.friction2Impulse - lambdaTemp;
-                linearImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.frictionVector2), deltaLambda);
-                angularImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.r1CrossT2), deltaLambda);
-                linearImpulseBody2 = Vector3.multiply(contactManifold.frictionVector2, deltaLambda);
-                angularImpulseBody2 = Vector3.multiply(contactManifold.r2CrossT2, deltaLambda);
                 //log.log(Level.INFO,"lambda 601: " + deltaLambda);
 
-                final Impulse impulseFriction2 = new Impulse(
-                        linearImpulseBody1, angularImpulseBody1,
-                        linearImpulseBody2, angularImpulseBody2);
+                final Impulse impulseFriction2 = computeImpulse(contactManifold.frictionVector2, contactManifold.r1CrossT2, contactManifold.r2CrossT2, deltaLambda);
                 applyImpulse(impulseFriction2, contactManifold);
                 // ------ Twist friction constraint at the center of the contact manifold ------ //
-                deltaV = Vector3.subtract(w2, w1);
+                deltaV = mDeltaVelocity.set(w2).subtract(w1);
                 Jv = deltaV.dot(contactManifold.normal);
                 deltaLambda = -Jv * (contactManifold.inverseTwistFrictionMass);
                 frictionLimit = contactManifold.frictionCoefficient * sumPenetrationImpulse;
@@ -609,14 +609,8 @@ public class ContactSolver {
                 contactManifold.frictionTwistImpulse = Math.max(-frictionLimit,
                         Math.min(contactManifold.frictionTwistImpulse + deltaLambda, frictionLimit));
                 deltaLambda = contactManifold.frictionTwistImpulse - lambdaTemp;
-                linearImpulseBody1 = new Vector3(0, 0, 0);
-                angularImpulseBody1 = Vector3.multiply(Vector3.negate(contactManifold.normal), deltaLambda);
-                linearImpulseBody2 = new Vector3(0, 0, 0);
-                angularImpulseBody2 = Vector3.multiply(contactManifold.normal, deltaLambda);
                 //log.log(Level.INFO,"lambda 619: " + deltaLambda);
-                final Impulse impulseTwistFriction = new Impulse(
-                        linearImpulseBody1, angularImpulseBody1,
-                        linearImpulseBody2, angularImpulseBody2);
+                final Impulse impulseTwistFriction = computeTwistFrictionImpulse(deltaLambda, contactManifold);
                 applyImpulse(impulseTwistFriction, contactManifold);
             }
         }
@@ -647,24 +641,24 @@ public class ContactSolver {
     // Applies an impulse to the two bodies of a constraint.
     private void applyImpulse(Impulse impulse, ContactManifoldSolver manifold) {
         if (manifold.isBody1Moving) {
-            mLinearVelocities[manifold.indexBody1].add(Vector3.multiply(manifold.massInverseBody1, impulse.getLinearImpulseFirstBody()));
-            mAngularVelocities[manifold.indexBody1].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody1, impulse.getAngularImpulseFirstBody()));
+            mLinearVelocities[manifold.indexBody1].add(mTempVector.set(impulse.getLinearImpulseFirstBody()).multiply(manifold.massInverseBody1));
+            mAngularVelocities[manifold.indexBody1].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody1, impulse.getAngularImpulseFirstBody(), mTempVector));
         }
         if (manifold.isBody2Moving) {
-            mLinearVelocities[manifold.indexBody2].add(Vector3.multiply(manifold.massInverseBody2, impulse.getLinearImpulseSecondBody()));
-            mAngularVelocities[manifold.indexBody2].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody2, impulse.getAngularImpulseSecondBody()));
+            mLinearVelocities[manifold.indexBody2].add(mTempVector.set(impulse.getLinearImpulseSecondBody()).multiply(manifold.massInverseBody2));
+            mAngularVelocities[manifold.indexBody2].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody2, impulse.getAngularImpulseSecondBody(), mTempVector));
         }
     }
 
     // Applies an impulse to the two bodies of a constraint.
     private void applySplitImpulse(Impulse impulse, ContactManifoldSolver manifold) {
         if (manifold.isBody1Moving) {
-            mSplitLinearVelocities[manifold.indexBody1].add(Vector3.multiply(manifold.massInverseBody1, impulse.getLinearImpulseFirstBody()));
-            mSplitAngularVelocities[manifold.indexBody1].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody1, impulse.getAngularImpulseFirstBody()));
+            mSplitLinearVelocities[manifold.indexBody1].add(mTempVector.set(impulse.getLinearImpulseFirstBody()).multiply(manifold.massInverseBody1));
+            mSplitAngularVelocities[manifold.indexBody1].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody1, impulse.getAngularImpulseFirstBody(), mTempVector));
         }
         if (manifold.isBody2Moving) {
-            mSplitLinearVelocities[manifold.indexBody2].add(Vector3.multiply(manifold.massInverseBody2, impulse.getLinearImpulseSecondBody()));
-            mSplitAngularVelocities[manifold.indexBody2].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody2, impulse.getAngularImpulseSecondBody()));
+            mSplitLinearVelocities[manifold.indexBody2].add(mTempVector.set(impulse.getLinearImpulseSecondBody()).multiply(manifold.massInverseBody2));
+            mSplitAngularVelocities[manifold.indexBody2].add(Matrix3x3.multiply(manifold.inverseInertiaTensorBody2, impulse.getAngularImpulseSecondBody(), mTempVector));
         }
     }
 
@@ -674,15 +668,18 @@ public class ContactSolver {
         if (contactPoint.normal.length() <= 0) {
             throw new IllegalArgumentException("the contact point solver normal must be greater than zero");
         }
-        final Vector3 normalVelocity = Vector3.multiply(deltaVelocity.dot(contactPoint.normal), contactPoint.normal);
-        final Vector3 tangentVelocity = Vector3.subtract(deltaVelocity, normalVelocity);
+        final Vector3 tangentVelocity = mTempVector.set(contactPoint.normal).multiply(deltaVelocity.dot(contactPoint.normal));
+        tangentVelocity.setAllValues(
+                deltaVelocity.getX() - tangentVelocity.getX(),
+                deltaVelocity.getY() - tangentVelocity.getY(),
+                deltaVelocity.getZ() - tangentVelocity.getZ());
         final float lengthTangentVelocity = tangentVelocity.length();
         if (lengthTangentVelocity > ReactDefaults.MACHINE_EPSILON) {
-            contactPoint.frictionVector1.set(Vector3.divide(tangentVelocity, lengthTangentVelocity));
+            contactPoint.frictionVector1.set(tangentVelocity).divide(lengthTangentVelocity);
         } else {
-            contactPoint.frictionVector1.set(contactPoint.normal.getOneUnitOrthogonalVector());
+            contactPoint.normal.getOneUnitOrthogonalVector(contactPoint.frictionVector1);
         }
-        contactPoint.frictionVector2.set(contactPoint.normal.cross(contactPoint.frictionVector1).getUnit());
+        contactPoint.normal.cross(contactPoint.frictionVector1, contactPoint.frictionVector2).getUnit(contactPoint.frictionVector2);
     }
 
     // Computes the two unit orthogonal vectors "t1" and "t2" that span the tangential friction plane
@@ -691,24 +688,32 @@ public class ContactSolver {
         if (contact.normal.length() <= 0) {
             throw new IllegalArgumentException("the contact manifold solver normal must be greater than zero");
         }
-        final Vector3 normalVelocity = Vector3.multiply(deltaVelocity.dot(contact.normal), contact.normal);
-        final Vector3 tangentVelocity = Vector3.subtract(deltaVelocity, normalVelocity);
+        final Vector3 tangentVelocity = mTempVector.set(contact.normal).multiply(deltaVelocity.dot(contact.normal));
+        tangentVelocity.setAllValues(
+                deltaVelocity.getX() - tangentVelocity.getX(),
+                deltaVelocity.getY() - tangentVelocity.getY(),
+                deltaVelocity.getZ() - tangentVelocity.getZ());
         final float lengthTangentVelocity = tangentVelocity.length();
         if (lengthTangentVelocity > ReactDefaults.MACHINE_EPSILON) {
-            contact.frictionVector1.set(Vector3.divide(tangentVelocity, lengthTangentVelocity));
+            contact.frictionVector1.set(tangentVelocity).divide(lengthTangentVelocity);
         } else {
-            contact.frictionVector1.set(contact.normal.getOneUnitOrthogonalVector());
+            contact.normal.getOneUnitOrthogonalVector(contact.frictionVector1);
         }
-        contact.frictionVector2.set(contact.normal.cross(contact.frictionVector1).getUnit());
+        contact.normal.cross(contact.frictionVector1, contact.frictionVector2).getUnit(contact.frictionVector2);
     }
 
     /**
      * Clean up the constraint solver. Clear the last computed data.
      */
     public void cleanup() {
-        if (mContactConstraints != null) {
-            mContactConstraints = null;
+        for (int c = 0; c < mNbContactManifolds; c++) {
+            final ContactManifoldSolver manifold = mContactConstraints[c];
+            manifold.externalContactManifold = null;
+            for (int i = 0; i < manifold.nbContacts; i++) {
+                manifold.contacts[i].externalContact = null;
+            }
         }
+        mNbContactManifolds = 0;
     }
 
     // Contact solver internal data structure that to store all the information relative to a contact point.
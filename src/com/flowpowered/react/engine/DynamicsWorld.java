@@ -27,7 +27,6 @@ package com.flowpowered.react.engine;
 
 import com.flowpowered.react.*;
 import com.flowpowered.react.ReactDefaults.*;
-import com.flowpowered.react.Utilities.*;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.collision.*;
 import com.flowpowered.react.collision.shape.*;
@@ -44,16 +43,39 @@ import gnu.trove.map.*;
 import gnu.trove.map.hash.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * This class represents a dynamics world. This class inherits from the CollisionWorld class. In a dynamics world bodies can collide and their movements are simulated using the laws of physics.
  */
 public class DynamicsWorld extends CollisionWorld {
     private final Timer mTimer;
-    private final ContactSolver mContactSolver;
-    private final ConstraintSolver mConstraintSolver;
+    private final IslandSolverContext mSolverContext;
+    private final List<IslandSolverContext> mWorkerSolverContexts = new ArrayList<>();
+    private final List<IslandSolverTask> mIslandSolverTasks = new ArrayList<>();
+    private long[] mIslandSortKeys = new long[0];
+    private boolean mIsParallelIslandSolvingEnabled = ReactDefaults.PARALLEL_ISLAND_SOLVING_ENABLED;
     private final Set<RigidBody> mRigidBodies = new HashSet<>();
+    // the state of the bodies, the ones that can move have the first slots, the others are only used as anchors by the islands
+    private final RigidBodyStore mStore = new RigidBodyStore();
+    // the bodies that can move in the order of their slots, null when they changed
+    private RigidBody[] mDynamicBodiesArray = null;
+    private List<RigidBody> mDynamicBodiesList = null;
+    private final CollisionBody.MotionListener mMotionListener = new CollisionBody.MotionListener() {
+        @Override
+        public void onMotionEnabledChanged(CollisionBody body) {
+            DynamicsWorld.this.onMotionEnabledChanged(body);
+        }
+
+        @Override
+        public void onStaticBodyMoved(CollisionBody body) {
+            DynamicsWorld.this.onStaticBodyMoved(body);
+        }
+    };
     private final List<ContactManifold> mContactManifolds = new ArrayList<>();
+    // The elements of the contact manifold lists of the bodies, reused on each tick once the lists are reset
+    private final List<ContactManifoldListElement> mContactManifoldListElements = new ArrayList<>();
+    private int mNbContactManifoldListElements = 0;
     private final Set<Joint> mJoints = new HashSet<>();
     private final Vector3 mGravity;
     private final ArrayList<Vector3> mConstrainedPositions = new ArrayList<>();
@@ -61,6 +83,7 @@ public class DynamicsWorld extends CollisionWorld {
     private final TObjectIntMap<RigidBody> mMapBodyToConstrainedVelocityIndex = new TObjectIntHashMap<>();
     // Tick cache
     private final Set<RigidBody> mRigidBodiesToAddCache = new HashSet<>();
+    private List<RigidBody> mBatchedBodies = null;
     private final Set<RigidBody> mRigidBodiesToDeleteCache = new HashSet<>();
     private int mNbVelocitySolverIterations;
     private int mNbPositionSolverIterations;
@@ -73,7 +96,10 @@ public class DynamicsWorld extends CollisionWorld {
     private int mNbIslands;
     private int mNbIslandsCapacity;
     private Island[] mIslands;
+    private RigidBody[] mStackBodiesToVisit = new RigidBody[0];
     private int mNbBodiesCapacity;
+    // Scratch transform of the position correction, reused every tick
+    private final Transform mIntegrationTransform = new Transform();
     private float mSleepLinearVelocity;
     private float mSleepAngularVelocity;
     private float mTimeBeforeSleep;
@@ -96,14 +122,25 @@ public class DynamicsWorld extends CollisionWorld {
      * @param timeStep The time step
      */
     public DynamicsWorld(Vector3 gravity, float timeStep) {
+        this(gravity, timeStep, BroadPhaseAlgorithmType.SWEEP_AND_PRUNE);
+    }
+
+    /**
+     * Constructs a new dynamics world from the gravity, the time step and the broad-phase algorithm to use.
+     *
+     * @param gravity        The gravity
+     * @param timeStep       The time step
+     * @param broadPhaseType The broad-phase algorithm
+     */
+    public DynamicsWorld(Vector3 gravity, float timeStep, BroadPhaseAlgorithmType broadPhaseType) {
+        super(broadPhaseType);
         mTimer = new Timer(timeStep);
         mGravity = gravity;
         mIsGravityEnabled = true;
         Vector3[] empty = new Vector3[0];
         mConstrainedLinearVelocities = empty;
         mConstrainedAngularVelocities = empty;
-        mContactSolver = new ContactSolver(mMapBodyToConstrainedVelocityIndex);
-        mConstraintSolver = new ConstraintSolver(mConstrainedPositions, mConstrainedOrientations, mMapBodyToConstrainedVelocityIndex);
+        mSolverContext = new IslandSolverContext(mConstrainedPositions, mConstrainedOrientations, mMapBodyToConstrainedVelocityIndex);
         mNbVelocitySolverIterations = ReactDefaults.DEFAULT_VELOCITY_SOLVER_NB_ITERATIONS;
         mNbPositionSolverIterations = ReactDefaults.DEFAULT_POSITION_SOLVER_NB_ITERATIONS;
         mIsSleepingEnabled = ReactDefaults.SLEEPING_ENABLED;
@@ -156,7 +193,7 @@ public class DynamicsWorld extends CollisionWorld {
      * @param technique The technique to use
      */
     public void setContactsPositionCorrectionTechnique(ContactsPositionCorrectionTechnique technique) {
-        mContactSolver.setIsSplitImpulseActive(technique != ContactsPositionCorrectionTechnique.BAUMGARTE_CONTACTS);
+        mSolverContext.getContactSolver().setIsSplitImpulseActive(technique != ContactsPositionCorrectionTechnique.BAUMGARTE_CONTACTS);
     }
 
     /**
@@ -165,7 +202,25 @@ public class DynamicsWorld extends CollisionWorld {
      * @param isActive Whether or not to solve the friction constraint at the center of the manifold
      */
     public void setSolveFrictionAtContactManifoldCenterActive(boolean isActive) {
-        mContactSolver.setSolveFrictionAtContactManifoldCenterActive(isActive);
+        mSolverContext.getContactSolver().setSolveFrictionAtContactManifoldCenterActive(isActive);
+    }
+
+    /**
+     * Returns true if the islands are solved on several threads when there are enough of them.
+     *
+     * @return Whether or not the island solving is parallel
+     */
+    public boolean isParallelIslandSolvingEnabled() {
+        return mIsParallelIslandSolvingEnabled;
+    }
+
+    /**
+     * Enables or disables the parallel solving of the islands. The islands don't share any moving body so the results are the same in both cases.
+     *
+     * @param isEnabled Whether or not the islands can be solved on several threads
+     */
+    public void enableParallelIslandSolving(boolean isEnabled) {
+        mIsParallelIslandSolvingEnabled = isEnabled;
     }
 
     /**
@@ -337,24 +392,41 @@ public class DynamicsWorld extends CollisionWorld {
      * multiple steps will be taken, to catch up.
      */
     public void update() {
+        update(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Updates the physics simulation like {@link #update()} but takes at most the maximum number of steps. The time left after these steps is dropped so the simulation doesn't fall further behind
+     * when the steps take longer than the time they simulate.
+     *
+     * @param maxSteps The maximum number of steps to take
+     * @return The number of steps taken
+     */
+    public int update(int maxSteps) {
         if (!mTimer.isRunning()) {
             throw new IllegalStateException("timer must be running");
         }
         mTimer.update();
         isTicking = true;
-        while (mTimer.isPossibleToTakeStep()) {
+        int nbSteps = 0;
+        while (mTimer.isPossibleToTakeStep() && nbSteps < maxSteps) {
             tick();
+            nbSteps++;
+        }
+        if (mTimer.isPossibleToTakeStep()) {
+            mTimer.skipLateSteps();
         }
         isTicking = false;
         resetBodiesForceAndTorque();
         setInterpolationFactorToAllBodies();
         disperseCache();
+        return nbSteps;
     }
 
     // LinkedDynamicsWorld needs to clearLinkedBodies at the end of a tick, not update
     protected void tick() {
-        mContactManifolds.clear();
         resetContactManifoldListsOfBodies();
+        mContactManifolds.clear();
         mCollisionDetection.computeCollisionDetection();
         computeIslands();
         integrateRigidBodiesVelocities();
@@ -371,46 +443,108 @@ public class DynamicsWorld extends CollisionWorld {
 
     // Resets the boolean movement variable for each body.
     private void resetBodiesMovementVariable() {
-        for (RigidBody rigidBody : mRigidBodies) {
-            rigidBody.setHasMoved(false);
-        }
+        Arrays.fill(mStore.getHasMovedColumn(), 0, mStore.getNbDynamicBodies(), false);
     }
 
     // Integrates the position and orientation of the rigid bodies using the provided time delta.
     // The positions and orientations of the bodies are integrated using the symplectic Euler time stepping scheme.
+    // The velocities of the bodies of the islands are copied to the store first, then all the bodies that can move are integrated by a loop without branches,
+    // the velocity of the other ones is zero and their orientation is divided by 1 instead of its length.
     private void integrateRigidBodiesPositions() {
         final float dt = (float) mTimer.getTimeStep();
-        for (int i = 0; i < mNbIslands; i++) {
-            final RigidBody[] bodies = mIslands[i].getBodies();
-            for (int b = 0; b < mIslands[i].getNbBodies(); b++) {
-                if (bodies[b].isMotionEnabled()) {
-                    final int indexArray = mMapBodyToConstrainedVelocityIndex.get(bodies[b]);
-                    final Vector3 newLinVelocity = mConstrainedLinearVelocities[indexArray];
-                    final Vector3 newAngVelocity = mConstrainedAngularVelocities[indexArray];
-                    bodies[b].setLinearVelocity(newLinVelocity);
-                    bodies[b].setAngularVelocity(newAngVelocity);
-                    if (mContactSolver.isSplitImpulseActive()) {
-                        newLinVelocity.add(mSplitLinearVelocities[indexArray]);
-                        newAngVelocity.add(mSplitAngularVelocities[indexArray]);
-                    }
-                    final Vector3 currentPosition = bodies[b].getTransform().getPosition();
-                    final Quaternion currentOrientation = bodies[b].getTransform().getOrientation();
-                    final Vector3 newPosition = Vector3.add(currentPosition, Vector3.multiply(newLinVelocity, dt));
-                    final Quaternion newOrientation = Quaternion.add(currentOrientation, Quaternion.multiply(Quaternion.multiply(new Quaternion(0, newAngVelocity), currentOrientation), 0.5f * dt));
-                    final Transform newTransform = new Transform(newPosition, newOrientation.getUnit());
-                    bodies[b].setTransform(newTransform);
-                }
+        final float halfDt = 0.5f * dt;
+        final int nbDynamicBodies = mStore.getNbDynamicBodies();
+        final boolean isSplitImpulseActive = mSolverContext.getContactSolver().isSplitImpulseActive();
+        final float[] linearVelocityX = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_X);
+        final float[] linearVelocityY = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_Y);
+        final float[] linearVelocityZ = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_Z);
+        final float[] angularVelocityX = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_X);
+        final float[] angularVelocityY = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_Y);
+        final float[] angularVelocityZ = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_Z);
+        final float[] linearX = mStore.getColumn(RigidBodyStore.STEP_LINEAR_X);
+        final float[] linearY = mStore.getColumn(RigidBodyStore.STEP_LINEAR_Y);
+        final float[] linearZ = mStore.getColumn(RigidBodyStore.STEP_LINEAR_Z);
+        final float[] angularX = mStore.getColumn(RigidBodyStore.STEP_ANGULAR_X);
+        final float[] angularY = mStore.getColumn(RigidBodyStore.STEP_ANGULAR_Y);
+        final float[] angularZ = mStore.getColumn(RigidBodyStore.STEP_ANGULAR_Z);
+        final float[] integrated = mStore.getColumn(RigidBodyStore.STEP_INTEGRATED);
+        final boolean[] hasMoved = mStore.getHasMovedColumn();
+        for (int i = 0; i < nbDynamicBodies; i++) {
+            if (integrated[i] == 0) {
+                linearX[i] = linearY[i] = linearZ[i] = 0;
+                angularX[i] = angularY[i] = angularZ[i] = 0;
+                continue;
             }
+            final Vector3 linearVelocity = mConstrainedLinearVelocities[i];
+            final Vector3 angularVelocity = mConstrainedAngularVelocities[i];
+            linearVelocityX[i] = linearVelocity.getX();
+            linearVelocityY[i] = linearVelocity.getY();
+            linearVelocityZ[i] = linearVelocity.getZ();
+            angularVelocityX[i] = angularVelocity.getX();
+            angularVelocityY[i] = angularVelocity.getY();
+            angularVelocityZ[i] = angularVelocity.getZ();
+            if (isSplitImpulseActive) {
+                linearX[i] = linearVelocity.getX() + mSplitLinearVelocities[i].getX();
+                linearY[i] = linearVelocity.getY() + mSplitLinearVelocities[i].getY();
+                linearZ[i] = linearVelocity.getZ() + mSplitLinearVelocities[i].getZ();
+                angularX[i] = angularVelocity.getX() + mSplitAngularVelocities[i].getX();
+                angularY[i] = angularVelocity.getY() + mSplitAngularVelocities[i].getY();
+                angularZ[i] = angularVelocity.getZ() + mSplitAngularVelocities[i].getZ();
+            } else {
+                linearX[i] = linearVelocity.getX();
+                linearY[i] = linearVelocity.getY();
+                linearZ[i] = linearVelocity.getZ();
+                angularX[i] = angularVelocity.getX();
+                angularY[i] = angularVelocity.getY();
+                angularZ[i] = angularVelocity.getZ();
+            }
+            hasMoved[i] = true;
+        }
+        final float[] px = mStore.getColumn(RigidBodyStore.POSITION_X);
+        final float[] py = mStore.getColumn(RigidBodyStore.POSITION_Y);
+        final float[] pz = mStore.getColumn(RigidBodyStore.POSITION_Z);
+        final float[] qx = mStore.getColumn(RigidBodyStore.ORIENTATION_X);
+        final float[] qy = mStore.getColumn(RigidBodyStore.ORIENTATION_Y);
+        final float[] qz = mStore.getColumn(RigidBodyStore.ORIENTATION_Z);
+        final float[] qw = mStore.getColumn(RigidBodyStore.ORIENTATION_W);
+        float minLength = Float.MAX_VALUE;
+        for (int i = 0; i < nbDynamicBodies; i++) {
+            px[i] = px[i] + linearX[i] * dt;
+            py[i] = py[i] + linearY[i] * dt;
+            pz[i] = pz[i] + linearZ[i] * dt;
+            final float x = qx[i];
+            final float y = qy[i];
+            final float z = qz[i];
+            final float w = qw[i];
+            final float wx = angularX[i];
+            final float wy = angularY[i];
+            final float wz = angularZ[i];
+            // the spin (wx, wy, wz, 0) * q, computed like Quaternion.multiply
+            final float spinX = x * 0 + wx * w + (wy * z - wz * y);
+            final float spinY = y * 0 + wy * w + (wz * x - wx * z);
+            final float spinZ = z * 0 + wz * w + (wx * y - wy * x);
+            final float spinW = 0 * w - (wx * x + wy * y + wz * z);
+            final float newX = x + spinX * halfDt;
+            final float newY = y + spinY * halfDt;
+            final float newZ = z + spinZ * halfDt;
+            final float newW = w + spinW * halfDt;
+            final float length = (float) Math.sqrt(newX * newX + newY * newY + newZ * newZ + newW * newW);
+            final float weight = integrated[i];
+            final float divisor = length * weight + (1 - weight);
+            minLength = Math.min(minLength, length + (1 - weight));
+            qx[i] = newX / divisor;
+            qy[i] = newY / divisor;
+            qz[i] = newZ / divisor;
+            qw[i] = newW / divisor;
+        }
+        if (minLength <= ReactDefaults.MACHINE_EPSILON) {
+            throw new IllegalArgumentException("Cannot normalize the zero quaternion");
         }
     }
 
-    // Updates the AABBs of the bodies
+    // Updates the AABBs of the bodies that can move
     private void updateRigidBodiesAABB() {
-        for (RigidBody rigidBody : mRigidBodies) {
-            if (rigidBody.getHasMoved()) {
-                rigidBody.updateAABB();
-            }
-        }
+        mStore.updateAABBs(0, mStore.getNbDynamicBodies());
     }
 
     // Computes and set the interpolation factor for all bodies.
@@ -420,31 +554,47 @@ public class DynamicsWorld extends CollisionWorld {
             throw new IllegalStateException("interpolation factor must be greater or equal to zero"
                     + " and smaller or equal to one");
         }
-        for (RigidBody rigidBody : mRigidBodies) {
+        for (RigidBody rigidBody : getDynamicBodiesArray()) {
             rigidBody.setInterpolationFactor(factor);
         }
     }
 
-    // Initialize the bodies velocities arrays for the next simulation step.
-    private void initVelocityArrays() {
-        final int nbBodies = mRigidBodies.size();
-        if (mNbBodiesCapacity != nbBodies && nbBodies > 0) {
+    // Initialize the bodies velocities arrays for the next simulation step and returns their number of slots.
+    // The bodies that can move come first with the slots of the store, then the bodies that can't move but are used by an island, the other ones have no slot.
+    private int initVelocityArrays() {
+        mMapBodyToConstrainedVelocityIndex.clear();
+        final int nbDynamicBodies = mStore.getNbDynamicBodies();
+        int nbBodies = 0;
+        for (; nbBodies < nbDynamicBodies; nbBodies++) {
+            mMapBodyToConstrainedVelocityIndex.put(mStore.getBody(nbBodies), nbBodies);
+        }
+        for (int i = 0; i < mNbIslands; i++) {
+            final RigidBody[] bodies = mIslands[i].getBodies();
+            for (int b = 0; b < mIslands[i].getNbBodies(); b++) {
+                if (!bodies[b].isMotionEnabled() && !mMapBodyToConstrainedVelocityIndex.containsKey(bodies[b])) {
+                    mMapBodyToConstrainedVelocityIndex.put(bodies[b], nbBodies);
+                    nbBodies++;
+                }
+            }
+        }
+        if (mNbBodiesCapacity < nbBodies) {
             mNbBodiesCapacity = nbBodies;
             mSplitLinearVelocities = new Vector3[mNbBodiesCapacity];
             mSplitAngularVelocities = new Vector3[mNbBodiesCapacity];
             mConstrainedLinearVelocities = new Vector3[mNbBodiesCapacity];
             mConstrainedAngularVelocities = new Vector3[mNbBodiesCapacity];
+            for (int i = 0; i < mNbBodiesCapacity; i++) {
+                mSplitLinearVelocities[i] = new Vector3();
+                mSplitAngularVelocities[i] = new Vector3();
+                mConstrainedLinearVelocities[i] = new Vector3();
+                mConstrainedAngularVelocities[i] = new Vector3();
+            }
         }
-        for (int i = 0; i < mNbBodiesCapacity; i++) {
-            mSplitLinearVelocities[i] = new Vector3(0, 0, 0);
-            mSplitAngularVelocities[i] = new Vector3(0, 0, 0);
-        }
-        mMapBodyToConstrainedVelocityIndex.clear();
-        int indexBody = 0;
-        for (RigidBody rigidBody : mRigidBodies) {
-            mMapBodyToConstrainedVelocityIndex.put(rigidBody, indexBody);
-            indexBody++;
+        for (int i = 0; i < nbBodies; i++) {
+            mSplitLinearVelocities[i].setToZero();
+            mSplitAngularVelocities[i].setToZero();
         }
+        return nbBodies;
     }
 
     // Integrates the constrained velocities array using the provided time delta.
@@ -453,98 +603,248 @@ public class DynamicsWorld extends CollisionWorld {
     // might violate the constraints and will be corrected in the constraint and
     // contact solver.
     private void integrateRigidBodiesVelocities() {
-        initVelocityArrays();
+        final int nbBodies = initVelocityArrays();
         final float dt = (float) mTimer.getTimeStep();
-        for (int i = 0; i < mNbIslands; i++) {
-            final RigidBody[] bodies = mIslands[i].getBodies();
-            for (int b = 0; b < mIslands[i].getNbBodies(); b++) {
-                int indexBody = mMapBodyToConstrainedVelocityIndex.get(bodies[b]);
-                if (bodies[b].isMotionEnabled()) {
-                    mConstrainedLinearVelocities[indexBody] = Vector3.add(bodies[b].getLinearVelocity(), Vector3.multiply(dt * bodies[b].getMassInverse(), bodies[b].getExternalForce()));
-                    mConstrainedAngularVelocities[indexBody] = Vector3.add(bodies[b].getAngularVelocity(),
-                            Matrix3x3.multiply(Matrix3x3.multiply(dt, bodies[b].getInertiaTensorInverseWorld()), bodies[b].getExternalTorque()));
-                    if (bodies[b].isGravityEnabled() && mIsGravityEnabled) {
-                        mConstrainedLinearVelocities[indexBody].add(Vector3.multiply(dt * bodies[b].getMassInverse() * bodies[b].getMass(), mGravity));
-                    }
-                    final float linDampingFactor = bodies[b].getLinearDamping();
-                    final float angDampingFactor = bodies[b].getAngularDamping();
-                    final float linearDamping = Mathematics.clamp(1 - dt * linDampingFactor, 0, 1);
-                    final float angularDamping = Mathematics.clamp(1 - dt * angDampingFactor, 0, 1);
-                    mConstrainedLinearVelocities[indexBody].multiply(Mathematics.clamp(linearDamping, 0, 1));
-                    mConstrainedAngularVelocities[indexBody].multiply(Mathematics.clamp(angularDamping, 0, 1));
-                    bodies[b].updateOldTransform();
-                } else {
-                    mConstrainedLinearVelocities[indexBody] = new Vector3(0, 0, 0);
-                    mConstrainedAngularVelocities[indexBody] = new Vector3(0, 0, 0);
-                }
-                indexBody++;
-            }
+        final int nbDynamicBodies = mStore.getNbDynamicBodies();
+        final float gravityScale = mIsGravityEnabled ? 1 : 0;
+        final float gravityX = mGravity.getX() * gravityScale;
+        final float gravityY = mGravity.getY() * gravityScale;
+        final float gravityZ = mGravity.getZ() * gravityScale;
+        final float[] qx = mStore.getColumn(RigidBodyStore.ORIENTATION_X);
+        final float[] qy = mStore.getColumn(RigidBodyStore.ORIENTATION_Y);
+        final float[] qz = mStore.getColumn(RigidBodyStore.ORIENTATION_Z);
+        final float[] qw = mStore.getColumn(RigidBodyStore.ORIENTATION_W);
+        final float[] linearVelocityX = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_X);
+        final float[] linearVelocityY = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_Y);
+        final float[] linearVelocityZ = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_Z);
+        final float[] angularVelocityX = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_X);
+        final float[] angularVelocityY = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_Y);
+        final float[] angularVelocityZ = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_Z);
+        final float[] forceX = mStore.getColumn(RigidBodyStore.FORCE_X);
+        final float[] forceY = mStore.getColumn(RigidBodyStore.FORCE_Y);
+        final float[] forceZ = mStore.getColumn(RigidBodyStore.FORCE_Z);
+        final float[] torqueX = mStore.getColumn(RigidBodyStore.TORQUE_X);
+        final float[] torqueY = mStore.getColumn(RigidBodyStore.TORQUE_Y);
+        final float[] torqueZ = mStore.getColumn(RigidBodyStore.TORQUE_Z);
+        final float[] mass = mStore.getColumn(RigidBodyStore.MASS);
+        final float[] inverseMass = mStore.getColumn(RigidBodyStore.INVERSE_MASS);
+        final float[] i00 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_00);
+        final float[] i01 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_01);
+        final float[] i02 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_02);
+        final float[] i10 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_10);
+        final float[] i11 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_11);
+        final float[] i12 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_12);
+        final float[] i20 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_20);
+        final float[] i21 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_21);
+        final float[] i22 = mStore.getColumn(RigidBodyStore.INVERSE_INERTIA_22);
+        final float[] linearDamping = mStore.getColumn(RigidBodyStore.LINEAR_DAMPING);
+        final float[] angularDamping = mStore.getColumn(RigidBodyStore.ANGULAR_DAMPING);
+        final float[] bodyGravityScale = mStore.getColumn(RigidBodyStore.GRAVITY_SCALE);
+        final float[] linearX = mStore.getColumn(RigidBodyStore.STEP_LINEAR_X);
+        final float[] linearY = mStore.getColumn(RigidBodyStore.STEP_LINEAR_Y);
+        final float[] linearZ = mStore.getColumn(RigidBodyStore.STEP_LINEAR_Z);
+        final float[] angularX = mStore.getColumn(RigidBodyStore.STEP_ANGULAR_X);
+        final float[] angularY = mStore.getColumn(RigidBodyStore.STEP_ANGULAR_Y);
+        final float[] angularZ = mStore.getColumn(RigidBodyStore.STEP_ANGULAR_Z);
+        // all the bodies that can move are integrated, the results of the ones which are not in an island are never read
+        for (int i = 0; i < nbDynamicBodies; i++) {
+            final float forceFactor = dt * inverseMass[i];
+            final float gravityFactor = dt * inverseMass[i] * mass[i] * bodyGravityScale[i];
+            final float linearFactor = Math.min(Math.max(1 - dt * linearDamping[i], 0), 1);
+            final float angularFactor = Math.min(Math.max(1 - dt * angularDamping[i], 0), 1);
+            linearX[i] = (linearVelocityX[i] + forceX[i] * forceFactor + gravityX * gravityFactor) * linearFactor;
+            linearY[i] = (linearVelocityY[i] + forceY[i] * forceFactor + gravityY * gravityFactor) * linearFactor;
+            linearZ[i] = (linearVelocityZ[i] + forceZ[i] * forceFactor + gravityZ * gravityFactor) * linearFactor;
+            // the inverse inertia tensor in world coordinates, computed like RigidBody.getInertiaTensorInverseWorld
+            final float x = qx[i];
+            final float y = qy[i];
+            final float z = qz[i];
+            final float w = qw[i];
+            final float nQ = x * x + y * y + z * z + w * w;
+            final float s = nQ > 0.0 ? 2 / nQ : 0;
+            final float xs = x * s;
+            final float ys = y * s;
+            final float zs = z * s;
+            final float wxs = w * xs;
+            final float wys = w * ys;
+            final float wzs = w * zs;
+            final float xxs = x * xs;
+            final float xys = x * ys;
+            final float xzs = x * zs;
+            final float yys = y * ys;
+            final float yzs = y * zs;
+            final float zzs = z * zs;
+            final float r00 = 1 - yys - zzs;
+            final float r01 = xys - wzs;
+            final float r02 = xzs + wys;
+            final float r10 = xys + wzs;
+            final float r11 = 1 - xxs - zzs;
+            final float r12 = yzs - wxs;
+            final float r20 = xzs - wys;
+            final float r21 = yzs + wxs;
+            final float r22 = 1 - xxs - yys;
+            final float a00 = r00 * i00[i] + r01 * i10[i] + r02 * i20[i];
+            final float a01 = r00 * i01[i] + r01 * i11[i] + r02 * i21[i];
+            final float a02 = r00 * i02[i] + r01 * i12[i] + r02 * i22[i];
+            final float a10 = r10 * i00[i] + r11 * i10[i] + r12 * i20[i];
+            final float a11 = r10 * i01[i] + r11 * i11[i] + r12 * i21[i];
+            final float a12 = r10 * i02[i] + r11 * i12[i] + r12 * i22[i];
+            final float a20 = r20 * i00[i] + r21 * i10[i] + r22 * i20[i];
+            final float a21 = r20 * i01[i] + r21 * i11[i] + r22 * i21[i];
+            final float a22 = r20 * i02[i] + r21 * i12[i] + r22 * i22[i];
+            final float tx = torqueX[i];
+            final float ty = torqueY[i];
+            final float tz = torqueZ[i];
+            angularX[i] = (angularVelocityX[i] + ((a00 * r00 + a01 * r01 + a02 * r02) * dt * tx + (a00 * r10 + a01 * r11 + a02 * r12) * dt * ty + (a00 * r20 + a01 * r21 + a02 * r22) * dt * tz))
+                    * angularFactor;
+            angularY[i] = (angularVelocityY[i] + ((a10 * r00 + a11 * r01 + a12 * r02) * dt * tx + (a10 * r10 + a11 * r11 + a12 * r12) * dt * ty + (a10 * r20 + a11 * r21 + a12 * r22) * dt * tz))
+                    * angularFactor;
+            angularZ[i] = (angularVelocityZ[i] + ((a20 * r00 + a21 * r01 + a22 * r02) * dt * tx + (a20 * r10 + a21 * r11 + a22 * r12) * dt * ty + (a20 * r20 + a21 * r21 + a22 * r22) * dt * tz))
+                    * angularFactor;
+        }
+        for (int i = 0; i < nbDynamicBodies; i++) {
+            mConstrainedLinearVelocities[i].setAllValues(linearX[i], linearY[i], linearZ[i]);
+            mConstrainedAngularVelocities[i].setAllValues(angularX[i], angularY[i], angularZ[i]);
+        }
+        // the bodies that can't move but are in an island
+        for (int i = nbDynamicBodies; i < nbBodies; i++) {
+            mConstrainedLinearVelocities[i].setToZero();
+            mConstrainedAngularVelocities[i].setToZero();
         }
     }
 
     // Solves the contacts and constraints
     private void solveContactsAndConstraints() {
         final float dt = (float) mTimer.getTimeStep();
-        mContactSolver.setSplitVelocitiesArrays(mSplitLinearVelocities, mSplitAngularVelocities);
-        mContactSolver.setConstrainedVelocitiesArrays(mConstrainedLinearVelocities, mConstrainedAngularVelocities);
-        mConstraintSolver.setConstrainedVelocitiesArrays(mConstrainedLinearVelocities, mConstrainedAngularVelocities);
+        mSolverContext.setVelocitiesArrays(mConstrainedLinearVelocities, mConstrainedAngularVelocities, mSplitLinearVelocities, mSplitAngularVelocities);
+        if (mIsParallelIslandSolvingEnabled && prepareIslandSolverTasks(false, dt)) {
+            runIslandSolverTasks();
+            return;
+        }
         for (int islandIndex = 0; islandIndex < mNbIslands; islandIndex++) {
-            final boolean isConstraintsToSolve = mIslands[islandIndex].getNbJoints() > 0;
-            final boolean isContactsToSolve = mIslands[islandIndex].getNbContactManifolds() > 0;
-            if (!isConstraintsToSolve && !isContactsToSolve) {
-                continue;
-            }
-            if (isContactsToSolve) {
-                mContactSolver.initializeForIsland(dt, mIslands[islandIndex]);
-                mContactSolver.warmStart();
-            }
-            if (isConstraintsToSolve) {
-                mConstraintSolver.initializeForIsland(dt, mIslands[islandIndex]);
-            }
-            for (int i = 0; i < mNbVelocitySolverIterations; i++) {
-                if (isConstraintsToSolve) {
-                    mConstraintSolver.solveVelocityConstraints(mIslands[islandIndex]);
-                }
-                if (isContactsToSolve) {
-                    mContactSolver.solve();
-                }
+            mSolverContext.solveVelocityConstraints(mIslands[islandIndex], dt, mNbVelocitySolverIterations);
+        }
+    }
+
+    // Sorts the islands to solve from the largest and splits them into tasks, the small islands at the end are grouped until they have enough constraints.
+    // Returns false if there are not enough tasks to solve them in parallel.
+    private boolean prepareIslandSolverTasks(boolean isPositionCorrection, float dt) {
+        if (mIslandSortKeys.length < mNbIslands) {
+            mIslandSortKeys = new long[mNbIslands];
+        }
+        int nbIslandsToSolve = 0;
+        for (int islandIndex = 0; islandIndex < mNbIslands; islandIndex++) {
+            final int nbConstraints = mIslands[islandIndex].getNbJoints() + (isPositionCorrection ? 0 : mIslands[islandIndex].getNbContactManifolds());
+            if (nbConstraints > 0) {
+                // the largest islands have the smallest keys, the equal sizes stay in the islands order
+                mIslandSortKeys[nbIslandsToSolve++] = (long) -nbConstraints << 32 | islandIndex;
             }
-            if (isContactsToSolve) {
-                mContactSolver.storeImpulses();
-                mContactSolver.cleanup();
+        }
+        Arrays.sort(mIslandSortKeys, 0, nbIslandsToSolve);
+        mIslandSolverTasks.clear();
+        int start = 0;
+        int nbConstraints = 0;
+        for (int i = 0; i < nbIslandsToSolve; i++) {
+            nbConstraints -= (int) (mIslandSortKeys[i] >> 32);
+            if (nbConstraints >= ReactDefaults.ISLAND_SOLVER_TASK_MIN_CONSTRAINTS || i == nbIslandsToSolve - 1) {
+                final IslandSolverContext context = getWorkerSolverContext(mIslandSolverTasks.size());
+                mIslandSolverTasks.add(new IslandSolverTask(context, start, i + 1, isPositionCorrection, dt));
+                start = i + 1;
+                nbConstraints = 0;
             }
         }
+        return mIslandSolverTasks.size() > 1;
+    }
+
+    private IslandSolverContext getWorkerSolverContext(int index) {
+        while (mWorkerSolverContexts.size() <= index) {
+            mWorkerSolverContexts.add(new IslandSolverContext(mConstrainedPositions, mConstrainedOrientations, mMapBodyToConstrainedVelocityIndex));
+        }
+        final IslandSolverContext context = mWorkerSolverContexts.get(index);
+        context.copySettings(mSolverContext);
+        context.setVelocitiesArrays(mConstrainedLinearVelocities, mConstrainedAngularVelocities, mSplitLinearVelocities, mSplitAngularVelocities);
+        return context;
+    }
+
+    // Runs the island solver tasks on the common fork-join pool. They are submitted from the largest so the idle threads take the largest ones first,
+    // this thread solves the first one.
+    private void runIslandSolverTasks() {
+        for (int i = 1; i < mIslandSolverTasks.size(); i++) {
+            mIslandSolverTasks.get(i).fork();
+        }
+        mIslandSolverTasks.get(0).invoke();
+        for (int i = 1; i < mIslandSolverTasks.size(); i++) {
+            mIslandSolverTasks.get(i).join();
+        }
+        mIslandSolverTasks.clear();
     }
 
     public void solvePositionCorrection() {
         if (mJoints.isEmpty()) {
             return;
         }
-        mConstrainedPositions.clear();
-        mConstrainedPositions.ensureCapacity(mRigidBodies.size());
-        mConstrainedOrientations.clear();
-        mConstrainedOrientations.ensureCapacity(mRigidBodies.size());
-        for (int i = 0; i < mRigidBodies.size(); i++) {
-            mConstrainedPositions.add(null);
-            mConstrainedOrientations.add(null);
+        // the slots are kept from one tick to the next, only the ones of the bodies in an island are read
+        while (mConstrainedPositions.size() < mRigidBodies.size()) {
+            mConstrainedPositions.add(new Vector3());
+            mConstrainedOrientations.add(new Quaternion());
         }
         for (int islandIndex = 0; islandIndex < mNbIslands; islandIndex++) {
             final RigidBody[] bodies = mIslands[islandIndex].getBodies();
             for (int b = 0; b < mIslands[islandIndex].getNbBodies(); b++) {
                 final int index = mMapBodyToConstrainedVelocityIndex.get(bodies[b]);
                 final Transform transform = bodies[b].getTransform();
-                mConstrainedPositions.set(index, new Vector3(transform.getPosition()));
-                mConstrainedOrientations.set(index, new Quaternion(transform.getOrientation()));
+                mConstrainedPositions.get(index).set(transform.getPosition());
+                mConstrainedOrientations.get(index).set(transform.getOrientation());
             }
-            for (int i = 0; i < mNbPositionSolverIterations; i++) {
-                mConstraintSolver.solvePositionConstraints(mIslands[islandIndex]);
+        }
+        if (mIsParallelIslandSolvingEnabled && prepareIslandSolverTasks(true, 0)) {
+            runIslandSolverTasks();
+        } else {
+            for (int islandIndex = 0; islandIndex < mNbIslands; islandIndex++) {
+                mSolverContext.solvePositionConstraints(mIslands[islandIndex], mNbPositionSolverIterations);
             }
+        }
+        // the bodies that can't move are shared by several islands and never corrected
+        for (int islandIndex = 0; islandIndex < mNbIslands; islandIndex++) {
+            final RigidBody[] bodies = mIslands[islandIndex].getBodies();
             for (int b = 0; b < mIslands[islandIndex].getNbBodies(); b++) {
+                if (!bodies[b].isMotionEnabled()) {
+                    continue;
+                }
                 final int index = mMapBodyToConstrainedVelocityIndex.get(bodies[b]);
-                final Vector3 newPosition = mConstrainedPositions.get(index);
-                final Quaternion newOrientation = mConstrainedOrientations.get(index);
-                final Transform newTransform = new Transform(newPosition, newOrientation.getUnit());
-                bodies[b].setTransform(newTransform);
+                mIntegrationTransform.getPosition().set(mConstrainedPositions.get(index));
+                mIntegrationTransform.getOrientation().set(mConstrainedOrientations.get(index)).normalize();
+                bodies[b].setTransform(mIntegrationTransform);
+            }
+        }
+    }
+
+    // Solves a range of the sorted islands with its own solver context.
+    private class IslandSolverTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final IslandSolverContext mContext;
+        private final int mStart;
+        private final int mEnd;
+        private final boolean mIsPositionCorrection;
+        private final float mTimeStep;
+
+        private IslandSolverTask(IslandSolverContext context, int start, int end, boolean isPositionCorrection, float timeStep) {
+            mContext = context;
+            mStart = start;
+            mEnd = end;
+            mIsPositionCorrection = isPositionCorrection;
+            mTimeStep = timeStep;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = mStart; i < mEnd; i++) {
+                final Island island = mIslands[(int) mIslandSortKeys[i]];
+                if (mIsPositionCorrection) {
+                    mContext.solvePositionConstraints(island, mNbPositionSolverIterations);
+                } else {
+                    mContext.solveVelocityConstraints(island, mTimeStep, mNbVelocitySolverIterations);
+                }
             }
         }
     }
@@ -586,7 +886,7 @@ public class DynamicsWorld extends CollisionWorld {
      */
     protected void addRigidBodyIgnoreTick(RigidBody body) {
         mBodies.add(body);
-        mRigidBodies.add(body);
+        addToRigidBodies(body);
         mCollisionDetection.addBody(body);
     }
 
@@ -598,13 +898,39 @@ public class DynamicsWorld extends CollisionWorld {
     public void addRigidBody(RigidBody body) {
         if (!isTicking) {
             mBodies.add(body);
-            mRigidBodies.add(body);
-            mCollisionDetection.addBody(body);
+            addToRigidBodies(body);
+            if (mBatchedBodies != null) {
+                mBatchedBodies.add(body);
+            } else {
+                mCollisionDetection.addBody(body);
+            }
         } else {
             mRigidBodiesToAddCache.add(body);
         }
     }
 
+    /**
+     * Starts a batch of body additions. The bodies added until {@link #endBodyBatch()} is called are given to the broad-phase all at once,
+     * which is faster than one by one when adding a lot of bodies. They don't collide with anything until the end of the batch.
+     */
+    public void beginBodyBatch() {
+        if (mBatchedBodies == null) {
+            mBatchedBodies = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Ends the current batch of body additions and adds all its bodies to the collision detection.
+     */
+    public void endBodyBatch() {
+        if (mBatchedBodies == null) {
+            return;
+        }
+        final List<RigidBody> bodies = mBatchedBodies;
+        mBatchedBodies = null;
+        mCollisionDetection.addBodies(bodies);
+    }
+
     /**
      * Destroys a rigid body and all the joints to which it belongs.
      *
@@ -619,18 +945,85 @@ public class DynamicsWorld extends CollisionWorld {
     }
 
     protected void destroyRigidBodyImmediately(RigidBody rigidBody) {
-        mCollisionDetection.removeBody(rigidBody);
+        if (mBatchedBodies == null || !mBatchedBodies.remove(rigidBody)) {
+            // a sleeping body has no contact with a static one, the manifolds below don't see it
+            mCollisionDetection.wakeUpOverlappingBodies(rigidBody);
+            mCollisionDetection.removeBody(rigidBody);
+        }
         mFreeBodiesIDs.push(rigidBody.getID());
         mBodies.remove(rigidBody);
-        mRigidBodies.remove(rigidBody);
+        if (mRigidBodies.remove(rigidBody)) {
+            mStore.remove(rigidBody);
+        }
+        mDynamicBodiesArray = null;
+        rigidBody.setMotionListener(null);
         removeCollisionShape(rigidBody.getCollisionShape());
         JointListElement element;
         for (element = rigidBody.getJointsList(); element != null; element = element.getNext()) {
             destroyJoint(element.getJoint());
         }
+        // the sleeping bodies resting on this one must fall
+        ContactManifoldListElement contactElement;
+        for (contactElement = rigidBody.getContactManifoldsLists(); contactElement != null; contactElement = contactElement.getNext()) {
+            contactElement.getContactManifold().getFirstBody().setIsSleeping(false);
+            contactElement.getContactManifold().getSecondBody().setIsSleeping(false);
+        }
         rigidBody.resetContactManifoldsList();
     }
 
+    private void addToRigidBodies(RigidBody body) {
+        mRigidBodies.add(body);
+        mStore.add(body);
+        mDynamicBodiesArray = null;
+        body.setMotionListener(mMotionListener);
+    }
+
+    // Keeps the array of the bodies that can move up to date.
+    private void onMotionEnabledChanged(CollisionBody body) {
+        final RigidBody rigidBody = (RigidBody) body;
+        if (!mRigidBodies.contains(rigidBody)) {
+            return;
+        }
+        rigidBody.setIsAlreadyInIsland(false);
+        // the body already has a slot on the right side of the store
+        mDynamicBodiesArray = null;
+        if (rigidBody.isMotionEnabled()) {
+            rigidBody.setIsSleeping(false);
+        } else {
+            // the broad-phase doesn't look for the new positions of the bodies that can't move anymore
+            rigidBody.updateOldTransform();
+            if (rigidBody.getHasMoved()) {
+                rigidBody.updateAABB();
+                mCollisionDetection.updateBody(rigidBody);
+                rigidBody.setHasMoved(false);
+            }
+            if (!isBatched(rigidBody)) {
+                mCollisionDetection.wakeUpOverlappingBodies(rigidBody);
+            }
+        }
+    }
+
+    // The broad-phase only follows the bodies that can move, a static body moved by the user is updated here. The bodies around its old and new positions are woken up.
+    private void onStaticBodyMoved(CollisionBody body) {
+        final RigidBody rigidBody = (RigidBody) body;
+        if (!mRigidBodies.contains(rigidBody)) {
+            return;
+        }
+        rigidBody.updateOldTransform();
+        rigidBody.updateAABB();
+        if (!isBatched(rigidBody)) {
+            mCollisionDetection.wakeUpOverlappingBodies(rigidBody);
+            mCollisionDetection.updateBody(rigidBody);
+            mCollisionDetection.wakeUpOverlappingBodies(rigidBody);
+        }
+        rigidBody.setHasMoved(false);
+    }
+
+    // The bodies of the current batch are not in the broad-phase yet.
+    private boolean isBatched(RigidBody body) {
+        return mBatchedBodies != null && mBatchedBodies.contains(body);
+    }
+
     /**
      * Creates a joint between two bodies in the world and returns the new joint.
      *
@@ -716,19 +1109,34 @@ public class DynamicsWorld extends CollisionWorld {
         if (contactManifold == null) {
             throw new IllegalArgumentException("The contact manifold cannot be null");
         }
-        final ContactManifoldListElement listElement1 = new ContactManifoldListElement(contactManifold, body1.getContactManifoldsLists());
+        final ContactManifoldListElement listElement1 = newContactManifoldListElement(contactManifold, body1.getContactManifoldsLists());
         body1.setContactManifoldsList(listElement1);
-        final ContactManifoldListElement listElement2 = new ContactManifoldListElement(contactManifold, body2.getContactManifoldsLists());
+        final ContactManifoldListElement listElement2 = newContactManifoldListElement(contactManifold, body2.getContactManifoldsLists());
         body2.setContactManifoldsList(listElement2);
     }
 
+    // Returns a list element from the ones of the previous ticks or a new one.
+    private ContactManifoldListElement newContactManifoldListElement(ContactManifold contactManifold, ContactManifoldListElement next) {
+        if (mNbContactManifoldListElements == mContactManifoldListElements.size()) {
+            mContactManifoldListElements.add(new ContactManifoldListElement(contactManifold, next));
+        }
+        final ContactManifoldListElement element = mContactManifoldListElements.get(mNbContactManifoldListElements++);
+        element.setContactManifold(contactManifold);
+        element.setNext(next);
+        return element;
+    }
+
     /**
      * Resets all the contact manifolds linked list of each body.
      */
     public void resetContactManifoldListsOfBodies() {
-        for (RigidBody rigidBody : mRigidBodies) {
-            rigidBody.resetContactManifoldsList();
+        // only the bodies of the current contact manifolds have a list to reset
+        for (int i = 0; i < mContactManifolds.size(); i++) {
+            final ContactManifold contactManifold = mContactManifolds.get(i);
+            contactManifold.getFirstBody().resetContactManifoldsList();
+            contactManifold.getSecondBody().resetContactManifoldsList();
         }
+        mNbContactManifoldListElements = 0;
     }
 
     // Computes the islands of awake bodies.
@@ -738,27 +1146,36 @@ public class DynamicsWorld extends CollisionWorld {
     // (graph where nodes are the bodies and where the edges are the constraints between the bodies) to
     // find all the bodies that are connected with it (the bodies that share joints or contacts with
     // it). Then, we create an island with this group of connected bodies.
+    // The bodies that can't move don't start an island and don't link the islands, they are only added to the islands of the bodies touching them.
     private void computeIslands() {
-        final int nbBodies = mRigidBodies.size();
+        final int nbDynamicBodies = mStore.getNbDynamicBodies();
+        // the bodies that can move are only integrated if they are in an island
+        final float[] integrated = mStore.getColumn(RigidBodyStore.STEP_INTEGRATED);
+        Arrays.fill(integrated, 0, nbDynamicBodies, 0);
         for (int i = 0; i < mNbIslands; i++) {
-            mIslands[i] = null;
+            mIslands[i].reset();
         }
-        if (mNbIslandsCapacity != nbBodies && nbBodies > 0) {
-            mNbIslandsCapacity = nbBodies;
-            mIslands = new Island[mNbIslandsCapacity];
+        if (mNbIslandsCapacity != nbDynamicBodies && nbDynamicBodies > 0) {
+            mNbIslandsCapacity = nbDynamicBodies;
+            mIslands = mIslands == null ? new Island[mNbIslandsCapacity] : Arrays.copyOf(mIslands, mNbIslandsCapacity);
         }
         mNbIslands = 0;
-        for (RigidBody rigidBody : mRigidBodies) {
+        for (RigidBody rigidBody : getDynamicBodiesArray()) {
             rigidBody.setIsAlreadyInIsland(false);
+            // the joints without a body that can move are never added to an island
+            for (JointListElement element = rigidBody.getJointsList(); element != null; element = element.getNext()) {
+                element.getJoint().setIsAlreadyInIsland(false);
+            }
         }
-        for (ContactManifold contactManifold : mContactManifolds) {
-            contactManifold.setIsAlreadyInIsland(false);
+        for (int i = 0; i < mContactManifolds.size(); i++) {
+            mContactManifolds.get(i).setIsAlreadyInIsland(false);
         }
-        for (Joint joint : mJoints) {
-            joint.setIsAlreadyInIsland(false);
+        final int nbBodies = mRigidBodies.size();
+        if (mStackBodiesToVisit.length < nbBodies) {
+            mStackBodiesToVisit = new RigidBody[nbBodies];
         }
-        final RigidBody[] stackBodiesToVisit = new RigidBody[nbBodies];
-        for (RigidBody body : mRigidBodies) {
+        final RigidBody[] stackBodiesToVisit = mStackBodiesToVisit;
+        for (RigidBody body : getDynamicBodiesArray()) {
             if (body.isAlreadyInIsland()) {
                 continue;
             }
@@ -772,7 +1189,9 @@ public class DynamicsWorld extends CollisionWorld {
             stackBodiesToVisit[stackIndex] = body;
             stackIndex++;
             body.setIsAlreadyInIsland(true);
-            mIslands[mNbIslands] = new Island(nbBodies, mContactManifolds.size(), mJoints.size());
+            if (mIslands[mNbIslands] == null) {
+                mIslands[mNbIslands] = new Island();
+            }
             while (stackIndex > 0) {
                 stackIndex--;
                 final RigidBody bodyToVisit = stackBodiesToVisit[stackIndex];
@@ -784,6 +1203,7 @@ public class DynamicsWorld extends CollisionWorld {
                 if (!bodyToVisit.isMotionEnabled()) {
                     continue;
                 }
+                integrated[bodyToVisit.getStoreSlot()] = 1;
                 ContactManifoldListElement contactElement;
                 for (contactElement = bodyToVisit.getContactManifoldsLists(); contactElement != null; contactElement = contactElement.getNext()) {
                     final ContactManifold contactManifold = contactElement.getContactManifold();
@@ -837,6 +1257,12 @@ public class DynamicsWorld extends CollisionWorld {
         final float dt = (float) mTimer.getTimeStep();
         final float sleepLinearVelocitySquare = mSleepLinearVelocity * mSleepLinearVelocity;
         final float sleepAngularVelocitySquare = mSleepAngularVelocity * mSleepAngularVelocity;
+        final float[] linearVelocityX = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_X);
+        final float[] linearVelocityY = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_Y);
+        final float[] linearVelocityZ = mStore.getColumn(RigidBodyStore.LINEAR_VELOCITY_Z);
+        final float[] angularVelocityX = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_X);
+        final float[] angularVelocityY = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_Y);
+        final float[] angularVelocityZ = mStore.getColumn(RigidBodyStore.ANGULAR_VELOCITY_Z);
         for (int i = 0; i < mNbIslands; i++) {
             float minSleepTime = Float.MAX_VALUE;
             final RigidBody[] bodies = mIslands[i].getBodies();
@@ -844,7 +1270,10 @@ public class DynamicsWorld extends CollisionWorld {
                 if (!bodies[b].isMotionEnabled()) {
                     continue;
                 }
-                if (bodies[b].getLinearVelocity().lengthSquare() > sleepLinearVelocitySquare || bodies[b].getAngularVelocity().lengthSquare() > sleepAngularVelocitySquare
+                final int slot = bodies[b].getStoreSlot();
+                final float linearVelocitySquare = linearVelocityX[slot] * linearVelocityX[slot] + linearVelocityY[slot] * linearVelocityY[slot] + linearVelocityZ[slot] * linearVelocityZ[slot];
+                final float angularVelocitySquare = angularVelocityX[slot] * angularVelocityX[slot] + angularVelocityY[slot] * angularVelocityY[slot] + angularVelocityZ[slot] * angularVelocityZ[slot];
+                if (linearVelocitySquare > sleepLinearVelocitySquare || angularVelocitySquare > sleepAngularVelocitySquare
                         || !bodies[b].isAllowedToSleep()) {
                     bodies[b].setSleepTime(0);
                     minSleepTime = 0;
@@ -856,8 +1285,11 @@ public class DynamicsWorld extends CollisionWorld {
                 }
             }
             if (minSleepTime >= mTimeBeforeSleep) {
+                // the bodies that can't move are shared with other islands which may still be awake
                 for (int b = 0; b < mIslands[i].getNbBodies(); b++) {
-                    bodies[b].setIsSleeping(true);
+                    if (bodies[b].isMotionEnabled()) {
+                        bodies[b].setIsSleeping(true);
+                    }
                 }
             }
         }
@@ -865,43 +1297,48 @@ public class DynamicsWorld extends CollisionWorld {
 
     // Resets the external force and torque applied to the bodies
     private void resetBodiesForceAndTorque() {
-        for (RigidBody rigidBody : mRigidBodies) {
-            rigidBody.getExternalForce().setToZero();
-            rigidBody.getExternalTorque().setToZero();
+        final int nbDynamicBodies = mStore.getNbDynamicBodies();
+        for (int column = RigidBodyStore.FORCE_X; column <= RigidBodyStore.TORQUE_Z; column++) {
+            Arrays.fill(mStore.getColumn(column), 0, nbDynamicBodies, 0);
         }
     }
 
     @Override
     public void notifyAddedOverlappingPair(BroadPhasePair addedPair) {
-        final IntPair indexPair = addedPair.getBodiesIndexPair();
-        final OverlappingPair newPair = new OverlappingPair(addedPair.getFirstBody(), addedPair.getSecondBody());
-        final OverlappingPair oldPair = mOverlappingPairs.put(indexPair, newPair);
-        if (oldPair != null) {
-            throw new IllegalStateException("overlapping pair was already in the overlapping pairs map");
+        if (addedPair.getOverlappingPair() != null) {
+            throw new IllegalStateException("overlapping pair was already in the overlapping pairs");
+        }
+        addedPair.setOverlappingPair(new OverlappingPair(addedPair.getFirstBody(), addedPair.getSecondBody()));
+        // the narrow-phase skips the pairs without an awake body that can move, a sleeping body must be woken up to meet a static body added next to it
+        final CollisionBody body1 = addedPair.getFirstBody();
+        final CollisionBody body2 = addedPair.getSecondBody();
+        if ((body1.isSleeping() || !body1.isMotionEnabled()) && (body2.isSleeping() || !body2.isMotionEnabled())) {
+            if (body1.isMotionEnabled()) {
+                body1.setIsSleeping(false);
+            }
+            if (body2.isMotionEnabled()) {
+                body2.setIsSleeping(false);
+            }
         }
     }
 
     @Override
     public void updateOverlappingPair(BroadPhasePair pair) {
-        final IntPair indexPair = pair.getBodiesIndexPair();
-        final OverlappingPair overlappingPair = mOverlappingPairs.get(indexPair);
-        overlappingPair.update();
+        pair.getOverlappingPair().update();
     }
 
     @Override
     public void notifyRemovedOverlappingPair(BroadPhasePair removedPair) {
-        final IntPair indexPair = removedPair.getBodiesIndexPair();
-        mOverlappingPairs.remove(indexPair);
+        removedPair.setOverlappingPair(null);
     }
 
     @Override
     public void notifyNewContact(BroadPhasePair broadPhasePair, ContactPointInfo contactInfo) {
-        final ContactPoint contact = new ContactPoint(contactInfo);
-        final IntPair indexPair = broadPhasePair.getBodiesIndexPair();
-        final OverlappingPair overlappingPair = mOverlappingPairs.get(indexPair);
+        final OverlappingPair overlappingPair = broadPhasePair.getOverlappingPair();
         if (overlappingPair == null) {
             throw new IllegalArgumentException("broad phase pair is not in the overlapping pairs");
         }
+        final ContactPoint contact = overlappingPair.getContactManifold().createContactPoint(contactInfo);
         if (overlappingPair.getNbContactPoints() == 0) {
             if (mEventListener != null) {
                 mEventListener.beginContact(contactInfo);
@@ -915,6 +1352,29 @@ public class DynamicsWorld extends CollisionWorld {
         }
     }
 
+    // Returns the bodies that can move, the array is only created again when they changed.
+    private RigidBody[] getDynamicBodiesArray() {
+        if (mDynamicBodiesArray == null) {
+            mDynamicBodiesArray = new RigidBody[mStore.getNbDynamicBodies()];
+            for (int i = 0; i < mDynamicBodiesArray.length; i++) {
+                mDynamicBodiesArray[i] = mStore.getBody(i);
+            }
+            mDynamicBodiesList = Collections.unmodifiableList(Arrays.asList(mDynamicBodiesArray));
+        }
+        return mDynamicBodiesArray;
+    }
+
+    /**
+     * Gets the bodies of the world that can move. The other bodies are skipped by the integration and the AABB updates, they only anchor the islands of the bodies touching them.
+     *
+     * @return The unmodifiable {@link List} of the rigid bodies that can move, the same until they change
+     */
+    @Override
+    public List<RigidBody> getMovableBodies() {
+        getDynamicBodiesArray();
+        return mDynamicBodiesList;
+    }
+
     /**
      * Enables or disables the sleeping technique.
      *
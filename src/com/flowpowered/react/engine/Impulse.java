@@ -36,6 +36,13 @@ public class Impulse {
     private final Vector3 angularImpulseBody1;
     private final Vector3 angularImpulseBody2;
 
+    /**
+     * Constructs a new impulse with zero linear and angular impulses on both bodies. The vectors returned by the getters can then be modified to reuse the impulse.
+     */
+    public Impulse() {
+        this(new Vector3(), new Vector3(), new Vector3(), new Vector3());
+    }
+
     /**
      * Constructs a new impulse from the linear and angular impulses on both bodies.
      *
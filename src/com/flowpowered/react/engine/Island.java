@@ -28,31 +28,53 @@ package com.flowpowered.react.engine;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.constraint.*;
 
+import java.util.*;
+
 /**
  * An island represent an isolated group of awake bodies that are connected with each other by some constraints (contacts or joints).
  */
 public class Island {
-    private final RigidBody[] mBodies;
-    private final ContactManifold[] mContactManifolds;
-    private final Joint[] mJoints;
+    private static final int DEFAULT_CAPACITY = 8;
+    private RigidBody[] mBodies;
+    private ContactManifold[] mContactManifolds;
+    private Joint[] mJoints;
     private int mNbBodies;
     private int mNbContactManifolds;
     private int mNbJoints;
 
     /**
-     * Constructs a new island from the maximum number of bodies, the maximum number of contact manifolds and the maximum number of joints.
+     * Constructs a new empty island with a small default capacity. The arrays grow as the bodies, contact manifolds and joints are added.
+     */
+    public Island() {
+        this(DEFAULT_CAPACITY, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new island from the initial number of bodies, the initial number of contact manifolds and the initial number of joints.
      *
-     * @param nbMaxBodies           The maximum number of bodies
-     * @param nbMaxContactManifolds The maximum number of contact manifolds
-     * @param nbMaxJoints           The maximum number of joints
+     * @param nbMaxBodies           The initial number of bodies
+     * @param nbMaxContactManifolds The initial number of contact manifolds
+     * @param nbMaxJoints           The initial number of joints
      */
     public Island(int nbMaxBodies, int nbMaxContactManifolds, int nbMaxJoints) {
         mNbBodies = 0;
         mNbContactManifolds = 0;
         mNbJoints = 0;
-        mBodies = new RigidBody[nbMaxBodies];
-        mContactManifolds = new ContactManifold[nbMaxContactManifolds];
-        mJoints = new Joint[nbMaxJoints];
+        mBodies = new RigidBody[Math.max(nbMaxBodies, 1)];
+        mContactManifolds = new ContactManifold[Math.max(nbMaxContactManifolds, 1)];
+        mJoints = new Joint[Math.max(nbMaxJoints, 1)];
+    }
+
+    /**
+     * Removes all the bodies, contact manifolds and joints from the island so it can be reused for another one. The capacity of the island is kept.
+     */
+    public void reset() {
+        Arrays.fill(mBodies, 0, mNbBodies, null);
+        Arrays.fill(mContactManifolds, 0, mNbContactManifolds, null);
+        Arrays.fill(mJoints, 0, mNbJoints, null);
+        mNbBodies = 0;
+        mNbContactManifolds = 0;
+        mNbJoints = 0;
     }
 
     /**
@@ -64,6 +86,9 @@ public class Island {
         if (body.isSleeping()) {
             throw new IllegalArgumentException("Body to add is sleeping");
         }
+        if (mNbBodies == mBodies.length) {
+            mBodies = Arrays.copyOf(mBodies, mNbBodies * 2);
+        }
         mBodies[mNbBodies] = body;
         mNbBodies++;
     }
@@ -74,6 +99,9 @@ public class Island {
      * @param contactManifold The contact manifold
      */
     public void addContactManifold(ContactManifold contactManifold) {
+        if (mNbContactManifolds == mContactManifolds.length) {
+            mContactManifolds = Arrays.copyOf(mContactManifolds, mNbContactManifolds * 2);
+        }
         mContactManifolds[mNbContactManifolds] = contactManifold;
         mNbContactManifolds++;
     }
@@ -84,6 +112,9 @@ public class Island {
      * @param joint The joint
      */
     public void addJoint(Joint joint) {
+        if (mNbJoints == mJoints.length) {
+            mJoints = Arrays.copyOf(mJoints, mNbJoints * 2);
+        }
         mJoints[mNbJoints] = joint;
         mNbJoints++;
     }
@@ -116,7 +147,7 @@ public class Island {
     }
 
     /**
-     * Returns the array of bodies.
+     * Returns the array of bodies. Only the first {@link #getNbBodies()} elements are used.
      *
      * @return The array of bodies
      */
@@ -125,7 +156,7 @@ public class Island {
     }
 
     /**
-     * Returns the array of contact manifolds.
+     * Returns the array of contact manifolds. Only the first {@link #getNbContactManifolds()} elements are used.
      *
      * @return The array of contact manifold
      */
@@ -134,7 +165,7 @@ public class Island {
     }
 
     /**
-     * Returns the array of joints.
+     * Returns the array of joints. Only the first {@link #getNbJoints()} elements are used.
      *
      * @return The array of joints
      */
@@ -0,0 +1,96 @@
+package com.flowpowered.react.engine;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.constraint.BallAndSocketJoint.*;
+import com.flowpowered.react.math.*;
+
+import java.util.*;
+
+/**
+ * Steps the same scene with the serial and the parallel solvers and checks that every body ends with the same transform and velocities, bit for bit.
+ * The scene is made of piles of spheres on a static floor, some of them linked by joints, so it has a lot of islands of different sizes.
+ * Exits with 1 if a body differs. Arguments: number of piles (default 400) and number of steps (default 600).
+ * The common pool must have several workers for the parallel paths to split, on a small machine run it with
+ * -Djava.util.concurrent.ForkJoinPool.common.parallelism=8.
+ */
+public class IslandDeterminismCheck {
+    private static final long SEED = 11;
+
+    public static void main(String[] args) {
+        final int piles = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        final int steps = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        final DynamicsWorld serial = createWorld(piles, false, false);
+        final DynamicsWorld parallelIslands = createWorld(piles, true, false);
+        final DynamicsWorld parallel = createWorld(piles, true, true);
+        long serialTime = 0;
+        long parallelIslandsTime = 0;
+        long parallelTime = 0;
+        for (int i = 0; i < steps; i++) {
+            final long start = System.nanoTime();
+            serial.tick();
+            final long serialEnd = System.nanoTime();
+            parallelIslands.tick();
+            final long parallelIslandsEnd = System.nanoTime();
+            parallel.tick();
+            final long end = System.nanoTime();
+            serialTime += serialEnd - start;
+            parallelIslandsTime += parallelIslandsEnd - serialEnd;
+            parallelTime += end - parallelIslandsEnd;
+        }
+        System.out.println(serial.getNbRigidBodies() + " bodies, " + steps + " steps");
+        System.out.printf("serial %.3f ms, parallel islands %.3f ms, parallel islands and narrow-phase %.3f ms per step%n",
+                serialTime / 1e6 / steps, parallelIslandsTime / 1e6 / steps, parallelTime / 1e6 / steps);
+        final int islandsDiff = compare(serial, parallelIslands);
+        final int parallelDiff = compare(serial, parallel);
+        System.out.println("bodies differing from the serial world: parallel islands " + islandsDiff + ", parallel islands and narrow-phase " + parallelDiff);
+        if (islandsDiff != 0 || parallelDiff != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static DynamicsWorld createWorld(int piles, boolean parallelIslands, boolean parallelNarrowPhase) {
+        final DynamicsWorld world = new DynamicsWorld(new Vector3(0, -9.81f, 0), 1 / 60f);
+        world.enableParallelIslandSolving(parallelIslands);
+        world.mCollisionDetection.enableParallelNarrowPhase(parallelNarrowPhase);
+        final RigidBody floor = world.createRigidBody(new Transform(new Vector3(0, -1, 0), Quaternion.identity()), 1, new BoxShape(new Vector3(500, 1, 500)));
+        floor.enableMotion(false);
+        final Random random = new Random(SEED);
+        final int side = (int) Math.ceil(Math.sqrt(piles));
+        for (int p = 0; p < piles; p++) {
+            final float x = (p % side) * 6 - side * 3;
+            final float z = (p / side) * 6 - side * 3;
+            final int height = 1 + random.nextInt(12);
+            RigidBody previous = null;
+            for (int i = 0; i < height; i++) {
+                final Vector3 position = new Vector3(x + random.nextFloat() * 0.3f, 0.5f + i * 1.01f, z + random.nextFloat() * 0.3f);
+                final RigidBody sphere = world.createRigidBody(new Transform(position, Quaternion.identity()), 1, new SphereShape(0.5f));
+                if (previous != null && i % 3 == 0) {
+                    world.createJoint(new BallAndSocketJointInfo(previous, sphere, new Vector3(x, i * 1.01f, z)));
+                }
+                previous = sphere;
+            }
+        }
+        world.start();
+        return world;
+    }
+
+    // Returns the number of bodies which transform or velocities differ, the bodies are matched by ID.
+    private static int compare(DynamicsWorld expected, DynamicsWorld actual) {
+        final Map<Integer, RigidBody> actualBodies = new HashMap<>();
+        for (RigidBody body : actual.getRigidBodies()) {
+            actualBodies.put(body.getID(), body);
+        }
+        int diff = 0;
+        for (RigidBody body : expected.getRigidBodies()) {
+            final RigidBody other = actualBodies.get(body.getID());
+            if (other == null
+                    || !body.getTransform().equals(other.getTransform())
+                    || !body.getLinearVelocity().equals(other.getLinearVelocity())
+                    || !body.getAngularVelocity().equals(other.getAngularVelocity())) {
+                diff++;
+            }
+        }
+        return diff;
+    }
+}
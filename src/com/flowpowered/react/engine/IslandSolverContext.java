@@ -0,0 +1,142 @@
+/*
+ * This file is part of React, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2013 Flow Powered <https://flowpowered.com/>
+ * Original ReactPhysics3D C++ library by Daniel Chappuis <http://danielchappuis.ch>
+ * React is re-licensed with permission from ReactPhysics3D author.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.flowpowered.react.engine;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.constraint.*;
+import com.flowpowered.react.math.*;
+import gnu.trove.map.*;
+
+import java.util.*;
+
+/**
+ * The contact and constraint solvers used to solve islands. The solvers keep the state of the island being solved, so islands solved at the same time each need their own context. The islands don't
+ * share any moving body, so they can be solved in any order and on any thread with the same results.
+ */
+public class IslandSolverContext {
+    private final ContactSolver mContactSolver;
+    private final ConstraintSolver mConstraintSolver;
+
+    /**
+     * Constructs a new island solver context from the constrained positions and orientations lists and the map of the indices of the bodies in the constrained velocities arrays.
+     *
+     * @param positions The constrained positions
+     * @param orientations The constrained orientations
+     * @param mapBodyToConstrainedVelocityIndex The map of the bodies to their constrained velocity index
+     */
+    public IslandSolverContext(List<Vector3> positions, List<Quaternion> orientations, TObjectIntMap<RigidBody> mapBodyToConstrainedVelocityIndex) {
+        mContactSolver = new ContactSolver(mapBodyToConstrainedVelocityIndex);
+        mConstraintSolver = new ConstraintSolver(positions, orientations, mapBodyToConstrainedVelocityIndex);
+    }
+
+    /**
+     * Gets the contact solver of this context.
+     *
+     * @return The contact solver
+     */
+    public ContactSolver getContactSolver() {
+        return mContactSolver;
+    }
+
+    /**
+     * Gets the constraint solver of this context.
+     *
+     * @return The constraint solver
+     */
+    public ConstraintSolver getConstraintSolver() {
+        return mConstraintSolver;
+    }
+
+    /**
+     * Sets the solver settings to the same as another context.
+     *
+     * @param context The context to copy
+     */
+    public void copySettings(IslandSolverContext context) {
+        mContactSolver.setIsSplitImpulseActive(context.mContactSolver.isSplitImpulseActive());
+        mContactSolver.setSolveFrictionAtContactManifoldCenterActive(context.mContactSolver.isSolveFrictionAtContactManifoldCenterActive());
+    }
+
+    /**
+     * Sets the constrained and split velocities arrays of the solvers.
+     *
+     * @param linearVelocities The constrained linear velocities
+     * @param angularVelocities The constrained angular velocities
+     * @param splitLinearVelocities The split linear velocities
+     * @param splitAngularVelocities The split angular velocities
+     */
+    public void setVelocitiesArrays(Vector3[] linearVelocities, Vector3[] angularVelocities, Vector3[] splitLinearVelocities, Vector3[] splitAngularVelocities) {
+        mContactSolver.setSplitVelocitiesArrays(splitLinearVelocities, splitAngularVelocities);
+        mContactSolver.setConstrainedVelocitiesArrays(linearVelocities, angularVelocities);
+        mConstraintSolver.setConstrainedVelocitiesArrays(linearVelocities, angularVelocities);
+    }
+
+    /**
+     * Solves the velocity constraints of the contacts and joints of an island.
+     *
+     * @param island The island to solve
+     * @param dt The time step
+     * @param nbIterations The number of iterations of the velocity solver
+     */
+    public void solveVelocityConstraints(Island island, float dt, int nbIterations) {
+        final boolean isConstraintsToSolve = island.getNbJoints() > 0;
+        final boolean isContactsToSolve = island.getNbContactManifolds() > 0;
+        if (!isConstraintsToSolve && !isContactsToSolve) {
+            return;
+        }
+        if (isContactsToSolve) {
+            mContactSolver.initializeForIsland(dt, island);
+            mContactSolver.warmStart();
+        }
+        if (isConstraintsToSolve) {
+            mConstraintSolver.initializeForIsland(dt, island);
+        }
+        for (int i = 0; i < nbIterations; i++) {
+            if (isConstraintsToSolve) {
+                mConstraintSolver.solveVelocityConstraints(island);
+            }
+            if (isContactsToSolve) {
+                mContactSolver.solve();
+            }
+        }
+        if (isContactsToSolve) {
+            mContactSolver.storeImpulses();
+            mContactSolver.cleanup();
+        }
+    }
+
+    /**
+     * Solves the position constraints of the joints of an island.
+     *
+     * @param island The island to solve
+     * @param nbIterations The number of iterations of the position solver
+     */
+    public void solvePositionConstraints(Island island, int nbIterations) {
+        for (int i = 0; i < nbIterations; i++) {
+            mConstraintSolver.solvePositionConstraints(island);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.flowpowered.react.engine;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.math.*;
+
+/**
+ * Runnable check of the sleeping of the bodies resting on static bodies, exits with 1 if a check fails. Four spheres rest on their own static pedestals, apart from each other.
+ * <ul>
+ * <li>all the spheres fall asleep at rest</li>
+ * <li>a static wall added across a sleeping sphere wakes it up and pushes it away</li>
+ * <li>a pedestal moved down wakes its sphere up, which falls onto it and sleeps again</li>
+ * <li>a pedestal destroyed wakes its sphere up, which falls</li>
+ * <li>the sphere far from all of it stays asleep and doesn't move</li>
+ * </ul>
+ * Argument: maximum number of steps given to the spheres to fall asleep (default 600).
+ */
+public class SleepingCheck {
+    private static int failures;
+
+    public static void main(String[] args) {
+        final int maxSteps = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+        final DynamicsWorld world = new DynamicsWorld(new Vector3(0, -9.81f, 0), 1 / 60f);
+        world.enableSleeping(true);
+        final RigidBody[] pedestals = new RigidBody[4];
+        final RigidBody[] spheres = new RigidBody[4];
+        for (int i = 0; i < spheres.length; i++) {
+            pedestals[i] = createStatic(world, new Vector3(i * 10, -1, 0), new Vector3(2, 1, 2));
+            spheres[i] = world.createRigidBody(new Transform(new Vector3(i * 10, 0.6f, 0), Quaternion.identity()), 1, new SphereShape(0.5f));
+        }
+        world.start();
+        final RigidBody added = spheres[0];
+        final RigidBody moved = spheres[1];
+        final RigidBody removed = spheres[2];
+        final RigidBody untouched = spheres[3];
+
+        check("all the spheres fall asleep at rest", stepUntilAsleep(world, maxSteps, spheres));
+        final Vector3 untouchedPosition = new Vector3(untouched.getTransform().getPosition());
+
+        final RigidBody wall = createStatic(world, new Vector3(0.6f, 0.6f, 0), new Vector3(0.5f, 1, 1));
+        world.tick();
+        check("a static wall added across a sleeping sphere wakes it up", !added.isSleeping());
+        step(world, 30);
+        check("the woken sphere is pushed out of the wall", added.getTransform().getPosition().getX() < -0.3f);
+        check("the other spheres stay asleep when the wall is added", moved.isSleeping() && removed.isSleeping() && untouched.isSleeping());
+        check("the spheres sleep again", stepUntilAsleep(world, maxSteps, spheres));
+        world.destroyRigidBody(wall);
+
+        pedestals[1].setTransform(new Transform(new Vector3(10, -3, 0), Quaternion.identity()));
+        check("a pedestal moved down wakes its sphere up", !moved.isSleeping());
+        check("the other spheres stay asleep when the pedestal is moved", removed.isSleeping() && untouched.isSleeping());
+        check("the sphere of the moved pedestal sleeps again", stepUntilAsleep(world, maxSteps, spheres));
+        final float movedHeight = moved.getTransform().getPosition().getY();
+        check("the sphere of the moved pedestal rests on it (y = " + movedHeight + ")", Math.abs(movedHeight + 1.5f) < 0.1f);
+
+        world.destroyRigidBody(pedestals[2]);
+        check("a pedestal destroyed wakes its sphere up", !removed.isSleeping());
+        check("the other spheres stay asleep when the pedestal is destroyed", moved.isSleeping() && untouched.isSleeping());
+        step(world, 60);
+        check("the sphere of the destroyed pedestal falls", removed.getTransform().getPosition().getY() < -2);
+
+        check("the sphere far from the changes stays asleep and in place",
+                untouched.isSleeping() && untouched.getTransform().getPosition().equals(untouchedPosition));
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static RigidBody createStatic(DynamicsWorld world, Vector3 position, Vector3 halfExtents) {
+        final RigidBody body = world.createRigidBody(new Transform(position, Quaternion.identity()), 1, new BoxShape(halfExtents));
+        body.enableMotion(false);
+        return body;
+    }
+
+    private static void step(DynamicsWorld world, int steps) {
+        for (int i = 0; i < steps; i++) {
+            world.tick();
+        }
+    }
+
+    // Steps the world until all the bodies sleep, returns false if they don't within the maximum number of steps.
+    private static boolean stepUntilAsleep(DynamicsWorld world, int maxSteps, RigidBody... bodies) {
+        for (int i = 0; i < maxSteps; i++) {
+            boolean asleep = true;
+            for (RigidBody body : bodies) {
+                asleep &= body.isSleeping();
+            }
+            if (asleep) {
+                return true;
+            }
+            world.tick();
+        }
+        return false;
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
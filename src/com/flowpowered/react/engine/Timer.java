@@ -123,6 +123,13 @@ public class Timer {
         mAccumulator -= mTimeStep;
     }
 
+    /**
+     * Drops the whole steps left in the accumulator, only the fraction of a step used for the interpolation is kept. Used when the simulation can't catch up with the real time.
+     */
+    public void skipLateSteps() {
+        mAccumulator %= mTimeStep;
+    }
+
     /**
      * Compute the interpolation factor for the time step.
      *
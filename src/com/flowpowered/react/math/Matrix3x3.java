@@ -227,6 +227,20 @@ public class Matrix3x3 {
                 mRows[0].get(2), mRows[1].get(2), mRows[2].get(2));
     }
 
+    /**
+     * Transposes the matrix into the destination matrix and returns it. The destination can be this matrix.
+     *
+     * @param dest The matrix in which to store the transposed version of this one
+     * @return The destination matrix
+     */
+    public Matrix3x3 getTranspose(Matrix3x3 dest) {
+        dest.setAllValues(
+                mRows[0].get(0), mRows[1].get(0), mRows[2].get(0),
+                mRows[0].get(1), mRows[1].get(1), mRows[2].get(1),
+                mRows[0].get(2), mRows[1].get(2), mRows[2].get(2));
+        return dest;
+    }
+
     /**
      * Calculates the determinant of this matrix and returns it.
      *
@@ -244,12 +258,22 @@ public class Matrix3x3 {
      * @return The inverse of this matrix
      */
     public Matrix3x3 getInverse() {
+        return getInverse(new Matrix3x3());
+    }
+
+    /**
+     * Calculates the matrix's inverse and stores it in the destination matrix. Does not create a new matrix. The destination can be this matrix.
+     *
+     * @param dest The matrix in which to store the inverse of this one
+     * @return The destination matrix
+     */
+    public Matrix3x3 getInverse(Matrix3x3 dest) {
         final float determinant = getDeterminant();
         if (Math.abs(determinant) <= ReactDefaults.MACHINE_EPSILON) {
             throw new IllegalStateException("Determinant of matrix cannot be zero");
         }
         final float invDeterminant = 1 / determinant;
-        final Matrix3x3 tempMatrix = new Matrix3x3(
+        dest.setAllValues(
                 (mRows[1].get(1) * mRows[2].get(2) - mRows[2].get(1) * mRows[1].get(2)),
                 -(mRows[0].get(1) * mRows[2].get(2) - mRows[2].get(1) * mRows[0].get(2)),
                 (mRows[0].get(1) * mRows[1].get(2) - mRows[0].get(2) * mRows[1].get(1)),
@@ -259,7 +283,7 @@ public class Matrix3x3 {
                 (mRows[1].get(0) * mRows[2].get(1) - mRows[2].get(0) * mRows[1].get(1)),
                 -(mRows[0].get(0) * mRows[2].get(1) - mRows[2].get(0) * mRows[0].get(1)),
                 (mRows[0].get(0) * mRows[1].get(1) - mRows[0].get(1) * mRows[1].get(0)));
-        return Matrix3x3.multiply(invDeterminant, tempMatrix);
+        return dest.multiply(invDeterminant);
     }
 
     /**
@@ -446,7 +470,19 @@ public class Matrix3x3 {
      * @return The resulting matrix
      */
     public static Matrix3x3 multiply(Matrix3x3 matrix1, Matrix3x3 matrix2) {
-        return new Matrix3x3(
+        return multiply(matrix1, matrix2, new Matrix3x3());
+    }
+
+    /**
+     * Multiplies the two matrices and stores the result in the destination matrix. The destination can be one of the two matrices.
+     *
+     * @param matrix1 The first matrix
+     * @param matrix2 The second matrix
+     * @param dest The matrix in which to store the result
+     * @return The destination matrix
+     */
+    public static Matrix3x3 multiply(Matrix3x3 matrix1, Matrix3x3 matrix2, Matrix3x3 dest) {
+        dest.setAllValues(
                 matrix1.get(0, 0) * matrix2.get(0, 0) + matrix1.get(0, 1) * matrix2.get(1, 0)
                         + matrix1.get(0, 2) * matrix2.get(2, 0), matrix1.get(0, 0) * matrix2.get(0, 1)
                 + matrix1.get(0, 1) * matrix2.get(1, 1) + matrix1.get(0, 2) * matrix2.get(2, 1),
@@ -462,6 +498,7 @@ public class Matrix3x3 {
                 matrix1.get(2, 0) * matrix2.get(0, 2) + matrix1.get(2, 1) * matrix2.get(1, 2)
                         + matrix1.get(2, 2) * matrix2.get(2, 2)
         );
+        return dest;
     }
 
     /**
@@ -472,10 +509,23 @@ public class Matrix3x3 {
      * @return The resulting matrix
      */
     public static Vector3 multiply(Matrix3x3 matrix, Vector3 vector) {
-        return new Vector3(
+        return multiply(matrix, vector, new Vector3());
+    }
+
+    /**
+     * Multiplies a matrix by a vector and stores the result in the destination vector. The destination can be the multiplied vector.
+     *
+     * @param matrix The matrix
+     * @param vector The vector
+     * @param dest The vector in which to store the result
+     * @return The destination vector
+     */
+    public static Vector3 multiply(Matrix3x3 matrix, Vector3 vector, Vector3 dest) {
+        dest.setAllValues(
                 matrix.get(0, 0) * vector.getX() + matrix.get(0, 1) * vector.getY() + matrix.get(0, 2) * vector.getZ(),
                 matrix.get(1, 0) * vector.getX() + matrix.get(1, 1) * vector.getY() + matrix.get(1, 2) * vector.getZ(),
                 matrix.get(2, 0) * vector.getX() + matrix.get(2, 1) * vector.getY() + matrix.get(2, 2) * vector.getZ());
+        return dest;
     }
 
     /**
@@ -484,9 +534,22 @@ public class Matrix3x3 {
      * @return A skew-symmetric matrix for cross product
      */
     public static Matrix3x3 computeSkewSymmetricMatrixForCrossProduct(Vector3 vector) {
-        return new Matrix3x3(
+        return computeSkewSymmetricMatrixForCrossProduct(vector, new Matrix3x3());
+    }
+
+    /**
+     * Stores in the destination matrix the skew-symmetric matrix of a given vector that can be used to compute cross product with another vector using matrix multiplication. Does not create a new
+     * matrix.
+     *
+     * @param vector The vector
+     * @param dest The matrix in which to store the skew-symmetric matrix
+     * @return The destination matrix
+     */
+    public static Matrix3x3 computeSkewSymmetricMatrixForCrossProduct(Vector3 vector, Matrix3x3 dest) {
+        dest.setAllValues(
                 0, -vector.getZ(), vector.getY(),
                 vector.getZ(), 0, -vector.getX(),
                 -vector.getY(), vector.getX(), 0);
+        return dest;
     }
 }
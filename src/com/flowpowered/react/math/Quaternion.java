@@ -205,6 +205,18 @@ public class Quaternion {
         return this;
     }
 
+    /**
+     * Sets the w component as a float and the x, y and z component as a vector.
+     *
+     * @param w The w component
+     * @param v The vector for the x, y and z component
+     * @return This quaternion
+     */
+    public Quaternion set(float w, Vector3 v) {
+        setAllValues(v.getX(), v.getY(), v.getZ(), w);
+        return this;
+    }
+
     /**
      * Sets the x, y, z and w values of this quaternion to the desired ones.
      *
@@ -262,6 +274,20 @@ public class Quaternion {
         return this;
     }
 
+    /**
+     * Multiplies this quaternion by a specified value, then returns the result. Does not create a new quaternion.
+     *
+     * @param value to multiply by
+     * @return this quaternion, after multiplication is finished
+     */
+    public Quaternion multiply(float value) {
+        x *= value;
+        y *= value;
+        z *= value;
+        w *= value;
+        return this;
+    }
+
     /**
      * Returns the x, y and z values of this quaternion as a vector3.
      *
@@ -346,15 +372,26 @@ public class Quaternion {
      * @return The inverse of this quaternion
      */
     public Quaternion getInverse() {
+        return getInverse(new Quaternion());
+    }
+
+    /**
+     * Stores the inverse of this quaternion in the destination quaternion. Does not create a new quaternion. The destination can be this quaternion.
+     *
+     * @param dest The quaternion in which to store the inverse
+     * @return The destination quaternion
+     */
+    public Quaternion getInverse(Quaternion dest) {
         final float lengthSquareQuaternion = lengthSquare();
         if (lengthSquareQuaternion <= ReactDefaults.MACHINE_EPSILON) {
             throw new IllegalArgumentException("Cannot normalize the zero quaternion");
         }
-        return new Quaternion(
+        dest.setAllValues(
                 -x / lengthSquareQuaternion,
                 -y / lengthSquareQuaternion,
                 -z / lengthSquareQuaternion,
                 w / lengthSquareQuaternion);
+        return dest;
     }
 
     /**
@@ -391,6 +428,16 @@ public class Quaternion {
      * @return The rotation matrix3x3
      */
     public Matrix3x3 getMatrix() {
+        return getMatrix(new Matrix3x3());
+    }
+
+    /**
+     * Stores the 3x3 rotation matrix for this quaternion in the destination matrix. Does not create a new matrix.
+     *
+     * @param dest The matrix in which to store the rotation matrix
+     * @return The destination matrix
+     */
+    public Matrix3x3 getMatrix(Matrix3x3 dest) {
         final float nQ = x * x + y * y + z * z + w * w;
         final float s;
         if (nQ > 0.0) {
@@ -410,10 +457,49 @@ public class Quaternion {
         final float yys = y * ys;
         final float yzs = y * zs;
         final float zzs = z * zs;
-        return new Matrix3x3(
+        dest.setAllValues(
                 1 - yys - zzs, xys - wzs, xzs + wys,
                 xys + wzs, 1 - xxs - zzs, yzs - wxs,
                 xzs - wys, yzs + wxs, 1 - xxs - yys);
+        return dest;
+    }
+
+    /**
+     * Rotates the vector by the rotation matrix of this quaternion and stores the result in the destination vector. Gives the same result as multiplying the vector by {@link #getMatrix()} but does
+     * not create the matrix. The destination can be the rotated vector.
+     *
+     * @param vector The vector to rotate
+     * @param dest The vector in which to store the result
+     * @return The destination vector
+     */
+    public Vector3 rotate(Vector3 vector, Vector3 dest) {
+        final float nQ = x * x + y * y + z * z + w * w;
+        final float s;
+        if (nQ > 0.0) {
+            s = 2 / nQ;
+        } else {
+            s = 0;
+        }
+        final float xs = x * s;
+        final float ys = y * s;
+        final float zs = z * s;
+        final float wxs = w * xs;
+        final float wys = w * ys;
+        final float wzs = w * zs;
+        final float xxs = x * xs;
+        final float xys = x * ys;
+        final float xzs = x * zs;
+        final float yys = y * ys;
+        final float yzs = y * zs;
+        final float zzs = z * zs;
+        final float vx = vector.getX();
+        final float vy = vector.getY();
+        final float vz = vector.getZ();
+        dest.setAllValues(
+                (1 - yys - zzs) * vx + (xys - wzs) * vy + (xzs + wys) * vz,
+                (xys + wzs) * vx + (1 - xxs - zzs) * vy + (yzs - wxs) * vz,
+                (xzs - wys) * vx + (yzs + wxs) * vy + (1 - xxs - yys) * vz);
+        return dest;
     }
 
     @Override
@@ -511,11 +597,32 @@ public class Quaternion {
      * @return The result of the multiplication of the first and second quaternion
      */
     public static Quaternion multiply(Quaternion quaternion1, Quaternion quaternion2) {
-        return new Quaternion(
-                quaternion1.getW() * quaternion2.getW() - quaternion1.getVectorV().dot(quaternion2.getVectorV()),
-                quaternion2.getVectorV().multiply(quaternion1.getW()).add(quaternion1.getVectorV().multiply(quaternion2.getW())).
-                        add(quaternion1.getVectorV().cross(quaternion2.getVectorV()))
-        );
+        return multiply(quaternion1, quaternion2, new Quaternion());
+    }
+
+    /**
+     * Multiplies the first and second quaternion and stores the result in the destination quaternion. Does not create a new quaternion. The destination can be one of the two quaternions.
+     *
+     * @param quaternion1 The first quaternion
+     * @param quaternion2 The second quaternion
+     * @param dest The quaternion in which to store the result
+     * @return The destination quaternion
+     */
+    public static Quaternion multiply(Quaternion quaternion1, Quaternion quaternion2, Quaternion dest) {
+        final float x1 = quaternion1.getX();
+        final float y1 = quaternion1.getY();
+        final float z1 = quaternion1.getZ();
+        final float w1 = quaternion1.getW();
+        final float x2 = quaternion2.getX();
+        final float y2 = quaternion2.getY();
+        final float z2 = quaternion2.getZ();
+        final float w2 = quaternion2.getW();
+        dest.setAllValues(
+                x2 * w1 + x1 * w2 + (y1 * z2 - z1 * y2),
+                y2 * w1 + y1 * w2 + (z1 * x2 - x1 * z2),
+                z2 * w1 + z1 * w2 + (x1 * y2 - y1 * x2),
+                w1 * w2 - (x1 * x2 + y1 * y2 + z1 * z2));
+        return dest;
     }
 
     /**
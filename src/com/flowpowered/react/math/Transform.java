@@ -133,9 +133,20 @@ public class Transform {
      * @return The transform which is the inverse of this one
      */
     public Transform getInverse() {
-        final Quaternion invQuaternion = mOrientation.getInverse();
-        final Matrix3x3 invMatrix = invQuaternion.getMatrix();
-        return new Transform(Matrix3x3.multiply(invMatrix, Vector3.negate(mPosition)), invQuaternion);
+        return getInverse(new Transform());
+    }
+
+    /**
+     * Inverses the rotation and position of this transform and stores it in the destination transform. Does not create a new transform. The destination can be this transform.
+     *
+     * @param dest The transform in which to store the inverse
+     * @return The destination transform
+     */
+    public Transform getInverse(Transform dest) {
+        mOrientation.getInverse(dest.mOrientation);
+        dest.mPosition.setAllValues(-mPosition.getX(), -mPosition.getY(), -mPosition.getZ());
+        dest.mOrientation.rotate(dest.mPosition, dest.mPosition);
+        return dest;
     }
 
     @Override
@@ -180,7 +191,19 @@ public class Transform {
      * @return The result of the multiplication of the transform by a vector3 as a new vector3
      */
     public static Vector3 multiply(Transform transform, Vector3 vector) {
-        return Vector3.add(Matrix3x3.multiply(transform.getOrientation().getMatrix(), vector), transform.getPosition());
+        return multiply(transform, vector, new Vector3());
+    }
+
+    /**
+     * Multiplies the transform by a vector3 and stores the result in the destination vector3. Does not create a new vector3. The destination can be the multiplied vector.
+     *
+     * @param transform The transform
+     * @param vector The vector
+     * @param dest The vector in which to store the result
+     * @return The destination vector
+     */
+    public static Vector3 multiply(Transform transform, Vector3 vector, Vector3 dest) {
+        return transform.getOrientation().rotate(vector, dest).add(transform.getPosition());
     }
 
     /**
@@ -191,9 +214,26 @@ public class Transform {
      * @return The result of the multiplication of the two transforms as a new transform
      */
     public static Transform multiply(Transform transform1, Transform transform2) {
-        return new Transform(
-                Vector3.add(transform1.getPosition(), Matrix3x3.multiply(transform1.getOrientation().getMatrix(), transform2.getPosition())),
-                Quaternion.multiply(transform1.getOrientation(), transform2.getOrientation()));
+        return multiply(transform1, transform2, new Transform());
+    }
+
+    /**
+     * Multiplies the first transform by the second one and stores the result in the destination transform. Does not create a new transform. The destination can be one of the two transforms.
+     *
+     * @param transform1 The first transform
+     * @param transform2 The second transform
+     * @param dest The transform in which to store the result
+     * @return The destination transform
+     */
+    public static Transform multiply(Transform transform1, Transform transform2, Transform dest) {
+        final Vector3 position1 = transform1.getPosition();
+        final float x1 = position1.getX();
+        final float y1 = position1.getY();
+        final float z1 = position1.getZ();
+        final Vector3 position = transform1.getOrientation().rotate(transform2.getPosition(), dest.mPosition);
+        position.setAllValues(x1 + position.getX(), y1 + position.getY(), z1 + position.getZ());
+        Quaternion.multiply(transform1.getOrientation(), transform2.getOrientation(), dest.mOrientation);
+        return dest;
     }
 
     /**
@@ -218,12 +218,23 @@ public class Vector3 {
      * @return new unit {@link Vector3} corresponding to this vector
      */
     public Vector3 getUnit() {
+        return getUnit(new Vector3());
+    }
+
+    /**
+     * Stores the corresponding unit vector in the destination vector. Does not create a new vector. The destination can be this vector.
+     *
+     * @param dest the vector in which to store the unit vector
+     * @return the destination vector
+     */
+    public Vector3 getUnit(Vector3 dest) {
         final float lengthVector = length();
         if (lengthVector <= ReactDefaults.MACHINE_EPSILON) {
             throw new IllegalArgumentException("Cannot normalize the zero vector");
         }
         final float lengthInv = 1 / lengthVector;
-        return new Vector3(x * lengthInv, y * lengthInv, z * lengthInv);
+        dest.setAllValues(x * lengthInv, y * lengthInv, z * lengthInv);
+        return dest;
     }
 
     /**
@@ -232,17 +243,32 @@ public class Vector3 {
      * @return an orthogonal {@link Vector3} of the current vector
      */
     public Vector3 getOneUnitOrthogonalVector() {
+        return getOneUnitOrthogonalVector(new Vector3());
+    }
+
+    /**
+     * Stores an orthogonal vector of this vector in the destination vector. Does not create a new vector. The destination can be this vector.
+     *
+     * @param dest the vector in which to store the orthogonal vector
+     * @return the destination vector, an orthogonal unit vector of this vector
+     */
+    public Vector3 getOneUnitOrthogonalVector(Vector3 dest) {
         if (length() <= ReactDefaults.MACHINE_EPSILON) {
             throw new IllegalArgumentException("Cannot normalize the zero vector");
         }
-        final Vector3 vectorAbs = new Vector3(Math.abs(x), Math.abs(y), Math.abs(z));
-        final int minElement = vectorAbs.getMinAxis();
+        final float absX = Math.abs(x);
+        final float absY = Math.abs(y);
+        final float absZ = Math.abs(z);
+        final int minElement = absX < absY ? (absX < absZ ? 0 : 2) : (absY < absZ ? 1 : 2);
         if (minElement == 0) {
-            return new Vector3(0, -z, y).divide((float) Math.sqrt(y * y + z * z));
+            dest.setAllValues(0, -z, y);
+            return dest.divide((float) Math.sqrt(dest.getY() * dest.getY() + dest.getZ() * dest.getZ()));
         } else if (minElement == 1) {
-            return new Vector3(-z, 0, x).divide((float) Math.sqrt(x * x + z * z));
+            dest.setAllValues(-z, 0, x);
+            return dest.divide((float) Math.sqrt(dest.getX() * dest.getX() + dest.getZ() * dest.getZ()));
         } else {
-            return new Vector3(-y, x, 0).divide((float) Math.sqrt(x * x + y * y));
+            dest.setAllValues(-y, x, 0);
+            return dest.divide((float) Math.sqrt(dest.getX() * dest.getX() + dest.getY() * dest.getY()));
         }
     }
 
@@ -303,6 +329,21 @@ public class Vector3 {
                 x * vector.getY() - y * vector.getX());
     }
 
+    /**
+     * Crosses a vector3 with this vector and stores the result in the destination vector. Does not create a new vector. The destination can be this vector or the other one.
+     *
+     * @param vector to compute the cross product with
+     * @param dest the vector in which to store the result
+     * @return the destination vector, result of the cross product
+     */
+    public Vector3 cross(Vector3 vector, Vector3 dest) {
+        dest.setAllValues(
+                y * vector.getZ() - z * vector.getY(),
+                z * vector.getX() - x * vector.getZ(),
+                x * vector.getY() - y * vector.getX());
+        return dest;
+    }
+
     /**
      * Adds a vector3 to this vector, then returns the result. Does not create a new vector.
      *
@@ -5,6 +5,7 @@ import fr.ostix.worldCreator.entity.camera.*;
 import fr.ostix.worldCreator.terrain.*;
 import fr.ostix.worldCreator.toolBox.*;
 import fr.ostix.worldCreator.toolBox.OpenGL.*;
+import fr.ostix.worldCreator.world.*;
 import fr.ostix.worldCreator.world.chunk.*;
 import org.joml.*;
 
@@ -16,15 +17,16 @@ public class MousePicker {
     private static final float RAY_RANGE = 600;
     private final Matrix4f projectionMatrix;
     private final Camera cam;
-    private final Map<Vector2f, Chunk> terrains;
+    private final ChunkHandler chunkHandler;
+    private ChunkSnapshot terrains = ChunkSnapshot.EMPTY;
     private Vector3f currentRay;
     private Matrix4f viewMatrix;
     private Vector3f currentTerrainPoint;
     private Terrain currentTerrain;
     private Chunk currentChunk;
 
-    public MousePicker(Matrix4f projectionMatrix, Camera cam, Map<Vector2f, Chunk> terrains) {
-        this.terrains = terrains;
+    public MousePicker(Matrix4f projectionMatrix, Camera cam, ChunkHandler chunkHandler) {
+        this.chunkHandler = chunkHandler;
         this.projectionMatrix = projectionMatrix;
         this.cam = cam;
         this.viewMatrix = Maths.createViewMatrix(this.cam);
@@ -32,10 +34,11 @@ public class MousePicker {
 
 
     public void update() {
+        terrains = chunkHandler.getSnapshot();
         viewMatrix = Maths.createViewMatrix(cam);
         currentRay = calculateMouseRay();
         if (intersectionInRange(0, RAY_RANGE, currentRay)) {
-            currentTerrainPoint = binarySearch(0, 0, RAY_RANGE, currentRay);
+            currentTerrainPoint = binarySearch(0, RAY_RANGE, currentRay);
         } else {
             currentTerrainPoint = null;
         }
@@ -76,56 +79,48 @@ public class MousePicker {
 
     //**********************************************************
 
-    private Vector3f getPointOnRay(Vector3f ray, float distance) {
-        Vector3f camPos = cam.getPosition();
-        Vector3f start = new Vector3f(camPos.x, camPos.y, camPos.z);
-        Vector3f scaledRay = new Vector3f(ray.x * distance, ray.y * distance, ray.z * distance);
-        return start.add(scaledRay, new Vector3f());
+    private Vector3f getPointOnRay(Vector3f ray, float distance, Vector3f dest) {
+        return cam.getPosition().fma(distance, ray, dest);
     }
 
-    private Vector3f binarySearch(int count, float start, float finish, Vector3f ray) {
-        float half = start + ((finish - start) / 2f);
-        if (count >= RECURSION_COUNT) {
-            Vector3f endPoint = getPointOnRay(ray, half);
-            currentTerrain = getTerrain(endPoint.x(), endPoint.z());
-            if (currentTerrain != null) {
-                return endPoint;
+    private Vector3f binarySearch(float start, float finish, Vector3f ray) {
+        for (int count = 0; count < RECURSION_COUNT; count++) {
+            float half = start + ((finish - start) / 2f);
+            if (intersectionInRange(start, half, ray)) {
+                finish = half;
             } else {
-                return null;
+                start = half;
             }
         }
-        if (intersectionInRange(start, half, ray)) {
-            return binarySearch(count + 1, start, half, ray);
+        Vector3f endPoint = getPointOnRay(ray, start + ((finish - start) / 2f), new Vector3f());
+        currentTerrain = getTerrain(endPoint.x(), endPoint.z());
+        if (currentTerrain != null) {
+            return endPoint;
         } else {
-            return binarySearch(count + 1, half, finish, ray);
+            return null;
         }
     }
 
     private boolean intersectionInRange(float start, float finish, Vector3f ray) {
-        Vector3f startPoint = getPointOnRay(ray, start);
-        Vector3f endPoint = getPointOnRay(ray, finish);
-        return !isUnderGround(startPoint) && isUnderGround(endPoint);
+        return !isUnderGround(ray, start) && isUnderGround(ray, finish);
     }
 
-    private boolean isUnderGround(Vector3f testPoint) {
-        Terrain terrain = getTerrain(testPoint.x(), testPoint.z());
-        float height = 0;
-        if (terrain != null) {
-            height = terrain.getHeightOfTerrain(testPoint.x(), testPoint.z());
-        }
-        return testPoint.y < height;
+    private boolean isUnderGround(Vector3f ray, float distance) {
+        Vector3f camPos = cam.getPosition();
+        float x = camPos.x + ray.x * distance;
+        float y = camPos.y + ray.y * distance;
+        float z = camPos.z + ray.z * distance;
+        return y < TerrainHeightSampler.getHeight(terrains, x, z);
     }
 
     private Terrain getTerrain(float worldX, float worldZ) {
         int x = (int) (worldX / Terrain.getSIZE());
         int z = (int) (worldZ / Terrain.getSIZE());
-        if (terrains.isEmpty()) {
-            return null;
-        }
-        if (!terrains.containsKey(new Vector2f(x,z))) {
+        Chunk chunk = terrains.get(x, z);
+        if (chunk == null) {
             return null;
         }
-        currentChunk = terrains.get(new Vector2f(x,z));
+        currentChunk = chunk;
         return currentChunk.getTerrain();
     }
 
@@ -3,22 +3,29 @@ package fr.ostix.worldCreator.core;
 import fr.ostix.worldCreator.core.resourcesProcessor.GLRequest;
 import fr.ostix.worldCreator.frame.ErrorPopUp;
 
+import java.util.concurrent.*;
+
 public class Timer {
 
     public static final int timeOut = 2500;
 
+    /**
+     * Blocks until the GL thread executed the request, a pop up is shown if it takes longer than {@link #timeOut} ms.
+     * Must not be called on the GL thread.
+     */
     public static void waitForRequest(GLRequest request){
-        long millis = System.currentTimeMillis();
-        while(!request.isExecuted()){
-            //System.out.println(request.isExecuted());
-            if ((System.currentTimeMillis() - millis) > timeOut){
-                new ErrorPopUp("GL request failed " , request.toString());
-            }
-            try {
-                Thread.sleep(1);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+        try {
+            request.getCompletion().get(timeOut, TimeUnit.MILLISECONDS);
+            return;
+        } catch (TimeoutException e) {
+            new ErrorPopUp("GL request failed " , request.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return;
         }
+        request.getCompletion().join();
     }
 }
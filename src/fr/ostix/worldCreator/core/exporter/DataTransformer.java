@@ -1,6 +1,8 @@
 package fr.ostix.worldCreator.core.exporter;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 public class DataTransformer {
 
@@ -12,4 +14,12 @@ public class DataTransformer {
         buffer.flip();
         return buffer;
     }
+
+    public static void writeLine(WritableByteChannel fc, String data) throws IOException {
+        if (fc instanceof ExportBuffer) {
+            ((ExportBuffer) fc).writeLine(data);
+        } else {
+            fc.write(lineBuffer(data));
+        }
+    }
 }
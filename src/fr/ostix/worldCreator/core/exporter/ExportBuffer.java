@@ -0,0 +1,69 @@
+package fr.ostix.worldCreator.core.exporter;
+
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+
+/**
+ * Growable direct buffer kept between exports. The lines are encoded straight into it
+ * instead of allocating one buffer per line, see {@link DataTransformer#writeLine(WritableByteChannel, String)}.
+ */
+public class ExportBuffer implements WritableByteChannel {
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer buffer;
+
+    public ExportBuffer(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    public void writeLine(String data) {
+        ensureRemaining(data.length() * 3 + 1);
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(data), buffer, true);
+        encoder.flush(buffer);
+        buffer.put((byte) '\n');
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        int length = src.remaining();
+        ensureRemaining(length);
+        buffer.put(src);
+        return length;
+    }
+
+    public void ensureRemaining(int length) {
+        if (buffer.remaining() >= length) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < length) {
+            capacity *= 2;
+        }
+        ByteBuffer bigger = ByteBuffer.allocateDirect(capacity);
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+    }
+
+    /**
+     * The returned buffer is only valid until the next write, it may be replaced when growing.
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    public void clear() {
+        buffer.clear();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -4,7 +4,9 @@ package fr.ostix.worldCreator.core.loader;
 import de.matthiasmann.twl.utils.*;
 import fr.ostix.worldCreator.graphics.model.MeshModel;
 import fr.ostix.worldCreator.graphics.textures.*;
+import fr.ostix.worldCreator.terrain.*;
 import fr.ostix.worldCreator.toolBox.*;
+import fr.ostix.worldCreator.toolBox.OpenGL.StagingBufferPool;
 import fr.ostix.worldCreator.toolBox.OpenGL.VAO;
 import fr.ostix.worldCreator.toolBox.OpenGL.VBO;
 import org.lwjgl.opengl.GL11;
@@ -41,6 +43,51 @@ public class Loader {
         return new MeshModel(vao);
     }
 
+    public MeshModel loadTerrainToVAO(float[] position, float[] normals, TerrainTopology topology) {
+        topology.upload();
+        VAO vao = VAO.createVAO();
+        VAOs.add(vao);
+        vao.bind();
+        vao.useSharedIndices(topology.getIndexVBO(), topology.getIndices());
+        vao.storePositionInAttributeList(0, 3, position);
+        vao.useSharedAttribute(1, 2, topology.getTextureVBO());
+        vao.storeDataInAttributeList(2, 3, normals);
+        VAO.unbind();
+        return new MeshModel(vao);
+    }
+
+    /**
+     * Same as {@link #loadTerrainToVAO(float[], float[], TerrainTopology)} with the data already in staging buffers.
+     */
+    public MeshModel loadTerrainToVAO(float[] position, ByteBuffer stagedPosition, ByteBuffer stagedNormals, TerrainTopology topology) {
+        topology.upload();
+        VAO vao = VAO.createVAO();
+        VAOs.add(vao);
+        vao.bind();
+        vao.useSharedIndices(topology.getIndexVBO(), topology.getIndices());
+        vao.storePositionInAttributeList(0, 3, position, stagedPosition);
+        vao.useSharedAttribute(1, 2, topology.getTextureVBO());
+        vao.storeDataInAttributeList(2, 3, stagedNormals);
+        VAO.unbind();
+        return new MeshModel(vao);
+    }
+
+    /**
+     * Creates the VAO of a terrain with empty position and normal buffers, they are uploaded later by parts.
+     */
+    public VAO createTerrainVAO(float[] position, TerrainTopology topology) {
+        topology.upload();
+        VAO vao = VAO.createVAO();
+        VAOs.add(vao);
+        vao.bind();
+        vao.useSharedIndices(topology.getIndexVBO(), topology.getIndices());
+        vao.allocatePositionInAttributeList(0, 3, position);
+        vao.useSharedAttribute(1, 2, topology.getTextureVBO());
+        vao.allocateDataInAttributeList(2, 3, position.length);
+        VAO.unbind();
+        return vao;
+    }
+
     public MeshModel loadToVAO(int[] indices, float[] position, float[] texturesCoords, float[] normals, int[] jointIDs, float[] vertexWeights) {
         VAO vao = VAO.createVAO();
         VAOs.add(vao);
@@ -55,6 +102,27 @@ public class Loader {
         return new MeshModel(vao);
     }
 
+    /**
+     * Loads a model with its data already in staging buffers, the index and position arrays are kept by the VAO.
+     * The joints and weights are null for a model without animation.
+     */
+    public MeshModel loadToVAO(int[] indices, float[] position, ByteBuffer stagedIndices, ByteBuffer stagedPosition,
+                               ByteBuffer texturesCoords, ByteBuffer normals, ByteBuffer jointIDs, ByteBuffer vertexWeights) {
+        VAO vao = VAO.createVAO();
+        VAOs.add(vao);
+        vao.bind();
+        vao.storeIndicesInVAO(indices, stagedIndices);
+        vao.storePositionInAttributeList(0, 3, position, stagedPosition);
+        vao.storeDataInAttributeList(1, 2, texturesCoords);
+        vao.storeDataInAttributeList(2, 3, normals);
+        if (jointIDs != null) {
+            vao.storeIntDataInAttributeList(3, 3, jointIDs);
+            vao.storeDataInAttributeList(4, 3, vertexWeights);
+        }
+        VAO.unbind();
+        return new MeshModel(vao);
+    }
+
     public MeshModel loadFontToVAO(float[] pos, float[] texturesCoords) {
         VAO vao = VAO.createVAO();
         VAOs.add(vao);
@@ -118,6 +186,7 @@ public class Loader {
         for (int i = 0; i < fileNames.length; i++) {
             TextureData data = decodeTextureFile(fileNames[i]);
             glTexImage2D(GL_TEXTURE_CUBE_MAP_POSITIVE_X + i, 0, GL_RGBA, data.getWight(), data.getHeight(), 0, GL_RGBA, GL_UNSIGNED_BYTE, data.getBuffer());
+            data.release();
         }
         glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
         glTexParameteri(GL_TEXTURE_CUBE_MAP, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
@@ -136,7 +205,7 @@ public class Loader {
             PNGDecoder decoder = new PNGDecoder(fis);
             width = decoder.getWidth();
             height = decoder.getHeight();
-            buffer = ByteBuffer.allocateDirect(4 * width * height);
+            buffer = StagingBufferPool.acquire(4 * width * height);
             decoder.decode(buffer, width * 4, PNGDecoder.Format.RGBA);
             buffer.flip();
             fis.close();
@@ -160,6 +229,12 @@ public class Loader {
         return textureLoader;
     }
 
+    public TextureLoader loadTexture(TextureData data) {
+        TextureLoader textureLoader = TextureLoader.upload(data, TextureUtils.MIPMAP_ANISOTROPIC_MODE, false);
+        textureLoaders.add(textureLoader);
+        return textureLoader;
+    }
+
     public TextureLoader loadTextureFont(String textureFontName) {
         TextureLoader textureLoader = TextureLoader.loadTexture("font/" + textureFontName, 0, false);
         GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
@@ -179,6 +254,7 @@ public class Loader {
             GL11.glDeleteTextures(t.getId());
         }
         textureLoaders.clear();
+        TerrainTopology.cleanUp();
     }
 
 }
@@ -71,6 +71,7 @@ public class LoadMeshModel {
                 indices[index++] = (face.mIndices().get(ind));
             }
         }
+        Assimp.aiReleaseImport(scene);
         return new ModelData(pos, texCoords, indices, normals);
     }
 //
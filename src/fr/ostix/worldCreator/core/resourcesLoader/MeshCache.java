@@ -0,0 +1,336 @@
+package fr.ostix.worldCreator.core.resourcesLoader;
+
+import fr.ostix.worldCreator.core.exporter.*;
+import fr.ostix.worldCreator.entity.animated.colladaParser.dataStructures.*;
+import fr.ostix.worldCreator.graphics.model.*;
+import fr.ostix.worldCreator.toolBox.*;
+import org.joml.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Binary cache of the imported meshes, one file per source model in {@code REPOSITORY_FOLDER/cache/meshes}.
+ * The files are read with positioned reads, never mapped, so a cache can be replaced right after being read.
+ * A cache file is used while the length and the modification time of its source are unchanged. When they change the
+ * source is hashed again and the cache is only imported again if the content changed too.
+ *
+ * <pre>
+ * int magic, int version
+ * long source length, long source last modified, 32 bytes sha-256 of the source, int import setting
+ * float[] vertices, texcoords, normals, int[] indices, jointIds, float[] weights   (int count then values, -1 : null)
+ * int jointCount                                                                    (-1 : not animated)
+ * joints depth first : int index, int name length, utf-8 name, 16 floats bind transform, int child count
+ * </pre>
+ */
+public class MeshCache {
+
+    public static final String EXTENSION = ".mesh";
+
+    private static final int MAGIC = 0x4D534831; // "MSH1"
+    private static final int VERSION = 1;
+    private static final int HASH_SIZE = 32;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 2 + HASH_SIZE + Integer.BYTES;
+
+    private MeshCache() {
+    }
+
+    /**
+     * @param setting an import parameter changing the result, a cache made with another value is imported again
+     */
+    public static ModelData loadModel(File source, int setting, Supplier<ModelData> importer) {
+        Mesh mesh = load(source, setting, () -> new Mesh(importer.get(), null));
+        return mesh.data;
+    }
+
+    public static AnimatedModelData loadAnimatedModel(File source, int setting, Supplier<AnimatedModelData> importer) {
+        Mesh mesh = load(source, setting, () -> {
+            AnimatedModelData imported = importer.get();
+            return new Mesh(new ModelData(imported.getMeshData()), imported.getJointsData());
+        });
+        ModelData data = mesh.data;
+        return new AnimatedModelData(new MeshData(data.getVertices(), data.getTexcoords(), data.getNormals(),
+                data.getIndices(), data.getJointsId(), data.getVertexWeights()), mesh.skeleton);
+    }
+
+    private static Mesh load(File source, int setting, Supplier<Mesh> importer) {
+        File cache = cacheFile(source);
+        byte[] hash = null;
+        if (cache.exists() && source.exists()) {
+            try {
+                Header header = readHeader(cache);
+                if (header.setting == setting) {
+                    if (header.length == source.length() && header.lastModified == source.lastModified()) {
+                        return read(cache);
+                    }
+                    hash = hash(source);
+                    if (Arrays.equals(hash, header.hash)) {
+                        // only touched, the cached mesh is still the imported one
+                        Mesh mesh = read(cache);
+                        write(cache, source, hash, setting, mesh);
+                        return mesh;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                Logger.err("The mesh cache " + cache + " cannot be read, the model is imported again", e);
+            }
+        }
+        Mesh mesh = importer.get();
+        if (source.exists()) {
+            try {
+                write(cache, source, hash != null ? hash : hash(source), setting, mesh);
+            } catch (IOException e) {
+                Logger.err("The mesh cache " + cache + " cannot be written", e);
+            }
+        }
+        return mesh;
+    }
+
+    private static File cacheFile(File source) {
+        Path repository = Config.REPOSITORY_FOLDER.getAbsoluteFile().toPath();
+        Path path = source.getAbsoluteFile().toPath();
+        String name = path.startsWith(repository) ? repository.relativize(path).toString() : path.toString();
+        return new File(new File(Config.REPOSITORY_FOLDER, "cache/meshes"),
+                name.replaceAll("[\\\\/:]", "_") + EXTENSION);
+    }
+
+    private static byte[] hash(File source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel fc = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (fc.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    private static Header readHeader(File cache) throws IOException {
+        try (FileChannel fc = FileChannel.open(cache.toPath(), StandardOpenOption.READ)) {
+            if (fc.size() < HEADER_SIZE) {
+                throw new IOException("Truncated mesh cache header in " + cache);
+            }
+            return readHeader(readFully(fc, HEADER_SIZE, cache), cache);
+        }
+    }
+
+    /**
+     * Reads with positioned reads into a heap buffer instead of mapping the file, a mapped file cannot be replaced on
+     * Windows until the mapping is collected and the touched caches are rewritten right after being read.
+     */
+    private static ByteBuffer readFully(FileChannel fc, long size, File cache) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Mesh cache too big : " + cache);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        long position = 0;
+        while (buffer.hasRemaining()) {
+            int read = fc.read(buffer, position);
+            if (read == -1) {
+                throw new IOException("Truncated mesh cache " + cache);
+            }
+            position += read;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static Header readHeader(ByteBuffer buffer, File cache) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a mesh cache : " + cache);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported mesh cache version " + version + " in " + cache);
+        }
+        Header header = new Header();
+        header.length = buffer.getLong();
+        header.lastModified = buffer.getLong();
+        buffer.get(header.hash);
+        header.setting = buffer.getInt();
+        return header;
+    }
+
+    private static Mesh read(File cache) throws IOException {
+        try (FileChannel fc = FileChannel.open(cache.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = readFully(fc, fc.size(), cache);
+            readHeader(buffer, cache);
+            float[] vertices = readFloats(buffer);
+            float[] texcoords = readFloats(buffer);
+            float[] normals = readFloats(buffer);
+            int[] indices = readInts(buffer);
+            int[] jointIds = readInts(buffer);
+            float[] weights = readFloats(buffer);
+            int jointCount = buffer.getInt();
+            SkeletonData skeleton = jointCount < 0 ? null : new SkeletonData(jointCount, readJoint(buffer));
+            return new Mesh(new ModelData(vertices, texcoords, indices, normals, jointIds, weights), skeleton);
+        }
+    }
+
+    private static float[] readFloats(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0) {
+            return null;
+        }
+        float[] values = new float[count];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + count * Float.BYTES);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0) {
+            return null;
+        }
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static JointData readJoint(ByteBuffer buffer) {
+        int index = buffer.getInt();
+        byte[] name = new byte[buffer.getInt()];
+        buffer.get(name);
+        float[] transform = new float[16];
+        buffer.asFloatBuffer().get(transform);
+        buffer.position(buffer.position() + transform.length * Float.BYTES);
+        JointData joint = new JointData(index, new String(name, StandardCharsets.UTF_8), new Matrix4f().set(transform));
+        int childCount = buffer.getInt();
+        for (int i = 0; i < childCount; i++) {
+            joint.addChild(readJoint(buffer));
+        }
+        return joint;
+    }
+
+    /**
+     * Writes the cache in a temporary file renamed over the cache once complete, two loader threads importing the same
+     * model never see a half written file.
+     */
+    private static void write(File cache, File source, byte[] hash, int setting, Mesh mesh) throws IOException {
+        ModelData data = mesh.data;
+        ExportBuffer out = new ExportBuffer(HEADER_SIZE + size(data.getVertices()) + size(data.getTexcoords())
+                + size(data.getNormals()) + size(data.getIndices()) + size(data.getJointsId())
+                + size(data.getVertexWeights()) + Integer.BYTES);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(source.length()).putLong(source.lastModified())
+                .put(hash).putInt(setting).flip();
+        out.write(header);
+        writeFloats(out, data.getVertices());
+        writeFloats(out, data.getTexcoords());
+        writeFloats(out, data.getNormals());
+        writeInts(out, data.getIndices());
+        writeInts(out, data.getJointsId());
+        writeFloats(out, data.getVertexWeights());
+        if (mesh.skeleton == null) {
+            writeInt(out, -1);
+        } else {
+            writeInt(out, mesh.skeleton.jointCount);
+            writeJoint(out, mesh.skeleton.headJoint);
+        }
+
+        ByteBuffer buffer = out.getBuffer();
+        buffer.flip();
+        File folder = cache.getParentFile();
+        folder.mkdirs();
+        Path temp = Files.createTempFile(folder.toPath(), cache.getName(), ".tmp");
+        try {
+            try (FileChannel fc = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    fc.write(buffer);
+                }
+            }
+            try {
+                Files.move(temp, cache.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int size(float[] values) {
+        return Integer.BYTES + (values == null ? 0 : values.length * Float.BYTES);
+    }
+
+    private static int size(int[] values) {
+        return Integer.BYTES + (values == null ? 0 : values.length * Integer.BYTES);
+    }
+
+    private static void writeInt(ExportBuffer out, int value) {
+        out.ensureRemaining(Integer.BYTES);
+        out.getBuffer().putInt(value);
+    }
+
+    private static void writeFloats(ExportBuffer out, float[] values) {
+        if (values == null) {
+            writeInt(out, -1);
+            return;
+        }
+        writeInt(out, values.length);
+        putFloats(out, values);
+    }
+
+    private static void putFloats(ExportBuffer out, float[] values) {
+        out.ensureRemaining(values.length * Float.BYTES);
+        ByteBuffer buffer = out.getBuffer();
+        buffer.asFloatBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Float.BYTES);
+    }
+
+    private static void writeInts(ExportBuffer out, int[] values) {
+        if (values == null) {
+            writeInt(out, -1);
+            return;
+        }
+        writeInt(out, values.length);
+        out.ensureRemaining(values.length * Integer.BYTES);
+        ByteBuffer buffer = out.getBuffer();
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    private static void writeJoint(ExportBuffer out, JointData joint) {
+        byte[] name = joint.nameId.getBytes(StandardCharsets.UTF_8);
+        writeInt(out, joint.index);
+        writeInt(out, name.length);
+        out.write(ByteBuffer.wrap(name));
+        putFloats(out, joint.bindLocalTransform.get(new float[16]));
+        writeInt(out, joint.children.size());
+        for (JointData child : joint.children) {
+            writeJoint(out, child);
+        }
+    }
+
+    private static class Header {
+        private long length;
+        private long lastModified;
+        private final byte[] hash = new byte[HASH_SIZE];
+        private int setting;
+    }
+
+    private static class Mesh {
+        private final ModelData data;
+        private final SkeletonData skeleton;
+
+        private Mesh(ModelData data, SkeletonData skeleton) {
+            this.data = data;
+            this.skeleton = skeleton;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package fr.ostix.worldCreator.core.resourcesLoader;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Times of a resource pack loading, all in milliseconds.
+ * The time of an asset covers the reading of its descriptor and the decoding of its files on a worker thread,
+ * the GPU uploads are only counted in the upload time of the whole pack.
+ */
+public class ResourceLoadReport {
+    private final Map<String, Float> timeByAsset = new ConcurrentHashMap<>();
+    private final long start = System.nanoTime();
+    private long preparedTime;
+    private long uploadedTime;
+    private long endTime;
+
+    void record(String asset, long nanos) {
+        timeByAsset.put(asset, nanos / 1_000_000f);
+    }
+
+    void markPrepared() {
+        preparedTime = System.nanoTime();
+    }
+
+    void markUploaded() {
+        uploadedTime = System.nanoTime();
+    }
+
+    void markEnd() {
+        endTime = System.nanoTime();
+    }
+
+    public float getTotalTime() {
+        return (endTime - start) / 1_000_000f;
+    }
+
+    /**
+     * @return the time until every descriptor was read and every file was decoded
+     */
+    public float getPreparationTime() {
+        return (preparedTime - start) / 1_000_000f;
+    }
+
+    /**
+     * @return the time spent waiting for the GL thread once everything was prepared
+     */
+    public float getUploadTime() {
+        return (uploadedTime - preparedTime) / 1_000_000f;
+    }
+
+    public Map<String, Float> getTimeByAsset() {
+        return Collections.unmodifiableMap(timeByAsset);
+    }
+
+    public List<Map.Entry<String, Float>> getSlowestAssets(int count) {
+        List<Map.Entry<String, Float>> assets = new ArrayList<>(timeByAsset.entrySet());
+        assets.sort(Map.Entry.<String, Float>comparingByValue().reversed());
+        return assets.subList(0, Math.min(count, assets.size()));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(String.format("%d assets loaded in %.1f ms (preparation %.1f ms, uploads %.1f ms)",
+                timeByAsset.size(), getTotalTime(), getPreparationTime(), getUploadTime()));
+        for (Map.Entry<String, Float> asset : getSlowestAssets(5)) {
+            s.append(String.format("%n    %s %.1f ms", asset.getKey(), asset.getValue()));
+        }
+        return s.toString();
+    }
+}
@@ -3,6 +3,9 @@ package fr.ostix.worldCreator.core.resourcesLoader;
 
 import fr.ostix.worldCreator.core.resourcesProcessor.*;
 import fr.ostix.worldCreator.entity.animated.animation.loaders.*;
+import fr.ostix.worldCreator.toolBox.*;
+
+import java.io.*;
 
 public class ResourceLoader {
 
@@ -12,7 +15,8 @@ public class ResourceLoader {
             new IllegalArgumentException("texture for the model " + path + "is not available ");
         }
         assert texture != null;
-        return new ModelLoaderRequest(LoadMeshModel.loadModel(path), texture);
+        File source = new File(Config.REPOSITORY_FOLDER + "/models/entities/" + path + ".obj");
+        return new ModelLoaderRequest(MeshCache.loadModel(source, 0, () -> LoadMeshModel.loadModel(path)), texture);
     }
 
     public static ModelLoaderRequest loadTexturedAnimatedModel(String path, String texture) {
@@ -20,6 +24,8 @@ public class ResourceLoader {
             new IllegalArgumentException("texture for the model " + path + "is not available ");
         }
         assert texture != null;
-        return new ModelLoaderRequest(AnimatedModelLoader.loadMeshData(path,  3 ),texture);
+        File source = new File(Config.REPOSITORY_FOLDER + "/models/entities/" + path + ".dae");
+        return new ModelLoaderRequest(MeshCache.loadAnimatedModel(source, 3,
+                () -> AnimatedModelLoader.loadMeshData(path, 3)), texture);
     }
 }
@@ -2,7 +2,6 @@ package fr.ostix.worldCreator.core.resourcesLoader;
 
 
 import fr.ostix.worldCreator.audio.*;
-import fr.ostix.worldCreator.core.Timer;
 import fr.ostix.worldCreator.core.loader.json.*;
 import fr.ostix.worldCreator.core.resourcesProcessor.*;
 import fr.ostix.worldCreator.core.ressources.*;
@@ -15,172 +14,274 @@ import fr.ostix.worldCreator.toolBox.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 
 public class ResourcePackLoader {
 
+    private static final ExecutorService executor = createExecutor();
+
     private final String DATA = "data";
     private final HashMap<String, Texture> textureByName = new HashMap<>();
     private final HashMap<String, SoundSource> soundByName = new HashMap<>();
-    private static final HashMap<String, Model> modelByName = new HashMap<>();
-    private final HashMap<TextureLoaderRequest, String> textureRequestByName = new HashMap<>();
-    private final HashMap<SoundRequest, String> soundRequestByName = new HashMap<>();
-    private final HashMap<ModelLoaderRequest, String> modelRequestByName = new HashMap<>();
+    // read by the render and GL threads, replaced at once by the loader thread finishing a loading
+    private static volatile Map<String, Model> modelByName = Collections.emptyMap();
     private final HashMap<String, AnimatedModel> animatedModelByName = new HashMap<>();
     private final HashMap<AnimatedModel, HashMap<String, Animation>> animationByName = new HashMap<>();
-    private static final HashMap<Integer, String> componentsByID = new HashMap<>();
+    private static volatile Map<Integer, String> componentsByID = Collections.emptyMap();
 
-    private static boolean isLoaded = false;
+    private static volatile boolean isLoaded = false;
+    private ResourceLoadReport report;
 
     public ResourcePackLoader() {
     }
 
-    public void loadAllResource() throws Exception {
-
-        loadAllTextures();
-
-        loadAllSounds();
-
-        loadAllModels();
-
-
-        loadAllComponents();
-
-        forceRequest();
-
-        loadAllAnimations();
-        isLoaded = true;
+    /**
+     * The loader has its own threads, the common pool is shared with the rest of the application and a long import
+     * would delay its tasks.
+     */
+    private static ExecutorService createExecutor() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() - 1), r -> {
+            Thread t = new Thread(r, "ResourceLoader-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
     }
 
-    private void forceRequest() throws InterruptedException {
-        GLRequestProcessor.forceRequest();
-        Thread.sleep(100);
-        while (GLRequestProcessor.isRunning()) {
-            Thread.sleep(1);
-        }
-        for (TextureLoaderRequest texture : textureRequestByName.keySet()) {
-            textureByName.put(textureRequestByName.get(texture), texture.getTex());
+    /**
+     * Loads the resource pack and blocks until it is loaded. On the GL thread the requests of the pack are executed
+     * while waiting, anywhere else they are executed at the end of the next frames.
+     */
+    public void loadAllResource() throws Exception {
+        CompletableFuture<ResourceLoadReport> loading = loadAllResourceAsync();
+        if (GLRequestProcessor.isGLThread()) {
+            GLRequestProcessor.executeUntil(loading);
         }
-        for (ModelLoaderRequest model : modelRequestByName.keySet()) {
-            if (model.isAnimated()) {
-                animatedModelByName.put(modelRequestByName.get(model), AnimatedModelLoader.
-                        loadEntity(model.getModel(), textureByName.
-                                get(model.getTexture()), model.getAnimData().getJointsData()));
+        try {
+            loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
             }
-            modelByName.put(modelRequestByName.get(model), new Model(model.getModel(), textureByName.
-                    get(model.getTexture())));
-        }
-        for (SoundRequest sound : soundRequestByName.keySet()) {
-            soundByName.put(soundRequestByName.get(sound), sound.getSound());
+            throw e;
         }
     }
 
-    private void loadAllComponents() throws Exception {
+    /**
+     * Reads the descriptors, decodes the textures and imports the meshes and animations on the loader threads, only
+     * the uploads are sent to the GL thread. A model is built once its mesh and the textures are uploaded and an
+     * animation is attached once the models are built. Never blocks, the future fails with the first failed asset.
+     */
+    public CompletableFuture<ResourceLoadReport> loadAllResourceAsync() {
+        report = new ResourceLoadReport();
+
+        List<CompletableFuture<?>> prepared = new ArrayList<>();
+        List<CompletableFuture<Map.Entry<String, Texture>>> textures = loadAllTextures(prepared);
+        List<CompletableFuture<Map.Entry<String, SoundSource>>> sounds = loadAllSounds(prepared);
+        CompletableFuture<Map<String, Texture>> texturesUploaded = collect(textures);
+        List<CompletableFuture<LoadedModel>> models = loadAllModels(prepared, texturesUploaded);
+        List<CompletableFuture<Map.Entry<Integer, String>>> components = loadAllComponents(prepared);
+        List<CompletableFuture<AnimationResources>> animations = loadAllAnimations(prepared);
+
+        allOf(prepared).thenRun(() -> {
+            report.markPrepared();
+            GLRequestProcessor.forceRequest();
+        });
+        CompletableFuture<Void> uploaded = allOf(sounds).thenCombine(allOf(models), (s, m) -> {
+            report.markUploaded();
+            return null;
+        });
+        return CompletableFuture.allOf(uploaded, allOf(components), allOf(animations)).thenApplyAsync(v -> {
+            textureByName.putAll(texturesUploaded.join());
+            for (CompletableFuture<Map.Entry<String, SoundSource>> sound : sounds) {
+                soundByName.put(sound.join().getKey(), sound.join().getValue());
+            }
+            Map<String, Model> loadedModels = new HashMap<>(modelByName);
+            for (CompletableFuture<LoadedModel> model : models) {
+                LoadedModel m = model.join();
+                loadedModels.put(m.name, m.model);
+                if (m.animatedModel != null) {
+                    animatedModelByName.put(m.name, m.animatedModel);
+                }
+            }
+            Map<Integer, String> loadedComponents = new HashMap<>(componentsByID);
+            for (CompletableFuture<Map.Entry<Integer, String>> component : components) {
+                loadedComponents.put(component.join().getKey(), component.join().getValue());
+            }
+            modelByName = Collections.unmodifiableMap(loadedModels);
+            componentsByID = Collections.unmodifiableMap(loadedComponents);
+            for (CompletableFuture<AnimationResources> animation : animations) {
+                optimizeAnimation(animation.join());
+            }
+            report.markEnd();
+            Logger.log(report.toString());
+            isLoaded = true;
+            return report;
+        }, executor);
+    }
+
+    private List<CompletableFuture<Map.Entry<Integer, String>>> loadAllComponents(List<CompletableFuture<?>> prepared) {
         final File components = new File(Config.REPOSITORY_FOLDER, "/component/");
+        List<CompletableFuture<Map.Entry<Integer, String>>> futures = new ArrayList<>();
         for (File currentFile : Objects.requireNonNull(components.listFiles())) {
-            String name = currentFile.getName();
+            futures.add(prepare(prepared, "component/" + currentFile.getName(), () -> {
+                String name = currentFile.getName();
 
-            String fileContent = JsonUtils.loadJson(currentFile.getAbsolutePath());
-            if (fileContent.isEmpty()) {
-                throw new Exception("a json component is empty... " + currentFile.getAbsolutePath());
-            }
-            componentsByID.put(Integer.parseInt(name.replaceAll(".component", "")), fileContent);
+                String fileContent = JsonUtils.loadJson(currentFile.getAbsolutePath());
+                if (fileContent.isEmpty()) {
+                    throw new Exception("a json component is empty... " + currentFile.getAbsolutePath());
+                }
+                return new AbstractMap.SimpleEntry<>(Integer.parseInt(name.replaceAll(".component", "")), fileContent);
+            }));
         }
+        return futures;
     }
 
-    private void loadAllTextures() throws Exception {
+    private List<CompletableFuture<Map.Entry<String, Texture>>> loadAllTextures(List<CompletableFuture<?>> prepared) {
         File textureFolder = new File(Config.REPOSITORY_FOLDER + "/textures/", DATA);
+        List<CompletableFuture<Map.Entry<String, Texture>>> futures = new ArrayList<>();
         for (File currentFile : Objects.requireNonNull(textureFolder.listFiles())) {
-
-            String json = JsonUtils.loadJson(currentFile.getAbsolutePath());
-            if (json.isEmpty()) {
-                throw new Exception("a json a texture is empty... " + currentFile.getAbsolutePath());
-            }
-            TextureResources current = JsonUtils.gsonInstance().fromJson(json, TextureResources.class);
-            if (current == null) {
-                throw new NullPointerException("The file cannot " + currentFile.getName() + " be read");
-            }
-            String name = current.getName();
-            TextureProperties prop = current.getTextureProperties();
-            if (prop.getNormalMapName() != null) {
-                TextureLoaderRequest tr = new TextureLoaderRequest("entities/normal/" + prop.getNormalMapName());
-                GLRequestProcessor.sendRequest(tr);
-                Timer.waitForRequest(tr);
-                prop.setNormalMapID(tr.getTexture().getId());
-            }
-            if (prop.getSpecularMapName() != null) {
-                TextureLoaderRequest tr = new TextureLoaderRequest("entities/specularMap/" + prop.getSpecularMapName());
-                GLRequestProcessor.sendRequest(tr);
-                Timer.waitForRequest(tr);
-                prop.setSpecularMapID(tr.getTexture().getId());
-            }
-            TextureLoaderRequest tex = new TextureLoaderRequest(current.getPath(), prop);
-            GLRequestProcessor.sendRequest(tex);
-            textureRequestByName.put(tex, name);
+            futures.add(prepare(prepared, "textures/" + currentFile.getName(), () -> {
+                TextureResources current = readDescriptor(currentFile, TextureResources.class, "texture");
+                TextureProperties prop = current.getTextureProperties();
+                TextureData normalMap = null;
+                TextureData specularMap = null;
+                if (prop.getNormalMapName() != null) {
+                    normalMap = TextureLoader.decode("entities/normal/" + prop.getNormalMapName());
+                }
+                if (prop.getSpecularMapName() != null) {
+                    specularMap = TextureLoader.decode("entities/specularMap/" + prop.getSpecularMapName());
+                }
+                TextureData data = TextureLoader.decode(current.getPath());
+                if (data == null) {
+                    if (normalMap != null) {
+                        normalMap.release();
+                    }
+                    if (specularMap != null) {
+                        specularMap.release();
+                    }
+                    throw new IOException("The texture " + current.getPath() + " of " + currentFile.getName() + " cannot be read");
+                }
+                TextureLoaderRequest tex = new TextureLoaderRequest(data, normalMap, specularMap, prop);
+                GLRequestProcessor.sendRequest(tex);
+                return new AbstractMap.SimpleEntry<>(current.getName(), tex);
+            }).thenCompose(tex -> tex.getValue().getCompletion()
+                    .thenApply(r -> new AbstractMap.SimpleEntry<>(tex.getKey(), tex.getValue().getTex()))));
         }
+        return futures;
     }
 
-    private void loadAllSounds() throws Exception {
+    private List<CompletableFuture<Map.Entry<String, SoundSource>>> loadAllSounds(List<CompletableFuture<?>> prepared) {
         File soundFolder = new File(Config.REPOSITORY_FOLDER + "/sounds/", DATA);
+        List<CompletableFuture<Map.Entry<String, SoundSource>>> futures = new ArrayList<>();
         if (soundFolder.exists()) {
             for (File currentFile : Objects.requireNonNull(soundFolder.listFiles())) {
-                String json = JsonUtils.loadJson(currentFile.getAbsolutePath());
-                if (json.isEmpty()) {
-                    throw new Exception("a json a sound is empty... " + currentFile.getAbsolutePath());
-                }
-                SoundResources current = JsonUtils.gsonInstance().fromJson(json, SoundResources.class);
-                if (current == null) {
-                    throw new NullPointerException("The file cannot " + currentFile.getName() + " be read");
-                }
-                String name = current.getName();
-                SoundRequest sr = new SoundRequest(current.getPath(), current.isAmbient());
-                GLRequestProcessor.sendRequest(sr);
-                soundRequestByName.put(sr, name);
+                futures.add(prepare(prepared, "sounds/" + currentFile.getName(), () -> {
+                    SoundResources current = readDescriptor(currentFile, SoundResources.class, "sound");
+                    SoundRequest sr = new SoundRequest(current.getPath(), current.isAmbient());
+                    GLRequestProcessor.sendRequest(sr);
+                    return new AbstractMap.SimpleEntry<>(current.getName(), sr);
+                }).thenCompose(sr -> sr.getValue().getCompletion()
+                        .thenApply(r -> new AbstractMap.SimpleEntry<>(sr.getKey(), sr.getValue().getSound()))));
             }
         }
+        return futures;
     }
 
-    private void loadAllModels() throws Exception {
+    private List<CompletableFuture<LoadedModel>> loadAllModels(List<CompletableFuture<?>> prepared,
+                                                              CompletableFuture<Map<String, Texture>> textures) {
         File modelFolder = new File(Config.REPOSITORY_FOLDER + "/models/", DATA);
-
+        List<CompletableFuture<LoadedModel>> futures = new ArrayList<>();
         for (File currentFile : Objects.requireNonNull(modelFolder.listFiles())) {
-            String json = JsonUtils.loadJson(currentFile.getAbsolutePath());
-            if (json.isEmpty()) {
-                throw new Exception("a json a model is empty... " + currentFile.getAbsolutePath());
-            }
-            ModelResources current = JsonUtils.gsonInstance().fromJson(json, ModelResources.class);
-            if (current == null) {
-                throw new NullPointerException("The file cannot " + currentFile.getName() + " be read");
-            }
-            String name = current.getName();
-            if (current.canAnimated()) {
-                ModelLoaderRequest model = ResourceLoader.loadTexturedAnimatedModel(current.getPath(), current.getTexture());
-                GLRequestProcessor.sendRequest(model);
-                modelRequestByName.put(model, name);
-            } else {
-                ModelLoaderRequest model = ResourceLoader.loadTexturedModel(current.getPath(), current.getTexture());
+            futures.add(prepare(prepared, "models/" + currentFile.getName(), () -> {
+                ModelResources current = readDescriptor(currentFile, ModelResources.class, "model");
+                ModelLoaderRequest model;
+                if (current.canAnimated()) {
+                    model = ResourceLoader.loadTexturedAnimatedModel(current.getPath(), current.getTexture());
+                } else {
+                    model = ResourceLoader.loadTexturedModel(current.getPath(), current.getTexture());
+                }
                 GLRequestProcessor.sendRequest(model);
-                modelRequestByName.put(model, name);
-            }
+                return new AbstractMap.SimpleEntry<>(current.getName(), model);
+            }).thenCompose(model -> model.getValue().getCompletion().thenApply(r -> model))
+                    .thenCombineAsync(textures, (model, textureByName) ->
+                            buildModel(model.getKey(), model.getValue(), textureByName), executor));
         }
+        return futures;
     }
 
-    private void loadAllAnimations() throws Exception {
+    private static LoadedModel buildModel(String name, ModelLoaderRequest model, Map<String, Texture> textureByName) {
+        Texture texture = textureByName.get(model.getTexture());
+        if (texture == null) {
+            Logger.warn("The texture " + model.getTexture() + " of the model " + name + " is not loaded");
+        }
+        AnimatedModel animatedModel = null;
+        if (model.isAnimated()) {
+            animatedModel = AnimatedModelLoader.loadEntity(model.getModel(), texture, model.getAnimData().getJointsData());
+        }
+        return new LoadedModel(name, new Model(model.getModel(), texture), animatedModel);
+    }
+
+    private List<CompletableFuture<AnimationResources>> loadAllAnimations(List<CompletableFuture<?>> prepared) {
         File animationFolder = new File(Config.REPOSITORY_FOLDER + "/animations/", DATA);
+        List<CompletableFuture<AnimationResources>> futures = new ArrayList<>();
         if (animationFolder.exists()) {
             for (File currentFile : Objects.requireNonNull(animationFolder.listFiles())) {
-                String json = JsonUtils.loadJson(currentFile.getAbsolutePath());
-                if (json.isEmpty()) {
-                    throw new Exception("a json a animation is empty... " + currentFile.getAbsolutePath());
-                }
-                AnimationResources current = JsonUtils.gsonInstance().fromJson(json, AnimationResources.class);
-                if (current == null) {
-                    throw new NullPointerException("The file cannot " + currentFile.getName() + " be read");
-                }
-                current.loadAnimation();
-                optimizeAnimation(current);
+                futures.add(prepare(prepared, "animations/" + currentFile.getName(), () -> {
+                    AnimationResources current = readDescriptor(currentFile, AnimationResources.class, "animation");
+                    current.loadAnimation();
+                    return current;
+                }));
+            }
+        }
+        return futures;
+    }
+
+    private <T> CompletableFuture<T> prepare(List<CompletableFuture<?>> prepared, String asset, Callable<T> task) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                report.record(asset, System.nanoTime() - start);
             }
+        }, executor);
+        prepared.add(future);
+        return future;
+    }
+
+    private static <T> T readDescriptor(File file, Class<T> type, String kind) throws Exception {
+        String json = JsonUtils.loadJson(file.getAbsolutePath());
+        if (json.isEmpty()) {
+            throw new Exception("a json a " + kind + " is empty... " + file.getAbsolutePath());
+        }
+        T current = JsonUtils.gsonInstance().fromJson(json, type);
+        if (current == null) {
+            throw new NullPointerException("The file cannot " + file.getName() + " be read");
         }
+        return current;
+    }
+
+    private static CompletableFuture<Void> allOf(List<? extends CompletableFuture<?>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Completed once all the entries are, the stage runs on the loader threads as the last entry may be completed by
+     * the GL thread.
+     */
+    private static <K, V> CompletableFuture<Map<K, V>> collect(List<CompletableFuture<Map.Entry<K, V>>> entries) {
+        return allOf(entries).thenApplyAsync(v -> {
+            Map<K, V> map = new HashMap<>();
+            for (CompletableFuture<Map.Entry<K, V>> entry : entries) {
+                map.put(entry.join().getKey(), entry.join().getValue());
+            }
+            return map;
+        }, executor);
     }
 
     private void optimizeAnimation(AnimationResources current) {
@@ -209,7 +310,10 @@ public class ResourcePackLoader {
         return soundByName;
     }
 
-    public static HashMap<String, Model> getModelByName() {
+    /**
+     * @return the models of the last loading, the map is never modified and replaced by the next loading
+     */
+    public static Map<String, Model> getModelByName() {
         return modelByName;
     }
 
@@ -221,7 +325,29 @@ public class ResourcePackLoader {
         return animationByName;
     }
 
-    public static HashMap<Integer, String> getComponentsByID() {
+    /**
+     * @return the times of the last loading, null before the first one
+     */
+    public ResourceLoadReport getReport() {
+        return report;
+    }
+
+    /**
+     * @return the components of the last loading, the map is never modified and replaced by the next loading
+     */
+    public static Map<Integer, String> getComponentsByID() {
         return componentsByID;
     }
+
+    private static class LoadedModel {
+        private final String name;
+        private final Model model;
+        private final AnimatedModel animatedModel;
+
+        private LoadedModel(String name, Model model, AnimatedModel animatedModel) {
+            this.name = name;
+            this.model = model;
+            this.animatedModel = animatedModel;
+        }
+    }
 }
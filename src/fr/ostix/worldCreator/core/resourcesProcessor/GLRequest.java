@@ -1,12 +1,99 @@
 package fr.ostix.worldCreator.core.resourcesProcessor;
 
+import java.util.concurrent.*;
+
 public abstract class GLRequest {
-    protected boolean isExecuted = false;
-    protected synchronized void execute(){
+    protected volatile boolean isExecuted = false;
+    private final CompletableFuture<GLRequest> completion = new CompletableFuture<>();
+    private Priority priority = Priority.NORMAL;
+    long sendTime;
+
+    protected void execute(){
         isExecuted = true;
     }
 
-    public synchronized boolean isExecuted() {
+    /**
+     * Uploads at most about {@code maxBytes} and tells if the request is complete, a request not complete is called
+     * again during the next frames. Only the requests returning true from {@link #isSplittable()} override it.
+     */
+    protected boolean executePart(long maxBytes) {
+        execute();
+        return true;
+    }
+
+    /**
+     * Frees the native memory held by a request which will never be executed to the end, called on the GL thread for
+     * a request whose future was cancelled and by {@link GLRequestProcessor#cleanUp()}.
+     */
+    protected void discard() {
+    }
+
+    /**
+     * @return true if {@link #executePart(long)} can upload the request over several frames
+     */
+    protected boolean isSplittable() {
+        return false;
+    }
+
+    /**
+     * @return the bytes still to be sent to the GPU by this request, 0 if unknown
+     */
+    protected long getByteSize() {
+        return 0;
+    }
+
+    /**
+     * Executes the request or a part of it on the GL thread then completes its future once the request is complete,
+     * a failed request completes it exceptionally.
+     */
+    final boolean process(long maxBytes) {
+        boolean complete;
+        try {
+            complete = executePart(maxBytes);
+        } catch (RuntimeException e) {
+            completion.completeExceptionally(e);
+            throw e;
+        }
+        if (complete) {
+            completion.complete(this);
+        }
+        return complete;
+    }
+
+    public boolean isExecuted() {
         return isExecuted;
     }
+
+    /**
+     * Completed on the GL thread once the request is executed. The stages chained without an executor run on the GL
+     * thread too, they must stay short or use the async variants.
+     */
+    public CompletableFuture<GLRequest> getCompletion() {
+        return completion;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Must be set before the request is sent.
+     */
+    public GLRequest setPriority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * The requests of a higher priority are executed first, in the order they were sent inside the same priority.
+     */
+    public enum Priority {
+        /** Waited for by the user, like the edition of a terrain */
+        URGENT,
+        /** Visible soon, like the terrain of a chunk streamed around the camera */
+        HIGH,
+        NORMAL,
+        /** Not needed before a while, like a preloaded resource */
+        LOW
+    }
 }
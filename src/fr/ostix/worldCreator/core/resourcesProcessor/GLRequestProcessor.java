@@ -1,37 +1,227 @@
 package fr.ostix.worldCreator.core.resourcesProcessor;
 
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Executes the GL requests at the end of each frame within a time budget.
+ * The budget is what is left of {@link #TARGET_FRAME_TIME} after the average time of the rest of the frame, and the
+ * cost of a request is estimated from its byte size with the upload speed measured on the previous requests.
+ * A request which doesn't fit is kept for the next frame, or partially uploaded if it can be split.
+ */
 public class GLRequestProcessor {
-    private static final int MAX_REQUEST_TIME = 12;
-    private static GLRequestQueue requestQueue = new GLRequestQueue();
-    private static boolean isRunning = false;
-    private static boolean forceRequest = false;
+    private static final float TARGET_FRAME_TIME = 16;
+    private static final float MIN_REQUEST_TIME = 1;
+    private static final float MAX_REQUEST_TIME = 12;
+    // weight of the last measure in the rolling averages
+    private static final float SMOOTHING = 0.25f;
+    // a request with less bytes is mostly the cost of its calls, it is used to measure this overhead
+    private static final long MIN_MEASURED_BYTES = 64 * 1024;
+    private static final long MIN_PART_BYTES = 64 * 1024;
+
+    private static final GLRequestQueue requestQueue = new GLRequestQueue();
+    private static volatile GLRequest pending;
+    private static volatile Thread glThread;
+    private static volatile boolean isRunning = false;
+    private static volatile boolean forceRequest = false;
+
+    private static float nanosPerByte = 0.5f;
+    private static float requestOverhead = 50_000;
+    private static float averageFrameTime = (TARGET_FRAME_TIME - MAX_REQUEST_TIME) * 1_000_000;
+    private static long lastFrameStart;
 
-    public synchronized static void sendRequest(GLRequest... request) {
+    private static volatile long lastDrainTime;
+    private static volatile int lastDrainCount;
+    private static volatile long lastWaitTime;
+    private static volatile long executedCount;
+    private static volatile long budget = (long) (MAX_REQUEST_TIME * 1_000_000);
+
+    public static void sendRequest(GLRequest... request) {
+        long now = System.nanoTime();
+        for (GLRequest r : request) {
+            r.sendTime = now;
+        }
         requestQueue.addAllRequest(request);
     }
 
-    public synchronized static void executeRequest() {
-        float remainingTime = MAX_REQUEST_TIME * 1_000_000;
-        long start = System.nanoTime();
+    /**
+     * Executes the waiting requests within the budget of this frame, must only be called by the GL thread.
+     * At least one request or part of request is executed by frame.
+     */
+    public static void executeRequest() {
+        glThread = Thread.currentThread();
+        long drainStart = System.nanoTime();
+        if (lastFrameStart != 0) {
+            // the rest of the frame, without the requests executed at its end
+            float frameTime = drainStart - lastFrameStart - lastDrainTime;
+            averageFrameTime += (frameTime - averageFrameTime) * SMOOTHING;
+        }
+        lastFrameStart = drainStart;
+        budget = (long) Math.min(Math.max(TARGET_FRAME_TIME * 1_000_000 - averageFrameTime, MIN_REQUEST_TIME * 1_000_000),
+                MAX_REQUEST_TIME * 1_000_000);
+
+        long start = drainStart;
+        int count = 0;
+        int completed = 0;
         isRunning = true;
-        while (requestQueue.hasRequests()) {
-            requestQueue.acceptNextRequest().execute();
+        GLRequest request;
+        while ((request = nextRequest()) != null) {
+            boolean force = forceRequest;
+            long bytes = request.getByteSize();
+            long maxBytes = Long.MAX_VALUE;
+            if (!force && count > 0) {
+                float left = budget - (start - drainStart);
+                if (estimate(bytes) > left) {
+                    maxBytes = (long) ((left - requestOverhead) / nanosPerByte);
+                    if (!request.isSplittable() || maxBytes < MIN_PART_BYTES) {
+                        pending = request;
+                        break;
+                    }
+                }
+            } else if (!force && request.isSplittable()) {
+                maxBytes = Math.max((long) ((budget - requestOverhead) / nanosPerByte), MIN_PART_BYTES);
+            }
+            if (request.sendTime != 0) {
+                lastWaitTime = start - request.sendTime;
+                request.sendTime = 0;
+            }
+            boolean complete = request.process(maxBytes);
             long end = System.nanoTime();
-            long timeTaken = end - start;
-            remainingTime -= (float) timeTaken;
+            measure(end - start, bytes - (complete ? 0 : request.getByteSize()));
             start = end;
-            if (!forceRequest && remainingTime < 0.0F) {
+            count++;
+            if (complete) {
+                completed++;
+            } else {
+                pending = request;
+                if (!force) {
+                    break;
+                }
+            }
+            if (!force && end - drainStart > budget) {
                 break;
             }
         }
+        if (pending == null && !requestQueue.hasRequests()) {
+            forceRequest = false;
+        }
         isRunning = false;
+        lastDrainTime = System.nanoTime() - drainStart;
+        lastDrainCount = count;
+        executedCount += completed;
     }
 
-    public synchronized static void forceRequest() {
+    /**
+     * Executes the requests regardless of the budget until the future is done, for the GL thread when it must wait for
+     * requests it cannot execute at the end of its frame. The frame measures are left untouched.
+     */
+    public static void executeUntil(Future<?> future) {
+        while (!future.isDone()) {
+            GLRequest request = nextRequest();
+            if (request == null) {
+                // the requests are still prepared by other threads
+                LockSupport.parkNanos(100_000);
+                continue;
+            }
+            request.sendTime = 0;
+            if (request.process(Long.MAX_VALUE)) {
+                executedCount++;
+            } else {
+                pending = request;
+            }
+        }
+    }
+
+    /**
+     * Discards the waiting requests and cancels their futures, for the GL thread when it closes.
+     */
+    public static void cleanUp() {
+        GLRequest request;
+        while ((request = nextRequest()) != null) {
+            request.discard();
+            request.getCompletion().cancel(false);
+        }
+    }
+
+    // the request partially uploaded or the next one of the queue, the cancelled requests are discarded on the way
+    private static GLRequest nextRequest() {
+        GLRequest request = pending != null ? pending : requestQueue.acceptNextRequest();
+        pending = null;
+        while (request != null && request.getCompletion().isCancelled()) {
+            request.discard();
+            request = requestQueue.acceptNextRequest();
+        }
+        return request;
+    }
+
+    private static float estimate(long bytes) {
+        return requestOverhead + bytes * nanosPerByte;
+    }
+
+    private static void measure(long time, long bytes) {
+        if (bytes >= MIN_MEASURED_BYTES) {
+            float speed = Math.max(time - requestOverhead, 0) / bytes;
+            nanosPerByte += (speed - nanosPerByte) * SMOOTHING;
+        } else {
+            requestOverhead += (time - requestOverhead) * SMOOTHING;
+        }
+    }
+
+    /**
+     * Executes all the waiting requests at the next frames regardless of the budget, until the queue is empty.
+     */
+    public static void forceRequest() {
         forceRequest = true;
     }
 
-    public synchronized static boolean isRunning() {
+    /**
+     * @return true if called by the thread executing the requests, a request waited for by this thread is never executed
+     * unless {@link #executeUntil(Future)} is used
+     */
+    public static boolean isGLThread() {
+        return Thread.currentThread() == glThread;
+    }
+
+    public static boolean isRunning() {
         return isRunning;
     }
+
+    /**
+     * @return the time spent executing requests during the last frame in milliseconds
+     */
+    public static float getLastDrainTime() {
+        return lastDrainTime / 1_000_000f;
+    }
+
+    /**
+     * @return the number of requests or parts of request executed during the last frame
+     */
+    public static int getLastDrainCount() {
+        return lastDrainCount;
+    }
+
+    /**
+     * @return the time the last executed request waited in the queue in milliseconds
+     */
+    public static float getLastWaitTime() {
+        return lastWaitTime / 1_000_000f;
+    }
+
+    /**
+     * @return the time given to the requests during the last frame in milliseconds
+     */
+    public static float getBudget() {
+        return budget / 1_000_000f;
+    }
+
+    /**
+     * @return the number of requests waiting for the GL thread, a request partially uploaded included
+     */
+    public static int getBacklog() {
+        return requestQueue.size() + (pending != null ? 1 : 0);
+    }
+
+    public static long getExecutedCount() {
+        return executedCount;
+    }
 }
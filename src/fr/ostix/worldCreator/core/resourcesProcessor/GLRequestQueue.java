@@ -1,28 +1,56 @@
 package fr.ostix.worldCreator.core.resourcesProcessor;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
+/**
+ * Lock free queues, one per {@link GLRequest.Priority}, filled by any thread and drained by the GL thread only.
+ */
 public class GLRequestQueue {
 
-    private List<GLRequest> requestQueue = new ArrayList<>();
-
-    public synchronized void addRequest(GLRequest request) {
-        this.requestQueue.add(request);
+    private final ConcurrentLinkedQueue<GLRequest>[] requestQueues;
+    // the size of the linked queues walks the whole queue
+    private final AtomicInteger size = new AtomicInteger();
+
+    public GLRequestQueue() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ConcurrentLinkedQueue<GLRequest>[] queues = new ConcurrentLinkedQueue[GLRequest.Priority.values().length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+        requestQueues = queues;
     }
 
-    public synchronized void addAllRequest(GLRequest... request) {
-        this.requestQueue.addAll(Arrays.asList(request));
+    public void addRequest(GLRequest request) {
+        this.requestQueues[request.getPriority().ordinal()].add(request);
+        size.incrementAndGet();
     }
 
+    public void addAllRequest(GLRequest... request) {
+        for (GLRequest r : request) {
+            addRequest(r);
+        }
+    }
 
+    /**
+     * @return the oldest request of the highest priority or null if the queue is empty
+     */
+    public GLRequest acceptNextRequest() {
+        for (ConcurrentLinkedQueue<GLRequest> queue : requestQueues) {
+            GLRequest request = queue.poll();
+            if (request != null) {
+                size.decrementAndGet();
+                return request;
+            }
+        }
+        return null;
+    }
 
-    public synchronized GLRequest acceptNextRequest() {
-        return this.requestQueue.remove(0);
+    public boolean hasRequests() {
+        return size.get() > 0;
     }
 
-    public synchronized boolean hasRequests() {
-        return !this.requestQueue.isEmpty();
+    public int size() {
+        return size.get();
     }
 }
@@ -7,6 +7,9 @@ import fr.ostix.worldCreator.entity.animated.colladaParser.dataStructures.*;
 import fr.ostix.worldCreator.graphics.model.MeshModel;
 import fr.ostix.worldCreator.graphics.model.Model;
 import fr.ostix.worldCreator.graphics.model.ModelData;
+import fr.ostix.worldCreator.toolBox.OpenGL.*;
+
+import java.nio.ByteBuffer;
 
 public class ModelLoaderRequest extends GLRequest {
 
@@ -15,6 +18,13 @@ public class ModelLoaderRequest extends GLRequest {
     private boolean isAnimated;
     private MeshModel model;
     private String texture;
+    // filled on the GL thread just before the upload
+    private ByteBuffer stagedIndices;
+    private ByteBuffer stagedVertices;
+    private ByteBuffer stagedTexcoords;
+    private ByteBuffer stagedNormals;
+    private ByteBuffer stagedJointsId;
+    private ByteBuffer stagedVertexWeights;
 
 
     public ModelLoaderRequest(AnimatedModelData data,String texture) {
@@ -34,6 +44,17 @@ public class ModelLoaderRequest extends GLRequest {
         this.texture = texture;
     }
 
+    private void stage() {
+        stagedIndices = StagingBufferPool.stage(data.getIndices());
+        stagedVertices = StagingBufferPool.stage(data.getVertices());
+        stagedTexcoords = StagingBufferPool.stage(data.getTexcoords());
+        stagedNormals = StagingBufferPool.stage(data.getNormals());
+        if (isAnimated) {
+            stagedJointsId = StagingBufferPool.stage(data.getJointsId());
+            stagedVertexWeights = StagingBufferPool.stage(data.getVertexWeights());
+        }
+    }
+
     public AnimatedModelData getAnimData() {
         return animData;
     }
@@ -44,17 +65,40 @@ public class ModelLoaderRequest extends GLRequest {
 
     @Override
     public void execute() {
-        if (isAnimated){
-          model = Loader.INSTANCE.loadToVAO(data.getIndices(), data.getVertices(),
-       data.getTexcoords(), data.getNormals(), data.getJointsId(), data.getVertexWeights());
-        }else{
-            model = Loader.INSTANCE.loadToVAO(data.getVertices(),
-                    data.getTexcoords(), data.getNormals(), data.getIndices());
-        }
+        stage();
+        model = Loader.INSTANCE.loadToVAO(data.getIndices(), data.getVertices(), stagedIndices, stagedVertices,
+                stagedTexcoords, stagedNormals, stagedJointsId, stagedVertexWeights);
+        StagingBufferPool.release(stagedIndices);
+        StagingBufferPool.release(stagedVertices);
+        StagingBufferPool.release(stagedTexcoords);
+        StagingBufferPool.release(stagedNormals);
+        StagingBufferPool.release(stagedJointsId);
+        StagingBufferPool.release(stagedVertexWeights);
+        stagedIndices = null;
+        stagedVertices = null;
+        stagedTexcoords = null;
+        stagedNormals = null;
+        stagedJointsId = null;
+        stagedVertexWeights = null;
 
         super.execute();
     }
 
+    @Override
+    protected long getByteSize() {
+        long count = data.getVertices().length + data.getIndices().length;
+        if (data.getTexcoords() != null) {
+            count += data.getTexcoords().length;
+        }
+        if (data.getNormals() != null) {
+            count += data.getNormals().length;
+        }
+        if (isAnimated) {
+            count += data.getJointsId().length + data.getVertexWeights().length;
+        }
+        return count * Float.BYTES;
+    }
+
     public ModelData getData() {
         return data;
     }
@@ -0,0 +1,134 @@
+package fr.ostix.worldCreator.core.resourcesProcessor;
+
+import fr.ostix.worldCreator.core.loader.*;
+import fr.ostix.worldCreator.graphics.model.MeshModel;
+import fr.ostix.worldCreator.terrain.*;
+import fr.ostix.worldCreator.toolBox.OpenGL.*;
+
+import java.nio.ByteBuffer;
+
+public class TerrainLoaderRequest extends GLRequest {
+
+    private final float[] positions;
+    private final float[] normals;
+    private final TerrainTopology topology;
+    private MeshModel model;
+    // the VAO being uploaded by parts, then the floats of the positions followed by the normals already sent
+    private VAO vao;
+    private int uploaded;
+    // filled on the GL thread when the upload starts, given back to the pool once uploaded or discarded
+    private ByteBuffer stagedPositions;
+    private ByteBuffer stagedNormals;
+
+    public TerrainLoaderRequest(float[] positions, float[] normals, TerrainTopology topology) {
+        this.positions = positions;
+        this.normals = normals;
+        this.topology = topology;
+        setPriority(Priority.HIGH);
+    }
+
+    @Override
+    public void execute() {
+        stage();
+        model = Loader.INSTANCE.loadTerrainToVAO(positions, stagedPositions, stagedNormals, topology);
+        releaseStaged();
+        super.execute();
+    }
+
+    @Override
+    protected boolean executePart(long maxBytes) {
+        if (vao == null) {
+            if (maxBytes >= getByteSize()) {
+                execute();
+                return true;
+            }
+            vao = Loader.INSTANCE.createTerrainVAO(positions, topology);
+            stage();
+        }
+        int count = (int) Math.min(Math.max(maxBytes / Float.BYTES, 1), positions.length + normals.length - uploaded);
+        while (count > 0) {
+            boolean isPosition = uploaded < positions.length;
+            ByteBuffer staged = isPosition ? stagedPositions : stagedNormals;
+            int offset = isPosition ? uploaded : uploaded - positions.length;
+            int length = Math.min(count, (isPosition ? positions : normals).length - offset);
+            staged.limit((offset + length) * Float.BYTES).position(offset * Float.BYTES);
+            vao.getAttributeVBO(isPosition ? 0 : 2).updateSubData(offset, staged);
+            uploaded += length;
+            count -= length;
+        }
+        if (uploaded < positions.length + normals.length) {
+            return false;
+        }
+        releaseStaged();
+        model = new MeshModel(vao);
+        super.execute();
+        return true;
+    }
+
+    private void stage() {
+        stagedPositions = StagingBufferPool.stage(positions);
+        stagedNormals = StagingBufferPool.stage(normals);
+    }
+
+    private void releaseStaged() {
+        StagingBufferPool.release(stagedPositions);
+        StagingBufferPool.release(stagedNormals);
+        stagedPositions = null;
+        stagedNormals = null;
+    }
+
+    @Override
+    protected void discard() {
+        releaseStaged();
+    }
+
+    @Override
+    protected boolean isSplittable() {
+        return true;
+    }
+
+    @Override
+    protected long getByteSize() {
+        return (long) (positions.length + normals.length - uploaded) * Float.BYTES;
+    }
+
+    /**
+     * Sends again the parts already uploaded, the vertices changed while the terrain was uploaded by parts.
+     */
+    void restartUpload() {
+        uploaded = 0;
+        if (stagedPositions != null) {
+            restage(stagedPositions, positions);
+            restage(stagedNormals, normals);
+        }
+    }
+
+    private static void restage(ByteBuffer staged, float[] data) {
+        staged.limit(data.length * Float.BYTES).position(0);
+        staged.asFloatBuffer().put(data);
+    }
+
+    public float[] getPositions() {
+        return positions;
+    }
+
+    public float[] getNormals() {
+        return normals;
+    }
+
+    public TerrainTopology getTopology() {
+        return topology;
+    }
+
+    public MeshModel getModel() {
+        return model;
+    }
+
+    @Override
+    public String toString() {
+        return "TerrainLoaderRequest{" +
+                "isExecuted=" + isExecuted +
+                ", vertexCount=" + topology.getVertexCount() +
+                '}';
+    }
+}
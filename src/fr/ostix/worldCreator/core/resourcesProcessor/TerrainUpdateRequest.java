@@ -0,0 +1,101 @@
+package fr.ostix.worldCreator.core.resourcesProcessor;
+
+import fr.ostix.worldCreator.graphics.model.MeshModel;
+import fr.ostix.worldCreator.toolBox.OpenGL.*;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Uploads only some vertex ranges of a terrain already sent by a {@link TerrainLoaderRequest}.
+ */
+public class TerrainUpdateRequest extends GLRequest {
+
+    private final TerrainLoaderRequest terrain;
+    private final int[] ranges;
+    // index in ranges of the next range to upload
+    private int next;
+
+    /**
+     * @param ranges pairs of (first vertex, vertex count)
+     */
+    public TerrainUpdateRequest(TerrainLoaderRequest terrain, int[] ranges) {
+        this.terrain = terrain;
+        this.ranges = ranges;
+        setPriority(Priority.URGENT);
+    }
+
+    @Override
+    public void execute() {
+        executePart(Long.MAX_VALUE);
+    }
+
+    /**
+     * Uploads whole ranges until {@code maxBytes} is reached, at least one range is uploaded.
+     */
+    @Override
+    protected boolean executePart(long maxBytes) {
+        MeshModel model = terrain.getModel();
+        if (model == null) {
+            // the terrain is not uploaded yet, it sends the changed vertices itself
+            terrain.restartUpload();
+            next = ranges.length;
+        }
+        long sent = 0;
+        if (next < ranges.length) {
+            VAO vao = model.getVAO();
+            int maxCount = 0;
+            for (int i = next + 1; i < ranges.length; i += 2) {
+                maxCount = Math.max(maxCount, ranges[i]);
+            }
+            ByteBuffer staging = StagingBufferPool.acquire(maxCount * 3 * Float.BYTES);
+            FloatBuffer buffer = staging.asFloatBuffer();
+            do {
+                upload(vao.getAttributeVBO(0), terrain.getPositions(), buffer, next);
+                upload(vao.getAttributeVBO(2), terrain.getNormals(), buffer, next);
+                sent += rangeBytes(next);
+                next += 2;
+            } while (next < ranges.length && sent + rangeBytes(next) <= maxBytes);
+            StagingBufferPool.release(staging);
+        }
+        if (next < ranges.length) {
+            return false;
+        }
+        super.execute();
+        return true;
+    }
+
+    private void upload(VBO vbo, float[] data, FloatBuffer buffer, int range) {
+        buffer.clear();
+        buffer.put(data, ranges[range] * 3, ranges[range + 1] * 3);
+        buffer.flip();
+        vbo.updateSubData((long) ranges[range] * 3, buffer);
+    }
+
+    private long rangeBytes(int range) {
+        // positions and normals
+        return (long) ranges[range + 1] * 3 * 2 * Float.BYTES;
+    }
+
+    @Override
+    protected boolean isSplittable() {
+        return true;
+    }
+
+    @Override
+    protected long getByteSize() {
+        long bytes = 0;
+        for (int i = next; i < ranges.length; i += 2) {
+            bytes += rangeBytes(i);
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "TerrainUpdateRequest{" +
+                "isExecuted=" + isExecuted +
+                ", ranges=" + ranges.length / 2 +
+                '}';
+    }
+}
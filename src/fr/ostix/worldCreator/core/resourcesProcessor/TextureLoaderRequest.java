@@ -11,6 +11,9 @@ public class TextureLoaderRequest extends GLRequest {
     private TextureProperties prop;
     private InputStream file;
     private String Sfile;
+    private TextureData data;
+    private TextureData normalMap;
+    private TextureData specularMap;
     private TextureLoader texture;
     private Texture tex;
     private boolean isForEntity;
@@ -32,6 +35,24 @@ public class TextureLoaderRequest extends GLRequest {
         this.isForEntity = false;
     }
 
+    /**
+     * Uploads an already decoded texture, the normal and specular maps may be null.
+     * The decoded buffers are given back to the staging pool once uploaded.
+     * Their ids are set in the properties before the texture is created.
+     */
+    public TextureLoaderRequest(TextureData data, TextureData normalMap, TextureData specularMap, TextureProperties prop) {
+        this.data = data;
+        this.normalMap = normalMap;
+        this.specularMap = specularMap;
+        this.prop = prop;
+        isForEntity = true;
+    }
+
+    public TextureLoaderRequest(TextureData data) {
+        this.data = data;
+        isForEntity = false;
+    }
+
     public TextureLoaderRequest(InputStream file) {
         this.file = file;
         isForEntity = false;
@@ -43,7 +64,18 @@ public class TextureLoaderRequest extends GLRequest {
 
     @Override
     public void execute() {
-        if (file != null) {
+        if (normalMap != null) {
+            prop.setNormalMapID(Loader.INSTANCE.loadTexture(normalMap).getId());
+            normalMap.release();
+        }
+        if (specularMap != null) {
+            prop.setSpecularMapID(Loader.INSTANCE.loadTexture(specularMap).getId());
+            specularMap.release();
+        }
+        if (data != null) {
+            texture = Loader.INSTANCE.loadTexture(data);
+            data.release();
+        } else if (file != null) {
             texture = Loader.INSTANCE.loadTexture(file);
             if (texture == null){
                 System.err.println(this);
@@ -55,9 +87,39 @@ public class TextureLoaderRequest extends GLRequest {
             tex = new Texture(texture, prop);
 
         }
+        // the pixels are back in the staging pool, the request stays referenced until the end of the loading
+        data = null;
+        normalMap = null;
+        specularMap = null;
         super.execute();
     }
 
+    @Override
+    protected void discard() {
+        // decoded by the loader threads in staging buffers
+        if (data != null) {
+            data.release();
+        }
+        if (normalMap != null) {
+            normalMap.release();
+        }
+        if (specularMap != null) {
+            specularMap.release();
+        }
+        data = null;
+        normalMap = null;
+        specularMap = null;
+    }
+
+    @Override
+    protected long getByteSize() {
+        return size(data) + size(normalMap) + size(specularMap);
+    }
+
+    private static long size(TextureData data) {
+        return data == null ? 0 : data.getBuffer().remaining();
+    }
+
     @Override
     public String toString() {
         return "TextureLoaderRequest{" +
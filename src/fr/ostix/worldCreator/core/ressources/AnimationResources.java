@@ -17,8 +17,8 @@ public class AnimationResources {
     }
 
     public void loadAnimation() {
-        LoadAnimation.loadAnimatedModel(Config.REPOSITORY_FOLDER+"/animations/" +modelName + "/" + animationName+".dae");
-        this.animation = LoadAnimation.getAnimation();
+        // LoadAnimation keeps the last animation in a static field shared by the loader threads, use the returned one
+        this.animation = LoadAnimation.loadAnimatedModel(Config.REPOSITORY_FOLDER+"/animations/" +modelName + "/" + animationName+".dae");
     }
 
     public Animation getAnimation() {
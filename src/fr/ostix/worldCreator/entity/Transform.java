@@ -29,10 +29,10 @@ public class Transform {
         float scale = Float.parseFloat(value[index]);
         return new Transform(pos, rot, scale);
     }
-    public void export(FileChannel fc) throws IOException {
-        fc.write(DataTransformer.lineBuffer(
+    public void export(WritableByteChannel fc) throws IOException {
+        DataTransformer.writeLine(fc,
                 position.x() + ";" + position.y() + ";" + position.z() + ";" +
-                        rotation.x() + ";" + rotation.y() + ";" + rotation.z() + ";" + scale.y()));
+                        rotation.x() + ";" + rotation.y() + ";" + rotation.z() + ";" + scale.y());
     }
 
 
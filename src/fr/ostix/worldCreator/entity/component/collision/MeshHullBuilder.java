@@ -0,0 +1,47 @@
+package fr.ostix.worldCreator.entity.component.collision;
+
+import com.flowpowered.react.collision.shape.*;
+import fr.ostix.worldCreator.graphics.model.*;
+import fr.ostix.worldCreator.toolBox.*;
+
+import java.util.*;
+
+/**
+ * Turns the meshes of the entities into convex hull collision shapes.
+ * The hull of a mesh is computed once and each call returns a copy of it, which can be scaled for its entity.
+ */
+public class MeshHullBuilder {
+
+    // keyed by the positions array of the mesh, so the hull is dropped with the mesh
+    private static final Map<float[], ConvexMeshShape> hulls = new WeakHashMap<>();
+
+    public static ConvexMeshShape build(MeshModel model) {
+        return build(model.getVAO().getPosition());
+    }
+
+    public static ConvexMeshShape build(CollisionModel model) {
+        return build(model.getVertices());
+    }
+
+    /**
+     * @param positions the x, y and z of each vertex of the mesh
+     * @return a copy of the convex hull of the positions, or null if they don't have a volume
+     */
+    public static synchronized ConvexMeshShape build(float[] positions) {
+        if (positions == null) {
+            Logger.warn("The mesh has no positions to build a convex hull from");
+            return null;
+        }
+        ConvexMeshShape hull = hulls.get(positions);
+        if (hull == null) {
+            try {
+                hull = ConvexHullBuilder.build(positions);
+            } catch (IllegalArgumentException e) {
+                Logger.err("Couldn't build the convex hull of a mesh", e);
+                return null;
+            }
+            hulls.put(positions, hull);
+        }
+        return (ConvexMeshShape) hull.clone();
+    }
+}
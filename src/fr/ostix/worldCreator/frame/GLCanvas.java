@@ -76,6 +76,7 @@ public class GLCanvas extends AWTGLCanvas implements KeyListener,MouseWheelListe
         AudioManager.cleanUp();
         render.cleanUp();
         MasterParticle.cleanUp();
+        GLRequestProcessor.cleanUp();
         super.disposeCanvas();
     }
 
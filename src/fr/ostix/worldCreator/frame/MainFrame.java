@@ -40,7 +40,8 @@ public class MainFrame {
     public static final Font MEDIUM_FONT = new Font("Segoe UI", Font.BOLD, 20);
     private final Workspace workspace;
     private final World world;
-    private static final List<Entity> entities = new ArrayList<>();
+    // filled by the loader threads and read by the Swing thread
+    private static final List<Entity> entities = new CopyOnWriteArrayList<>();
 
     private TerrainSettingPanel terrainSettingPanel;
     private MainSettingsPanel mainSettings;
@@ -170,6 +171,7 @@ public class MainFrame {
     }
 
     public static void loadEntities(ResourcePackLoader rpl) throws Exception {
+        List<Entity> loaded = new ArrayList<>();
         File entitiesFiles = new File(Config.REPOSITORY_FOLDER + "/entities/data/");
         for (File currentFile : Objects.requireNonNull(entitiesFiles.listFiles())) {
             try (FileInputStream fos = new FileInputStream(currentFile); FileChannel fc = fos.getChannel()) {
@@ -197,9 +199,10 @@ public class MainFrame {
                 if (e.getModel() == null) {
                     Logger.err("The model of  " + e + " is null");
                 }
-                entities.add(e);
+                loaded.add(e);
             }
         }
+        entities.addAll(loaded);
     }
 
     public void notifyNewChunk(int x, int z, int xCoords, int zCoords) {
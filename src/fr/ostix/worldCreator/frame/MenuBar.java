@@ -95,7 +95,7 @@ public class MenuBar extends JMenuBar {
         save.addActionListener(new ActionListener() {
 
             public void actionPerformed(ActionEvent e) {
-                frame.getWorld().getChunkManager().save();
+                frame.getWorld().getChunkManager().saveAsync();
                 MenuBar.this.workspace.save();
             }
         });
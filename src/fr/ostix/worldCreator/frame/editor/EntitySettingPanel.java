@@ -169,6 +169,7 @@ public class EntitySettingPanel extends JPanel {
             default:
                 new IllegalArgumentException(variable + " is not define").printStackTrace();
         }
+        frame.getWorld().getChunkManager().markDirty(entity);
     }
 
     private void addValue(float value, String variable) {
@@ -185,6 +186,7 @@ public class EntitySettingPanel extends JPanel {
             default:
                 new IllegalArgumentException(variable + " is not define").printStackTrace();
         }
+        frame.getWorld().getChunkManager().markDirty(entity);
     }
 
     private String limitChars(String original, int limit) {
@@ -76,6 +76,7 @@ public class TerrainSettingPanel extends JPanel {
                     if(tex!= null) {
                         blendMap.setTextureID(tex.getId());
                         blendMap.setName(tex.getFile().getName());
+                        ter.markEdited();
                     }
                 }
             }
@@ -94,6 +95,7 @@ public class TerrainSettingPanel extends JPanel {
                     if(tex!= null) {
                         blackTexture.setTextureID(tex.getId());
                         blackTexture.setName(tex.getFile().getName());
+                        ter.markEdited();
                     }
                 }
             }
@@ -112,6 +114,7 @@ public class TerrainSettingPanel extends JPanel {
                     if(tex!= null) {
                         r.setTextureID(tex.getId());
                         r.setName(tex.getFile().getName());
+                        ter.markEdited();
                     }
                 }
             }
@@ -130,6 +133,7 @@ public class TerrainSettingPanel extends JPanel {
                     if(tex!= null) {
                         g.setTextureID(tex.getId());
                         g.setName(tex.getFile().getName());
+                        ter.markEdited();
                     }
                 }
             }
@@ -148,6 +152,7 @@ public class TerrainSettingPanel extends JPanel {
                     if(tex!= null) {
                         b.setTextureID(tex.getId());
                         b.setName(tex.getFile().getName());
+                        ter.markEdited();
                     }
                 }
             }
@@ -41,7 +41,7 @@ public class MasterRenderer {
     private WaterFrameBuffers waterFbos;
     private WaterRenderer waterRenderer;
 
-    private Map<Vector2f, Chunk> terrains;
+    private volatile ChunkSnapshot terrains = ChunkSnapshot.EMPTY;
     private List<Light> lights;
     private List<WaterTile> waterTiles;
     private static Matrix4f projectionMatrix;
@@ -93,9 +93,12 @@ public class MasterRenderer {
         }
     }
 
-    public void initToRender(List<WaterTile> waterTiles, Map<Vector2f, Chunk> terrains, List<Light> lights) {
-
+    public void setChunks(ChunkSnapshot terrains) {
         this.terrains = terrains;
+    }
+
+    public void initToRender(List<WaterTile> waterTiles, List<Light> lights) {
+
         this.lights = lights;
         this.waterTiles = waterTiles;
     }
@@ -29,34 +29,37 @@ public class TerrainRenderer {
         shader.unBind();
     }
 
-    public void render(Map<Vector2f, Chunk> terrains, List<Light> lights, Camera cam, Color skyColor, Vector4f clipPlane) {
+    public void render(ChunkSnapshot terrains, List<Light> lights, Camera cam, Color skyColor, Vector4f clipPlane) {
         prepare(lights, skyColor, cam, clipPlane);
         OpenGlUtils.goWireframe(false);
         // shader.loadShaderMapSpace(toShadowSpace);
        // terrains = Collections.synchronizedMap(new HashMap<>(terrains));
 
-        for (Chunk chunk : terrains.values()) {
-            Terrain ter = chunk.getTerrain();
-            if (ter.getModel() == null) {
-                ter.setModel();
-                continue;
-            }
-            if (clipPlane.equals(MasterRenderer.NO_CLIP)) {
-                shader.canLoadFilter(ter.isPicking());
-                ter.setPicking(false);
-            }
-            prepareTerrain(ter);
-            loadModelMatrix(ter);
-            glDrawElements(GL_TRIANGLES, ter.getModel().getVertexCount(), GL_UNSIGNED_INT, 0);
-            unbindTexturedModel();
-
-        }
+        Vector3f camPos = cam.getPosition();
+        terrains.forEach(chunk -> renderTerrain(chunk.getTerrain(), clipPlane, camPos));
 
 
         shader.canLoadFilter(false);
     }
 
 
+    private void renderTerrain(Terrain ter, Vector4f clipPlane, Vector3f camPos) {
+        if (ter.getModel() == null) {
+            ter.setModel();
+            return;
+        }
+        if (clipPlane.equals(MasterRenderer.NO_CLIP)) {
+            shader.canLoadFilter(ter.isPicking());
+            ter.setPicking(false);
+        }
+        prepareTerrain(ter);
+        loadModelMatrix(ter);
+        TerrainTopology topology = TerrainTopology.get(ter.getVertexCount());
+        int lod = TerrainLod.selectLod(TerrainLod.distance(ter, camPos.x, camPos.z), topology.getMaxLod());
+        glDrawElements(GL_TRIANGLES, topology.getLodIndexCount(lod), GL_UNSIGNED_INT, topology.getLodOffset(lod));
+        unbindTexturedModel();
+    }
+
     private void prepare(List<Light> lights, Color skyColor, Camera cam, Vector4f clipPlane) {
         shader.bind();
         shader.loadClipPlane(clipPlane);
@@ -1,5 +1,7 @@
 package fr.ostix.worldCreator.graphics.textures;
 
+import fr.ostix.worldCreator.toolBox.OpenGL.*;
+
 import java.nio.ByteBuffer;
 
 public class TextureData {
@@ -24,4 +26,11 @@ public class TextureData {
     public ByteBuffer getBuffer() {
         return buffer;
     }
+
+    /**
+     * Gives the pixels back to the {@link StagingBufferPool}, only for the textures decoded in a staging buffer.
+     */
+    public void release() {
+        StagingBufferPool.release(buffer);
+    }
 }
@@ -1,7 +1,7 @@
 package fr.ostix.worldCreator.graphics.textures;
 
 import fr.ostix.worldCreator.toolBox.Logger;
-import org.lwjgl.BufferUtils;
+import fr.ostix.worldCreator.toolBox.OpenGL.*;
 import org.lwjgl.opengl.*;
 
 import javax.imageio.ImageIO;
@@ -24,118 +24,83 @@ public class TextureLoader {
     }
 
     public static TextureLoader loadTexture(String file, int mode, boolean isClampEdge) {
-        BufferedImage image = null;
-        try {
-            image = ImageIO.read(new File(REPOSITORY_FOLDER + "/textures/" + file + ".png"));
-        } catch (IOException e) {
-            Logger.err("impossible de lire " + REPOSITORY_FOLDER + "/textures/" + file + ".png");
-            e.printStackTrace();
-        }
-        assert image != null : "impossible de lire " + REPOSITORY_FOLDER + "/textures/" + file + ".png";
-        int w = image.getWidth();
-        int h = image.getHeight();
-
-        int[] pixels = new int[w*h];
-        image.getRGB(0,0,w,h,pixels,0,w);
-
-        ByteBuffer buffer = BufferUtils.createByteBuffer(w*h*4);
+        TextureData data = decode(file);
+        assert data != null : "impossible de lire " + REPOSITORY_FOLDER + "/textures/" + file + ".png";
+        TextureLoader texture = upload(data, mode, isClampEdge, 4f);
+        data.release();
+        return texture;
+    }
 
-        for (int y = 0;y<w;y++)
-        {
-            for (int x = 0;x<h;x++)
-            {
-                int i = pixels[x+y*w];
-                buffer.put((byte) ((i >> 16) & 0xFF));
-                buffer.put((byte) ((i >> 8) & 0xFF));
-                buffer.put((byte) ((i ) & 0xFF));
-                buffer.put((byte) ((i >> 24) & 0xFF));
-            }
+    public static TextureLoader loadTexture(InputStream file, int mode, boolean isClampEdge) {
+        TextureData data = decode(file);
+        if (data == null) {
+            return null;
         }
+        TextureLoader texture = upload(data, mode, isClampEdge, 0.6f);
+        data.release();
+        return texture;
+    }
 
-        buffer.flip();
-
-
-        int id = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D,id);
-        glTexImage2D(GL_TEXTURE_2D,0,GL_RGBA,w,h,0,GL_RGBA,GL_UNSIGNED_BYTE,buffer);
-
-
-        if (mode == TextureUtils.MIPMAP_MODE) {
-            GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR_MIPMAP_LINEAR);
-
-        } else if (mode == TextureUtils.MIPMAP_ANISOTROPIC_MODE) {
-            GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST_MIPMAP_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST_MIPMAP_LINEAR);
-            GL11.glTexParameterf(GL11.GL_TEXTURE_2D, GL14.GL_TEXTURE_LOD_BIAS, 0f);
-            if (GL.getCapabilities().GL_EXT_texture_filter_anisotropic) {
-                float amount = Math.min(4f, GL11.glGetFloat(EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT));
-                GL11.glTexParameterf(GL_TEXTURE_2D, EXTTextureFilterAnisotropic.GL_TEXTURE_MAX_ANISOTROPY_EXT, amount);
-            } else {
-                Logger.warn("Anisotropic filtering is not supported by your graphic card");
-            }
-        } else if (mode == TextureUtils.NEAREST_MODE) {
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
-        } else if (mode == TextureUtils.LINEAR_MODE){
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
-        }else{
-            glTexParameteri(GL_TEXTURE_2D,GL_TEXTURE_MIN_FILTER,GL_NEAREST);
-            glTexParameteri(GL_TEXTURE_2D,GL_TEXTURE_MAG_FILTER,GL_NEAREST);
-        }
-        if (isClampEdge) {
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
-        } else {
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+    /**
+     * Reads the png file and converts it into RGBA bytes ready to be uploaded, it doesn't need the GL context.
+     * The bytes are in a staging buffer given back by {@link TextureData#release()} once uploaded.
+     *
+     * @return the decoded texture or null if the file cannot be read
+     */
+    public static TextureData decode(String file) {
+        try {
+            return decode(ImageIO.read(new File(REPOSITORY_FOLDER + "/textures/" + file + ".png")));
+        } catch (IOException e) {
+            Logger.err("impossible de lire " + REPOSITORY_FOLDER + "/textures/" + file + ".png", e);
         }
-
-        glBindTexture(GL_TEXTURE_2D,0);
-
-        return new TextureLoader(id,w);
+        return null;
     }
 
-    public static TextureLoader loadTexture(InputStream file, int mode, boolean isClampEdge) {
-        BufferedImage image = null;
+    public static TextureData decode(InputStream file) {
         try {
-            image = ImageIO.read(file);
+            BufferedImage image = ImageIO.read(file);
+            if (image == null) {
+                System.err.println("impossible de lire " + file);
+                return null;
+            }
+            return decode(image);
         } catch (IOException e) {
-            Logger.err("impossible de lire " + file);
-            e.printStackTrace();
-        }
-        if (image  == null){
-            System.err.println("impossible de lire " + file);
-            return null;
+            Logger.err("impossible de lire " + file, e);
         }
+        return null;
+    }
+
+    private static TextureData decode(BufferedImage image) {
         int w = image.getWidth();
         int h = image.getHeight();
-        int[] pixels = new int[w*h];
-        image.getRGB(0,0,w,h,pixels,0,w);
-
-        ByteBuffer buffer = BufferUtils.createByteBuffer(w*h*4);
-
-        for (int y = 0;y<w;y++)
-        {
-            for (int x = 0;x<h;x++)
-            {
-                int i = pixels[x+y*w];
-                buffer.put((byte) ((i >> 16) & 0xFF));
-                buffer.put((byte) ((i >> 8) & 0xFF));
-                buffer.put((byte) ((i ) & 0xFF));
-                buffer.put((byte) ((i >> 24) & 0xFF));
-            }
+        int[] pixels = new int[w * h];
+        image.getRGB(0, 0, w, h, pixels, 0, w);
+
+        ByteBuffer buffer = StagingBufferPool.acquire(w * h * 4);
+        for (int i : pixels) {
+            buffer.put((byte) ((i >> 16) & 0xFF));
+            buffer.put((byte) ((i >> 8) & 0xFF));
+            buffer.put((byte) ((i) & 0xFF));
+            buffer.put((byte) ((i >> 24) & 0xFF));
         }
-
         buffer.flip();
+        return new TextureData(w, h, buffer);
+    }
+
+    /**
+     * Uploads a decoded texture, must be called on the GL thread.
+     */
+    public static TextureLoader upload(TextureData data, int mode, boolean isClampEdge) {
+        return upload(data, mode, isClampEdge, 4f);
+    }
 
+    private static TextureLoader upload(TextureData data, int mode, boolean isClampEdge, float maxAnisotropy) {
+        int w = data.getWight();
+        int h = data.getHeight();
 
         int id = glGenTextures();
         glBindTexture(GL_TEXTURE_2D,id);
-        glTexImage2D(GL_TEXTURE_2D,0,GL_RGBA,w,h,0,GL_RGBA,GL_UNSIGNED_BYTE,buffer);
+        glTexImage2D(GL_TEXTURE_2D,0,GL_RGBA,w,h,0,GL_RGBA,GL_UNSIGNED_BYTE,data.getBuffer());
 
 
         if (mode == TextureUtils.MIPMAP_MODE) {
@@ -149,7 +114,7 @@ public class TextureLoader {
             GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST_MIPMAP_LINEAR);
             GL11.glTexParameterf(GL11.GL_TEXTURE_2D, GL14.GL_TEXTURE_LOD_BIAS, 0f);
             if (GL.getCapabilities().GL_EXT_texture_filter_anisotropic) {
-                float amount = Math.min(0.6f, GL11.glGetFloat(EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT));
+                float amount = Math.min(maxAnisotropy, GL11.glGetFloat(EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT));
                 GL11.glTexParameterf(GL_TEXTURE_2D, EXTTextureFilterAnisotropic.GL_TEXTURE_MAX_ANISOTROPY_EXT, amount);
             } else {
                 Logger.warn("Anisotropic filtering is not supported by your graphic card");
@@ -176,6 +141,7 @@ public class TextureLoader {
 
         return new TextureLoader(id,w);
     }
+
     public int getId() {
         return id;
     }
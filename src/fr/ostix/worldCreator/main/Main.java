@@ -30,13 +30,15 @@ import java.lang.*;
 import java.lang.Runtime;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 public class Main {
 
     public static final int MAX_LIGHTS = 5;
     private static final List<Light> lights = new ArrayList<>();
     private static final List<WaterTile> waterTiles = new ArrayList<>();
-    private static final Map<Vector2f, Chunk> terrains = Collections.synchronizedMap(new HashMap<>());
+    private static final AtomicBoolean reloading = new AtomicBoolean();
 
     public static final Light light = new Light(new Vector3f(100,100000,100), Color.SUN,null);
 
@@ -47,8 +49,8 @@ public class Main {
         Transform playerTransform = new Transform(new Vector3f(2000,0,2000),new Vector3f(0,0,0),1);
         Camera cam = new Camera(playerTransform);
         Workspace workspace = new Workspace();
-        renderer.initToRender(waterTiles,terrains,lights);
-        World world = new World(renderer,terrains,cam);
+        renderer.initToRender(waterTiles,lights);
+        World world = new World(renderer,cam);
         ExitMenu exitMenu = new ExitMenu(world);
         Thread.currentThread().setUncaughtExceptionHandler((t, e) -> {
             System.err.println("Exception in " + t.getName());
@@ -146,14 +148,29 @@ public class Main {
         Main.lights.add(light);
     }
 
+    /**
+     * Called by the renderer on the GL thread, the resource pack is reloaded in the background as its uploads are
+     * executed by this thread at the end of the frame. Nothing is done while a reload is running.
+     */
     public static void notifyNullModel(Entity entity) {
+        if (!reloading.compareAndSet(false, true)) {
+            return;
+        }
         Logger.err("The model of  " + entity.toString() + " is null");
         ResourcePackLoader rpl = new ResourcePackLoader();
-        try {
-            rpl.loadAllResource();
-            MainFrame.loadEntities(rpl);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        rpl.loadAllResourceAsync().thenAccept(report -> {
+            try {
+                MainFrame.loadEntities(rpl);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((v, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                Logger.err("Error during the resources pack reloading " + cause);
+                cause.printStackTrace();
+            }
+            reloading.set(false);
+        });
     }
 }
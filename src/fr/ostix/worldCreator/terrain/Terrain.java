@@ -14,13 +14,16 @@ import java.awt.image.*;
 import java.io.*;
 import java.lang.Math;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 public class Terrain {
     private static final int SIZE = 100;
-    private static final int MAX_HEIGHT = 40;
-    private static final float MAX_PIXEL_COLOR = 256 * 256 * 256;
 
-    private float[][] heights;
+    private float[] heights;
+    private int vertexCount;
+    private float buildTime;
+    private final BitSet dirtyVertices = new BitSet();
+    private final AtomicInteger editCount = new AtomicInteger();
     private final float x;
     private final float z;
     private MeshModel model;
@@ -28,8 +31,8 @@ public class Terrain {
     private final TerrainTexture blendMap;
     private boolean isPicking;
     private String heightMap;
-    private ModelLoaderRequest modelRequest;
-    private static Map<Vector2f, Chunk> worldChunk;
+    private TerrainLoaderRequest modelRequest;
+    private static ChunkMap worldChunk;
 
     public Terrain(float gridX, float gridZ, TerrainTexturePack texturePack, TerrainTexture blendMap, String heightMap) {
         this.x = gridX * SIZE;
@@ -40,7 +43,7 @@ public class Terrain {
         this.blendMap = blendMap;
     }
 
-    public static void setWorldChunk(Map<Vector2f, Chunk> worldChunk) {
+    public static void setWorldChunk(ChunkMap worldChunk) {
         Terrain.worldChunk = worldChunk;
     }
 
@@ -55,102 +58,99 @@ public class Terrain {
     public float getHeightOfTerrain(float worldX, float worldZ) {
         float terrainX = worldX - this.x;
         float terrainZ = worldZ - this.z;
-        float gridSquareSize = SIZE / ((float) heights.length - 1);  // cacul de la grille donc nombre de vertex - 1
+        float gridSquareSize = SIZE / ((float) vertexCount - 1);  // cacul de la grille donc nombre de vertex - 1
         int gridX = (int) Math.floor(terrainX / gridSquareSize);
         int gridZ = (int) Math.floor(terrainZ / gridSquareSize);
-        if (gridX < 0 || gridX >= heights.length - 1 || gridZ < 0 || gridZ >= heights.length - 1) {
+        if (gridX < 0 || gridX >= vertexCount - 1 || gridZ < 0 || gridZ >= vertexCount - 1) {
             return 0;
         }
         float xCoord = (terrainX % gridSquareSize) / gridSquareSize;
         float zCoord = (terrainZ % gridSquareSize) / gridSquareSize;
         float answer;
         if (xCoord <= (1 - zCoord)) {
-            answer = Maths.barryCentric(new Vector3f(0, heights[gridX][gridZ], 0), new Vector3f(1,
-                    heights[gridX + 1][gridZ], 0), new Vector3f(0,
-                    heights[gridX][gridZ + 1], 1), new Vector2f(xCoord, zCoord));
+            answer = Maths.barryCentric(0, heights[index(gridX, gridZ)], 0, 1,
+                    heights[index(gridX + 1, gridZ)], 0, 0,
+                    heights[index(gridX, gridZ + 1)], 1, xCoord, zCoord);
         } else {
-            answer = Maths.barryCentric(new Vector3f(1, heights[gridX + 1][gridZ], 0), new Vector3f(1,
-                    heights[gridX + 1][gridZ + 1], 1), new Vector3f(0,
-                    heights[gridX][gridZ + 1], 1), new Vector2f(xCoord, zCoord));
+            answer = Maths.barryCentric(1, heights[index(gridX + 1, gridZ)], 0, 1,
+                    heights[index(gridX + 1, gridZ + 1)], 1, 0,
+                    heights[index(gridX, gridZ + 1)], 1, xCoord, zCoord);
         }
         return answer;
     }
     private void smoothTerrain(Chunk leftC, Chunk rightC, Chunk upC, Chunk bottomC) {
-//        int edgeL = (int) Math.sqrt(left.heights.length);
-//        int edgeR = (int) Math.sqrt(right.heights.length);
-//        int edgeU = (int) Math.sqrt(up.heights.length);
-//        int edgeD = (int) Math.sqrt(bottom.heights.length);
-
-        boolean leftIsModified = false;
-        boolean rightIsModified = false;
-        boolean upIsModified = false;
-        boolean bottomIsModified = false;
-        Terrain t;
-        for (int z = 0; z < 16; z++) {
-            if (leftC == null && rightC == null) {
-                break;
-            }
-            if (leftC == null) {
-                //this.heights[z][0] = (0 + this.heights[z][0])/2;
-            } else {
-                t = leftC.getTerrain();
-                //    if (t.heights[z][0] != 0) {
-                t.heights[15][z] = this.heights[0][z]  = (t.heights[15][z]  + this.heights[0][z] ) / 2;
-                leftIsModified = true;
-                //}
-
-            }
-            if (rightC == null) {
-                //this.heights[z][63] = (0 + this.heights[z][63])/2;
-            } else {
-                t = rightC.getTerrain();
-                //if (t.heights[z][0] != 0) {
-                t.heights[0][z] = this.heights[15][z]  = (t.heights[0][z]  + this.heights[15][z] ) / 2;
-                rightIsModified = true;
-                //}
-
-            }
+        Terrain left = stitch(leftC, TerrainStitcher.Edge.LEFT);
+        Terrain right = stitch(rightC, TerrainStitcher.Edge.RIGHT);
+        Terrain up = stitch(upC, TerrainStitcher.Edge.UP);
+        Terrain bottom = stitch(bottomC, TerrainStitcher.Edge.BOTTOM);
+        // this terrain is built right after, only the neighbours need a partial upload
+        dirtyVertices.clear();
+
+        if (left != null) {
+            left.updateDirtyVertices();
         }
-        for (int x = 0; x < 16; x++) {
-            if (upC == null && bottomC == null) {
-                break;
-            }
-            if (upC == null) {
-                //this.heights[0][x] = (0 + this.heights[0][x])/2;
-            } else {
-                t = upC.getTerrain();
-                //   if (t.heights[0][x] != 0) {
-                this.heights[x][15] = (t.heights[x][0] + this.heights[x][15]) / 2;
-                t.heights[x][0] = this.heights[x][15];
-                upIsModified = true;
-                //  }
+        if (right != null) {
+            right.updateDirtyVertices();
+        }
+        if (up != null) {
+            up.updateDirtyVertices();
+        }
+        if (bottom != null) {
+            bottom.updateDirtyVertices();
+        }
+    }
 
-            }
-            if (bottomC == null) {
-                //this.heights[63][x] = (0 + this.heights[63][x])/2;
-            } else {
-                t = bottomC.getTerrain();
-                // if (t.heights[0][x] != 0) {
-                this.heights[x][0] = (t.heights[x][15] + this.heights[x][0]) / 2;
-                t.heights[x][15] = this.heights[x][0];
-                bottomIsModified = true;
-                // }
-            }
+    private Terrain stitch(Chunk neighbour, TerrainStitcher.Edge edge) {
+        if (neighbour == null || neighbour.getTerrain() == null || neighbour.getTerrain().heights == null) {
+            return null;
+        }
+        Terrain t = neighbour.getTerrain();
+        synchronized (t) {
+            TerrainStitcher.stitch(this, edge, t);
         }
+        return t;
+    }
 
-        if (leftIsModified) {
-            leftC.getTerrain().regenerateTerrain();
+    void setHeight(int index, float height) {
+        if (heights[index] != height) {
+            heights[index] = height;
+            dirtyVertices.set(index);
         }
-        if (rightIsModified) {
-            rightC.getTerrain().regenerateTerrain();
+    }
+
+    /**
+     * Sends the vertices changed since the last call as sub buffer updates instead of rebuilding the whole mesh.
+     */
+    public synchronized void updateDirtyVertices() {
+        if (dirtyVertices.isEmpty() || modelRequest == null) {
+            return;
         }
-        if (upIsModified) {
-            upC.getTerrain().regenerateTerrain();
+        // a height change moves the normals of the 4 neighbour vertices too
+        BitSet changed = new BitSet(heights.length);
+        for (int i = dirtyVertices.nextSetBit(0); i >= 0; i = dirtyVertices.nextSetBit(i + 1)) {
+            int x = i % vertexCount;
+            int z = i / vertexCount;
+            changed.set(i);
+            if (x > 0) changed.set(i - 1);
+            if (x < vertexCount - 1) changed.set(i + 1);
+            if (z > 0) changed.set(i - vertexCount);
+            if (z < vertexCount - 1) changed.set(i + vertexCount);
         }
-        if (bottomIsModified) {
-            bottomC.getTerrain().regenerateTerrain();
+        dirtyVertices.clear();
+        TerrainMeshBuilder.updateVertices(heights, vertexCount, modelRequest.getPositions(), modelRequest.getNormals(), changed);
+
+        int rangeCount = 0;
+        int[] ranges = new int[16];
+        for (int start = changed.nextSetBit(0); start >= 0; start = changed.nextSetBit(start)) {
+            int end = changed.nextClearBit(start);
+            if (rangeCount + 2 > ranges.length) {
+                ranges = Arrays.copyOf(ranges, ranges.length * 2);
+            }
+            ranges[rangeCount++] = start;
+            ranges[rangeCount++] = end - start;
+            start = end;
         }
-
+        GLRequestProcessor.sendRequest(new TerrainUpdateRequest(modelRequest, Arrays.copyOf(ranges, rangeCount)));
     }
 
     @Override
@@ -165,30 +165,23 @@ public class Terrain {
     public void regenerateTerrain(String heightMap) {
         this.heightMap = heightMap;
         generateTerrain();
+        markEdited();
     }
 
-    private void regenerateTerrain() {
-        this.model = null;
-        int VERTEX_COUNT = heights.length;
-        int count = VERTEX_COUNT * VERTEX_COUNT;
-        float[] vertices = new float[count * 3];
-        int vertexPointer = 0;
-        for (int z = 0; z < VERTEX_COUNT; z++) {            // Boucle de generation de monde
-            for (int x = 0; x < VERTEX_COUNT; x++) {
-                vertices[vertexPointer * 3] = (float) x / ((float) VERTEX_COUNT - 1) * SIZE;
-                vertices[vertexPointer * 3 + 1] = heights[x][z];
-                vertices[vertexPointer * 3 + 2] = (float) z / ((float) VERTEX_COUNT - 1) * SIZE;
-                vertexPointer++;
-            }
-        }
-        ModelData data = modelRequest.getData();
-        modelRequest = new ModelLoaderRequest(new ModelData(vertices, data.getTexcoords(), data.getIndices(), data.getNormals()));
-        GLRequestProcessor.sendRequest(modelRequest);
+    /**
+     * Marks the saved content of this terrain (height map and textures) as changed.
+     */
+    public void markEdited() {
+        editCount.incrementAndGet();
+    }
+
+    public int getEditCount() {
+        return editCount.get();
     }
 
     private void generateTerrain() {
         this.model = null;
-        //long time = System.nanoTime();
+        long time = System.nanoTime();
         BufferedImage image = null;
         try {
             image = ImageIO.read(new File(Config.REPOSITORY_FOLDER + "/textures/terrain/heightMap/" + heightMap + ".png"));
@@ -199,61 +192,21 @@ public class Terrain {
         // Logger.log("Height Map reading took " + (System.nanoTime() - time));
 
         assert image != null;
-        int VERTEX_COUNT = image.getHeight();
-        heights = new float[VERTEX_COUNT][VERTEX_COUNT];
-        int count = VERTEX_COUNT * VERTEX_COUNT;
-        float[] vertices = new float[count * 3];
-        float[] normals = new float[count * 3];
-        float[] textureCoords = new float[count * 2];
-        int[] indices = new int[6 * (VERTEX_COUNT - 1) * (VERTEX_COUNT - 1)];
-        int vertexPointer = 0;
-        for (int z = 0; z < VERTEX_COUNT; z++) {            // Boucle de generation de monde
-            for (int x = 0; x < VERTEX_COUNT; x++) {
-                float height = getHeight(x, z, image);
-                heights[x][z] = height;
-            }
-        }
-        if (worldChunk.size() > 0) {
-            smoothTerrain(worldChunk.get(new Vector2f(x / SIZE - 1, z / SIZE)),
-                    worldChunk.get(new Vector2f(x / SIZE + 1, z / SIZE)),
-                    worldChunk.get(new Vector2f(x / SIZE, z / SIZE + 1))
-                    , worldChunk.get(new Vector2f(x / SIZE, z / SIZE - 1)));
-        }
-
-        for (int z = 0; z < VERTEX_COUNT; z++) {            // Boucle de generation de monde
-            for (int x = 0; x < VERTEX_COUNT; x++) {
-//                float height = getHeight(x, z, image);
-//                heights[x][z] = height;
-                vertices[vertexPointer * 3] = (float) x / ((float) VERTEX_COUNT - 1) * SIZE;
-                vertices[vertexPointer * 3 + 1] = heights[x][z];
-                vertices[vertexPointer * 3 + 2] = (float) z / ((float) VERTEX_COUNT - 1) * SIZE;
-                Vector3f normal = calculateNormal(x, z, image);
-                normals[vertexPointer * 3] = normal.x;
-                normals[vertexPointer * 3 + 1] = normal.y;
-                normals[vertexPointer * 3 + 2] = normal.z;
-                textureCoords[vertexPointer * 2] = (float) x / ((float) VERTEX_COUNT - 1);
-                textureCoords[vertexPointer * 2 + 1] = (float) z / ((float) VERTEX_COUNT - 1);
-                vertexPointer++;
-            }
-        }
-        int pointer = 0;
-        for (int gz = 0; gz < VERTEX_COUNT - 1; gz++) {       //boucle de generation des indices
-            for (int gx = 0; gx < VERTEX_COUNT - 1; gx++) {
-                int topLeft = (gz * VERTEX_COUNT) + gx;
-                int topRight = topLeft + 1;
-                int bottomLeft = ((gz + 1) * VERTEX_COUNT) + gx;
-                int bottomRight = bottomLeft + 1;
-                indices[pointer++] = topLeft;
-                indices[pointer++] = bottomLeft;
-                indices[pointer++] = topRight;
-                indices[pointer++] = topRight;
-                indices[pointer++] = bottomLeft;
-                indices[pointer++] = bottomRight;
-            }
+        vertexCount = image.getHeight();
+        heights = TerrainMeshBuilder.decodeHeights(image);
+        if (worldChunk != null && worldChunk.size() > 0) {
+            int gridX = (int) Math.floor(x / SIZE);
+            int gridZ = (int) Math.floor(z / SIZE);
+            smoothTerrain(worldChunk.get(gridX - 1, gridZ),
+                    worldChunk.get(gridX + 1, gridZ),
+                    worldChunk.get(gridX, gridZ + 1)
+                    , worldChunk.get(gridX, gridZ - 1));
         }
 
-        modelRequest = new ModelLoaderRequest(new ModelData(vertices, textureCoords, indices, normals));
+        ModelData data = TerrainMeshBuilder.build(heights, vertexCount, SIZE);
+        modelRequest = new TerrainLoaderRequest(data.getVertices(), data.getNormals(), TerrainTopology.get(vertexCount));
         GLRequestProcessor.sendRequest(modelRequest);
+        buildTime = (System.nanoTime() - time) / 1_000_000f;
 
         //Logger.err("Terrain mesh generation before the GL access took " + (System.nanoTime() - time));
         // Timer.waitForRequest(modelRequest);
@@ -261,36 +214,29 @@ public class Terrain {
         //return modelRequest.getModel();
     }
 
-    private Vector3f calculateNormal(int x, int z, BufferedImage image) {
-        float heightL = getHeight(x - 1, z, image);
-        float heightR = getHeight(x + 1, z, image);
-        float heightD = getHeight(x, z - 1, image);
-        float heightU = getHeight(x, z + 1, image);
-        Vector3f normal = new Vector3f(heightL - heightR, 2f, heightD - heightU);
-        normal.normalize();
-        return normal;
-    }
-
-    private float getHeight(int x, int z, BufferedImage image) {
-        if (x < 0 || x >= image.getHeight() || z < 0 || z >= image.getHeight()) {
-            return 0;
-        }
-        float height = image.getRGB(x, z);
-        height += MAX_PIXEL_COLOR / 2;
-        height /= MAX_PIXEL_COLOR / 2;
-        height *= MAX_HEIGHT;
-        return height;
+    private int index(int x, int z) {
+        return z * vertexCount + x;
     }
 
-
     public static int getSIZE() {
         return SIZE;
     }
 
-    public float[][] getHeights() {
+    public float[] getHeights() {
         return heights;
     }
 
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return the time taken to read the height map and build the mesh of this terrain in milliseconds
+     */
+    public float getBuildTime() {
+        return buildTime;
+    }
+
     public float getX() {
         return x;
     }
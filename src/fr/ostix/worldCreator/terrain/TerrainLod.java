@@ -0,0 +1,127 @@
+package fr.ostix.worldCreator.terrain;
+
+import java.util.*;
+
+/**
+ * Level of detail of the terrain meshes. A level {@code n} keeps one vertex every {@code 2^n} vertices inside the terrain
+ * while the border keeps the full resolution, the border cells are fanned from their inner corner.
+ * The edges of two neighbour terrains are then always the same whatever their levels so there is no crack between them.
+ * Every level only uses other indices on the same vertices, see {@link TerrainTopology}.
+ */
+public class TerrainLod {
+
+    /**
+     * Distance from the camera where the terrains start to lose details, the next levels begin at twice the previous distance.
+     */
+    public static final float LOD_DISTANCE = Terrain.getSIZE() * 1.5f;
+    public static final int MAX_LOD = 4;
+
+    /**
+     * @return the coarsest level usable with this vertex count, a level needs at least 2 cells on each side
+     */
+    public static int getMaxLod(int vertexCount) {
+        int lod = 0;
+        while (lod < MAX_LOD && (vertexCount - 1) >> (lod + 1) >= 2) {
+            lod++;
+        }
+        return lod;
+    }
+
+    public static int selectLod(float distance, int maxLod) {
+        int lod = 0;
+        float limit = LOD_DISTANCE;
+        while (lod < maxLod && distance > limit) {
+            lod++;
+            limit *= 2;
+        }
+        return lod;
+    }
+
+    /**
+     * @return the horizontal distance between the point and the closest point of the terrain
+     */
+    public static float distance(Terrain terrain, float x, float z) {
+        float dx = Math.max(Math.max(terrain.getX() - x, 0), x - (terrain.getX() + Terrain.getSIZE()));
+        float dz = Math.max(Math.max(terrain.getZ() - z, 0), z - (terrain.getZ() + Terrain.getSIZE()));
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+
+    public static int[] buildIndices(int vertexCount, int lod) {
+        int last = vertexCount - 1;
+        int step = 1 << lod;
+        int[] coords = lineCoords(last, step);
+        int[] indices = new int[6 * last * last];
+        int pointer = 0;
+        int[] polygon = new int[4 * (step + 1)];
+        for (int cz = 0; cz < coords.length - 1; cz++) {
+            for (int cx = 0; cx < coords.length - 1; cx++) {
+                int x0 = coords[cx];
+                int x1 = coords[cx + 1];
+                int z0 = coords[cz];
+                int z1 = coords[cz + 1];
+                boolean left = x0 == 0;
+                boolean right = x1 == last;
+                boolean bottom = z0 == 0;
+                boolean up = z1 == last;
+                if (!left && !right && !bottom && !up || step == 1) {
+                    int topLeft = z0 * vertexCount + x0;
+                    int topRight = z0 * vertexCount + x1;
+                    int bottomLeft = z1 * vertexCount + x0;
+                    int bottomRight = z1 * vertexCount + x1;
+                    indices[pointer++] = topLeft;
+                    indices[pointer++] = bottomLeft;
+                    indices[pointer++] = topRight;
+                    indices[pointer++] = topRight;
+                    indices[pointer++] = bottomLeft;
+                    indices[pointer++] = bottomRight;
+                    continue;
+                }
+                // the outline of the cell in the same winding as the full resolution triangles
+                int count = 0;
+                int anchor;
+                for (int z = z0; z < z1; z = left ? z + 1 : z1) {
+                    polygon[count++] = z * vertexCount + x0;
+                }
+                for (int x = x0; x < x1; x = up ? x + 1 : x1) {
+                    polygon[count++] = z1 * vertexCount + x;
+                }
+                for (int z = z1; z > z0; z = right ? z - 1 : z0) {
+                    polygon[count++] = z * vertexCount + x1;
+                }
+                for (int x = x1; x > x0; x = bottom ? x - 1 : x0) {
+                    polygon[count++] = z0 * vertexCount + x;
+                }
+                // the anchor is the corner between the two sides that keep only their corners
+                if (!right && !up) {
+                    anchor = z1 * vertexCount + x1;
+                } else if (!right) {
+                    anchor = z0 * vertexCount + x1;
+                } else if (!up) {
+                    anchor = z1 * vertexCount + x0;
+                } else {
+                    anchor = z0 * vertexCount + x0;
+                }
+                int start = 0;
+                while (polygon[start] != anchor) {
+                    start++;
+                }
+                for (int i = 1; i < count - 1; i++) {
+                    indices[pointer++] = anchor;
+                    indices[pointer++] = polygon[(start + i) % count];
+                    indices[pointer++] = polygon[(start + i + 1) % count];
+                }
+            }
+        }
+        return Arrays.copyOf(indices, pointer);
+    }
+
+    private static int[] lineCoords(int last, int step) {
+        int count = (last + step - 1) / step + 1;
+        int[] coords = new int[count];
+        for (int i = 0; i < count - 1; i++) {
+            coords[i] = i * step;
+        }
+        coords[count - 1] = last;
+        return coords;
+    }
+}
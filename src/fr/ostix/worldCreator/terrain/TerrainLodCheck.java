@@ -0,0 +1,225 @@
+package fr.ostix.worldCreator.terrain;
+
+import java.util.*;
+
+/**
+ * Runnable check of the {@link TerrainLod} levels of detail, on the CPU only, exits with 1 if a check fails.
+ * <ul>
+ * <li>the coarsest level keeps at least 2 cells on each side and the level is chosen by doubling distances</li>
+ * <li>the level 0 is the full resolution mesh of the {@link TerrainTopology}</li>
+ * <li>every level covers each cell of the terrain once: sample points in every cell are inside of exactly one triangle
+ * and the triangles add up to the area of the terrain</li>
+ * <li>every level has the same border indices as the level 0, each border edge of the full resolution in the same direction</li>
+ * <li>the triangles of every level are wound like the ones of the level 0 and share each inner edge in opposite directions,
+ * so there is no crack nor T-junction inside of a level either</li>
+ * </ul>
+ * The vertex counts include the 256 of the height maps and counts where {@code vertexCount - 1} is not a multiple of {@code 2^lod},
+ * which have smaller cells on their last row and column.
+ * Argument: largest vertex count of the sweep from 2 (default 70), 100, 129 and 256 are always checked.
+ */
+public class TerrainLodCheck {
+
+    private static final double[][] SAMPLES = {{0.3137, 0.5821}, {0.7713, 0.1492}, {0.1931, 0.0877}, {0.8519, 0.9263}};
+    private static int failures;
+
+    public static void main(String[] args) {
+        int maxVertexCount = args.length > 0 ? Integer.parseInt(args[0]) : 70;
+        Set<Integer> vertexCounts = new TreeSet<>();
+        for (int vertexCount = 2; vertexCount <= maxVertexCount; vertexCount++) {
+            vertexCounts.add(vertexCount);
+        }
+        vertexCounts.addAll(List.of(100, 129, 256));
+
+        checkLodSelection(vertexCounts);
+
+        boolean fullResolution = true;
+        boolean covered = true;
+        boolean border = true;
+        boolean winding = true;
+        int levels = 0;
+        int remainders = 0;
+        for (int vertexCount : vertexCounts) {
+            int[] reference = TerrainTopology.get(vertexCount).getIndices();
+            fullResolution &= Arrays.equals(TerrainLod.buildIndices(vertexCount, 0), reference);
+            Map<Long, Integer> referenceBorder = borderEdges(reference);
+            for (int lod = 0; lod <= TerrainLod.getMaxLod(vertexCount); lod++) {
+                int[] indices = TerrainLod.buildIndices(vertexCount, lod);
+                boolean valid = inRange(indices, vertexCount);
+                covered &= valid && coversOnce(indices, vertexCount);
+                Map<Long, Integer> edges = valid ? borderEdges(indices) : null;
+                border &= edges != null && edges.equals(referenceBorder) && isOuterBorder(edges.keySet(), vertexCount);
+                winding &= valid && isWoundLikeLevel0(indices, vertexCount) && edges.values().stream().allMatch(count -> count == 1);
+                levels++;
+                if ((vertexCount - 1) % (1 << lod) != 0) {
+                    remainders++;
+                }
+            }
+        }
+        String tested = " (" + levels + " levels of " + vertexCounts.size() + " vertex counts, " + remainders + " with a remainder)";
+        check("the level 0 is the full resolution mesh of the topology", fullResolution);
+        check("every level covers each cell once" + tested, covered);
+        check("every level has the border indices of the level 0", border);
+        check("every level is wound like the level 0 and shares its inner edges", winding);
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkLodSelection(Set<Integer> vertexCounts) {
+        boolean maxLod = true;
+        for (int vertexCount : vertexCounts) {
+            int lod = TerrainLod.getMaxLod(vertexCount);
+            maxLod &= lod >= 0 && lod <= TerrainLod.MAX_LOD;
+            maxLod &= lod == 0 || (vertexCount - 1) >> lod >= 2;
+            maxLod &= lod == TerrainLod.MAX_LOD || (vertexCount - 1) >> (lod + 1) < 2;
+        }
+        check("the coarsest level keeps at least 2 cells on each side", maxLod);
+
+        boolean selection = true;
+        for (int maxLevel = 0; maxLevel <= TerrainLod.MAX_LOD; maxLevel++) {
+            selection &= TerrainLod.selectLod(0, maxLevel) == 0;
+            float limit = TerrainLod.LOD_DISTANCE;
+            for (int level = 0; level <= TerrainLod.MAX_LOD + 1; level++) {
+                selection &= TerrainLod.selectLod(limit * 0.99f, maxLevel) == Math.min(level, maxLevel);
+                selection &= TerrainLod.selectLod(limit * 1.01f, maxLevel) == Math.min(level + 1, maxLevel);
+                limit *= 2;
+            }
+            int previous = 0;
+            for (float distance = 0; distance < TerrainLod.LOD_DISTANCE * 64; distance += 7.3f) {
+                int level = TerrainLod.selectLod(distance, maxLevel);
+                selection &= level >= previous && level <= maxLevel;
+                previous = level;
+            }
+        }
+        check("the level grows with the distance, doubling the distance for each level", selection);
+    }
+
+    private static boolean inRange(int[] indices, int vertexCount) {
+        if (indices.length % 3 != 0) {
+            return false;
+        }
+        for (int index : indices) {
+            if (index < 0 || index >= vertexCount * vertexCount) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // counts the triangles around sample points of every cell, found through the bounding box of each triangle
+    private static boolean coversOnce(int[] indices, int vertexCount) {
+        int last = vertexCount - 1;
+        int[] counts = new int[last * last * SAMPLES.length];
+        long area = 0;
+        for (int t = 0; t < indices.length; t += 3) {
+            int x0 = indices[t] % vertexCount;
+            int z0 = indices[t] / vertexCount;
+            int x1 = indices[t + 1] % vertexCount;
+            int z1 = indices[t + 1] / vertexCount;
+            int x2 = indices[t + 2] % vertexCount;
+            int z2 = indices[t + 2] / vertexCount;
+            area += Math.abs(cross(x0, z0, x1, z1, x2, z2));
+            int minX = Math.min(x0, Math.min(x1, x2));
+            int maxX = Math.max(x0, Math.max(x1, x2));
+            int minZ = Math.min(z0, Math.min(z1, z2));
+            int maxZ = Math.max(z0, Math.max(z1, z2));
+            for (int cz = minZ; cz < maxZ; cz++) {
+                for (int cx = minX; cx < maxX; cx++) {
+                    for (int s = 0; s < SAMPLES.length; s++) {
+                        if (contains(x0, z0, x1, z1, x2, z2, cx + SAMPLES[s][0], cz + SAMPLES[s][1])) {
+                            counts[(cz * last + cx) * SAMPLES.length + s]++;
+                        }
+                    }
+                }
+            }
+        }
+        for (int count : counts) {
+            if (count != 1) {
+                return false;
+            }
+        }
+        return area == 2L * last * last;
+    }
+
+    // the triangles of the level 0 have a negative cross product in (x, z), see TerrainTopology
+    private static boolean isWoundLikeLevel0(int[] indices, int vertexCount) {
+        Set<Long> directed = new HashSet<>();
+        for (int t = 0; t < indices.length; t += 3) {
+            int a = indices[t];
+            int b = indices[t + 1];
+            int c = indices[t + 2];
+            if (cross(a % vertexCount, a / vertexCount, b % vertexCount, b / vertexCount, c % vertexCount, c / vertexCount) >= 0) {
+                return false;
+            }
+            // a directed edge used twice means two triangles on the same side of it
+            if (!directed.add(edge(a, b)) || !directed.add(edge(b, c)) || !directed.add(edge(c, a))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the edges without their opposite, with the number of times they are used
+    private static Map<Long, Integer> borderEdges(int[] indices) {
+        Map<Long, Integer> edges = new HashMap<>();
+        for (int t = 0; t < indices.length; t += 3) {
+            for (int i = 0; i < 3; i++) {
+                edges.merge(edge(indices[t + i], indices[t + (i + 1) % 3]), 1, Integer::sum);
+            }
+        }
+        Map<Long, Integer> border = new HashMap<>();
+        for (Map.Entry<Long, Integer> e : edges.entrySet()) {
+            long key = e.getKey();
+            if (!edges.containsKey(edge((int) key, (int) (key >>> 32)))) {
+                border.put(key, e.getValue());
+            }
+        }
+        return border;
+    }
+
+    // the border must be the 4 * (vertexCount - 1) unit edges around the terrain
+    private static boolean isOuterBorder(Set<Long> edges, int vertexCount) {
+        int last = vertexCount - 1;
+        if (edges.size() != 4 * last) {
+            return false;
+        }
+        for (long key : edges) {
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            int ax = a % vertexCount;
+            int az = a / vertexCount;
+            int bx = b % vertexCount;
+            int bz = b / vertexCount;
+            boolean unit = Math.abs(ax - bx) + Math.abs(az - bz) == 1;
+            boolean onSide = ax == bx && (ax == 0 || ax == last) || az == bz && (az == 0 || az == last);
+            if (!unit || !onSide) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int x0, int z0, int x1, int z1, int x2, int z2, double px, double pz) {
+        double d0 = (x1 - x0) * (pz - z0) - (z1 - z0) * (px - x0);
+        double d1 = (x2 - x1) * (pz - z1) - (z2 - z1) * (px - x1);
+        double d2 = (x0 - x2) * (pz - z2) - (z0 - z2) * (px - x2);
+        return d0 < 0 && d1 < 0 && d2 < 0 || d0 > 0 && d1 > 0 && d2 > 0;
+    }
+
+    private static long cross(int x0, int z0, int x1, int z1, int x2, int z2) {
+        return (long) (x1 - x0) * (z2 - z0) - (long) (x2 - x0) * (z1 - z0);
+    }
+
+    private static long edge(int from, int to) {
+        return (long) from << 32 | to & 0xFFFFFFFFL;
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package fr.ostix.worldCreator.terrain;
+
+import fr.ostix.worldCreator.graphics.model.*;
+
+import java.awt.image.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+/**
+ * Builds the terrain meshes from a height field decoded once from the height map.
+ * Heights are stored row by row : {@code heights[z * vertexCount + x]}.
+ * The vertex and normal arrays are filled in parallel strips of rows, the indices and
+ * texture coordinates come from the shared {@link TerrainTopology}.
+ */
+public class TerrainMeshBuilder {
+
+    public static final int MAX_HEIGHT = 40;
+    private static final float MAX_PIXEL_COLOR = 256 * 256 * 256;
+    private static final int ROWS_PER_STRIP = 16;
+
+    private static final AtomicLong buildCount = new AtomicLong();
+    private static final AtomicLong totalBuildTime = new AtomicLong();
+    private static volatile long lastBuildTime;
+
+    public static float[] decodeHeights(BufferedImage image) {
+        int vertexCount = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, vertexCount, vertexCount, null, 0, vertexCount);
+        float[] heights = new float[vertexCount * vertexCount];
+        for (int i = 0; i < heights.length; i++) {
+            float height = pixels[i];
+            height += MAX_PIXEL_COLOR / 2;
+            height /= MAX_PIXEL_COLOR / 2;
+            height *= MAX_HEIGHT;
+            heights[i] = height;
+        }
+        return heights;
+    }
+
+    public static ModelData build(float[] heights, int vertexCount, float size) {
+        long time = System.nanoTime();
+        int count = vertexCount * vertexCount;
+        float[] vertices = new float[count * 3];
+        float[] normals = new float[count * 3];
+        TerrainTopology topology = TerrainTopology.get(vertexCount);
+
+        forEachStrip(vertexCount, (zStart, zEnd) -> {
+            for (int z = zStart; z < zEnd; z++) {
+                for (int x = 0; x < vertexCount; x++) {
+                    int vertexPointer = z * vertexCount + x;
+                    vertices[vertexPointer * 3] = (float) x / ((float) vertexCount - 1) * size;
+                    vertices[vertexPointer * 3 + 1] = heights[vertexPointer];
+                    vertices[vertexPointer * 3 + 2] = (float) z / ((float) vertexCount - 1) * size;
+                    storeNormal(heights, vertexCount, x, z, normals, vertexPointer * 3);
+                }
+            }
+        });
+        recordBuildTime(System.nanoTime() - time);
+        return new ModelData(vertices, topology.getTextureCoords(), topology.getIndices(), normals);
+    }
+
+    /**
+     * Updates the heights and the normals of the given vertices in already built arrays.
+     */
+    public static void updateVertices(float[] heights, int vertexCount, float[] vertices, float[] normals, BitSet changed) {
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            vertices[i * 3 + 1] = heights[i];
+            storeNormal(heights, vertexCount, i % vertexCount, i / vertexCount, normals, i * 3);
+        }
+    }
+
+    private static void storeNormal(float[] heights, int vertexCount, int x, int z, float[] normals, int offset) {
+        float heightL = getHeight(heights, vertexCount, x - 1, z);
+        float heightR = getHeight(heights, vertexCount, x + 1, z);
+        float heightD = getHeight(heights, vertexCount, x, z - 1);
+        float heightU = getHeight(heights, vertexCount, x, z + 1);
+        float nx = heightL - heightR;
+        float ny = 2f;
+        float nz = heightD - heightU;
+        float invLength = 1f / (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        normals[offset] = nx * invLength;
+        normals[offset + 1] = ny * invLength;
+        normals[offset + 2] = nz * invLength;
+    }
+
+    private static float getHeight(float[] heights, int vertexCount, int x, int z) {
+        if (x < 0 || x >= vertexCount || z < 0 || z >= vertexCount) {
+            return 0;
+        }
+        return heights[z * vertexCount + x];
+    }
+
+    private static void forEachStrip(int vertexCount, StripTask task) {
+        int strips = (vertexCount + ROWS_PER_STRIP - 1) / ROWS_PER_STRIP;
+        if (strips <= 1) {
+            task.run(0, vertexCount);
+            return;
+        }
+        IntStream.range(0, strips).parallel().forEach(strip ->
+                task.run(strip * ROWS_PER_STRIP, Math.min(vertexCount, (strip + 1) * ROWS_PER_STRIP)));
+    }
+
+    private static void recordBuildTime(long time) {
+        lastBuildTime = time;
+        totalBuildTime.addAndGet(time);
+        buildCount.incrementAndGet();
+    }
+
+    /**
+     * @return the time taken by the last mesh build in milliseconds
+     */
+    public static float getLastBuildTime() {
+        return lastBuildTime / 1_000_000f;
+    }
+
+    public static float getAverageBuildTime() {
+        long count = buildCount.get();
+        return count == 0 ? 0 : totalBuildTime.get() / (float) count / 1_000_000f;
+    }
+
+    public static long getBuildCount() {
+        return buildCount.get();
+    }
+
+    private interface StripTask {
+        void run(int zStart, int zEnd);
+    }
+}
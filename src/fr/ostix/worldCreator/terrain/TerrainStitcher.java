@@ -0,0 +1,90 @@
+package fr.ostix.worldCreator.terrain;
+
+/**
+ * Makes the shared edge of two neighbour terrains match, whatever their height map resolution.
+ * With the same resolution both edges take the average height. Otherwise the coarse edge is averaged
+ * with the fine one and the fine edge is moved on the coarse segments so there is no crack.
+ * Only the changed vertices are marked dirty, see {@link Terrain#updateDirtyVertices()}.
+ */
+public class TerrainStitcher {
+
+    public enum Edge {
+        LEFT, RIGHT, UP, BOTTOM;
+
+        public Edge opposite() {
+            switch (this) {
+                case LEFT:
+                    return RIGHT;
+                case RIGHT:
+                    return LEFT;
+                case UP:
+                    return BOTTOM;
+                default:
+                    return UP;
+            }
+        }
+
+        /**
+         * @return the index in the height field of the i-th vertex of this edge
+         */
+        public int vertexIndex(int vertexCount, int i) {
+            switch (this) {
+                case LEFT:
+                    return i * vertexCount;
+                case RIGHT:
+                    return i * vertexCount + vertexCount - 1;
+                case UP:
+                    return (vertexCount - 1) * vertexCount + i;
+                default:
+                    return i;
+            }
+        }
+    }
+
+    /**
+     * Stitches the {@code edge} of {@code terrain} with the opposite edge of its {@code neighbour}.
+     */
+    public static void stitch(Terrain terrain, Edge edge, Terrain neighbour) {
+        Edge other = edge.opposite();
+        int count = terrain.getVertexCount();
+        int neighbourCount = neighbour.getVertexCount();
+        if (count == neighbourCount) {
+            float[] heights = terrain.getHeights();
+            float[] neighbourHeights = neighbour.getHeights();
+            for (int i = 0; i < count; i++) {
+                int index = edge.vertexIndex(count, i);
+                int neighbourIndex = other.vertexIndex(count, i);
+                float height = (heights[index] + neighbourHeights[neighbourIndex]) / 2;
+                terrain.setHeight(index, height);
+                neighbour.setHeight(neighbourIndex, height);
+            }
+        } else if (count < neighbourCount) {
+            stitchCoarse(terrain, edge, neighbour, other);
+        } else {
+            stitchCoarse(neighbour, other, terrain, edge);
+        }
+    }
+
+    private static void stitchCoarse(Terrain coarse, Edge coarseEdge, Terrain fine, Edge fineEdge) {
+        int coarseCount = coarse.getVertexCount();
+        int fineCount = fine.getVertexCount();
+        float[] coarseHeights = coarse.getHeights();
+        for (int i = 0; i < coarseCount; i++) {
+            int index = coarseEdge.vertexIndex(coarseCount, i);
+            float fineHeight = sample(fine, fineEdge, i / (float) (coarseCount - 1));
+            coarse.setHeight(index, (coarseHeights[index] + fineHeight) / 2);
+        }
+        for (int i = 0; i < fineCount; i++) {
+            fine.setHeight(fineEdge.vertexIndex(fineCount, i), sample(coarse, coarseEdge, i / (float) (fineCount - 1)));
+        }
+    }
+
+    private static float sample(Terrain terrain, Edge edge, float t) {
+        int count = terrain.getVertexCount();
+        float[] heights = terrain.getHeights();
+        float position = t * (count - 1);
+        int i = Math.min((int) position, count - 2);
+        float blend = position - i;
+        return heights[edge.vertexIndex(count, i)] * (1 - blend) + heights[edge.vertexIndex(count, i + 1)] * blend;
+    }
+}
@@ -0,0 +1,136 @@
+package fr.ostix.worldCreator.terrain;
+
+import fr.ostix.worldCreator.toolBox.OpenGL.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Index and texture coordinate data shared by every terrain with the same vertex count.
+ * They are computed once on the CPU and uploaded once on the GPU, the terrains only upload their positions and normals.
+ * The indices of every {@link TerrainLod level of detail} follow each other in the same index buffer.
+ */
+public class TerrainTopology {
+
+    private static final Map<Integer, TerrainTopology> cache = new ConcurrentHashMap<>();
+
+    private final int vertexCount;
+    private final int[] indices;
+    private final float[] textureCoords;
+    private final int[] lodOffsets;
+    private final int[] lodCounts;
+    private final int[] allIndices;
+    private VBO indexVBO;
+    private VBO textureVBO;
+
+    private TerrainTopology(int vertexCount) {
+        this.vertexCount = vertexCount;
+        this.indices = new int[6 * (vertexCount - 1) * (vertexCount - 1)];
+        this.textureCoords = new float[vertexCount * vertexCount * 2];
+        int vertexPointer = 0;
+        for (int z = 0; z < vertexCount; z++) {
+            for (int x = 0; x < vertexCount; x++) {
+                textureCoords[vertexPointer * 2] = (float) x / ((float) vertexCount - 1);
+                textureCoords[vertexPointer * 2 + 1] = (float) z / ((float) vertexCount - 1);
+                vertexPointer++;
+            }
+        }
+        int pointer = 0;
+        for (int gz = 0; gz < vertexCount - 1; gz++) {       //boucle de generation des indices
+            for (int gx = 0; gx < vertexCount - 1; gx++) {
+                int topLeft = (gz * vertexCount) + gx;
+                int topRight = topLeft + 1;
+                int bottomLeft = ((gz + 1) * vertexCount) + gx;
+                int bottomRight = bottomLeft + 1;
+                indices[pointer++] = topLeft;
+                indices[pointer++] = bottomLeft;
+                indices[pointer++] = topRight;
+                indices[pointer++] = topRight;
+                indices[pointer++] = bottomLeft;
+                indices[pointer++] = bottomRight;
+            }
+        }
+
+        int lodCount = TerrainLod.getMaxLod(vertexCount) + 1;
+        int[][] lods = new int[lodCount][];
+        lods[0] = indices;
+        int total = indices.length;
+        for (int lod = 1; lod < lodCount; lod++) {
+            lods[lod] = TerrainLod.buildIndices(vertexCount, lod);
+            total += lods[lod].length;
+        }
+        this.lodOffsets = new int[lodCount];
+        this.lodCounts = new int[lodCount];
+        this.allIndices = new int[total];
+        int offset = 0;
+        for (int lod = 0; lod < lodCount; lod++) {
+            System.arraycopy(lods[lod], 0, allIndices, offset, lods[lod].length);
+            lodOffsets[lod] = offset;
+            lodCounts[lod] = lods[lod].length;
+            offset += lods[lod].length;
+        }
+    }
+
+    public static TerrainTopology get(int vertexCount) {
+        return cache.computeIfAbsent(vertexCount, TerrainTopology::new);
+    }
+
+    /**
+     * Must be called from the GL thread, creates the shared buffers on the first call.
+     */
+    public void upload() {
+        if (indexVBO != null) {
+            return;
+        }
+        indexVBO = VBO.createVBO();
+        indexVBO.storeIndicesData(allIndices);
+        textureVBO = VBO.createVBO();
+        textureVBO.storeData(textureCoords);
+    }
+
+    public static void cleanUp() {
+        for (TerrainTopology t : cache.values()) {
+            if (t.indexVBO != null) {
+                t.indexVBO.delete();
+                t.textureVBO.delete();
+                t.indexVBO = null;
+                t.textureVBO = null;
+            }
+        }
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public int getMaxLod() {
+        return lodCounts.length - 1;
+    }
+
+    /**
+     * @return the offset in bytes of the indices of this level in the index buffer
+     */
+    public long getLodOffset(int lod) {
+        return (long) lodOffsets[lod] * Integer.BYTES;
+    }
+
+    public int getLodIndexCount(int lod) {
+        return lodCounts[lod];
+    }
+
+    public float[] getTextureCoords() {
+        return textureCoords;
+    }
+
+    public VBO getIndexVBO() {
+        return indexVBO;
+    }
+
+    public VBO getTextureVBO() {
+        return textureVBO;
+    }
+}
@@ -57,11 +57,11 @@ public class TerrainTexturePack {
         return bTexture;
     }
 
-    public void export(FileChannel fc) throws IOException {
+    public void export(WritableByteChannel fc) throws IOException {
         String back = getBackgroundTexture().getName().replaceAll(".png","");
         String r = getrTexture().getName().replaceAll(".png","");
         String g = getgTexture().getName().replaceAll(".png","");
         String b = getbTexture().getName().replaceAll(".png","");
-        fc.write(DataTransformer.lineBuffer(back + ";" + r + ";" + g + ";" + b));
+        DataTransformer.writeLine(fc, back + ";" + r + ";" + g + ";" + b);
     }
 }
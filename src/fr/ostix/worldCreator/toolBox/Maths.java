@@ -66,6 +66,15 @@ public class Maths {
         return l1 * p1.y + l2 * p2.y + l3 * p3.y;
     }
 
+    public static float barryCentric(float p1x, float p1y, float p1z, float p2x, float p2y, float p2z,
+                                     float p3x, float p3y, float p3z, float posX, float posY) {
+        float det = (p2z - p3z) * (p1x - p3x) + (p3x - p2x) * (p1z - p3z);
+        float l1 = ((p2z - p3z) * (posX - p3x) + (p3x - p2x) * (posY - p3z)) / det;
+        float l2 = ((p3z - p1z) * (posX - p3x) + (p1x - p3x) * (posY - p3z)) / det;
+        float l3 = 1.0f - l1 - l2;
+        return l1 * p1y + l2 * p2y + l3 * p3y;
+    }
+
 
     /*
      *
@@ -0,0 +1,117 @@
+package fr.ostix.worldCreator.toolBox.OpenGL;
+
+import org.lwjgl.system.*;
+
+import java.nio.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Pool of native buffers used to stage the data sent to the GPU, shared by the loader threads and the GL thread.
+ * The buffers are allocated with {@link MemoryUtil} in power of two sizes and kept for the next uploads, the ones
+ * not fitting in the pool are freed at once instead of waiting for the garbage collector.
+ * A buffer acquired here must be given back with {@link #release(ByteBuffer)} once uploaded.
+ */
+public class StagingBufferPool {
+
+    private static final int MIN_SIZE_CLASS = 12; // 4 KiB
+    private static final int MAX_SIZE_CLASS = 26; // 64 MiB, bigger buffers are freed when released
+    private static final long MAX_POOLED_BYTES = 128L * 1024 * 1024;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer>[] pools = createPools();
+    private static final AtomicLong nativeBytes = new AtomicLong();
+    private static final AtomicLong pooledBytes = new AtomicLong();
+    private static final AtomicLong allocationCount = new AtomicLong();
+
+    private StagingBufferPool() {
+    }
+
+    private static ConcurrentLinkedQueue<ByteBuffer>[] createPools() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ConcurrentLinkedQueue<ByteBuffer>[] pools = new ConcurrentLinkedQueue[MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new ConcurrentLinkedQueue<>();
+        }
+        return pools;
+    }
+
+    /**
+     * @return a buffer in the native order with its position at 0 and its limit at {@code bytes}
+     */
+    public static ByteBuffer acquire(int bytes) {
+        int sizeClass = Math.max(MIN_SIZE_CLASS, 32 - Integer.numberOfLeadingZeros(Math.max(bytes, 1) - 1));
+        ByteBuffer buffer = null;
+        if (sizeClass <= MAX_SIZE_CLASS) {
+            buffer = pools[sizeClass - MIN_SIZE_CLASS].poll();
+            if (buffer != null) {
+                pooledBytes.addAndGet(-buffer.capacity());
+            }
+        }
+        if (buffer == null) {
+            int capacity = sizeClass <= MAX_SIZE_CLASS ? 1 << sizeClass : bytes;
+            buffer = MemoryUtil.memAlloc(capacity);
+            nativeBytes.addAndGet(capacity);
+            allocationCount.incrementAndGet();
+        }
+        buffer.clear().limit(bytes);
+        return buffer;
+    }
+
+    public static ByteBuffer stage(float[] data) {
+        return stage(data, 0, data.length);
+    }
+
+    public static ByteBuffer stage(float[] data, int offset, int length) {
+        ByteBuffer buffer = acquire(length * Float.BYTES);
+        buffer.asFloatBuffer().put(data, offset, length);
+        return buffer;
+    }
+
+    public static ByteBuffer stage(int[] data) {
+        ByteBuffer buffer = acquire(data.length * Integer.BYTES);
+        buffer.asIntBuffer().put(data);
+        return buffer;
+    }
+
+    /**
+     * Keeps the buffer for the next uploads or frees it if the pool is full, null is ignored.
+     */
+    public static void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        int sizeClass = Integer.numberOfTrailingZeros(capacity);
+        // the check and the add are not atomic, the pool may exceed its limit by the buffers released together
+        if (capacity == 1 << sizeClass && sizeClass >= MIN_SIZE_CLASS && sizeClass <= MAX_SIZE_CLASS
+                && pooledBytes.get() + capacity <= MAX_POOLED_BYTES) {
+            pooledBytes.addAndGet(capacity);
+            pools[sizeClass - MIN_SIZE_CLASS].offer(buffer);
+        } else {
+            MemoryUtil.memFree(buffer);
+            nativeBytes.addAndGet(-capacity);
+        }
+    }
+
+    /**
+     * @return the native memory held by the staging buffers, in use or pooled, in bytes
+     */
+    public static long getNativeBytes() {
+        return nativeBytes.get();
+    }
+
+    /**
+     * @return the native memory of the buffers acquired and not released yet in bytes
+     */
+    public static long getUsedBytes() {
+        return nativeBytes.get() - pooledBytes.get();
+    }
+
+    public static long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    public static long getAllocationCount() {
+        return allocationCount.get();
+    }
+}
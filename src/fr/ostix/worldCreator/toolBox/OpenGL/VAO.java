@@ -3,12 +3,14 @@ package fr.ostix.worldCreator.toolBox.OpenGL;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 public class VAO {
     public final int id;
     private final List<VBO> VBOs = new ArrayList<>();
+    private final VBO[] attributeVBOs = new VBO[16];
     private int vertexCount;
     private float[] position;
     private int[] indices;
@@ -34,24 +36,88 @@ public class VAO {
         this.vertexCount = indices.length;
         this.indices = indices;
     }
+    /**
+     * @param staged the indices already copied in a staging buffer, the array is kept for the picking
+     */
+    public void storeIndicesInVAO(int[] indices, ByteBuffer staged) {
+        VBO vbo = VBO.createVBO();
+        VBOs.add(vbo);
+        vbo.storeIndicesDataInAttributeList(staged);
+        this.vertexCount = indices.length;
+        this.indices = indices;
+    }
+
+    /**
+     * The shared buffers are not owned by this VAO and are not deleted with it.
+     */
+    public void useSharedIndices(VBO vbo, int[] indices) {
+        vbo.bindIndices();
+        this.vertexCount = indices.length;
+        this.indices = indices;
+    }
+
+    public void useSharedAttribute(int attrib, int dataSize, VBO vbo) {
+        vbo.bindAttribute(attrib, dataSize);
+    }
+
     public void storePositionInAttributeList(int attrib, int dataSize, float[] position) {
         VBO vbo = VBO.createVBO();
         VBOs.add(vbo);
         vbo.storeDataInAttributeList(attrib, dataSize, position);
+        attributeVBOs[attrib] = vbo;
         this.position = position;
     }
 
+    public void storePositionInAttributeList(int attrib, int dataSize, float[] position, ByteBuffer staged) {
+        storeDataInAttributeList(attrib, dataSize, staged);
+        this.position = position;
+    }
+
+    /**
+     * Allocates the position buffer, the positions are uploaded later through {@link #getAttributeVBO(int)}.
+     */
+    public void allocatePositionInAttributeList(int attrib, int dataSize, float[] position) {
+        allocateDataInAttributeList(attrib, dataSize, position.length);
+        this.position = position;
+    }
+
+    public void allocateDataInAttributeList(int attrib, int dataSize, int count) {
+        VBO vbo = VBO.createVBO();
+        VBOs.add(vbo);
+        vbo.allocateAttribute(attrib, dataSize, count);
+        attributeVBOs[attrib] = vbo;
+    }
+
     public void storeDataInAttributeList(int attrib, int dataSize, float[] data) {
         VBO vbo = VBO.createVBO();
         VBOs.add(vbo);
         vbo.storeDataInAttributeList(attrib, dataSize, data);
+        attributeVBOs[attrib] = vbo;
     }
 
+    public void storeDataInAttributeList(int attrib, int dataSize, ByteBuffer staged) {
+        VBO vbo = VBO.createVBO();
+        VBOs.add(vbo);
+        vbo.storeDataInAttributeList(attrib, dataSize, staged);
+        attributeVBOs[attrib] = vbo;
+    }
 
     public void storeIntDataInAttributeList(int attrib, int dataSize, int[] data) {
         VBO vbo = VBO.createVBO();
         VBOs.add(vbo);
         vbo.storeIntDataInAttributeList(attrib, dataSize, data);
+        attributeVBOs[attrib] = vbo;
+    }
+
+    public void storeIntDataInAttributeList(int attrib, int dataSize, ByteBuffer staged) {
+        VBO vbo = VBO.createVBO();
+        VBOs.add(vbo);
+        vbo.storeIntDataInAttributeList(attrib, dataSize, staged);
+        attributeVBOs[attrib] = vbo;
+    }
+
+    public VBO getAttributeVBO(int attrib) {
+        return attributeVBOs[attrib];
     }
 
     public void bind(int... attributes) {
@@ -1,10 +1,9 @@
 package fr.ostix.worldCreator.toolBox.OpenGL;
 
-import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.*;
 
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
 
 import static org.lwjgl.opengl.GL15.*;
 
@@ -30,17 +29,40 @@ public class VBO {
     }
 
     public void storeDataInAttributeList(int attrib, int dataSize, float[] data) {
+        ByteBuffer buffer = StagingBufferPool.stage(data);   //creation d'une memoir tampon (Buffer) du tableau a ajouter dans notre VAO
+        storeDataInAttributeList(attrib, dataSize, buffer);
+        StagingBufferPool.release(buffer);
+    }
+
+    /**
+     * @param data floats already staged, see {@link StagingBufferPool}
+     */
+    public void storeDataInAttributeList(int attrib, int dataSize, ByteBuffer data) {
         glBindBuffer(GL_ARRAY_BUFFER, this.id); //Activation de l'addresse memoir
-        FloatBuffer buffer = createFloatBuffer(data);   //creation d'une memoir tampon (Buffer) du tableau a ajouter dans notre VAO
-        glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);  //Definition des données dans une memoir tampon (Buffer)
+        glBufferData(GL_ARRAY_BUFFER, data, GL_STATIC_DRAW);  //Definition des données dans une memoir tampon (Buffer)
         GL20.glVertexAttribPointer(attrib, dataSize, GL11.GL_FLOAT, false, 0, 0);     //Definition de l'index,nombre de donné a lire dans le tableau par arrete,type de variable,sont des vecteur normalizer ou pas dans la memoir tampon
         glBindBuffer(GL_ARRAY_BUFFER, 0);       //Desactivation du VBO actife
     }
 
+    /**
+     * Allocates the buffer without data, it is filled later with {@link #updateSubData(long, FloatBuffer)}.
+     */
+    public void allocateAttribute(int attrib, int dataSize, int count) {
+        glBindBuffer(GL_ARRAY_BUFFER, this.id);
+        glBufferData(GL_ARRAY_BUFFER, (long) count * Float.BYTES, GL_STATIC_DRAW);
+        GL20.glVertexAttribPointer(attrib, dataSize, GL11.GL_FLOAT, false, 0, 0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
     public void storeIntDataInAttributeList(int attrib, int dataSize, int[] data) {
+        ByteBuffer buffer = StagingBufferPool.stage(data);   //creation d'une memoir tampon (Buffer) du tableau a ajouter dans notre VAO
+        storeIntDataInAttributeList(attrib, dataSize, buffer);
+        StagingBufferPool.release(buffer);
+    }
+
+    public void storeIntDataInAttributeList(int attrib, int dataSize, ByteBuffer data) {
         glBindBuffer(GL_ARRAY_BUFFER, this.id); //Activation de l'addresse memoir
-        IntBuffer buffer = createIntBuffer(data);   //creation d'une memoir tampon (Buffer) du tableau a ajouter dans notre VAO
-        glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);  //Definition des données dans une memoir tampon (Buffer)
+        glBufferData(GL_ARRAY_BUFFER, data, GL_STATIC_DRAW);  //Definition des données dans une memoir tampon (Buffer)
         GL30.glVertexAttribIPointer(attrib, dataSize, GL11.GL_INT, 0, 0);     //Definition de l'index,nombre de donné a lire dans le tableau par arrete,type de variable,sont des vecteur normalizer ou pas dans la memoir tampon
         glBindBuffer(GL_ARRAY_BUFFER, 0);       //Desactivation du VBO actife
     }
@@ -53,16 +75,55 @@ public class VBO {
     }
 
     public void storeIndicesDataInAttributeList(int[] indices) {
+        ByteBuffer buffer = StagingBufferPool.stage(indices);   //creation d'une memoir tampon (Buffer) du tableau a ajouter dans notre VAO
+        storeIndicesDataInAttributeList(buffer);
+        StagingBufferPool.release(buffer);
+    }
+
+    public void storeIndicesDataInAttributeList(ByteBuffer indices) {
         glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.id); //Activation de l'addresse memoir
-        IntBuffer buffer = createIntBuffer(indices);   //creation d'une memoir tampon (Buffer) du tableau a ajouter dans notre VAO
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);  //Definition des données dans une memoir tampon (Buffer)
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);  //Definition des données dans une memoir tampon (Buffer)
     }
 
-    private FloatBuffer createFloatBuffer(float[] data) {
-        FloatBuffer buffer = BufferUtils.createFloatBuffer(data.length);   //Creation d'une memoir tampon avec la longeur du tableau
-        buffer.put(data);         //On met les données dans la memoir tampon
-        buffer.flip();              //Permet de lire la memoir tampon
-        return buffer;
+    public void storeData(float[] data) {
+        ByteBuffer buffer = StagingBufferPool.stage(data);
+        glBindBuffer(GL_ARRAY_BUFFER, this.id);
+        glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        StagingBufferPool.release(buffer);
+    }
+
+    public void storeIndicesData(int[] indices) {
+        ByteBuffer buffer = StagingBufferPool.stage(indices);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.id);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        StagingBufferPool.release(buffer);
+    }
+
+    public void bindIndices() {
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.id);
+    }
+
+    public void bindAttribute(int attrib, int dataSize) {
+        glBindBuffer(GL_ARRAY_BUFFER, this.id);
+        GL20.glVertexAttribPointer(attrib, dataSize, GL11.GL_FLOAT, false, 0, 0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
+    public void updateSubData(long offset, FloatBuffer buffer) {
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glBufferSubData(GL_ARRAY_BUFFER, offset * Float.BYTES, buffer);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * @param offset in floats
+     */
+    public void updateSubData(long offset, ByteBuffer buffer) {
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glBufferSubData(GL_ARRAY_BUFFER, offset * Float.BYTES, buffer);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
     }
 
     public void updateVBO(FloatBuffer buffer){
@@ -73,12 +134,6 @@ public class VBO {
     }
 
 
-    private IntBuffer createIntBuffer(int[] data) {
-        IntBuffer buffer = BufferUtils.createIntBuffer(data.length);   //Creation d'une memoir tampon avec la longeur du tableau
-        buffer.put(data);         //On met les données dans la memoir tampon
-        buffer.flip();              //Permet de lire la memoir tampon
-        return buffer;
-    }
 
 
     public void delete() {
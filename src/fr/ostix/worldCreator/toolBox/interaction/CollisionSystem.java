@@ -1,5 +1,6 @@
 package fr.ostix.worldCreator.toolBox.interaction;
 
+import com.flowpowered.react.*;
 import com.flowpowered.react.body.*;
 import com.flowpowered.react.collision.*;
 import com.flowpowered.react.collision.shape.*;
@@ -9,8 +10,10 @@ import com.flowpowered.react.math.Transform;
 import com.flowpowered.react.math.*;
 import fr.ostix.worldCreator.entity.*;
 import fr.ostix.worldCreator.entity.camera.*;
+import fr.ostix.worldCreator.entity.component.collision.*;
 import fr.ostix.worldCreator.toolBox.*;
 import fr.ostix.worldCreator.world.*;
+import fr.ostix.worldCreator.world.chunk.*;
 import gnu.trove.list.*;
 import gnu.trove.list.array.*;
 import org.joml.Math;
@@ -31,20 +34,27 @@ public class CollisionSystem {
     private final TFloatList meshPositions = new TFloatArrayList();
     private final TIntList meshIndices = new TIntArrayList();
     private DynamicsWorld dynamicsWorld;
+    private PhysicsService physics;
+    private TerrainColliders terrainColliders;
+    private long entitiesVersion = -1;
     private World world;
 
     public void init(float timeStep, List<Entity> entities, World world) {
-        dynamicsWorld = new DynamicsWorld(gravity, timeStep);
+        dynamicsWorld = new DynamicsWorld(gravity, timeStep, ReactDefaults.BroadPhaseAlgorithmType.DYNAMIC_AABB_TREE);
+        physics = new PhysicsService(dynamicsWorld, timeStep);
+        terrainColliders = new TerrainColliders(dynamicsWorld, PHYSICS_MATERIAL);
         //addImmobileBody(entities.get(0), new BoxShape(new Vector3(25, 1, 25)), 100, new Vector3(0, 1.8f, 0), Quaternion.identity()).setMaterial(PHYSICS_MATERIAL);
         addAllEntity(entities);
-        dynamicsWorld.enableSleeping(false);
+        dynamicsWorld.enableSleeping(true);
         // addTerrain(terrains);
         this.world = world;
         dynamicsWorld.start();
+        // the service is started by update once the terrains have their colliders, before that the bodies would fall
     }
 
 
     private void addAllEntity(List<Entity> entities) {
+        dynamicsWorld.beginBodyBatch();
         for (Entity e : entities) {
 //            if (e.isUseBondingModels()) {
 //                int index = 0;
@@ -97,11 +107,45 @@ public class CollisionSystem {
 //            meshPositions.clear();
 //            meshIndices.clear();
         }
+        dynamicsWorld.endBodyBatch();
         World.doAABBToRender();
     }
 
-    public void update(List<Entity> entities) {
+    /**
+     * Follows the chunks of the snapshot, called every frame. The terrain colliders are updated before the bodies of the
+     * new entities are added and the physics is started once a terrain has its colliders.
+     */
+    public void update(ChunkSnapshot chunks) {
+        boolean entitiesChanged = chunks.getVersion() != entitiesVersion;
+        if (!entitiesChanged && !terrainColliders.isOutdated(chunks)) {
+            return;
+        }
+        synchronized (physics.getWorldLock()) {
+            terrainColliders.update(chunks);
+            if (entitiesChanged) {
+                addMissingEntities(chunks.getEntities());
+            }
+        }
+        entitiesVersion = chunks.getVersion();
+        if (!physics.isRunning() && !terrainColliders.isEmpty()) {
+            physics.start();
+        }
+    }
+
+    /**
+     * Places the moving entities at their interpolated physics position, called every frame.
+     */
+    public void updatePositions() {
+        physics.applyInterpolatedPositions();
+    }
+
+    public PhysicsService getPhysics() {
+        return physics;
+    }
+
+    private void addMissingEntities(List<Entity> entities) {
         boolean contain;
+        dynamicsWorld.beginBodyBatch();
         for (Entity e : entities) {
             contain = false;
             for (Entity e1 : shapes.keySet()) {
@@ -131,12 +175,14 @@ public class CollisionSystem {
                 }
             }
         }
-        //dynamicsWorld.update();
+        dynamicsWorld.endBodyBatch();
     }
 
 
 
     public void finish() {
+        physics.stop();
+        terrainColliders.clear();
         dynamicsWorld.stop();
         shapes.clear();
         shapes2.clear();
@@ -156,6 +202,12 @@ public class CollisionSystem {
     }
 
     public void spawnBody(Entity e) {
+        synchronized (physics.getWorldLock()) {
+            addEntityBodies(e);
+        }
+    }
+
+    private void addEntityBodies(Entity e) {
         if (e.getCollision() != null) {
             for (BoundingModel b : e.getCollision().getProperties().getBoundingModels()) {
                 if (b instanceof CollisionShape) {
@@ -169,8 +221,12 @@ public class CollisionSystem {
                     assert b1 != null;
                     b1.setTransform(b.getTransform());
                     this.addBody(e, b1);
-                } else {
-                    //...
+                } else if (b.getModel() != null) {
+                    ConvexMeshShape hull = MeshHullBuilder.build(b.getModel());
+                    if (hull != null) {
+                        hull.setTransform(b.getTransform());
+                        this.addBody(e, hull);
+                    }
                 }
             }
         }
@@ -185,7 +241,10 @@ public class CollisionSystem {
 
         if (bodies != null) {
             for (CollisionBody b : bodies) {
-                dynamicsWorld.destroyRigidBody((RigidBody) b);
+                synchronized (physics.getWorldLock()) {
+                    physics.unbind((RigidBody) b);
+                    dynamicsWorld.destroyRigidBody((RigidBody) b);
+                }
 
                 world.remove(aabbs.remove(b), true);
                 shapes2.remove(b);
@@ -243,12 +302,22 @@ public class CollisionSystem {
         Vector3 bodyPosition = bodyTransform.getPosition();
         Entity aabbModel = World.addAABB(bodyPosition, Vector3.subtract(aabb.getMax(), aabb.getMin()).divide(6));
         aabbs.put(body, aabbModel);
+        if (body.isMotionEnabled()) {
+            // an entity with several bodies follows its first one
+            if (e != null && batch == null) {
+                physics.bind(e, body);
+            }
+            physics.bind(aabbModel, body);
+        }
     }
 
     public Entity findEntityInRay(Camera cam, Vector3f currentRay) {
-        final RayCaster.IntersectedBody targeted = dynamicsWorld.findClosestIntersectingBody(
-                Maths.toVector3(cam.getPosition().add(0, -5f, 0, new Vector3f()))
-                , Maths.toVector3(currentRay));
+        final RayCaster.IntersectedBody targeted;
+        synchronized (physics.getWorldLock()) {
+            targeted = dynamicsWorld.findClosestIntersectingBody(
+                    Maths.toVector3(cam.getPosition().add(0, -5f, 0, new Vector3f()))
+                    , Maths.toVector3(currentRay));
+        }
         if (targeted != null) {
             return shapes2.get(targeted.getBody());
         }
@@ -259,8 +328,12 @@ public class CollisionSystem {
         for (Entity e : entities) {
             removeBody(e);
         }
-        for (Entity e : entities) {
-            spawnBody(e);
+        synchronized (physics.getWorldLock()) {
+            dynamicsWorld.beginBodyBatch();
+            for (Entity e : entities) {
+                addEntityBodies(e);
+            }
+            dynamicsWorld.endBodyBatch();
         }
         World.doAABBToRender();
     }
@@ -0,0 +1,253 @@
+package fr.ostix.worldCreator.toolBox.interaction;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.engine.*;
+import com.flowpowered.react.math.*;
+import fr.ostix.worldCreator.entity.*;
+import fr.ostix.worldCreator.toolBox.*;
+import org.joml.*;
+
+import java.lang.Math;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Steps a {@link DynamicsWorld} at its fixed time step on its own thread.
+ * After each update the positions of the bound bodies are published in a snapshot, the render thread takes the last one
+ * without waiting and places the entities between the two last published positions.
+ * The world must only be used on another thread while holding {@link #getWorldLock()}.
+ */
+public class PhysicsService {
+
+    /**
+     * Steps taken at most by one update, the time left after them is dropped instead of being caught up later.
+     */
+    public static final int MAX_STEPS_PER_UPDATE = 4;
+
+    private final DynamicsWorld world;
+    private final long timeStep;
+    private final Object worldLock = new Object();
+    private final List<Binding> bindings = new ArrayList<>();
+    // three snapshots, the one written by the physics thread, the one read by the render thread and the last published one
+    private final AtomicReference<Snapshot> published = new AtomicReference<>(new Snapshot());
+    private Snapshot writing = new Snapshot();
+    private Snapshot reading = new Snapshot();
+    private long lastPublishTime;
+    private long version;
+    private Thread thread;
+    private volatile boolean running;
+
+    private final AtomicLong stepCount = new AtomicLong();
+    private final AtomicLong catchUpCount = new AtomicLong();
+    private final AtomicLong droppedUpdateCount = new AtomicLong();
+    private final AtomicLong failedUpdateCount = new AtomicLong();
+    private volatile long lastStepTime;
+    private volatile int bodyCount;
+
+    public PhysicsService(DynamicsWorld world, float timeStep) {
+        this.world = world;
+        this.timeStep = (long) (timeStep * 1_000_000_000L);
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        lastPublishTime = System.nanoTime();
+        thread = new Thread(this::run, "Physics");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long start = System.nanoTime();
+            int steps = 0;
+            synchronized (worldLock) {
+                try {
+                    steps = world.update(MAX_STEPS_PER_UPDATE);
+                    if (steps > 0) {
+                        publish();
+                    }
+                } catch (RuntimeException e) {
+                    // a failing step fails again at the next update, only the first one is logged
+                    if (failedUpdateCount.getAndIncrement() == 0) {
+                        Logger.err("The physics update failed", e);
+                    }
+                }
+                bodyCount = world.getNbRigidBodies();
+            }
+            long end = System.nanoTime();
+            if (steps > 0) {
+                stepCount.addAndGet(steps);
+                catchUpCount.addAndGet(steps - 1);
+                if (steps == MAX_STEPS_PER_UPDATE) {
+                    droppedUpdateCount.incrementAndGet();
+                }
+                lastStepTime = (end - start) / steps;
+            }
+            long sleep = timeStep - (end - start);
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+        }
+    }
+
+    private void publish() {
+        long now = System.nanoTime();
+        Snapshot s = writing;
+        s.ensureCapacity(bindings.size());
+        s.count = bindings.size();
+        s.publishTime = now;
+        s.interval = Math.max(now - lastPublishTime, 1);
+        s.version = ++version;
+        lastPublishTime = now;
+        for (int i = 0; i < s.count; i++) {
+            Binding b = bindings.get(i);
+            Vector3 p = b.body.getTransform().getPosition();
+            float x = p.getX() + b.offset.x();
+            float y = p.getY() + b.offset.y();
+            float z = p.getZ() + b.offset.z();
+            s.entities[i] = b.entity;
+            s.positions[i * 6] = b.lastX;
+            s.positions[i * 6 + 1] = b.lastY;
+            s.positions[i * 6 + 2] = b.lastZ;
+            s.positions[i * 6 + 3] = x;
+            s.positions[i * 6 + 4] = y;
+            s.positions[i * 6 + 5] = z;
+            b.lastX = x;
+            b.lastY = y;
+            b.lastZ = z;
+        }
+        Arrays.fill(s.entities, s.count, s.entities.length, null);
+        writing = published.getAndSet(s);
+    }
+
+    /**
+     * Places the bound entities between their two last published positions, from the time elapsed since the last publication.
+     * Called on the render thread, never waits for the physics thread.
+     */
+    public void applyInterpolatedPositions() {
+        if (published.get().version > reading.version) {
+            reading = published.getAndSet(reading);
+        }
+        Snapshot s = reading;
+        float alpha = Math.min(Math.max((System.nanoTime() - s.publishTime) / (float) s.interval, 0), 1);
+        for (int i = 0; i < s.count; i++) {
+            float[] p = s.positions;
+            s.entities[i].getPosition().set(
+                    p[i * 6] + (p[i * 6 + 3] - p[i * 6]) * alpha,
+                    p[i * 6 + 1] + (p[i * 6 + 4] - p[i * 6 + 1]) * alpha,
+                    p[i * 6 + 2] + (p[i * 6 + 5] - p[i * 6 + 2]) * alpha);
+        }
+    }
+
+    /**
+     * Moves the entity with the body, the entity keeps its current offset from the body.
+     * Must be called while holding the world lock.
+     */
+    public void bind(Entity entity, RigidBody body) {
+        Vector3 p = body.getTransform().getPosition();
+        Vector3f offset = new Vector3f(entity.getPosition()).sub(p.getX(), p.getY(), p.getZ());
+        bindings.add(new Binding(entity, body, offset));
+    }
+
+    /**
+     * Must be called while holding the world lock.
+     */
+    public void unbind(RigidBody body) {
+        bindings.removeIf(b -> b.body == body);
+    }
+
+    public Object getWorldLock() {
+        return worldLock;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the time taken by one step during the last update in milliseconds
+     */
+    public float getLastStepTime() {
+        return lastStepTime / 1_000_000f;
+    }
+
+    public long getStepCount() {
+        return stepCount.get();
+    }
+
+    /**
+     * @return the number of steps taken in addition to the first one of each update to catch up with the real time
+     */
+    public long getCatchUpCount() {
+        return catchUpCount.get();
+    }
+
+    /**
+     * @return the number of updates which took {@link #MAX_STEPS_PER_UPDATE} steps, the whole steps left after them were dropped
+     */
+    public long getDroppedUpdateCount() {
+        return droppedUpdateCount.get();
+    }
+
+    public long getFailedUpdateCount() {
+        return failedUpdateCount.get();
+    }
+
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    private static class Binding {
+        private final Entity entity;
+        private final RigidBody body;
+        private final Vector3f offset;
+        private float lastX;
+        private float lastY;
+        private float lastZ;
+
+        private Binding(Entity entity, RigidBody body, Vector3f offset) {
+            this.entity = entity;
+            this.body = body;
+            this.offset = offset;
+            Vector3 p = body.getTransform().getPosition();
+            this.lastX = p.getX() + offset.x();
+            this.lastY = p.getY() + offset.y();
+            this.lastZ = p.getZ() + offset.z();
+        }
+    }
+
+    private static class Snapshot {
+        private Entity[] entities = new Entity[0];
+        // previous then current position of each entity
+        private float[] positions = new float[0];
+        private int count;
+        private long version;
+        private long publishTime;
+        private long interval = 1;
+
+        private void ensureCapacity(int capacity) {
+            if (entities.length < capacity) {
+                entities = Arrays.copyOf(entities, capacity);
+                positions = Arrays.copyOf(positions, capacity * 6);
+            }
+        }
+    }
+}
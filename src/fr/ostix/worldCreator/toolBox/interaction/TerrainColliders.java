@@ -0,0 +1,160 @@
+package fr.ostix.worldCreator.toolBox.interaction;
+
+import com.flowpowered.react.body.*;
+import com.flowpowered.react.collision.shape.*;
+import com.flowpowered.react.engine.*;
+import com.flowpowered.react.math.Quaternion;
+import com.flowpowered.react.math.Transform;
+import com.flowpowered.react.math.*;
+import fr.ostix.worldCreator.terrain.*;
+import fr.ostix.worldCreator.world.chunk.*;
+
+import java.util.*;
+
+/**
+ * Static bodies following the terrains of the loaded chunks.
+ * A terrain is split in {@link #CELLS} x {@link #CELLS} cells, each cell is the convex hull of the heights at its four
+ * corners and of the same corners {@link #THICKNESS} under the lowest one, so a body resting on it follows the terrain
+ * mesh between the corners. The bodies of a terrain are rebuilt when its heights are replaced and destroyed with its chunk.
+ * Must be used while holding the world lock of the {@link PhysicsService}.
+ */
+class TerrainColliders {
+
+    static final int CELLS = 10;
+    static final float THICKNESS = 2;
+
+    private final DynamicsWorld world;
+    private final Material material;
+    // by identity, two terrains with the same model and textures are still two colliders
+    private final Map<Terrain, Collider> colliders = new IdentityHashMap<>();
+    private final Set<Terrain> loaded = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    TerrainColliders(DynamicsWorld world, Material material) {
+        this.world = world;
+        this.material = material;
+    }
+
+    /**
+     * @return true if a terrain of the snapshot has no bodies or new heights, or if a terrain with bodies was unloaded
+     */
+    boolean isOutdated(ChunkSnapshot chunks) {
+        loaded.clear();
+        chunks.forEach(c -> {
+            Terrain t = c.getTerrain();
+            if (t != null && t.getHeights() != null) {
+                loaded.add(t);
+            }
+        });
+        if (loaded.size() != colliders.size()) {
+            return true;
+        }
+        for (Terrain t : loaded) {
+            Collider c = colliders.get(t);
+            if (c == null || t.getHeights() != c.heights) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void update(ChunkSnapshot chunks) {
+        if (!isOutdated(chunks)) {
+            return;
+        }
+        world.beginBodyBatch();
+        Iterator<Collider> it = colliders.values().iterator();
+        while (it.hasNext()) {
+            Collider c = it.next();
+            if (!loaded.contains(c.terrain) || c.terrain.getHeights() != c.heights) {
+                c.destroy(world);
+                it.remove();
+            }
+        }
+        for (Terrain t : loaded) {
+            if (!colliders.containsKey(t)) {
+                colliders.put(t, build(t));
+            }
+        }
+        world.endBodyBatch();
+    }
+
+    boolean isEmpty() {
+        return colliders.isEmpty();
+    }
+
+    int getBodyCount() {
+        int count = 0;
+        for (Collider c : colliders.values()) {
+            count += c.bodies.size();
+        }
+        return count;
+    }
+
+    void clear() {
+        for (Collider c : colliders.values()) {
+            c.destroy(world);
+        }
+        colliders.clear();
+    }
+
+    private Collider build(Terrain t) {
+        float[] heights = t.getHeights();
+        int vertexCount = t.getVertexCount();
+        float gridSquareSize = Terrain.getSIZE() / (vertexCount - 1f);
+        Collider collider = new Collider(t, heights);
+        for (int cz = 0; cz < CELLS; cz++) {
+            for (int cx = 0; cx < CELLS; cx++) {
+                int x0 = cx * (vertexCount - 1) / CELLS;
+                int x1 = (cx + 1) * (vertexCount - 1) / CELLS;
+                int z0 = cz * (vertexCount - 1) / CELLS;
+                int z1 = (cz + 1) * (vertexCount - 1) / CELLS;
+                float h00 = heights[z0 * vertexCount + x0];
+                float h10 = heights[z0 * vertexCount + x1];
+                float h01 = heights[z1 * vertexCount + x0];
+                float h11 = heights[z1 * vertexCount + x1];
+                float bottom = Math.min(Math.min(h00, h10), Math.min(h01, h11)) - THICKNESS;
+                // the vertices are relative to the cell center, the body is placed there
+                float halfX = (x1 - x0) * gridSquareSize / 2;
+                float halfZ = (z1 - z0) * gridSquareSize / 2;
+                float centerX = t.getX() + x0 * gridSquareSize + halfX;
+                float centerZ = t.getZ() + z0 * gridSquareSize + halfZ;
+                float[] vertices = {
+                        -halfX, h00 - bottom, -halfZ,
+                        halfX, h10 - bottom, -halfZ,
+                        -halfX, h01 - bottom, halfZ,
+                        halfX, h11 - bottom, halfZ,
+                        -halfX, 0, -halfZ,
+                        halfX, 0, -halfZ,
+                        -halfX, 0, halfZ,
+                        halfX, 0, halfZ
+                };
+                ConvexMeshShape shape = new ConvexMeshShape(vertices, 8, 3 * Float.BYTES);
+                RigidBody body = world.createRigidBody(new Transform(new Vector3(centerX, bottom, centerZ),
+                        Quaternion.identity()), 1, shape);
+                body.enableMotion(false);
+                body.enableCollision(true);
+                body.setMaterial(material);
+                collider.bodies.add(body);
+            }
+        }
+        return collider;
+    }
+
+    private static class Collider {
+        private final Terrain terrain;
+        private final float[] heights;
+        private final List<RigidBody> bodies = new ArrayList<>();
+
+        private Collider(Terrain terrain, float[] heights) {
+            this.terrain = terrain;
+            this.heights = heights;
+        }
+
+        private void destroy(DynamicsWorld world) {
+            for (RigidBody body : bodies) {
+                world.destroyRigidBody(body);
+            }
+            bodies.clear();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package fr.ostix.worldCreator.world;
+
+import fr.ostix.worldCreator.terrain.*;
+import fr.ostix.worldCreator.world.chunk.*;
+
+/**
+ * Terrain height queries across the chunks of a {@link ChunkSnapshot} without allocation.
+ * Outside of the loaded chunks the height is 0.
+ */
+public class TerrainHeightSampler {
+
+    public static float getHeight(ChunkSnapshot chunks, float worldX, float worldZ) {
+        Terrain t = chunks.getTerrain(chunkIndex(worldX), chunkIndex(worldZ));
+        if (t == null || t.getHeights() == null) {
+            return 0;
+        }
+        return t.getHeightOfTerrain(worldX, worldZ);
+    }
+
+    /**
+     * Samples {@code count} positions, the terrain of the previous sample is reused while the positions
+     * stay in the same chunk.
+     */
+    public static void getHeights(ChunkSnapshot chunks, float[] worldX, float[] worldZ, float[] heights, int count) {
+        int lastX = Integer.MIN_VALUE;
+        int lastZ = Integer.MIN_VALUE;
+        Terrain t = null;
+        for (int i = 0; i < count; i++) {
+            int x = chunkIndex(worldX[i]);
+            int z = chunkIndex(worldZ[i]);
+            if (x != lastX || z != lastZ) {
+                t = chunks.getTerrain(x, z);
+                lastX = x;
+                lastZ = z;
+            }
+            heights[i] = t == null || t.getHeights() == null ? 0 : t.getHeightOfTerrain(worldX[i], worldZ[i]);
+        }
+    }
+
+    /**
+     * Same as {@link #getHeights(ChunkSnapshot, float[], float[], float[], int)} with interleaved (x, z) positions.
+     */
+    public static void getHeights(ChunkSnapshot chunks, float[] positionsXZ, float[] heights) {
+        int lastX = Integer.MIN_VALUE;
+        int lastZ = Integer.MIN_VALUE;
+        Terrain t = null;
+        for (int i = 0; i < heights.length; i++) {
+            float worldX = positionsXZ[i * 2];
+            float worldZ = positionsXZ[i * 2 + 1];
+            int x = chunkIndex(worldX);
+            int z = chunkIndex(worldZ);
+            if (x != lastX || z != lastZ) {
+                t = chunks.getTerrain(x, z);
+                lastX = x;
+                lastZ = z;
+            }
+            heights[i] = t == null || t.getHeights() == null ? 0 : t.getHeightOfTerrain(worldX, worldZ);
+        }
+    }
+
+    private static int chunkIndex(float world) {
+        return (int) Math.floor(world / Terrain.getSIZE());
+    }
+}
@@ -0,0 +1,287 @@
+package fr.ostix.worldCreator.world;
+
+import fr.ostix.worldCreator.terrain.*;
+import fr.ostix.worldCreator.toolBox.*;
+import fr.ostix.worldCreator.world.chunk.*;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+
+import javax.imageio.*;
+import java.awt.image.*;
+import java.io.*;
+import java.lang.management.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Runnable check of {@link TerrainHeightSampler} against the height lookup of {@code World.getTerrainHeight} before the sampler,
+ * copied below with its vector barycentric interpolation, exits with 1 if a check fails.
+ * <ul>
+ * <li>single and batch samples give the same heights as the old lookup, bit for bit, on a 3x3 chunk area with negative coordinates,
+ * a chunk without terrain and the unloaded chunks around</li>
+ * <li>the same on the chunk and grid cell boundaries and one float step on each side of them</li>
+ * <li>the batches in a random order, where the chunk changes at almost every sample, and sorted ones where it is reused</li>
+ * <li>the single and batch samples allocate nothing once warmed up</li>
+ * </ul>
+ * The terrains are built from generated height maps in a temporary repository, their GL requests are never executed.
+ * Then prints the time per sample of each path. Arguments: number of random samples (default 1000000) and seed (default 13).
+ */
+public class TerrainHeightSamplerCheck {
+
+    private static final int VERTEX_COUNT = 256;
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 13;
+        Random random = new Random(seed);
+
+        File repository = Config.REPOSITORY_FOLDER;
+        Path folder = Files.createTempDirectory("heights");
+        Config.REPOSITORY_FOLDER = folder.toFile();
+        ChunkSnapshot chunks;
+        try {
+            chunks = createChunks(folder, random);
+        } finally {
+            Config.REPOSITORY_FOLDER = repository;
+            deleteAll(folder.toFile());
+        }
+
+        float size = Terrain.getSIZE();
+        // the loaded area is [-size, 2 * size[ on both axes, the samples go one chunk further
+        float[] x = new float[samples];
+        float[] z = new float[samples];
+        for (int i = 0; i < samples; i++) {
+            x[i] = (random.nextFloat() * 5 - 2) * size;
+            z[i] = (random.nextFloat() * 5 - 2) * size;
+        }
+        check("random samples give the old heights", sameAsLegacy(chunks, x, z));
+
+        float[] bx = boundaryCoordinates(size);
+        float[] edgeX = new float[bx.length * bx.length];
+        float[] edgeZ = new float[bx.length * bx.length];
+        for (int i = 0; i < bx.length; i++) {
+            for (int j = 0; j < bx.length; j++) {
+                edgeX[i * bx.length + j] = bx[i];
+                edgeZ[i * bx.length + j] = bx[j];
+            }
+        }
+        check("samples on the chunk and cell boundaries give the old heights (" + edgeX.length + " samples)", sameAsLegacy(chunks, edgeX, edgeZ));
+
+        float[] sortedX = x.clone();
+        float[] sortedZ = z.clone();
+        sortByChunk(sortedX, sortedZ, size);
+        check("samples sorted by chunk give the old heights", sameAsLegacy(chunks, sortedX, sortedZ));
+
+        checkAllocations(chunks, x, z);
+        time(chunks, x, z, "random order");
+        time(chunks, sortedX, sortedZ, "sorted by chunk");
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    // the terrains of chunks -1 to 1 on both axes, except the chunk (1, 1) which has no terrain
+    private static ChunkSnapshot createChunks(Path folder, Random random) throws IOException {
+        Path heightMaps = Files.createDirectories(folder.resolve("textures/terrain/heightMap"));
+        writeHeightMap(heightMaps.resolve("noise.png").toFile(), random, false);
+        writeHeightMap(heightMaps.resolve("hills.png").toFile(), random, true);
+        ChunkHandler handler = new ChunkHandler(null);
+        for (int cx = -1; cx <= 1; cx++) {
+            for (int cz = -1; cz <= 1; cz++) {
+                Chunk chunk = new Chunk(cx, cz, new ArrayList<>());
+                if (cx != 1 || cz != 1) {
+                    chunk.setTerrain(new Terrain(cx, cz, null, null, (cx + cz) % 2 == 0 ? "noise" : "hills"));
+                }
+                handler.addChunk(cx, cz, chunk);
+            }
+        }
+        ChunkSnapshot chunks = handler.publishChanges();
+        handler.stop();
+        return chunks;
+    }
+
+    private static void writeHeightMap(File file, Random random, boolean smooth) throws IOException {
+        BufferedImage image = new BufferedImage(VERTEX_COUNT, VERTEX_COUNT, BufferedImage.TYPE_INT_RGB);
+        for (int z = 0; z < VERTEX_COUNT; z++) {
+            for (int x = 0; x < VERTEX_COUNT; x++) {
+                int value = smooth
+                        ? (int) ((Math.sin(x * 0.05) * Math.cos(z * 0.07) + 1) * 0x7FFFFF)
+                        : random.nextInt(0x1000000);
+                image.setRGB(x, z, value);
+            }
+        }
+        ImageIO.write(image, "png", file);
+    }
+
+    // every chunk and grid cell boundary of the area, with the float just before and after it
+    private static float[] boundaryCoordinates(float size) {
+        float cell = size / (VERTEX_COUNT - 1);
+        List<Float> coordinates = new ArrayList<>();
+        for (int chunk = -2; chunk <= 3; chunk++) {
+            float start = chunk * size;
+            for (int i = 0; i < VERTEX_COUNT; i += 51) {
+                float c = start + i * cell;
+                coordinates.add(Math.nextDown(c));
+                coordinates.add(c);
+                coordinates.add(Math.nextUp(c));
+            }
+        }
+        float[] result = new float[coordinates.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = coordinates.get(i);
+        }
+        return result;
+    }
+
+    private static void sortByChunk(float[] x, float[] z, float size) {
+        Integer[] order = new Integer[x.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> ChunkMap.key((int) Math.floor(x[i] / size), (int) Math.floor(z[i] / size))));
+        float[] ox = x.clone();
+        float[] oz = z.clone();
+        for (int i = 0; i < order.length; i++) {
+            x[i] = ox[order[i]];
+            z[i] = oz[order[i]];
+        }
+    }
+
+    private static boolean sameAsLegacy(ChunkSnapshot chunks, float[] x, float[] z) {
+        int count = x.length;
+        float[] batch = new float[count];
+        float[] interleaved = new float[count];
+        float[] positions = new float[count * 2];
+        for (int i = 0; i < count; i++) {
+            positions[i * 2] = x[i];
+            positions[i * 2 + 1] = z[i];
+        }
+        TerrainHeightSampler.getHeights(chunks, x, z, batch, count);
+        TerrainHeightSampler.getHeights(chunks, positions, interleaved);
+        for (int i = 0; i < count; i++) {
+            int expected = Float.floatToIntBits(legacyHeight(chunks, x[i], z[i]));
+            if (Float.floatToIntBits(TerrainHeightSampler.getHeight(chunks, x[i], z[i])) != expected
+                    || Float.floatToIntBits(batch[i]) != expected || Float.floatToIntBits(interleaved[i]) != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkAllocations(ChunkSnapshot chunks, float[] x, float[] z) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("The thread allocated bytes are not supported by this JVM");
+            failures++;
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        float[] heights = new float[x.length];
+        float[] positions = new float[x.length * 2];
+        for (int i = 0; i < x.length; i++) {
+            positions[i * 2] = x[i];
+            positions[i * 2 + 1] = z[i];
+        }
+        for (int i = 0; i < 5; i++) {
+            TerrainHeightSampler.getHeights(chunks, x, z, heights, x.length);
+            TerrainHeightSampler.getHeights(chunks, positions, heights);
+            singleSamples(chunks, x, z);
+        }
+        long start = allocations.getThreadAllocatedBytes(thread);
+        TerrainHeightSampler.getHeights(chunks, x, z, heights, x.length);
+        long batch = allocations.getThreadAllocatedBytes(thread) - start;
+        start = allocations.getThreadAllocatedBytes(thread);
+        TerrainHeightSampler.getHeights(chunks, positions, heights);
+        long interleaved = allocations.getThreadAllocatedBytes(thread) - start;
+        start = allocations.getThreadAllocatedBytes(thread);
+        singleSamples(chunks, x, z);
+        long single = allocations.getThreadAllocatedBytes(thread) - start;
+        check("the batches allocate nothing (" + batch + " and " + interleaved + " bytes for " + x.length + " samples)", batch == 0 && interleaved == 0);
+        check("the single samples allocate nothing (" + single + " bytes)", single == 0);
+    }
+
+    private static float singleSamples(ChunkSnapshot chunks, float[] x, float[] z) {
+        float sum = 0;
+        for (int i = 0; i < x.length; i++) {
+            sum += TerrainHeightSampler.getHeight(chunks, x[i], z[i]);
+        }
+        return sum;
+    }
+
+    private static void time(ChunkSnapshot chunks, float[] x, float[] z, String order) {
+        float[] heights = new float[x.length];
+        float sum = 0;
+        long legacy = Long.MAX_VALUE;
+        long single = Long.MAX_VALUE;
+        long batch = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < x.length; i++) {
+                sum += legacyHeight(chunks, x[i], z[i]);
+            }
+            long middle = System.nanoTime();
+            sum += singleSamples(chunks, x, z);
+            long end = System.nanoTime();
+            TerrainHeightSampler.getHeights(chunks, x, z, heights, x.length);
+            long batchEnd = System.nanoTime();
+            sum += heights[run];
+            legacy = Math.min(legacy, middle - start);
+            single = Math.min(single, end - middle);
+            batch = Math.min(batch, batchEnd - end);
+        }
+        System.out.printf("%s: old lookup %.1f ns, getHeight %.1f ns, getHeights %.1f ns per sample (checksum %s)%n",
+                order, (double) legacy / x.length, (double) single / x.length, (double) batch / x.length, sum);
+    }
+
+    // World.getTerrainHeight and Terrain.getHeightOfTerrain before the sampler
+    private static float legacyHeight(ChunkSnapshot chunks, float worldX, float worldZ) {
+        int x = (int) Math.floor(worldX / Terrain.getSIZE());
+        int z = (int) Math.floor(worldZ / Terrain.getSIZE());
+        Terrain t = chunks.getTerrain(x, z);
+        if (t == null) {
+            return 0;
+        }
+        float[] heights = t.getHeights();
+        int vertexCount = t.getVertexCount();
+        float terrainX = worldX - t.getX();
+        float terrainZ = worldZ - t.getZ();
+        float gridSquareSize = Terrain.getSIZE() / ((float) vertexCount - 1);
+        int gridX = (int) Math.floor(terrainX / gridSquareSize);
+        int gridZ = (int) Math.floor(terrainZ / gridSquareSize);
+        if (gridX < 0 || gridX >= vertexCount - 1 || gridZ < 0 || gridZ >= vertexCount - 1) {
+            return 0;
+        }
+        float xCoord = (terrainX % gridSquareSize) / gridSquareSize;
+        float zCoord = (terrainZ % gridSquareSize) / gridSquareSize;
+        if (xCoord <= (1 - zCoord)) {
+            return Maths.barryCentric(new Vector3f(0, heights[gridZ * vertexCount + gridX], 0), new Vector3f(1,
+                    heights[gridZ * vertexCount + gridX + 1], 0), new Vector3f(0,
+                    heights[(gridZ + 1) * vertexCount + gridX], 1), new Vector2f(xCoord, zCoord));
+        }
+        return Maths.barryCentric(new Vector3f(1, heights[gridZ * vertexCount + gridX + 1], 0), new Vector3f(1,
+                heights[(gridZ + 1) * vertexCount + gridX + 1], 1), new Vector3f(0,
+                heights[(gridZ + 1) * vertexCount + gridX], 1), new Vector2f(xCoord, zCoord));
+    }
+
+    private static void deleteAll(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteAll(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
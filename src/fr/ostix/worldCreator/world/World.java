@@ -27,9 +27,7 @@ import java.util.*;
 import static org.lwjgl.glfw.GLFW.*;
 
 public class World {
-    private static Map<Vector2f, Chunk> terrains = null;
     private final List<WaterTile> waterTiles = new ArrayList<>();
-    private static final List<Entity> entities = Collections.synchronizedList(new ArrayList<>());
     private static final List<Entity> aabbs = new ArrayList<>();
     private final MousePicker mousePicker;
     private EditionMode editionMode = EditionMode.TERRAIN;
@@ -48,14 +46,13 @@ public class World {
 
     private static final Color FILTER = new Color(0.3f, 0.3f, 0.3f);
 
-    public World(MasterRenderer renderer, Map<Vector2f, Chunk> terrains, Camera cam) {
-        World.terrains =  terrains;
+    public World(MasterRenderer renderer, Camera cam) {
         this.renderer = renderer;
         this.cam = cam;
-        chunkHandler = new ChunkHandler(cam,terrains, entities);
+        chunkHandler = new ChunkHandler(cam);
         this.collisionSystem = new CollisionSystem();
-        this.mousePicker = new MousePicker(MasterRenderer.getProjectionMatrix(), cam, terrains);
-        this.collisionSystem.init(1 / 120f, entities, this);
+        this.mousePicker = new MousePicker(MasterRenderer.getProjectionMatrix(), cam, chunkHandler);
+        this.collisionSystem.init(1 / 120f, chunkHandler.getSnapshot().getEntities(), this);
 
     }
 
@@ -77,7 +74,6 @@ public class World {
     }
 
     public void remove(Entity e, boolean isFromCollisionSystem) {
-        entities.remove(e);
         chunkHandler.remove(e);
         if (!isFromCollisionSystem) collisionSystem.removeBody(e);
     }
@@ -115,16 +111,14 @@ public class World {
     }
 
     public void update() {
-        renderer.setEntities(chunkHandler.getEntities());
-
-        terrains.clear();
-        terrains.putAll(chunkHandler.getChunkMap());
-        collisionSystem.update(chunkHandler.getEntities());
-
-        synchronized (entities){
-            for (Entity entity : entities) {
-                entity.update();
-            }
+        ChunkSnapshot chunks = chunkHandler.publishChanges();
+        renderer.setEntities(chunks.getEntities());
+        renderer.setChunks(chunks);
+        collisionSystem.update(chunks);
+        collisionSystem.updatePositions();
+
+        for (Entity entity : chunks.getEntities()) {
+            entity.update();
         }
 
         if (!canAddEntity) {
@@ -155,7 +149,6 @@ public class World {
                 entityPicked.getScale().add(new Vector3f(GLCanvas.mouseDWheel * entityPicked.getScale().y() / 25f));
                 if (Input.keysMouse[GLFW_MOUSE_BUTTON_1] && canAddEntity) {
                     Entity clone = entityPicked.clone();
-                    entities.add(clone);
                     chunkHandler.addEntity(mousePicker.getCurrentChunk(),clone);
                     collisionSystem.spawnBody(clone);
                     canAddEntity = false;
@@ -261,31 +254,23 @@ public class World {
         long time = System.nanoTime();
         for (int x1 = xCoords; x1 < xCoords + x; x1++) {
             for (int z1 = zCoords; z1 < zCoords + z; z1++) {
-                terrains.put(new Vector2f(x1,z1),new Chunk(x1,z1,new ArrayList<>()).setTerrain(new Terrain(x1, z1, new TerrainTexturePack(Config.TERRAIN_DEFAULT_PACK), new TerrainTexture(Config.BLEND_MAP), "default")));
+                chunkHandler.addChunk(x1,z1,new Chunk(x1,z1,new ArrayList<>()).setTerrain(new Terrain(x1, z1, new TerrainTexturePack(Config.TERRAIN_DEFAULT_PACK), new TerrainTexture(Config.BLEND_MAP), "default")));
             }
         }
         Logger.err("Terrain mesh generation took " + (System.nanoTime() - time));
     }
 
     public void cleanup() {
+        chunkHandler.stop();
         collisionSystem.finish();
     }
 
     public static float getTerrainHeight(float worldX, float worldZ) {
-        int x = (int) Math.floor(worldX / Terrain.getSIZE());
-        int z = (int) Math.floor(worldZ / Terrain.getSIZE());
-        try {
-            return terrains.get(new Vector2f(x,z)).getTerrain().getHeightOfTerrain(worldX, worldZ);
-        } catch (Exception e) {
-            // Logger.err("World doesn't exist in this coordinates xIndex : " + x + " ZIndex : " + z);
-        }
-        return 0;
+        return TerrainHeightSampler.getHeight(chunkHandler.getSnapshot(), worldX, worldZ);
     }
 
     public void setEntity(Entity entity) {
-        entities.remove(entityPicked);
         entityPicked = entity;
-        entities.add(entity);
         if (entity.getModel().getMeshModel() == null) {
             Logger.err("The model of  " + entity + " is null");
         }
@@ -297,7 +282,7 @@ public class World {
     }
 
     public void refreshCollisions() {
-        collisionSystem.refresh(new ArrayList<>(chunkHandler.getEntities()));
+        collisionSystem.refresh(new ArrayList<>(chunkHandler.getSnapshot().getEntities()));
     }
 
     public ChunkHandler getChunkManager() {
@@ -12,6 +12,7 @@ import fr.ostix.worldCreator.toolBox.*;
 import java.io.*;
 import java.nio.channels.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 public class Chunk {
 
@@ -19,6 +20,8 @@ public class Chunk {
     private Terrain terrain;
     private final int x;
     private final int z;
+    private final AtomicLong edits = new AtomicLong();
+    private volatile long savedEdits;
 
     public Chunk(int x, int z,List<Entity> entities) {
         this.entities = entities;
@@ -28,17 +31,47 @@ public class Chunk {
 
     public void addEntity(Entity e) {
         this.entities.add(e);
+        markDirty();
     }
 
-    public void removePart(Entity e) {
-        this.entities.remove(e);
+    public boolean removePart(Entity e) {
+        if (this.entities.remove(e)) {
+            markDirty();
+            return true;
+        }
+        return false;
     }
 
-    public void export(FileChannel fc) throws IOException {
-        fc.write(DataTransformer.lineBuffer("CHUNK " + x + ";" + z));
+    public void markDirty() {
+        edits.incrementAndGet();
+    }
+
+    /**
+     * @return a counter growing with every edit of this chunk or of its terrain
+     */
+    public long getEditCount() {
+        return edits.get() + (terrain == null ? 0 : terrain.getEditCount());
+    }
+
+    public boolean isDirty() {
+        return getEditCount() != savedEdits;
+    }
+
+    /**
+     * @param editCount the {@link #getEditCount() edit count} read before the chunk was exported
+     */
+    public void markSaved(long editCount) {
+        savedEdits = editCount;
+    }
+
+    public void export(WritableByteChannel fc) throws IOException {
+        DataTransformer.writeLine(fc, "CHUNK " + x + ";" + z);
+        exportContent(fc);
+    }
+
+    public void exportContent(WritableByteChannel fc) throws IOException {
         exportTerrain(fc);
         exportEntities(fc);
-
     }
 
     public boolean isEmpty() {
@@ -49,28 +82,29 @@ public class Chunk {
         return false;
     }
 
-    private void exportEntities(FileChannel fc) throws IOException {
-        fc.write(DataTransformer.lineBuffer("ENTITIES"));
+    private void exportEntities(WritableByteChannel fc) throws IOException {
+        DataTransformer.writeLine(fc, "ENTITIES");
         for (Entity e : this.entities) {
             String entityContent = e.toString() +";"+ e.getId() +";"+e.getComponent();
-            fc.write(DataTransformer.lineBuffer(entityContent));
+            DataTransformer.writeLine(fc, entityContent);
             e.getTransform().export(fc);
         }
     }
 
     public Chunk setTerrain(Terrain t) {
         this.terrain = t;
+        this.savedEdits = getEditCount();
         return this;
     }
 
-    private void exportTerrain(FileChannel fc) throws IOException {
+    private void exportTerrain(WritableByteChannel fc) throws IOException {
         float x = terrain.getX() / Terrain.getSIZE();
         float z = terrain.getZ() / Terrain.getSIZE();
-        fc.write(DataTransformer.lineBuffer(x + ";" + z));
+        DataTransformer.writeLine(fc, x + ";" + z);
         terrain.getTexturePack().export(fc);
         String blendMap = terrain.getBlendMap().getName().replaceAll(".png","");
         String heightMap = terrain.getHeightMap();
-        fc.write(DataTransformer.lineBuffer(blendMap + ";" + heightMap));
+        DataTransformer.writeLine(fc, blendMap + ";" + heightMap);
     }
 
     public List<Entity> getEntities() {
@@ -81,6 +115,14 @@ public class Chunk {
         return terrain;
     }
 
+    public int getX() {
+        return x;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
     public static Chunk load(String content, int x, int z) {
         Terrain t = importTerrain(content);
         List<Entity> entities = importEntities(content);
@@ -7,265 +7,196 @@ import org.joml.Math;
 import org.joml.*;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 public class ChunkHandler {
 
-    private final Map<Vector2f, Chunk> chunkList = Collections.synchronizedMap(new HashMap<>());
-    private final Map<Vector2f, ChunksFile> chunksFileList = new HashMap<>();
+    private final ChunkMap chunkList = new ChunkMap();
+    private final Map<Long, ChunksFile> chunksFileList = new ConcurrentHashMap<>();
     private final Camera cam;
-    private final Map<Vector2f, Chunk> worldChunk;
-    private final Map<Chunk, List<Entity>> entitiesChunk = Collections.synchronizedMap(new HashMap<>());
-    private final List<Entity> entities;
-
-    public ChunkHandler(Camera cam, Map<Vector2f, Chunk> worldChunk, List<Entity> entities) {
+    private final Object snapshotLock = new Object();
+    private volatile ChunkSnapshot snapshot = ChunkSnapshot.EMPTY;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private volatile List<Entity> aabbs = new ArrayList<>();
+    private final ChunkStreamer streamer;
+    private final ExecutorService saver = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ChunkSaver");
+        t.setDaemon(true);
+        return t;
+    });
+    private int lastChunkX = Integer.MIN_VALUE;
+    private int lastChunkZ = Integer.MIN_VALUE;
+    private int lastViewDistance = -1;
+
+    public ChunkHandler(Camera cam) {
         this.cam = cam;
-        this.worldChunk = worldChunk;
-        this.entities = entities;
+        this.streamer = new ChunkStreamer(this, 2);
     }
 
     public void run() {
-        Thread t = new Thread(() -> {
-
-
-            int playerChunkX = (int) Math.floor(cam.getPosition().x() / Terrain.getSIZE() / 3); // Get the current chunk that the player is in on the X - Axis
-            int playerChunkZ = (int) Math.floor(cam.getPosition().z() / Terrain.getSIZE() / 3); // Get the current chunk that the player is in on the Z - Axis
-
-            // System.out.println(playerChunkX + ", " + playerChunkZ);
-
-            int viewDistanceChunkFile = cam.viewDistance;
-            for (int x1 = 0; x1 <= viewDistanceChunkFile; x1 += 3) { // X - Axis iteration
-                for (int z1 = 0; z1 <= viewDistanceChunkFile; z1 += 3) { // Z - Axis iteration
-                    int x = x1 / 3;
-                    int z = z1 / 3;
-                    if (!(chunksFileList.containsKey(new Vector2f(playerChunkX + x, playerChunkZ)))) {
-                        chunksFileList.put(new Vector2f(playerChunkX + x, playerChunkZ), new ChunksFile(playerChunkX + x, playerChunkZ));
-                        chunksFileList.get(new Vector2f(playerChunkX + x, playerChunkZ)).load();
-                    }
-
-                    if (!(chunksFileList.containsKey(new Vector2f(playerChunkX, playerChunkZ + z)))) {
-                        chunksFileList.put(new Vector2f(playerChunkX, playerChunkZ + z), new ChunksFile(playerChunkX, playerChunkZ + z));
-                        chunksFileList.get(new Vector2f(playerChunkX, playerChunkZ + z)).load();
-                    }
-
-                    if (!(chunksFileList.containsKey(new Vector2f(playerChunkX + x, playerChunkZ + z)))) {
-                        chunksFileList.put(new Vector2f(playerChunkX + x, playerChunkZ + z), new ChunksFile(playerChunkX + x, playerChunkZ + z));
-                        chunksFileList.get(new Vector2f(playerChunkX + x, playerChunkZ + z)).load();
-                    }
-
-                    if ((playerChunkZ - z) > 0) {
-                        if (!(chunksFileList.containsKey(new Vector2f(playerChunkX + x, playerChunkZ - z)))) {
-                            chunksFileList.put(new Vector2f(playerChunkX + x, playerChunkZ - z), new ChunksFile(playerChunkX + x, playerChunkZ - z));
-                            chunksFileList.get(new Vector2f(playerChunkX + x, playerChunkZ - z)).load();
-                        }
-
-                        if (!(chunksFileList.containsKey(new Vector2f(playerChunkX, playerChunkZ - z)))) {
-                            chunksFileList.put(new Vector2f(playerChunkX, playerChunkZ - z), new ChunksFile(playerChunkX, playerChunkZ - z));
-                            chunksFileList.get(new Vector2f(playerChunkX, playerChunkZ - z)).load();
-                        }
-
-                        if ((playerChunkX - x) > 0) {
-                            if (!(chunksFileList.containsKey(new Vector2f(playerChunkX - x, playerChunkZ - z)))) {
-                                chunksFileList.put(new Vector2f(playerChunkX - x, playerChunkZ - z), new ChunksFile(playerChunkX - x, playerChunkZ - z));
-                                chunksFileList.get(new Vector2f(playerChunkX - x, playerChunkZ - z)).load();
-                            }
-                        }
-                    }
-
-                    if ((playerChunkX - x) > 0) {
-                        if (!(chunksFileList.containsKey(new Vector2f(playerChunkX - x, playerChunkZ + z)))) {
-                            chunksFileList.put(new Vector2f(playerChunkX - x, playerChunkZ + z), new ChunksFile(playerChunkX - x, playerChunkZ + z));
-                            chunksFileList.get(new Vector2f(playerChunkX - x, playerChunkZ + z)).load();
-                        }
-                        if (!(chunksFileList.containsKey(new Vector2f(playerChunkX - x, playerChunkZ)))) {
-                            chunksFileList.put(new Vector2f(playerChunkX - x, playerChunkZ), new ChunksFile(playerChunkX - x, playerChunkZ));
-                            chunksFileList.get(new Vector2f(playerChunkX - x, playerChunkZ)).load();
-                        }
-                    }
-                }
-            }
-
-
-            playerChunkX = (int) Math.floor(cam.getPosition().x() / Terrain.getSIZE());
-            playerChunkZ = (int) Math.floor(cam.getPosition().z() / Terrain.getSIZE());
-            Terrain.setWorldChunk(chunkList);
-            for (int x = 0; x < cam.viewDistance; x++) { // X - Axis iteration
-                for (int z = 0; z < cam.viewDistance; z++) { // Z - Axis iteration
-                    loadChunks(playerChunkX, playerChunkZ, x, z);
-
+        int playerChunkX = (int) Math.floor(cam.getPosition().x() / Terrain.getSIZE());
+        int playerChunkZ = (int) Math.floor(cam.getPosition().z() / Terrain.getSIZE());
+        int viewDistance = cam.viewDistance;
+        if (playerChunkX == lastChunkX && playerChunkZ == lastChunkZ && viewDistance == lastViewDistance) {
+            return;
+        }
+        lastChunkX = playerChunkX;
+        lastChunkZ = playerChunkZ;
+        lastViewDistance = viewDistance;
+
+        Terrain.setWorldChunk(chunkList);
+        int radius = viewDistance - 1;
+        streamer.recenter(playerChunkX, playerChunkZ, radius);
+        unLoadChunks(playerChunkX, playerChunkZ, viewDistance);
+        for (int x = playerChunkX - radius; x <= playerChunkX + radius; x++) {
+            for (int z = playerChunkZ - radius; z <= playerChunkZ + radius; z++) {
+                if (x < 0 || z < 0 || chunkList.containsKey(x, z)) {
+                    continue;
                 }
+                streamer.requestLoad(x, z);
             }
-
-
-            unLoadChunks(playerChunkX, playerChunkZ, -cam.viewDistance, -cam.viewDistance,
-                    cam.viewDistance, cam.viewDistance);
-
-//            synchronized (worldChunk) {
-//
-//                worldChunk.clear();
-//                worldChunk.putAll(Collections.synchronizedMap(new HashMap<>(chunkList)));
-//            }
-//            synchronized (entities) {
-//                entities.clear();
-//                entities.addAll(entitiesChunk);
-//            }
-        }, "ChunkHandler");
-        t.start();
+        }
     }
 
-    private void unLoadChunks(int playerChunkX, int playerChunkZ, int xMin, int zMin, int xMax, int zMax) {
-
-        chunkList.remove(new Vector2f(playerChunkX, playerChunkZ + zMax + 1));
-        chunkList.remove(new Vector2f(playerChunkX, playerChunkZ + zMin - 1));
-        chunkList.remove(new Vector2f(playerChunkX + xMax + 1, playerChunkZ));
-        chunkList.remove(new Vector2f(playerChunkX + xMin - 1, playerChunkZ));
-
-        chunkList.remove(new Vector2f(playerChunkX + xMax + 1, playerChunkZ + zMax + 1));
-        chunkList.remove(new Vector2f(playerChunkX + xMin - 1, playerChunkZ + zMin - 1));
-        chunkList.remove(new Vector2f(playerChunkX + xMax + 1, playerChunkZ + zMin - 1));
-        chunkList.remove(new Vector2f(playerChunkX + xMin - 1, playerChunkZ + zMax + 1));
-        for (int x = 0; x < cam.viewDistance + 1; x++) {
-
-            chunkList.remove(new Vector2f(playerChunkX + x, playerChunkZ + zMax + 1));
-            chunkList.remove(new Vector2f(playerChunkX - x, playerChunkZ + zMax + 1));
-            chunkList.remove(new Vector2f(playerChunkX + x, playerChunkZ + zMin - 1));
-            chunkList.remove(new Vector2f(playerChunkX - x, playerChunkZ + zMin - 1));
+    private void unLoadChunks(int playerChunkX, int playerChunkZ, int viewDistance) {
+        int before = chunkList.size();
+        chunkList.removeIf((x, z, c) -> Math.abs(x - playerChunkX) > viewDistance || Math.abs(z - playerChunkZ) > viewDistance,
+                this::forget);
+        if (chunkList.size() != before) {
+            markChanged();
         }
+    }
 
-        for (int z = 0; z < cam.viewDistance + 1; z++) {
-            chunkList.remove(new Vector2f(playerChunkX + xMax + 1, playerChunkZ + z));
-            chunkList.remove(new Vector2f(playerChunkX + xMax + 1, playerChunkZ - z));
-            chunkList.remove(new Vector2f(playerChunkX + xMin - 1, playerChunkZ + z));
-            chunkList.remove(new Vector2f(playerChunkX + xMin - 1, playerChunkZ - z));
+    // Lets the region of an unloaded chunk forget it once its edits are saved, the chunks added by the editor have no region.
+    private void forget(Chunk chunk) {
+        ChunksFile file = chunksFileList.get(regionKey(chunk.getX(), chunk.getZ()));
+        if (file != null) {
+            file.unload(chunk);
         }
     }
 
-    private void loadChunks(int playerChunkX, int playerChunkZ, int x, int z) {
-        int chunkFileIndexX;
-        int chunkFileIndexZ;
-
-        int chunkFileIndexXPositive = (playerChunkX + x) / 3;
-
-        int chunkFileIndexZPositive = (playerChunkZ + z) / 3;
-
-//        if (!(chunkList.containsKey(new Vector2f(playerChunkX, playerChunkZ)))) {
-//            chunkFileIndexX = playerChunkX / 3;
-//            chunkFileIndexZ = playerChunkZ / 3;
-//            Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX, playerChunkZ);
-//            chunkList.put(new Vector2f(playerChunkX, playerChunkZ), chunk); // Create new chunk
-//        }
-
-        if (!(chunkList.containsKey(new Vector2f(playerChunkX + x, playerChunkZ)))) {
-            chunkFileIndexX = chunkFileIndexXPositive;
-            chunkFileIndexZ = playerChunkZ / 3;
-            Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX + x, playerChunkZ);
-            chunkList.put(new Vector2f(playerChunkX + x, playerChunkZ), chunk); // Create new chunk
-            entitiesChunk.put(chunk, chunk.getEntities());
+    void loadChunk(int x, int z) {
+        int regionX = java.lang.Math.floorDiv(x, RegionFile.REGION_SIZE);
+        int regionZ = java.lang.Math.floorDiv(z, RegionFile.REGION_SIZE);
+        ChunksFile file = chunksFileList.computeIfAbsent(ChunkMap.key(regionX, regionZ), k -> {
+            ChunksFile cf = new ChunksFile(regionX, regionZ);
+            cf.load();
+            return cf;
+        });
+        Chunk chunk = file.load(x, z);
+        synchronized (chunkList) {
+            if (!streamer.isInWindow(x, z)) {
+                file.unload(chunk);
+                return;
+            }
+            chunkList.put(x, z, chunk); // Create new chunk
         }
+        markChanged();
+    }
 
-        if (!(chunkList.containsKey(new Vector2f(playerChunkX, playerChunkZ + z)))) {
-            chunkFileIndexX = playerChunkX / 3;
-            chunkFileIndexZ = chunkFileIndexZPositive;
-            Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX, playerChunkZ + z);
-            chunkList.put(new Vector2f(playerChunkX, playerChunkZ + z), chunk); // Create new chunk
-            entitiesChunk.put(chunk, chunk.getEntities());
-        }
+    // the regions are the 3x3 blocks of chunks, also for the negative coordinates
+    private static long regionKey(int x, int z) {
+        return ChunkMap.key(java.lang.Math.floorDiv(x, RegionFile.REGION_SIZE), java.lang.Math.floorDiv(z, RegionFile.REGION_SIZE));
+    }
 
-        if (!(chunkList.containsKey(new Vector2f(playerChunkX + x, playerChunkZ + z)))) {
-            chunkFileIndexX = chunkFileIndexXPositive;
-            chunkFileIndexZ = chunkFileIndexZPositive;
-            Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ))
-                    .load(playerChunkX + x, playerChunkZ + z);
-            chunkList.put(new Vector2f(playerChunkX + x, playerChunkZ + z), chunk); // Create new chunk
-            entitiesChunk.put(chunk, chunk.getEntities());
-        }
-        if ((playerChunkZ - z) > 0) {
-            if (!(chunkList.containsKey(new Vector2f(playerChunkX + x, playerChunkZ - z)))) {
-                chunkFileIndexX = chunkFileIndexXPositive;
-                chunkFileIndexZ = (playerChunkZ - z) / 3;
-                Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX + x, playerChunkZ - z);
-                chunkList.put(new Vector2f(playerChunkX + x, playerChunkZ - z), chunk); // Create a new chunk
-                entitiesChunk.put(chunk, chunk.getEntities());
-            }
+    public void addChunk(int x, int z, Chunk chunk) {
+        chunkList.put(x, z, chunk);
+        markChanged();
+    }
 
-            if (!(chunkList.containsKey(new Vector2f(playerChunkX, playerChunkZ - z)))) {
-                chunkFileIndexX = playerChunkX / 3;
-                chunkFileIndexZ = (playerChunkZ - z) / 3;
-                Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX, playerChunkZ - z);
-                chunkList.put(new Vector2f(playerChunkX, playerChunkZ - z), chunk); // Create a new chunk
-                entitiesChunk.put(chunk, chunk.getEntities());
-            }
+    /**
+     * Marks the snapshot as outdated, it is rebuilt at the next {@link #publishChanges()} so a burst of loads or edits
+     * costs a single rebuild.
+     */
+    private void markChanged() {
+        changed.set(true);
+    }
 
-            if ((playerChunkX - x) > 0) {
-                if (!(chunkList.containsKey(new Vector2f(playerChunkX - x, playerChunkZ - z)))) {
-                    chunkFileIndexX = (playerChunkX - x) / 3;
-                    chunkFileIndexZ = (playerChunkZ - z) / 3;
-                    Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX - x, playerChunkZ - z);
-                    chunkList.put(new Vector2f(playerChunkX - x, playerChunkZ - z), chunk); // Create new chunk
-                    entitiesChunk.put(chunk, chunk.getEntities());
-                }
-            }
-        }
-        if ((playerChunkX - x) > 0) {
-            if (!(chunkList.containsKey(new Vector2f(playerChunkX - x, playerChunkZ + z)))) {
-                chunkFileIndexX = (playerChunkX - x) / 3;
-                chunkFileIndexZ = chunkFileIndexZPositive;
-                Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX - x, playerChunkZ + z);
-                chunkList.put(new Vector2f(playerChunkX - x, playerChunkZ + z), chunk); // Create new chunk
-                entitiesChunk.put(chunk, chunk.getEntities());
-            }
-            if (!(chunkList.containsKey(new Vector2f(playerChunkX - x, playerChunkZ)))) {
-                chunkFileIndexX = (playerChunkX - x) / 3;
-                chunkFileIndexZ = playerChunkZ / 3;
-                Chunk chunk = chunksFileList.get(new Vector2f(chunkFileIndexX, chunkFileIndexZ)).load(playerChunkX - x, playerChunkZ);
-                chunkList.put(new Vector2f(playerChunkX - x, playerChunkZ), chunk); // Create new chunk
-                entitiesChunk.put(chunk, chunk.getEntities());
+    /**
+     * Rebuilds the snapshot if the chunks or their entities changed since the last call, called once per frame by the
+     * update loop.
+     *
+     * @return the up to date snapshot
+     */
+    public ChunkSnapshot publishChanges() {
+        if (changed.getAndSet(false)) {
+            synchronized (snapshotLock) {
+                snapshot = ChunkSnapshot.build(snapshot.getVersion() + 1, chunkList, Collections.singletonList(aabbs));
             }
         }
+        return snapshot;
     }
 
-    public Map<Vector2f, Chunk> getChunkMap() {
-        synchronized (chunkList) {
-            return new HashMap<>(Collections.synchronizedMap(chunkList));
-        }
+    /**
+     * @return the snapshot built by the last {@link #publishChanges()}, the changes made since are not visible yet
+     */
+    public ChunkSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public ChunkStreamer getStreamer() {
+        return streamer;
     }
 
+    public void stop() {
+        streamer.shutdown();
+        saver.shutdown();
+    }
+
+    /**
+     * Writes the regions holding a chunk edited since the last save, the other region files are not touched.
+     */
     public void save() {
         for (ChunksFile cf : chunksFileList.values()) {
             cf.export();
         }
     }
 
-    public void addEntity(Chunk c, Entity entityPicked) {
-        entitiesChunk.get(c).add(entityPicked);
-        c.getEntities().add(entityPicked);
+    /**
+     * Same as {@link #save()} on a background thread, the edition can go on while the regions are written.
+     */
+    public CompletableFuture<Void> saveAsync() {
+        return CompletableFuture.runAsync(this::save, saver);
     }
 
-    private Chunk badChunk = new Chunk(-50000, -50000, new ArrayList<>());
+    /**
+     * Marks the chunk holding this entity as edited, for the changes made directly on the entity transform.
+     */
+    public void markDirty(Entity e) {
+        chunkList.forEach(c -> {
+            synchronized (c.getEntities()) {
+                if (c.getEntities().contains(e)) {
+                    c.markDirty();
+                }
+            }
+        });
+    }
+
+    public void addEntity(Chunk c, Entity entityPicked) {
+        if (c == null) {
+            return;
+        }
+        synchronized (c.getEntities()) {
+            c.addEntity(entityPicked);
+        }
+        markChanged();
+    }
 
     public void addAllEntities(List<Entity> aabbs) {
-        entitiesChunk.put(badChunk, new ArrayList<>(aabbs));
+        this.aabbs = new ArrayList<>(aabbs);
+        markChanged();
     }
 
     public void remove(Entity e) {
-        synchronized (entitiesChunk) {
-            for (Chunk c : entitiesChunk.keySet()) {
-                List<Entity> entities = new ArrayList<>(entitiesChunk.get(c));
-                for (Entity e1 : entities) {
-                    if (e1.equals(e)) {
-                        entitiesChunk.get(c).remove(e);
-                    }
-                }
-            }
+        if (e == null) {
+            return;
         }
-    }
-
-    public List<Entity> getEntities() {
-        synchronized (entitiesChunk) {
-            synchronized (entities) {
-                entities.clear();
-                entitiesChunk.values().forEach(entities::addAll);
-                return Collections.synchronizedList(entities);
+        chunkList.forEach(c -> {
+            synchronized (c.getEntities()) {
+                c.removePart(e);
             }
-        }
+        });
+        markChanged();
     }
 }
@@ -0,0 +1,223 @@
+package fr.ostix.worldCreator.world.chunk;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Open addressing map from chunk coordinates packed in a long to {@link Chunk}.
+ * Lookups, neighbour queries and slot iteration don't allocate. The empty slots are the ones without a chunk, so every
+ * coordinate can be stored and a chunk can't be null.
+ * All the methods lock on the map like a {@link Collections#synchronizedMap(Map)}.
+ */
+public class ChunkMap implements Iterable<Chunk> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Chunk[] values;
+    private int mask;
+    private int size;
+    private long[] removed = new long[16];
+
+    public ChunkMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ChunkMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    public static int keyX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int keyZ(long key) {
+        return (int) key;
+    }
+
+    public synchronized Chunk get(int x, int z) {
+        int slot = find(key(x, z));
+        return slot < 0 ? null : values[slot];
+    }
+
+    public synchronized boolean containsKey(int x, int z) {
+        return find(key(x, z)) >= 0;
+    }
+
+    public synchronized Chunk put(int x, int z, Chunk chunk) {
+        Objects.requireNonNull(chunk, "chunk");
+        long key = key(x, z);
+        int slot = slotOf(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                Chunk old = values[slot];
+                values[slot] = chunk;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = chunk;
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            rehash((mask + 1) << 1);
+        }
+        return null;
+    }
+
+    public synchronized Chunk remove(int x, int z) {
+        int slot = find(key(x, z));
+        if (slot < 0) {
+            return null;
+        }
+        Chunk old = values[slot];
+        removeSlot(slot);
+        return old;
+    }
+
+    /**
+     * Removes every chunk matching the filter, the removed chunks are given to {@code onRemove}.
+     */
+    public synchronized void removeIf(ChunkFilter filter, Consumer<Chunk> onRemove) {
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null && filter.test(keyX(keys[i]), keyZ(keys[i]), values[i])) {
+                if (count == removed.length) {
+                    removed = Arrays.copyOf(removed, count << 1);
+                }
+                removed[count++] = keys[i];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int slot = find(removed[i]);
+            Chunk c = values[slot];
+            removeSlot(slot);
+            if (onRemove != null) {
+                onRemove.accept(c);
+            }
+        }
+    }
+
+    /**
+     * Fills {@code out} with the left, right, up and bottom neighbours of the chunk, null when not loaded.
+     */
+    public synchronized Chunk[] getNeighbours(int x, int z, Chunk[] out) {
+        out[0] = get(x - 1, z);
+        out[1] = get(x + 1, z);
+        out[2] = get(x, z + 1);
+        out[3] = get(x, z - 1);
+        return out;
+    }
+
+    public synchronized void putAll(ChunkMap other) {
+        if (other == this) {
+            return;
+        }
+        synchronized (other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.values[i] != null) {
+                    put(keyX(other.keys[i]), keyZ(other.keys[i]), other.values[i]);
+                }
+            }
+        }
+    }
+
+    public synchronized void forEach(Consumer<? super Chunk> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                action.accept(values[i]);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copy of the chunks, safe to iterate while other threads modify the map.
+     */
+    public synchronized List<Chunk> values() {
+        List<Chunk> list = new ArrayList<>(size);
+        forEach(list::add);
+        return list;
+    }
+
+    @Override
+    public Iterator<Chunk> iterator() {
+        return values().iterator();
+    }
+
+    private int find(long key) {
+        int slot = slotOf(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeSlot(int slot) {
+        // backward shift deletion, keeps the probe chains without tombstones
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int ideal = slotOf(keys[next]);
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+        size--;
+    }
+
+    private int slotOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Chunk[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Chunk[capacity];
+        mask = capacity - 1;
+    }
+
+    public interface ChunkFilter {
+        boolean test(int x, int z, Chunk chunk);
+    }
+}
@@ -0,0 +1,207 @@
+package fr.ostix.worldCreator.world.chunk;
+
+import java.util.*;
+
+/**
+ * Runnable brute force check of {@link ChunkMap} against a {@link HashMap}, exits with 1 if a check fails.
+ * <ul>
+ * <li>random puts, removes and lookups on a small area so the probe chains collide, shift back and grow</li>
+ * <li>long runs of put and remove on the same keys, the deletions must keep the chains of the keys left reachable</li>
+ * <li>removeIf, putAll, clear, the neighbours and the iteration give the same chunks as the reference map</li>
+ * <li>the packed keys give back their coordinates, the extreme and negative ones included</li>
+ * </ul>
+ * Arguments: number of random operations (default 2000000) and seed (default 7).
+ */
+public class ChunkMapCheck {
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+        Random random = new Random(seed);
+
+        checkKeys(random);
+        checkRandomOperations(random, operations);
+        checkChurn(random);
+        checkBulkOperations(random);
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkKeys(Random random) {
+        int[] extremes = {0, 1, -1, 2, -2, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1};
+        boolean roundTrip = true;
+        Set<Long> keys = new HashSet<>();
+        for (int x : extremes) {
+            for (int z : extremes) {
+                long key = ChunkMap.key(x, z);
+                roundTrip &= ChunkMap.keyX(key) == x && ChunkMap.keyZ(key) == z;
+                keys.add(key);
+            }
+        }
+        for (int i = 0; i < 100_000; i++) {
+            int x = random.nextInt();
+            int z = random.nextInt();
+            long key = ChunkMap.key(x, z);
+            roundTrip &= ChunkMap.keyX(key) == x && ChunkMap.keyZ(key) == z;
+        }
+        check("packed keys give back their coordinates", roundTrip);
+        check("packed keys of the extreme coordinates are unique", keys.size() == extremes.length * extremes.length);
+        // the swapped coordinates are other chunks
+        check("swapped coordinates give other keys", ChunkMap.key(1, -1) != ChunkMap.key(-1, 1) && ChunkMap.key(0, 5) != ChunkMap.key(5, 0));
+
+        ChunkMap map = new ChunkMap();
+        HashMap<Long, Chunk> expected = new HashMap<>();
+        for (int x : extremes) {
+            for (int z : extremes) {
+                Chunk c = new Chunk(x, z, new ArrayList<>());
+                map.put(x, z, c);
+                expected.put(ChunkMap.key(x, z), c);
+            }
+        }
+        check("extreme coordinates stored", same(map, expected));
+    }
+
+    private static void checkRandomOperations(Random random, int operations) {
+        ChunkMap map = new ChunkMap(4);
+        HashMap<Long, Chunk> expected = new HashMap<>();
+        boolean results = true;
+        boolean contents = true;
+        int maxSize = 0;
+        for (int i = 0; i < operations; i++) {
+            // a window of 40x40 chunks around the origin, the map goes from empty to full and back
+            int x = random.nextInt(40) - 20;
+            int z = random.nextInt(40) - 20;
+            long key = ChunkMap.key(x, z);
+            int operation = random.nextInt(10);
+            // the puts win at the start and the removes later, so the map grows then shrinks
+            boolean growing = (i / 100_000) % 2 == 0;
+            if (operation < (growing ? 5 : 2)) {
+                Chunk c = new Chunk(x, z, new ArrayList<>());
+                results &= map.put(x, z, c) == expected.put(key, c);
+            } else if (operation < 7) {
+                results &= map.remove(x, z) == expected.remove(key);
+            } else if (operation < 9) {
+                results &= map.get(x, z) == expected.get(key);
+            } else {
+                results &= map.containsKey(x, z) == expected.containsKey(key);
+            }
+            results &= map.size() == expected.size();
+            maxSize = Math.max(maxSize, map.size());
+            if (i % 10_000 == 0) {
+                contents &= same(map, expected);
+            }
+        }
+        check("random puts, removes and lookups return the reference values", results);
+        check("random operations keep the reference content (up to " + maxSize + " chunks)", contents && same(map, expected));
+    }
+
+    private static void checkChurn(Random random) {
+        // the same few slots are filled and emptied again and again while the rest of the map stays put
+        ChunkMap map = new ChunkMap();
+        HashMap<Long, Chunk> expected = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            Chunk c = new Chunk(i * 7, -i, new ArrayList<>());
+            map.put(i * 7, -i, c);
+            expected.put(ChunkMap.key(i * 7, -i), c);
+        }
+        boolean reachable = true;
+        for (int round = 0; round < 200_000; round++) {
+            int x = 1000 + random.nextInt(8);
+            int z = random.nextInt(8);
+            long key = ChunkMap.key(x, z);
+            if (expected.containsKey(key)) {
+                reachable &= map.remove(x, z) == expected.remove(key);
+            } else {
+                Chunk c = new Chunk(x, z, new ArrayList<>());
+                map.put(x, z, c);
+                expected.put(key, c);
+            }
+            if (round % 1000 == 0) {
+                for (Map.Entry<Long, Chunk> e : expected.entrySet()) {
+                    reachable &= map.get(ChunkMap.keyX(e.getKey()), ChunkMap.keyZ(e.getKey())) == e.getValue();
+                }
+            }
+        }
+        check("keys stay reachable through put and remove churn", reachable && same(map, expected));
+    }
+
+    private static void checkBulkOperations(Random random) {
+        ChunkMap map = new ChunkMap();
+        HashMap<Long, Chunk> expected = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            int x = random.nextInt(100) - 50;
+            int z = random.nextInt(100) - 50;
+            Chunk c = new Chunk(x, z, new ArrayList<>());
+            map.put(x, z, c);
+            expected.put(ChunkMap.key(x, z), c);
+        }
+        List<Chunk> removed = new ArrayList<>();
+        map.removeIf((x, z, c) -> Math.abs(x) > 20 || Math.abs(z) > 20, removed::add);
+        Set<Chunk> expectedRemoved = Collections.newSetFromMap(new IdentityHashMap<>());
+        expected.values().removeIf(c -> {
+            if (Math.abs(c.getX()) > 20 || Math.abs(c.getZ()) > 20) {
+                expectedRemoved.add(c);
+                return true;
+            }
+            return false;
+        });
+        check("removeIf removes the chunks out of the window", same(map, expected));
+        check("removeIf gives each removed chunk once", removed.size() == expectedRemoved.size() && expectedRemoved.containsAll(removed));
+
+        boolean neighbours = true;
+        Chunk[] out = new Chunk[4];
+        for (int x = -22; x <= 22; x++) {
+            for (int z = -22; z <= 22; z++) {
+                map.getNeighbours(x, z, out);
+                neighbours &= out[0] == expected.get(ChunkMap.key(x - 1, z)) && out[1] == expected.get(ChunkMap.key(x + 1, z))
+                        && out[2] == expected.get(ChunkMap.key(x, z + 1)) && out[3] == expected.get(ChunkMap.key(x, z - 1));
+            }
+        }
+        check("neighbours match the reference map", neighbours);
+
+        ChunkMap copy = new ChunkMap();
+        copy.putAll(map);
+        copy.putAll(copy);
+        check("putAll copies every chunk", same(copy, expected));
+        copy.clear();
+        check("clear empties the map", copy.isEmpty() && copy.values().isEmpty() && copy.get(0, 0) == null);
+        Chunk c = new Chunk(3, 4, new ArrayList<>());
+        copy.put(3, 4, c);
+        check("cleared map is usable again", copy.size() == 1 && copy.get(3, 4) == c);
+    }
+
+    // compares the content through the lookups, the iteration and forEach
+    private static boolean same(ChunkMap map, HashMap<Long, Chunk> expected) {
+        if (map.size() != expected.size() || map.isEmpty() != expected.isEmpty()) {
+            return false;
+        }
+        for (Map.Entry<Long, Chunk> e : expected.entrySet()) {
+            int x = ChunkMap.keyX(e.getKey());
+            int z = ChunkMap.keyZ(e.getKey());
+            if (map.get(x, z) != e.getValue() || !map.containsKey(x, z)) {
+                return false;
+            }
+        }
+        Set<Chunk> iterated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Chunk c : map) {
+            iterated.add(c);
+        }
+        List<Chunk> visited = new ArrayList<>();
+        map.forEach(visited::add);
+        Set<Chunk> values = Collections.newSetFromMap(new IdentityHashMap<>());
+        values.addAll(expected.values());
+        return iterated.equals(values) && visited.size() == expected.size() && values.containsAll(visited);
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package fr.ostix.worldCreator.world.chunk;
+
+import fr.ostix.worldCreator.entity.*;
+import fr.ostix.worldCreator.terrain.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Immutable view of the loaded chunks and their entities published by the {@link ChunkHandler}.
+ * It is only rebuilt when a chunk is loaded, unloaded or edited so readers can keep it for a whole frame
+ * without locking. The version grows with every rebuild.
+ */
+public class ChunkSnapshot {
+
+    public static final ChunkSnapshot EMPTY = new ChunkSnapshot(0, new long[0], new Chunk[0], Collections.emptyList());
+
+    private final long version;
+    private final long[] keys;
+    private final Chunk[] chunks;
+    private final List<Entity> entities;
+
+    private ChunkSnapshot(long version, long[] keys, Chunk[] chunks, List<Entity> entities) {
+        this.version = version;
+        this.keys = keys;
+        this.chunks = chunks;
+        this.entities = entities;
+    }
+
+    static ChunkSnapshot build(long version, ChunkMap chunkMap, Collection<List<Entity>> extraEntities) {
+        List<Chunk> loaded = chunkMap.values();
+        int count = loaded.size();
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            Chunk c = loaded.get(i);
+            keys[i] = ChunkMap.key(c.getX(), c.getZ());
+        }
+        Arrays.sort(keys);
+        Chunk[] chunks = new Chunk[count];
+        List<Entity> entities = new ArrayList<>();
+        for (Chunk c : loaded) {
+            chunks[Arrays.binarySearch(keys, ChunkMap.key(c.getX(), c.getZ()))] = c;
+            synchronized (c.getEntities()) {
+                entities.addAll(c.getEntities());
+            }
+        }
+        for (List<Entity> extra : extraEntities) {
+            entities.addAll(extra);
+        }
+        return new ChunkSnapshot(version, keys, chunks, Collections.unmodifiableList(entities));
+    }
+
+    public Chunk get(int x, int z) {
+        int index = Arrays.binarySearch(keys, ChunkMap.key(x, z));
+        return index < 0 ? null : chunks[index];
+    }
+
+    public Terrain getTerrain(int x, int z) {
+        Chunk c = get(x, z);
+        return c == null ? null : c.getTerrain();
+    }
+
+    public void forEach(Consumer<Chunk> action) {
+        for (Chunk c : chunks) {
+            action.accept(c);
+        }
+    }
+
+    public int size() {
+        return chunks.length;
+    }
+
+    public boolean isEmpty() {
+        return chunks.length == 0;
+    }
+
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
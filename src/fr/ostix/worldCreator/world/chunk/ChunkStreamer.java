@@ -0,0 +1,145 @@
+package fr.ostix.worldCreator.world.chunk;
+
+import fr.ostix.worldCreator.toolBox.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Long lived worker pool loading the chunks requested by the {@link ChunkHandler}.
+ * Jobs are run closest to the camera first, a chunk is never queued twice and the
+ * jobs which left the view window are dropped when the camera moves.
+ */
+public class ChunkStreamer {
+
+    private final ChunkHandler handler;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong loadedCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    private volatile long lastLoadTime;
+
+    private volatile int centerX;
+    private volatile int centerZ;
+    private volatile int radius = -1;
+
+    public ChunkStreamer(ChunkHandler handler, int workers) {
+        this.handler = handler;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "ChunkStreamer-" + threadIndex.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Moves the view window, the pending jobs are re-sorted from the new center and
+     * the ones outside the window are cancelled.
+     */
+    public void recenter(int x, int z, int radius) {
+        this.centerX = x;
+        this.centerZ = z;
+        this.radius = radius;
+        List<Runnable> pending = new ArrayList<>();
+        executor.getQueue().drainTo(pending);
+        for (Runnable r : pending) {
+            LoadJob job = (LoadJob) r;
+            if (isInWindow(job.x, job.z)) {
+                executor.execute(new LoadJob(job.x, job.z, job.requestTime));
+            } else {
+                inFlight.remove(ChunkMap.key(job.x, job.z));
+            }
+        }
+    }
+
+    /**
+     * @return false if the chunk is already queued or being loaded
+     */
+    public boolean requestLoad(int x, int z) {
+        if (!inFlight.add(ChunkMap.key(x, z))) {
+            return false;
+        }
+        executor.execute(new LoadJob(x, z, System.nanoTime()));
+        return true;
+    }
+
+    public boolean isInWindow(int x, int z) {
+        return radius >= 0 && Math.abs(x - centerX) <= radius && Math.abs(z - centerZ) <= radius;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        inFlight.clear();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getLoadedCount() {
+        return loadedCount.get();
+    }
+
+    /**
+     * @return the time between the request and the end of the last chunk load in milliseconds
+     */
+    public float getLastLoadTime() {
+        return lastLoadTime / 1_000_000f;
+    }
+
+    public float getAverageLoadTime() {
+        long count = loadedCount.get();
+        return count == 0 ? 0 : totalLoadTime.get() / (float) count / 1_000_000f;
+    }
+
+    private class LoadJob implements Runnable, Comparable<LoadJob> {
+        private final int x;
+        private final int z;
+        private final long requestTime;
+        private final int distance;
+        private final long order;
+
+        private LoadJob(int x, int z, long requestTime) {
+            this.x = x;
+            this.z = z;
+            this.requestTime = requestTime;
+            int dx = x - centerX;
+            int dz = z - centerZ;
+            this.distance = dx * dx + dz * dz;
+            this.order = sequence.getAndIncrement();
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!isInWindow(x, z)) {
+                    return;
+                }
+                handler.loadChunk(x, z);
+                long time = System.nanoTime() - requestTime;
+                lastLoadTime = time;
+                totalLoadTime.addAndGet(time);
+                loadedCount.incrementAndGet();
+            } catch (RuntimeException e) {
+                Logger.err("Couldn't load chunk " + x + ";" + z, e);
+            } finally {
+                inFlight.remove(ChunkMap.key(x, z));
+            }
+        }
+
+        @Override
+        public int compareTo(LoadJob o) {
+            int c = Integer.compare(distance, o.distance);
+            return c != 0 ? c : Long.compare(order, o.order);
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package fr.ostix.worldCreator.world.chunk;
 
+import fr.ostix.worldCreator.core.exporter.*;
 import fr.ostix.worldCreator.terrain.*;
 import fr.ostix.worldCreator.toolBox.*;
 
 import java.io.*;
-import java.nio.*;
-import java.nio.channels.*;
 import java.util.*;
 
 public class ChunksFile {
     private List<Chunk> chunks;
+    // unloaded by the handler with edits not saved yet, forgotten by the next export
+    private final List<Chunk> unloaded = new ArrayList<>();
     private int x,z;
-    private String content;
+    private RegionFile region;
+    private boolean hasContent;
+    private ExportBuffer buffer;
 
     public ChunksFile(int x, int z) {
         this.x = x;
@@ -19,61 +22,86 @@ public class ChunksFile {
         chunks = new ArrayList<>();
     }
 
-    public void export(){
-        try (FileOutputStream fos = openWritableFile();
-        FileChannel fc = fos.getChannel()) {
-            fc.position(0);
-            for(Chunk c : chunks){
-                if(!c.isEmpty()){
-                    c.export(fc);
-                }
+    /**
+     * Rewrites the region only if one of its chunks changed since the last save, then forgets the unloaded chunks saved.
+     */
+    public synchronized void export(){
+        if (isDirty()) {
+            if (buffer == null) {
+                buffer = new ExportBuffer(64 * 1024);
+            }
+            try {
+                getRegion().write(chunks, buffer);
+                hasContent = true;
+            }catch(IOException e){
+                Logger.err("Couldn't save region " + getRegion().getFile(), e);
+            }
+        }
+        for (Iterator<Chunk> it = unloaded.iterator(); it.hasNext(); ) {
+            Chunk c = it.next();
+            if (!c.isDirty()) {
+                it.remove();
+                remove(c);
+            }
+        }
+    }
+
+    /**
+     * Forgets a chunk unloaded by the handler, at once if it has no edit to save or else once saved by {@link #export()}.
+     * The region file keeps its saved content, it is read again if the chunk is loaded back.
+     */
+    public synchronized void unload(Chunk chunk) {
+        if (!chunk.isDirty()) {
+            unloaded.remove(chunk);
+            remove(chunk);
+        } else if (!unloaded.contains(chunk)) {
+            unloaded.add(chunk);
+        }
+    }
+
+    private void remove(Chunk chunk) {
+        chunks.removeIf(c -> c == chunk);
+    }
+
+    public synchronized boolean isDirty() {
+        for (Chunk c : chunks) {
+            if (c.isDirty()) {
+                return true;
             }
-            ByteBuffer buffer = ByteBuffer.allocate(1);
-            buffer.put((byte) 'c');
-            buffer.flip();
-            //fc.write(buffer);
-        }catch(IOException e){
-            e.printStackTrace();
         }
+        return false;
     }
 
     public void load(){
-        String content = "";
-        try (FileChannel fc = openReadableFile()) {
-            if (fc == null) {
-                this.content = "";
+        hasContent = false;
+        RegionFile region = getRegion();
+        if (!region.exists()) {
+            File legacy = getLegacyFile();
+            if (!legacy.exists() || !RegionConverter.convert(legacy, region.getFile())) {
                 return;
             }
-            ByteBuffer buffer = ByteBuffer.allocate(6);
-            int noOfBytesRead = fc.read(buffer);
-            StringBuilder sb = new StringBuilder();
-            while (noOfBytesRead != -1) {
-                buffer.flip();
-                while (buffer.hasRemaining()) {
-                    sb.append((char)buffer.get());
-                }
-                buffer.clear();
-                noOfBytesRead = fc.read(buffer);
-            }
-            content = sb.toString();
+        }
+        try {
+            region.readHeader();
+            hasContent = true;
         } catch (IOException e) {
-            e.printStackTrace();
+            Logger.err("Couldn't read region " + region.getFile(), e);
         }
-        this.content = content;
     }
 
-    public Chunk load(int x,int z){
-        String[] chunksContent = this.content.split("\n");
-        for (int i = 0; i < chunksContent.length; i++){
-            StringBuilder sb = new StringBuilder();
-            if (chunksContent[i].contains("CHUNK " + x + ";" + z)){
-                i++;
-                while (!chunksContent[i].contains("CHUNK")){
-                    sb.append(chunksContent[i]).append("\n");
-                    i++;
-                    if(i>=chunksContent.length)break;
-                }
-                return this.addPart(Chunk.load(sb.toString(),x,z));
+    public synchronized Chunk load(int x,int z){
+        for (Chunk c : chunks) {
+            if (c.getX() == x && c.getZ() == z) {
+                // already read once, keep the edited instance instead of reading the file again
+                unloaded.remove(c);
+                return c;
+            }
+        }
+        if (hasContent && region.contains(x, z)) {
+            try {
+                return this.addPart(Chunk.load(region.read(x, z), x, z));
+            } catch (IOException e) {
+                Logger.err("Couldn't read chunk " + x + ";" + z + " in " + region.getFile(), e);
             }
         }
         //System.err.println("Chunk not found in file " + content);
@@ -81,27 +109,26 @@ public class ChunksFile {
                 setTerrain(new Terrain(x,z,Config.TERRAIN_DEFAULT_PACK,Config.BLEND_MAP,"default")));
     }
 
-    public Chunk addPart(Chunk chunk) {
+    public synchronized Chunk addPart(Chunk chunk) {
         this.chunks.add(chunk);
         return chunk;
     }
 
+    /**
+     * @return the number of chunks kept in memory, the loaded ones and the unloaded ones waiting for their edits to be saved
+     */
+    public synchronized int getChunkCount() {
+        return chunks.size();
+    }
 
-    private FileOutputStream openWritableFile() throws IOException {
-        File f = new File(Config.REPOSITORY_FOLDER + "/world/X" + x + "Z" + z + ".chks");
-        if (!f.exists()) {
-            f.getParentFile().mkdirs();
-            f.createNewFile();
+    private RegionFile getRegion() {
+        if (region == null) {
+            region = new RegionFile(new File(Config.REPOSITORY_FOLDER + "/world/X" + x + "Z" + z + RegionFile.EXTENSION));
         }
-        return new FileOutputStream(f);
+        return region;
     }
 
-    private FileChannel openReadableFile() throws IOException {
-        File f = new File(Config.REPOSITORY_FOLDER + "/world/X" + x + "Z" + z + ".chks");
-        if (!f.exists()) {
-            return null;
-        }
-        FileInputStream fos = new FileInputStream(f);
-        return fos.getChannel();
+    private File getLegacyFile() {
+        return new File(Config.REPOSITORY_FOLDER + "/world/X" + x + "Z" + z + RegionConverter.LEGACY_EXTENSION);
     }
 }
@@ -0,0 +1,65 @@
+package fr.ostix.worldCreator.world.chunk;
+
+import fr.ostix.worldCreator.toolBox.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+/**
+ * One shot converter from the old text {@code .chks} files to the binary {@link RegionFile}.
+ */
+public class RegionConverter {
+
+    public static final String LEGACY_EXTENSION = ".chks";
+
+    public static void convertWorld(File worldFolder) {
+        File[] files = worldFolder.listFiles((dir, name) -> name.endsWith(LEGACY_EXTENSION));
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            String name = f.getName();
+            File region = new File(worldFolder, name.substring(0, name.length() - LEGACY_EXTENSION.length())
+                    + RegionFile.EXTENSION);
+            if (!region.exists()) {
+                convert(f, region);
+            }
+        }
+    }
+
+    public static boolean convert(File chksFile, File regionFile) {
+        try {
+            String content = new String(Files.readAllBytes(chksFile.toPath()), StandardCharsets.UTF_8);
+            RegionFile region = new RegionFile(regionFile);
+            region.write(split(content, region));
+            Logger.warn("Converted " + chksFile.getName() + " to " + regionFile.getName());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Logger.err("Couldn't convert " + chksFile, e);
+            return false;
+        }
+    }
+
+    private static byte[][] split(String content, RegionFile region) {
+        byte[][] payloads = new byte[RegionFile.REGION_SIZE * RegionFile.REGION_SIZE][];
+        String[] lines = content.split("\n");
+        int i = 0;
+        while (i < lines.length) {
+            if (!lines[i].startsWith("CHUNK ")) {
+                i++;
+                continue;
+            }
+            String[] coords = lines[i++].substring("CHUNK ".length()).trim().split(";");
+            int x = Integer.parseInt(coords[0]);
+            int z = Integer.parseInt(coords[1]);
+            StringBuilder sb = new StringBuilder();
+            while (i < lines.length && !lines[i].startsWith("CHUNK ")) {
+                sb.append(lines[i++]).append("\n");
+            }
+            region.setSlot(x, z);
+            payloads[RegionFile.slot(x, z)] = sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return payloads;
+    }
+}
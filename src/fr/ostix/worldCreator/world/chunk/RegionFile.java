@@ -0,0 +1,231 @@
+package fr.ostix.worldCreator.world.chunk;
+
+import fr.ostix.worldCreator.core.exporter.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+/**
+ * Binary region file holding the 3x3 chunks of a {@link ChunksFile}.
+ * The header is an offset table so a chunk is read with one positioned read.
+ *
+ * <pre>
+ * int magic, int version
+ * 9 x (int chunkX, int chunkZ, long offset, int length)   length == 0 : empty slot
+ * chunk payloads (same content as Chunk.export without the "CHUNK x;z" line)
+ * </pre>
+ */
+public class RegionFile {
+
+    public static final String EXTENSION = ".wrg";
+    public static final int REGION_SIZE = 3;
+
+    private static final int MAGIC = 0x57524731; // "WRG1"
+    private static final int VERSION = 1;
+    private static final int SLOT_COUNT = REGION_SIZE * REGION_SIZE;
+    private static final int ENTRY_SIZE = Integer.BYTES * 2 + Long.BYTES + Integer.BYTES;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + SLOT_COUNT * ENTRY_SIZE;
+
+    private final File file;
+    private final int[] chunkX = new int[SLOT_COUNT];
+    private final int[] chunkZ = new int[SLOT_COUNT];
+    private final long[] offsets = new long[SLOT_COUNT];
+    private final int[] lengths = new int[SLOT_COUNT];
+
+    public RegionFile(File file) {
+        this.file = file;
+    }
+
+    public static int slot(int x, int z) {
+        return Math.floorMod(x, REGION_SIZE) * REGION_SIZE + Math.floorMod(z, REGION_SIZE);
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public void readHeader() throws IOException {
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (fc.read(header) == -1) {
+                    throw new IOException("Truncated region header in " + file);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a region file : " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported region version " + version + " in " + file);
+            }
+            for (int i = 0; i < SLOT_COUNT; i++) {
+                chunkX[i] = header.getInt();
+                chunkZ[i] = header.getInt();
+                offsets[i] = header.getLong();
+                lengths[i] = header.getInt();
+            }
+        }
+    }
+
+    public boolean contains(int x, int z) {
+        int slot = slot(x, z);
+        return lengths[slot] > 0 && chunkX[slot] == x && chunkZ[slot] == z;
+    }
+
+    /**
+     * @return the chunk content as read by {@link Chunk#load(String, int, int)} or null if the slot is empty
+     */
+    public String read(int x, int z) throws IOException {
+        if (!contains(x, z)) {
+            return null;
+        }
+        int slot = slot(x, z);
+        ByteBuffer buffer = ByteBuffer.allocate(lengths[slot]);
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long position = offsets[slot];
+            while (buffer.hasRemaining()) {
+                int read = fc.read(buffer, position);
+                if (read == -1) {
+                    throw new IOException("Truncated chunk " + x + ";" + z + " in " + file);
+                }
+                position += read;
+            }
+        }
+        buffer.flip();
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    /**
+     * Writes the region in a temporary file renamed over the region once complete.
+     * Only the dirty chunks are exported again, the other slots are copied from the current file.
+     *
+     * @param out buffer reused between the saves of this region
+     */
+    public void write(Iterable<Chunk> chunks, ExportBuffer out) throws IOException {
+        Chunk[] bySlot = new Chunk[SLOT_COUNT];
+        for (Chunk c : chunks) {
+            int slot = slot(c.getX(), c.getZ());
+            // the first chunk of a slot wins, like the old linear lookup in the .chks files
+            if (bySlot[slot] == null) {
+                bySlot[slot] = c;
+            }
+        }
+        int[] newX = chunkX.clone();
+        int[] newZ = chunkZ.clone();
+        long[] newOffsets = new long[SLOT_COUNT];
+        int[] newLengths = new int[SLOT_COUNT];
+        long[] editCounts = new long[SLOT_COUNT];
+
+        out.clear();
+        out.ensureRemaining(HEADER_SIZE);
+        out.getBuffer().position(HEADER_SIZE);
+        try (FileChannel old = exists() ? FileChannel.open(file.toPath(), StandardOpenOption.READ) : null) {
+            for (int i = 0; i < SLOT_COUNT; i++) {
+                Chunk c = bySlot[i];
+                int start = out.getBuffer().position();
+                if (c != null) {
+                    newX[i] = c.getX();
+                    newZ[i] = c.getZ();
+                    editCounts[i] = c.getEditCount();
+                }
+                if (c != null && (c.isDirty() || !contains(c.getX(), c.getZ()))) {
+                    synchronized (c.getEntities()) {
+                        if (!c.isEmpty()) {
+                            c.exportContent(out);
+                        }
+                    }
+                } else if (old != null && lengths[i] > 0) {
+                    copy(old, offsets[i], lengths[i], out);
+                }
+                newLengths[i] = out.getBuffer().position() - start;
+                newOffsets[i] = newLengths[i] == 0 ? 0 : start;
+            }
+        }
+        replace(out, newX, newZ, newOffsets, newLengths);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (bySlot[i] != null) {
+                bySlot[i].markSaved(editCounts[i]);
+            }
+        }
+    }
+
+    void write(byte[][] payloads) throws IOException {
+        ExportBuffer out = new ExportBuffer(HEADER_SIZE);
+        out.getBuffer().position(HEADER_SIZE);
+        long[] newOffsets = new long[SLOT_COUNT];
+        int[] newLengths = new int[SLOT_COUNT];
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (payloads[i] == null || payloads[i].length == 0) {
+                continue;
+            }
+            newOffsets[i] = out.getBuffer().position();
+            newLengths[i] = payloads[i].length;
+            out.write(ByteBuffer.wrap(payloads[i]));
+        }
+        replace(out, chunkX.clone(), chunkZ.clone(), newOffsets, newLengths);
+    }
+
+    private void copy(FileChannel from, long offset, int length, ExportBuffer out) throws IOException {
+        out.ensureRemaining(length);
+        ByteBuffer buffer = out.getBuffer();
+        int limit = buffer.limit();
+        buffer.limit(buffer.position() + length);
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = from.read(buffer, position);
+            if (read == -1) {
+                throw new IOException("Truncated region " + file);
+            }
+            position += read;
+        }
+        buffer.limit(limit);
+    }
+
+    private void replace(ExportBuffer out, int[] newX, int[] newZ, long[] newOffsets, int[] newLengths) throws IOException {
+        ByteBuffer buffer = out.getBuffer();
+        buffer.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION);
+        int index = Integer.BYTES * 2;
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            buffer.putInt(index, newX[i]).putInt(index + 4, newZ[i]).putLong(index + 8, newOffsets[i]).putInt(index + 16, newLengths[i]);
+            index += ENTRY_SIZE;
+        }
+        buffer.flip();
+
+        if (!file.exists()) {
+            file.getParentFile().mkdirs();
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel fc = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                fc.write(buffer);
+            }
+            fc.force(false);
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        System.arraycopy(newX, 0, chunkX, 0, SLOT_COUNT);
+        System.arraycopy(newZ, 0, chunkZ, 0, SLOT_COUNT);
+        System.arraycopy(newOffsets, 0, offsets, 0, SLOT_COUNT);
+        System.arraycopy(newLengths, 0, lengths, 0, SLOT_COUNT);
+    }
+
+    void setSlot(int x, int z) {
+        int slot = slot(x, z);
+        chunkX[slot] = x;
+        chunkZ[slot] = z;
+    }
+}
@@ -0,0 +1,185 @@
+package fr.ostix.worldCreator.world.chunk;
+
+import fr.ostix.worldCreator.core.exporter.*;
+import fr.ostix.worldCreator.toolBox.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Runnable round trip check of the {@link RegionFile} format, exits with 1 if a check fails.
+ * <ul>
+ * <li>a legacy {@code .chks} file made of {@link Chunk#export} outputs is converted and each chunk is read back unchanged</li>
+ * <li>the empty slots stay empty and the emptied chunks empty their slot</li>
+ * <li>a rewrite with a single dirty chunk copies the raw bytes of the clean slots without exporting their chunks</li>
+ * <li>a {@link ChunksFile} forgets its unloaded chunks once they are saved</li>
+ * </ul>
+ * With the repository folder as argument, the converted chunks are also loaded with {@link Chunk#load} and exported
+ * again, the terrain needs its height map and textures in this folder and the LWJGL natives.
+ */
+public class RegionFileCheck {
+
+    private static final String TERRAIN = "grassy2;mud;grassFlowers;path\nblendMap;default\n";
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        File folder = Files.createTempDirectory("regions").toFile();
+        String first = payload(18, 21) + "ENTITIES\ntree;3;1\n1.0;2.0;3.0;0.0;45.0;0.0;1.0\n";
+        String second = payload(19, 22) + "ENTITIES\n";
+
+        File legacy = new File(folder, "X6Z7" + RegionConverter.LEGACY_EXTENSION);
+        ExportBuffer out = new ExportBuffer(1024);
+        exportLegacy(out, 18, 21, first);
+        exportLegacy(out, 19, 22, second);
+        try (FileChannel fc = FileChannel.open(legacy.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            out.getBuffer().flip();
+            fc.write(out.getBuffer());
+        }
+        RegionConverter.convertWorld(folder);
+        File file = new File(folder, "X6Z7" + RegionFile.EXTENSION);
+        check("legacy file converted", file.exists());
+
+        RegionFile region = new RegionFile(file);
+        region.readHeader();
+        check("converted chunk 18;21 read back", first.equals(region.read(18, 21)));
+        check("converted chunk 19;22 read back", second.equals(region.read(19, 22)));
+        check("empty slot 20;23", !region.contains(20, 23) && region.read(20, 23) == null);
+        check("slot of 18;21 not matched by 21;21", !region.contains(21, 21));
+
+        // 18;21 is clean and must be copied, 19;22 is edited, 20;23 is new and 20;21 was emptied
+        String edited = payload(19, 22) + "ENTITIES\nrock;5;2\n4.0;0.0;-2.0;0.0;0.0;0.0;2.0\n";
+        String added = payload(20, 23) + "ENTITIES\n";
+        TestChunk clean = new TestChunk(18, 21, null);
+        TestChunk dirty = new TestChunk(19, 22, edited);
+        TestChunk created = new TestChunk(20, 23, added);
+        TestChunk emptied = new TestChunk(20, 21, "");
+        dirty.markDirty();
+        emptied.markDirty();
+        byte[] before = readSlot(file, 18, 21);
+        region.write(Arrays.asList(clean, dirty, created, emptied), new ExportBuffer(64));
+
+        RegionFile rewritten = new RegionFile(file);
+        rewritten.readHeader();
+        check("clean chunk not exported", clean.exportCount == 0);
+        check("clean slot copied byte for byte", Arrays.equals(before, readSlot(file, 18, 21)));
+        check("clean chunk read back", first.equals(rewritten.read(18, 21)));
+        check("dirty chunk exported once", dirty.exportCount == 1 && edited.equals(rewritten.read(19, 22)));
+        check("new chunk written", added.equals(rewritten.read(20, 23)));
+        check("emptied chunk has an empty slot", rewritten.read(20, 21) == null);
+        check("saved chunks are clean", !dirty.isDirty() && !created.isDirty() && !emptied.isDirty());
+        check("untouched slots still empty", rewritten.read(19, 21) == null && rewritten.read(18, 23) == null);
+
+        checkEviction(folder);
+        if (args.length > 0) {
+            checkChunkRoundTrip(new File(args[0]), rewritten);
+        }
+        for (File f : Objects.requireNonNull(folder.listFiles())) {
+            f.delete();
+        }
+        folder.delete();
+        System.out.println(failures == 0 ? "All checks passed" : failures + " checks failed");
+        if (failures != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkChunkRoundTrip(File repository, RegionFile region) throws IOException {
+        Config.REPOSITORY_FOLDER = repository;
+        for (int[] coords : new int[][]{{19, 22}, {20, 23}}) {
+            String content = region.read(coords[0], coords[1]);
+            // the entities need the resource pack, only the terrain and the entity lines are compared
+            String terrainOnly = content.substring(0, content.indexOf("ENTITIES\n")) + "ENTITIES\n";
+            Chunk chunk = Chunk.load(terrainOnly, coords[0], coords[1]);
+            ExportBuffer out = new ExportBuffer(256);
+            chunk.export(out);
+            out.getBuffer().flip();
+            String exported = StandardCharsets.UTF_8.decode(out.getBuffer()).toString();
+            check("chunk " + coords[0] + ";" + coords[1] + " loaded and exported again",
+                    exported.equals("CHUNK " + coords[0] + ";" + coords[1] + "\n" + terrainOnly));
+        }
+    }
+
+    private static void checkEviction(File folder) throws IOException {
+        File repository = Config.REPOSITORY_FOLDER;
+        Config.REPOSITORY_FOLDER = folder;
+        File world = new File(folder, "world");
+        world.mkdir();
+        // a region with negative coordinates, the clean chunk throws if it is exported
+        ChunksFile file = new ChunksFile(-1, -1);
+        String content = payload(-2, -1) + "ENTITIES\n";
+        TestChunk clean = new TestChunk(-3, -1, null);
+        TestChunk edited = new TestChunk(-2, -1, content);
+        edited.markDirty();
+        file.addPart(clean);
+        file.addPart(edited);
+        file.unload(clean);
+        check("clean chunk forgotten when unloaded", file.getChunkCount() == 1);
+        file.unload(edited);
+        check("edited chunk kept until saved", file.getChunkCount() == 1);
+        file.export();
+        check("edited chunk forgotten once saved", file.getChunkCount() == 0 && edited.exportCount == 1);
+        RegionFile region = new RegionFile(new File(world, "X-1Z-1" + RegionFile.EXTENSION));
+        region.readHeader();
+        check("unloaded chunk saved", content.equals(region.read(-2, -1)) && region.read(-3, -1) == null);
+        for (File f : Objects.requireNonNull(world.listFiles())) {
+            f.delete();
+        }
+        world.delete();
+        Config.REPOSITORY_FOLDER = repository;
+    }
+
+    private static String payload(int x, int z) {
+        return (float) x + ";" + (float) z + "\n" + TERRAIN;
+    }
+
+    // same layout as Chunk.export
+    private static void exportLegacy(ExportBuffer out, int x, int z, String content) {
+        out.writeLine("CHUNK " + x + ";" + z);
+        out.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] readSlot(File file, int x, int z) throws IOException {
+        RegionFile region = new RegionFile(file);
+        region.readHeader();
+        String content = region.read(x, z);
+        return content == null ? null : content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok     " : "FAILED ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    /**
+     * A chunk exporting a fixed content, null for a chunk which must not be exported.
+     */
+    private static class TestChunk extends Chunk {
+        private final String content;
+        private int exportCount;
+
+        private TestChunk(int x, int z, String content) {
+            super(x, z, new ArrayList<>());
+            this.content = content;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return content != null && content.isEmpty();
+        }
+
+        @Override
+        public void exportContent(WritableByteChannel fc) throws IOException {
+            exportCount++;
+            if (content == null) {
+                throw new IllegalStateException("clean chunk " + getX() + ";" + getZ() + " exported");
+            }
+            fc.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}